@@ -0,0 +1,168 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.vfs.impl.fs;
+
+import org.eclipse.che.api.vfs.server.Path;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Index of items which have access control list.
+ * <p/>
+ * ACL of item is stored in file {@code <parent>/.vfs/acl/<name>_acl} and most of items don't have it. Index is a prefix tree of
+ * folders, each node keeps names of children which have ACL file. Directory with ACL files of a folder is read once, when any child
+ * of this folder is checked first time, after that index is kept up to date with {@link #add(Path)}, {@link #remove(Path)} and
+ * {@link #invalidate(Path)}. So check of item without ACL doesn't touch filesystem.
+ * <p/>
+ * Lookups are lock-free, updates of a single folder are serialized.
+ */
+class AccessControlListIndex {
+    private static class Node {
+        final    ConcurrentMap<String, Node> children = new ConcurrentHashMap<>();
+        /** Names of children which have ACL or {@code null} if ACL directory is not read yet. */
+        volatile Set<String>                 aclNames;
+    }
+
+    private final java.io.File ioRoot;
+    private final Node         root;
+
+    AccessControlListIndex(java.io.File ioRoot) {
+        this.ioRoot = ioRoot;
+        this.root = new Node();
+    }
+
+    /**
+     * Tests whether item may have ACL. Root folder always has ACL, it has default ACL if there is no ACL file for it.
+     *
+     * @param path
+     *         path of item
+     */
+    boolean hasAcl(Path path) {
+        if (path.isRoot()) {
+            return true;
+        }
+        final Path parent = path.getParent();
+        return aclNamesOf(nodeOf(parent), parent).contains(path.getName());
+    }
+
+    /** Adds item to the index after ACL file is written for it. */
+    void add(Path path) {
+        if (path.isRoot()) {
+            return;
+        }
+        final Node node = nodeOf(path.getParent());
+        synchronized (node) {
+            // Nothing to do if directory is not read yet, new ACL file will be found when directory is read.
+            if (node.aclNames != null && !node.aclNames.contains(path.getName())) {
+                final Set<String> names = new HashSet<>(node.aclNames);
+                names.add(path.getName());
+                node.aclNames = names;
+            }
+        }
+    }
+
+    /** Removes item and all its descendants from the index after item or its ACL file is deleted. */
+    void remove(Path path) {
+        if (path.isRoot()) {
+            clear();
+            return;
+        }
+        final Node node = nodeOf(path.getParent());
+        synchronized (node) {
+            if (node.aclNames != null && node.aclNames.contains(path.getName())) {
+                final Set<String> names = new HashSet<>(node.aclNames);
+                names.remove(path.getName());
+                node.aclNames = names.isEmpty() ? Collections.<String>emptySet() : names;
+            }
+        }
+        invalidate(path);
+    }
+
+    /** Forgets about descendants of the folder, they are read from filesystem again on the next check. */
+    void invalidate(Path folder) {
+        if (folder.isRoot()) {
+            clear();
+            return;
+        }
+        final Node parent = findNode(folder.getParent());
+        if (parent != null) {
+            parent.children.remove(folder.getName());
+        }
+    }
+
+    /** Clears the index. */
+    void clear() {
+        synchronized (root) {
+            root.children.clear();
+            root.aclNames = null;
+        }
+    }
+
+    private Node nodeOf(Path folder) {
+        Node node = root;
+        for (String element : folder.elements()) {
+            Node child = node.children.get(element);
+            if (child == null) {
+                final Node newNode = new Node();
+                child = node.children.putIfAbsent(element, newNode);
+                if (child == null) {
+                    child = newNode;
+                }
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    private Node findNode(Path folder) {
+        Node node = root;
+        for (String element : folder.elements()) {
+            node = node.children.get(element);
+            if (node == null) {
+                return null;
+            }
+        }
+        return node;
+    }
+
+    private Set<String> aclNamesOf(Node node, Path folder) {
+        Set<String> names = node.aclNames;
+        if (names == null) {
+            synchronized (node) {
+                names = node.aclNames;
+                if (names == null) {
+                    node.aclNames = names = readAclNames(folder);
+                }
+            }
+        }
+        return names;
+    }
+
+    private Set<String> readAclNames(Path folder) {
+        final java.io.File aclDir = new java.io.File(new java.io.File(ioRoot, folder.join(java.io.File.separatorChar)),
+                                                     FSMountPoint.ACL_DIR);
+        final String[] files = aclDir.list();
+        if (files == null || files.length == 0) {
+            return Collections.emptySet();
+        }
+        final Set<String> names = new HashSet<>();
+        for (String file : files) {
+            if (file.endsWith(FSMountPoint.ACL_FILE_SUFFIX)) {
+                names.add(file.substring(0, file.length() - FSMountPoint.ACL_FILE_SUFFIX.length()));
+            }
+        }
+        return names;
+    }
+}
@@ -35,6 +35,7 @@ import org.eclipse.che.api.vfs.server.observation.RenameEvent;
 import org.eclipse.che.api.vfs.server.observation.UpdateACLEvent;
 import org.eclipse.che.api.vfs.server.observation.UpdateContentEvent;
 import org.eclipse.che.api.vfs.server.observation.UpdatePropertiesEvent;
+import org.eclipse.che.api.vfs.server.search.Searcher;
 import org.eclipse.che.api.vfs.server.search.SearcherProvider;
 import org.eclipse.che.api.vfs.server.util.DeleteOnCloseFileInputStream;
 import org.eclipse.che.api.vfs.server.util.NotClosableInputStream;
@@ -48,17 +49,15 @@ import org.eclipse.che.api.vfs.shared.dto.VirtualFileSystemInfo.BasicPermissions
 import org.eclipse.che.commons.lang.NameGenerator;
 import org.eclipse.che.commons.lang.Pair;
 import org.eclipse.che.commons.lang.cache.Cache;
-import org.eclipse.che.commons.lang.cache.LoadingValueSLRUCache;
-import org.eclipse.che.commons.lang.cache.SynchronizedCache;
+import org.eclipse.che.commons.lang.cache.ExpiringCache;
 import org.eclipse.che.commons.lang.ws.rs.ExtMediaType;
 import org.eclipse.che.dto.server.DtoFactory;
 
 import com.google.common.annotations.Beta;
 import com.google.common.collect.Sets;
 import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
 import com.google.common.hash.Hashing;
-import com.google.common.io.ByteSource;
-import com.google.common.io.ByteStreams;
 
 import org.apache.commons.codec.binary.Base64;
 import org.slf4j.Logger;
@@ -76,8 +75,15 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -106,21 +112,22 @@ public class FSMountPoint implements MountPoint {
 
     /*
      * Configuration parameters for caches.
-     * Caches are split to the few partitions to reduce lock contention.
-     * Use SLRU cache algorithm here.
-     * This is required some additional parameters, e.g. protected and probationary size.
-     * See details about SLRU algorithm: http://en.wikipedia.org/wiki/Cache_algorithms#Segmented_LRU
+     * Caches are split to the few segments to reduce lock contention.
      */
-    private static final int CACHE_PARTITIONS_NUM        = 1 << 3;
-    private static final int CACHE_PROTECTED_SIZE        = 100;
-    private static final int CACHE_PROBATIONARY_SIZE     = 200;
-    private static final int MASK                        = CACHE_PARTITIONS_NUM - 1;
-    private static final int PARTITION_PROTECTED_SIZE    = CACHE_PROTECTED_SIZE / CACHE_PARTITIONS_NUM;
-    private static final int PARTITION_PROBATIONARY_SIZE = CACHE_PROBATIONARY_SIZE / CACHE_PARTITIONS_NUM;
+    private static final int CACHE_CONCURRENCY_LEVEL = 1 << 3;
+    private static final int CACHE_SIZE              = 300;
     // end cache parameters
 
     private static final int MAX_BUFFER_SIZE  = 200 * 1024; // 200k
     private static final int COPY_BUFFER_SIZE = 8 * 1024; // 8k
+    private static final int HASH_BUFFER_SIZE = 64 * 1024; // 64k
+
+    private static final ThreadLocal<byte[]> HASH_BUFFER = new ThreadLocal<byte[]>() {
+        @Override
+        protected byte[] initialValue() {
+            return new byte[HASH_BUFFER_SIZE];
+        }
+    };
 
     private static final long LOCK_FILE_TIMEOUT     = 60000; // 60 seconds
     private static final int  FILE_LOCK_MAX_THREADS = 1024;
@@ -169,88 +176,69 @@ public class FSMountPoint implements MountPoint {
 
     private static final FileLock NO_LOCK = new FileLock("no_lock", 0);
 
-    private class FileLockCache extends LoadingValueSLRUCache<Path, FileLock> {
-        FileLockCache() {
-            super(PARTITION_PROTECTED_SIZE, PARTITION_PROBATIONARY_SIZE);
-        }
-
-        @Override
-        protected FileLock loadValue(Path key) {
-            final Path lockFilePath = getLockFilePath(key);
-            final java.io.File lockIoFile = new java.io.File(ioRoot, toIoPath(lockFilePath));
-            // Do not check lockIoFile.exists(), FileInputStream will check anyway and the penalty of catching
-            // FileNotFoundException is marginal compared to checking the file system twice in case it does exist
-            try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(lockIoFile)));
-                    PathLockFactory.PathLock lockFilePathLock = acquireLock(lockFilePath, false)) {
-                return locksSerializer.read(dis);
-            } catch (FileNotFoundException e) {
-                return NO_LOCK;
-            } catch (IOException e) {
-                String msg = String.format("Unable read lock for '%s'. ", key);
-                LOG.error(msg + e.getMessage(), e); // More details in log but do not show internal error to caller.
-                throw new RuntimeException(msg);
-            }
-        }
-    }
-
-
-    private class FileMetadataCache extends LoadingValueSLRUCache<Path, Map<String, String[]>> {
-        FileMetadataCache() {
-            super(PARTITION_PROTECTED_SIZE, PARTITION_PROBATIONARY_SIZE);
-        }
-
-        @Override
-        protected Map<String, String[]> loadValue(Path key) {
-            final Path metadataFilePath = getMetadataFilePath(key);
-            java.io.File metadataIoFile = new java.io.File(ioRoot, toIoPath(metadataFilePath));
-            try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(metadataIoFile)));
-                    PathLockFactory.PathLock metadataFilePathLock = acquireLock(metadataFilePath, false)) {
-                return metadataSerializer.read(dis);
-            } catch (FileNotFoundException e) { // explained in FileLockCache
-                return Collections.emptyMap();
-            } catch (IOException e) {
-                String msg = String.format("Unable read properties for '%s'. ", key);
-                LOG.error(msg + e.getMessage(), e); // More details in log but do not show internal error to caller.
-                throw new RuntimeException(msg);
-            }
+    private FileLock loadFileLock(Path key) {
+        final Path lockFilePath = getLockFilePath(key);
+        final java.io.File lockIoFile = new java.io.File(ioRoot, toIoPath(lockFilePath));
+        // Do not check lockIoFile.exists(), FileInputStream will check anyway and the penalty of catching
+        // FileNotFoundException is marginal compared to checking the file system twice in case it does exist
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(lockIoFile)));
+                PathLockFactory.PathLock lockFilePathLock = acquireLock(lockFilePath, false)) {
+            return locksSerializer.read(dis);
+        } catch (FileNotFoundException e) {
+            return NO_LOCK;
+        } catch (IOException e) {
+            String msg = String.format("Unable read lock for '%s'. ", key);
+            LOG.error(msg + e.getMessage(), e); // More details in log but do not show internal error to caller.
+            throw new RuntimeException(msg);
         }
     }
 
 
-    private class AccessControlListCache extends LoadingValueSLRUCache<Path, AccessControlList> {
-        private AccessControlListCache() {
-            super(PARTITION_PROTECTED_SIZE, PARTITION_PROBATIONARY_SIZE);
-        }
-
-        @Override
-        protected AccessControlList loadValue(Path key) {
-            final Path aclFilePath = getAclFilePath(key);
-            final java.io.File aclIoFile = new java.io.File(ioRoot, toIoPath(aclFilePath));
-            try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(aclIoFile)));
-                    PathLockFactory.PathLock aclFilePathLock = acquireLock(aclFilePath, false)) {
-                return aclSerializer.read(dis);
-            } catch (FileNotFoundException e) { // explained in FileLockCache
-                // TODO : REMOVE!!! Temporary default ACL until will have client side for real manage
-                if (key.isRoot()) {
-                    final Map<Principal, Set<String>> dummy = new HashMap<>(2);
-                    final Principal developer = DtoFactory.getInstance().createDto(Principal.class)
-                                                          .withName("workspace/developer").withType(Principal.Type.GROUP);
-                    final Principal other = DtoFactory.getInstance().createDto(Principal.class)
-                                                      .withName(VirtualFileSystemInfo.ANY_PRINCIPAL).withType(Principal.Type.USER);
-                    dummy.put(developer, Sets.newHashSet(BasicPermissions.ALL.value()));
-                    dummy.put(other, Sets.newHashSet(BasicPermissions.READ.value()));
-                    return new AccessControlList(dummy);
-                }
-                return new AccessControlList();
-            } catch (IOException e) {
-                String msg = String.format("Unable read ACL for '%s'. ", key);
-                LOG.error(msg + e.getMessage(), e); // More details in log but do not show internal error to caller.
-                throw new RuntimeException(msg);
+    private Map<String, String[]> loadFileMetadata(Path key) {
+        final Path metadataFilePath = getMetadataFilePath(key);
+        java.io.File metadataIoFile = new java.io.File(ioRoot, toIoPath(metadataFilePath));
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(metadataIoFile)));
+                PathLockFactory.PathLock metadataFilePathLock = acquireLock(metadataFilePath, false)) {
+            return metadataSerializer.read(dis);
+        } catch (FileNotFoundException e) { // explained in loadFileLock
+            return Collections.emptyMap();
+        } catch (IOException e) {
+            String msg = String.format("Unable read properties for '%s'. ", key);
+            LOG.error(msg + e.getMessage(), e); // More details in log but do not show internal error to caller.
+            throw new RuntimeException(msg);
+        }
+    }
+
+
+    private AccessControlList loadAccessControlList(Path key) {
+        final Path aclFilePath = getAclFilePath(key);
+        final java.io.File aclIoFile = new java.io.File(ioRoot, toIoPath(aclFilePath));
+        try (DataInputStream dis = new DataInputStream(new BufferedInputStream(new FileInputStream(aclIoFile)));
+                PathLockFactory.PathLock aclFilePathLock = acquireLock(aclFilePath, false)) {
+            return aclSerializer.read(dis);
+        } catch (FileNotFoundException e) { // explained in loadFileLock
+            // TODO : REMOVE!!! Temporary default ACL until will have client side for real manage
+            if (key.isRoot()) {
+                final Map<Principal, Set<String>> dummy = new HashMap<>(2);
+                final Principal developer = DtoFactory.getInstance().createDto(Principal.class)
+                                                      .withName("workspace/developer").withType(Principal.Type.GROUP);
+                final Principal other = DtoFactory.getInstance().createDto(Principal.class)
+                                                  .withName(VirtualFileSystemInfo.ANY_PRINCIPAL).withType(Principal.Type.USER);
+                dummy.put(developer, Sets.newHashSet(BasicPermissions.ALL.value()));
+                dummy.put(other, Sets.newHashSet(BasicPermissions.READ.value()));
+                return new AccessControlList(dummy);
             }
+            return new AccessControlList();
+        } catch (IOException e) {
+            String msg = String.format("Unable read ACL for '%s'. ", key);
+            LOG.error(msg + e.getMessage(), e); // More details in log but do not show internal error to caller.
+            throw new RuntimeException(msg);
         }
     }
 
     private final String           workspaceId;
+    /** UTF-8 bytes of {@code <workspaceId>:} which starts raw content of each item id. */
+    private final byte[]           idPrefix;
     private final java.io.File     ioRoot;
     private final EventService     eventService;
     private final SearcherProvider searcherProvider;
@@ -262,16 +250,17 @@ public class FSMountPoint implements MountPoint {
     private final VirtualFileImpl root;
 
     /* ----- Access control list feature. ----- */
-    private final AccessControlListSerializer      aclSerializer;
-    private final Cache<Path, AccessControlList>[] aclCache;
+    private final AccessControlListSerializer    aclSerializer;
+    private final Cache<Path, AccessControlList> aclCache;
+    private final AccessControlListIndex         aclIndex;
 
     /* ----- Virtual file system lock feature. ----- */
-    private final FileLockSerializer      locksSerializer;
-    private final Cache<Path, FileLock>[] lockTokensCache;
+    private final FileLockSerializer    locksSerializer;
+    private final Cache<Path, FileLock> lockTokensCache;
 
     /* ----- File metadata. ----- */
-    private final FileMetadataSerializer               metadataSerializer;
-    private final Cache<Path, Map<String, String[]>>[] metadataCache;
+    private final FileMetadataSerializer             metadataSerializer;
+    private final Cache<Path, Map<String, String[]>> metadataCache;
 
     private final VirtualFileSystemUserContext userContext;
 
@@ -282,9 +271,9 @@ public class FSMountPoint implements MountPoint {
      *         root directory for virtual file system. Any file in higher level than root are not accessible through
      *         virtual file system API.
      */
-    @SuppressWarnings("unchecked")
     FSMountPoint(String workspaceId, java.io.File ioRoot, EventService eventService, SearcherProvider searcherProvider, SystemPathsFilter systemFilter) {
         this.workspaceId = workspaceId;
+        this.idPrefix = (workspaceId + ':').getBytes(StandardCharsets.UTF_8);
         this.ioRoot = ioRoot;
         this.eventService = eventService;
         this.searcherProvider = searcherProvider;
@@ -294,19 +283,23 @@ public class FSMountPoint implements MountPoint {
         pathLockFactory = new PathLockFactory(FILE_LOCK_MAX_THREADS);
 
         aclSerializer = new AccessControlListSerializer();
-        aclCache = new Cache[CACHE_PARTITIONS_NUM];
+        aclCache = ExpiringCache.<Path, AccessControlList>newBuilder()
+                                .maximumSize(CACHE_SIZE)
+                                .concurrencyLevel(CACHE_CONCURRENCY_LEVEL)
+                                .build(this::loadAccessControlList);
+        aclIndex = new AccessControlListIndex(ioRoot);
 
         locksSerializer = new FileLockSerializer();
-        lockTokensCache = new Cache[CACHE_PARTITIONS_NUM];
+        lockTokensCache = ExpiringCache.<Path, FileLock>newBuilder()
+                                       .maximumSize(CACHE_SIZE)
+                                       .concurrencyLevel(CACHE_CONCURRENCY_LEVEL)
+                                       .build(this::loadFileLock);
 
         metadataSerializer = new FileMetadataSerializer();
-        metadataCache = new Cache[CACHE_PARTITIONS_NUM];
-
-        for (int i = 0; i < CACHE_PARTITIONS_NUM; i++) {
-            aclCache[i] = new SynchronizedCache(new AccessControlListCache());
-            lockTokensCache[i] = new SynchronizedCache(new FileLockCache());
-            metadataCache[i] = new SynchronizedCache(new FileMetadataCache());
-        }
+        metadataCache = ExpiringCache.<Path, Map<String, String[]>>newBuilder()
+                                     .maximumSize(CACHE_SIZE)
+                                     .concurrencyLevel(CACHE_CONCURRENCY_LEVEL)
+                                     .build(this::loadFileMetadata);
         userContext = VirtualFileSystemUserContext.newInstance();
     }
 
@@ -348,7 +341,7 @@ public class FSMountPoint implements MountPoint {
 
     private VirtualFileImpl doGetVirtualFile(Path vfsPath) throws NotFoundException, ForbiddenException, ServerException {
         final VirtualFileImpl virtualFile =
-                new VirtualFileImpl(new java.io.File(ioRoot, toIoPath(vfsPath)), vfsPath, pathToId(vfsPath), this);
+                new VirtualFileImpl(new java.io.File(ioRoot, toIoPath(vfsPath)), vfsPath, this);
         if (!virtualFile.exists()) {
             throw new NotFoundException(String.format("Object '%s' does not exists. ", vfsPath));
         }
@@ -363,6 +356,39 @@ public class FSMountPoint implements MountPoint {
         clearMetadataCache();
         clearAclCache();
         clearLockTokensCache();
+        aclIndex.clear();
+    }
+
+    /**
+     * Drops cached data of item and all its descendants. Used when item is changed on filesystem directly, not through the virtual
+     * file system.
+     *
+     * @param path
+     *         path of changed item
+     * @see MountPointWatcher
+     */
+    void invalidate(Path path) {
+        if (path.isRoot()) {
+            reset();
+            return;
+        }
+        invalidate(metadataCache, path);
+        invalidate(aclCache, path);
+        invalidate(lockTokensCache, path);
+        aclIndex.invalidate(path);
+    }
+
+    private static void invalidate(Cache<Path, ?> cache, Path path) {
+        final List<Path> stale = new ArrayList<>();
+        for (Map.Entry<Path, ?> entry : cache) {
+            final Path key = entry.getKey();
+            if (key.equals(path) || key.isChild(path)) {
+                stale.add(key);
+            }
+        }
+        for (Path key : stale) {
+            cache.remove(key);
+        }
     }
 
     // Used in tests. Need this to check state of PathLockFactory.
@@ -379,16 +405,11 @@ public class FSMountPoint implements MountPoint {
         if (id.equals(root.getId())) {
             return Path.ROOT;
         }
-        final String raw;
-        try {
-            raw = new String(Base64.decodeBase64(id), "UTF-8");
-        } catch (UnsupportedEncodingException e) {
-            // Should never happen.
-            throw new IllegalStateException(e.getMessage(), e);
-        }
-        final int split = raw.indexOf(':') + 1;
-        if (split > 0) {
-            return Path.fromString(raw.substring(split));
+        final byte[] raw = Base64.decodeBase64(id);
+        for (int i = 0; i < raw.length; i++) {
+            if (raw[i] == ':') {
+                return Path.fromString(new String(raw, i + 1, raw.length - i - 1, StandardCharsets.UTF_8));
+            }
         }
         // Invalid format of ID
         throw new NotFoundException(String.format("Object '%s' does not exists. ", id));
@@ -396,12 +417,10 @@ public class FSMountPoint implements MountPoint {
 
 
     String pathToId(Path path) {
-        try {
-            return Base64.encodeBase64URLSafeString((workspaceId + ':' + (path.isRoot() ? "root" : path.toString())).getBytes("UTF-8"));
-        } catch (UnsupportedEncodingException e) {
-            // Should never happen.
-            throw new IllegalStateException(e.getMessage(), e);
-        }
+        final byte[] pathBytes = (path.isRoot() ? "root" : path.toString()).getBytes(StandardCharsets.UTF_8);
+        final byte[] raw = Arrays.copyOf(idPrefix, idPrefix.length + pathBytes.length);
+        System.arraycopy(pathBytes, 0, raw, idPrefix.length, pathBytes.length);
+        return Base64.encodeBase64URLSafeString(raw);
     }
 
 
@@ -410,7 +429,7 @@ public class FSMountPoint implements MountPoint {
             return null;
         }
         final Path parentPath = virtualFile.getVirtualFilePath().getParent();
-        return new VirtualFileImpl(new java.io.File(ioRoot, toIoPath(parentPath)), parentPath, pathToId(parentPath), this);
+        return new VirtualFileImpl(new java.io.File(ioRoot, toIoPath(parentPath)), parentPath, this);
     }
 
 
@@ -419,7 +438,7 @@ public class FSMountPoint implements MountPoint {
             return null;
         }
         final Path childPath = parent.getVirtualFilePath().newPath(name);
-        final VirtualFileImpl child = new VirtualFileImpl(new java.io.File(parent.getIoFile(), name), childPath, pathToId(childPath), this);
+        final VirtualFileImpl child = new VirtualFileImpl(new java.io.File(parent.getIoFile(), name), childPath, this);
         if (child.exists()) {
             if (systemFilter.accept(workspaceId, child.getVirtualFilePath())) {
                 // Don't check permissions for file "misc.xml" in folder ".codenvy". Dirty huck :( but seems simplest solution for now.
@@ -448,11 +467,12 @@ public class FSMountPoint implements MountPoint {
             }
         }
         final List<VirtualFile> children = doGetChildren(parent, SERVICE_DIR_FILTER);
+        final PermissionChecker readChecker = new PermissionChecker(BasicPermissions.READ);
         for (Iterator<VirtualFile> iterator = children.iterator(); iterator.hasNext(); ) {
             VirtualFile child = iterator.next();
             // Check permission directly for current file only.
             // We know the parent is accessible for current user otherwise we should not be here.
-            if (!hasPermission((VirtualFileImpl)child, BasicPermissions.READ, false) || !filter.accept(child)) {
+            if (!readChecker.hasPermission((VirtualFileImpl)child, false) || !filter.accept(child)) {
                 iterator.remove(); // Do not show item in list if current user has not permission to see it
             }
         }
@@ -462,17 +482,36 @@ public class FSMountPoint implements MountPoint {
     }
 
 
+    /**
+     * Lists children of folder. Attributes of children are read in the same pass and kept in created items, so sorting and
+     * serialization of items don't touch filesystem again.
+     */
     private List<VirtualFile> doGetChildren(VirtualFileImpl virtualFile, java.io.FilenameFilter filter) throws ServerException {
-        final String[] names = virtualFile.getIoFile().list(filter);
-        if (names == null) {
-            // Something wrong. According to java docs may be null only if i/o error occurs.
+        final java.io.File dir = virtualFile.getIoFile();
+        final Path dirPath = virtualFile.getVirtualFilePath();
+        final List<VirtualFile> children = new ArrayList<>();
+        try (DirectoryStream<java.nio.file.Path> stream = Files.newDirectoryStream(dir.toPath())) {
+            for (java.nio.file.Path entry : stream) {
+                final String name = entry.getFileName().toString();
+                if (!filter.accept(dir, name)) {
+                    continue;
+                }
+                BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(entry, BasicFileAttributes.class);
+                } catch (NoSuchFileException e) {
+                    // Removed after listing
+                    continue;
+                } catch (IOException e) {
+                    // Let item read attributes itself
+                    attributes = null;
+                }
+                children.add(new VirtualFileImpl(entry.toFile(), dirPath.newPath(name), this, attributes));
+            }
+        } catch (IOException | DirectoryIteratorException e) {
+            LOG.error(e.getMessage(), e);
             throw new ServerException(String.format("Unable get children '%s'. ", virtualFile.getPath()));
         }
-        final List<VirtualFile> children = new ArrayList<>(names.length);
-        for (String name : names) {
-            final Path childPath = virtualFile.getVirtualFilePath().newPath(name);
-            children.add(new VirtualFileImpl(new java.io.File(ioRoot, toIoPath(childPath)), childPath, pathToId(childPath), this));
-        }
         return children;
     }
 
@@ -504,7 +543,7 @@ public class FSMountPoint implements MountPoint {
             throw new ServerException(msg);
         }
 
-        final VirtualFileImpl newVirtualFile = new VirtualFileImpl(newIoFile, newPath, pathToId(newPath), this);
+        final VirtualFileImpl newVirtualFile = new VirtualFileImpl(newIoFile, newPath, this);
         // Update content if any.
         if (content != null) {
             doUpdateContent(newVirtualFile, mediaType, content);
@@ -555,7 +594,7 @@ public class FSMountPoint implements MountPoint {
 
         // Return first created folder, e.g. assume we need create: folder1/folder2/folder3 in specified folder.
         // If folder1 already exists then return folder2 as first created in hierarchy.
-        final VirtualFileImpl newVirtualFile = new VirtualFileImpl(newIoFile, newPath, pathToId(newPath), this);
+        final VirtualFileImpl newVirtualFile = new VirtualFileImpl(newIoFile, newPath, this);
         eventService.publish(new CreateEvent(workspaceId, newVirtualFile.getPath(), true));
         return newVirtualFile;
     }
@@ -596,7 +635,7 @@ public class FSMountPoint implements MountPoint {
         final Path newPath = parent.getVirtualFilePath().newPath(newName); // TODO: change name here
         final File theFile = new File(ioRoot, toIoPath(newPath));
         final VirtualFileImpl destination
-                = new VirtualFileImpl(theFile, newPath, pathToId(newPath), this);
+                = new VirtualFileImpl(theFile, newPath, this);
 
         // checking override
         if (destination.exists()) {
@@ -620,61 +659,35 @@ public class FSMountPoint implements MountPoint {
 
             // NOTE: Don't copy lock and permissions, just files itself and metadata files.
 
-            // Check recursively permissions of sources in case of folder
-            // and add all item current user cannot read in skip list.
-            java.io.FilenameFilter filter = null;
-            if (source.isFolder()) {
-                final LinkedList<VirtualFileImpl> skipList = new LinkedList<>();
-                final LinkedList<VirtualFile> q = new LinkedList<>();
-                q.add(source);
-                while (!q.isEmpty()) {
-                    for (VirtualFile current : doGetChildren((VirtualFileImpl)q.pop(), SERVICE_GIT_DIR_FILTER)) {
-                        // Check permission directly for current file only.
-                        // We already know parent accessible for current user otherwise we should not be here.
-                        // Ignore item if don't have permission to read it.
-                        if (!hasPermission((VirtualFileImpl)current, BasicPermissions.READ, false)) {
-                            skipList.add((VirtualFileImpl)current);
-                        } else {
-                            if (current.isFolder()) {
-                                q.add(current);
-                            }
-                        }
-                    }
-                }
-                if (!skipList.isEmpty()) {
-                    filter = new java.io.FilenameFilter() {
-                        @Override
-                        public boolean accept(java.io.File dir, String name) {
-                            final String testPath = dir.getAbsolutePath() + java.io.File.separatorChar + name;
-                            for (VirtualFileImpl skipFile : skipList) {
-                                if (testPath.startsWith(skipFile.getIoFile().getAbsolutePath())) {
-                                    return false;
-                                }
-                                final java.io.File metadataFile =
-                                        new java.io.File(ioRoot, toIoPath(getMetadataFilePath(skipFile.getVirtualFilePath())));
-                                if (metadataFile.exists() && testPath.startsWith(metadataFile.getAbsolutePath())) {
-                                    return false;
-                                }
-                            }
-                            return true;
-                        }
-                    };
-                }
-            }
-
             final java.io.File sourceMetadataFile = new java.io.File(ioRoot, toIoPath(getMetadataFilePath(source.getVirtualFilePath())));
             final java.io.File destinationMetadataFile =
                     new java.io.File(ioRoot, toIoPath(getMetadataFilePath(destination.getVirtualFilePath())));
             if (sourceMetadataFile.exists()) {
-                nioCopy(sourceMetadataFile, destinationMetadataFile, filter);
+                nioCopy(sourceMetadataFile, destinationMetadataFile, null);
             }
-            nioCopy(source.getIoFile(), destination.getIoFile(), filter);
-
-            if (searcherProvider != null) {
-                try {
-                    searcherProvider.getSearcher(this, true).add(destination);
-                } catch (ServerException e) {
-                    LOG.error(e.getMessage(), e); // just log about i/o error in index
+            if (source.isFolder()) {
+                // Skip items which current user cannot read.
+                // We already know source accessible for current user otherwise we should not be here,
+                // so check permission directly for each item only.
+                final PermissionChecker readChecker = new PermissionChecker(BasicPermissions.READ);
+                final java.nio.file.Path sourceIoPath = source.getIoFile().toPath();
+                final Path sourcePath = source.getVirtualFilePath();
+                final List<java.nio.file.Path> copied = new TreeCopier(sourceIoPath, destination.getIoFile().toPath(), relative -> {
+                    final VirtualFileImpl item =
+                            new VirtualFileImpl(sourceIoPath.resolve(relative).toFile(), resolve(sourcePath, relative), this);
+                    return readChecker.hasPermission(item, false);
+                }).copy();
+                // ACL files of descendants are copied with folder
+                aclIndex.invalidate(destination.getVirtualFilePath());
+                addToSearchIndex(destination, copied);
+            } else {
+                nioCopy(source.getIoFile(), destination.getIoFile(), null);
+                if (searcherProvider != null) {
+                    try {
+                        searcherProvider.getSearcher(this, true).add(destination);
+                    } catch (ServerException e) {
+                        LOG.error(e.getMessage(), e); // just log about i/o error in index
+                    }
                 }
             }
         } catch (IOException e) {
@@ -686,6 +699,126 @@ public class FSMountPoint implements MountPoint {
         }
     }
 
+    /** Adds files copied to the folder to the search index. Index is updated in parallel for large trees. */
+    private void addToSearchIndex(final VirtualFileImpl folder, List<java.nio.file.Path> files) {
+        if (searcherProvider == null) {
+            return;
+        }
+        try {
+            final Searcher searcher = searcherProvider.getSearcher(this, true);
+            ParallelTasks.forEach(files, new ParallelTasks.Task<java.nio.file.Path, ServerException>() {
+                @Override
+                public void run(java.nio.file.Path relative) throws ServerException {
+                    searcher.add(new VirtualFileImpl(folder.getIoFile().toPath().resolve(relative).toFile(),
+                                                     resolve(folder.getVirtualFilePath(), relative),
+                                                     FSMountPoint.this));
+                }
+            });
+        } catch (ServerException e) {
+            LOG.error(e.getMessage(), e); // just log about i/o error in index
+        }
+    }
+
+    /**
+     * Moves item with single rename on filesystem instead of copy and delete. It is possible only if current user may read and
+     * delete whole tree and there are no locked files in it.
+     *
+     * @param keepAcl
+     *         if {@code true} ACL of item is moved with it otherwise it is removed
+     * @return {@code false} if item can't be moved in place, it should be copied and deleted then
+     */
+    private boolean doMoveInPlace(VirtualFileImpl source, VirtualFileImpl destination, boolean keepAcl) throws ServerException {
+        final boolean isFile = source.isFile();
+        if (isFile ? isLocked(source) : !isMovableTree(source)) {
+            return false;
+        }
+        final Path sourcePath = source.getVirtualFilePath();
+        final Path destinationPath = destination.getVirtualFilePath();
+        try {
+            Files.move(source.getIoFile().toPath(), destination.getIoFile().toPath(), StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOG.debug("Unable rename {} to {}, fall back to copy. {}", source.getIoFile(), destination.getIoFile(), e.getMessage());
+            return false;
+        }
+        source.invalidateAttributes();
+        destination.invalidateAttributes();
+
+        // clear caches
+        clearAclCache();
+        clearLockTokensCache();
+        clearMetadataCache();
+
+        try {
+            moveServiceFile(getMetadataFilePath(sourcePath), getMetadataFilePath(destinationPath));
+            if (keepAcl) {
+                if (moveServiceFile(getAclFilePath(sourcePath), getAclFilePath(destinationPath))) {
+                    aclIndex.add(destinationPath);
+                }
+            } else {
+                Files.deleteIfExists(new java.io.File(ioRoot, toIoPath(getAclFilePath(sourcePath))).toPath());
+            }
+        } catch (IOException e) {
+            String msg = String.format("Unable move metadata of '%s' to '%s'. ", source.getPath(), destination.getPath());
+            LOG.error(msg + e.getMessage(), e); // More details in log but do not show internal error to caller.
+            throw new ServerException(msg);
+        }
+        aclIndex.remove(sourcePath);
+        // ACL files of descendants are moved with folder
+        aclIndex.invalidate(destinationPath);
+
+        if (searcherProvider != null) {
+            try {
+                final Searcher searcher = searcherProvider.getSearcher(this, true);
+                searcher.delete(sourcePath.toString(), isFile);
+                searcher.add(destination);
+            } catch (ServerException e) {
+                LOG.error(e.getMessage(), e); // just log about i/o error in index
+            }
+        }
+        return true;
+    }
+
+    /** Checks whether current user may read and delete all items of folder and there are no locked files in it. */
+    private boolean isMovableTree(VirtualFileImpl folder) throws ServerException {
+        final LinkedList<VirtualFile> q = new LinkedList<>();
+        final PermissionChecker readChecker = new PermissionChecker(BasicPermissions.READ);
+        final PermissionChecker writeChecker = new PermissionChecker(BasicPermissions.WRITE);
+        q.add(folder);
+        while (!q.isEmpty()) {
+            for (VirtualFile current : doGetChildren((VirtualFileImpl)q.pop(), SERVICE_GIT_DIR_FILTER)) {
+                final VirtualFileImpl child = (VirtualFileImpl)current;
+                if (!(readChecker.hasPermission(child, false) && writeChecker.hasPermission(child, false))) {
+                    return false;
+                }
+                if (child.isFolder()) {
+                    q.push(child);
+                } else if (isLocked(child)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    private boolean moveServiceFile(Path sourcePath, Path destinationPath) throws IOException {
+        final java.nio.file.Path source = new java.io.File(ioRoot, toIoPath(sourcePath)).toPath();
+        if (!Files.exists(source)) {
+            return false;
+        }
+        final java.nio.file.Path destination = new java.io.File(ioRoot, toIoPath(destinationPath)).toPath();
+        Files.createDirectories(destination.getParent());
+        Files.move(source, destination, StandardCopyOption.REPLACE_EXISTING);
+        return true;
+    }
+
+    private static Path resolve(Path parent, java.nio.file.Path relative) {
+        final String[] elements = new String[relative.getNameCount()];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = relative.getName(i).toString();
+        }
+        return parent.newPath(elements);
+    }
+
 
     VirtualFileImpl rename(VirtualFileImpl virtualFile, String newName, String newMediaType, String lockToken)
             throws ForbiddenException, ConflictException, ServerException {
@@ -703,32 +836,35 @@ public class FSMountPoint implements MountPoint {
         final VirtualFileImpl renamed;
         if (!(newName == null || name.equals(newName))) {
             final Path newPath = virtualFile.getVirtualFilePath().getParent().newPath(newName);
-            renamed = new VirtualFileImpl(new java.io.File(ioRoot, toIoPath(newPath)), newPath, pathToId(newPath), this);
+            renamed = new VirtualFileImpl(new java.io.File(ioRoot, toIoPath(newPath)), newPath, this);
             if (renamed.exists()) {
                 throw new ConflictException(String.format("Item '%s' already exists. ", renamed.getName()));
             }
-            // use copy and delete
-            doCopy(virtualFile, renamed);
-            // permissions is not copied with 'doCopy' method, copy them now if any
-            final AccessControlList sourceAcl = getACL(virtualFile);
-            if (!sourceAcl.isEmpty()) {
-                final java.io.File renamedAclFile = new java.io.File(ioRoot, toIoPath(getAclFilePath(renamed.getVirtualFilePath())));
-                DataOutputStream dos = null;
-                try {
-                    // Ignore result of 'mkdirs' here. If we are failed to create directory
-                    // We will get FileNotFoundException at the next line when try to create FileOutputStream.
-                    renamedAclFile.getParentFile().mkdirs();
-                    dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(renamedAclFile)));
-                    aclSerializer.write(dos, sourceAcl);
-                } catch (IOException e) {
-                    String msg = String.format("Unable save ACL for '%s'. ", virtualFile.getPath());
-                    LOG.error(msg + e.getMessage(), e); // More details in log but do not show internal error to caller.
-                    throw new ServerException(msg);
-                } finally {
-                    closeQuietly(dos);
+            if (!doMoveInPlace(virtualFile, renamed, true)) {
+                // use copy and delete
+                doCopy(virtualFile, renamed);
+                // permissions is not copied with 'doCopy' method, copy them now if any
+                final AccessControlList sourceAcl = getACL(virtualFile);
+                if (!sourceAcl.isEmpty()) {
+                    final java.io.File renamedAclFile = new java.io.File(ioRoot, toIoPath(getAclFilePath(renamed.getVirtualFilePath())));
+                    DataOutputStream dos = null;
+                    try {
+                        // Ignore result of 'mkdirs' here. If we are failed to create directory
+                        // We will get FileNotFoundException at the next line when try to create FileOutputStream.
+                        renamedAclFile.getParentFile().mkdirs();
+                        dos = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(renamedAclFile)));
+                        aclSerializer.write(dos, sourceAcl);
+                        aclIndex.add(renamed.getVirtualFilePath());
+                    } catch (IOException e) {
+                        String msg = String.format("Unable save ACL for '%s'. ", virtualFile.getPath());
+                        LOG.error(msg + e.getMessage(), e); // More details in log but do not show internal error to caller.
+                        throw new ServerException(msg);
+                    } finally {
+                        closeQuietly(dos);
+                    }
                 }
+                doDelete(virtualFile, lockToken);
             }
-            doDelete(virtualFile, lockToken);
         } else {
             renamed = virtualFile;
         }
@@ -797,16 +933,18 @@ public class FSMountPoint implements MountPoint {
         String newName = nullToEmpty(name).trim().isEmpty() ? source.getName() : name;
         final Path newPath = parent.getVirtualFilePath().newPath(newName);
         VirtualFileImpl destination
-                = new VirtualFileImpl(new java.io.File(ioRoot, toIoPath(newPath)), newPath, pathToId(newPath), this);
+                = new VirtualFileImpl(new java.io.File(ioRoot, toIoPath(newPath)), newPath, this);
 
         // checking override
         if (destination.exists()) {
             doOverWrite(overWrite, destination, newPath);
         }
 
-        // use copy and delete
-        doCopy(source, destination);
-        doDelete(source, lockToken);
+        if (!doMoveInPlace(source, destination, false)) {
+            // use copy and delete
+            doCopy(source, destination);
+            doDelete(source, lockToken);
+        }
         eventService.publish(new MoveEvent(workspaceId, destination.getPath(), sourcePath, destination.isFolder()));
         return destination;
     }
@@ -964,12 +1102,13 @@ public class FSMountPoint implements MountPoint {
     private void doDelete(VirtualFileImpl virtualFile, String lockToken) throws ForbiddenException, ServerException {
         if (virtualFile.isFolder()) {
             final LinkedList<VirtualFile> q = new LinkedList<>();
+            final PermissionChecker writeChecker = new PermissionChecker(BasicPermissions.WRITE);
             q.add(virtualFile);
             while (!q.isEmpty()) {
                 for (VirtualFile child : doGetChildren((VirtualFileImpl)q.pop(), SERVICE_GIT_DIR_FILTER)) {
                     // Check permission directly for current file only.
                     // We already know parent may be deleted by current user otherwise we should not be here.
-                    if (!hasPermission((VirtualFileImpl)child, BasicPermissions.WRITE, false)) {
+                    if (!writeChecker.hasPermission((VirtualFileImpl)child, false)) {
                         throw new ForbiddenException(String.format("Unable delete item '%s'. Operation not permitted. ", child.getPath()));
                     }
                     if (child.isFolder()) {
@@ -1012,6 +1151,7 @@ public class FSMountPoint implements MountPoint {
                 throw new ServerException(String.format("Unable delete item '%s'. ", path));
             }
         }
+        aclIndex.remove(virtualFile.getVirtualFilePath());
 
         // delete metadata file
         final java.io.File metadataFile = new java.io.File(ioRoot, toIoPath(getMetadataFilePath(virtualFile.getVirtualFilePath())));
@@ -1033,23 +1173,17 @@ public class FSMountPoint implements MountPoint {
 
 
     private void clearLockTokensCache() {
-        for (Cache<Path, FileLock> cache : lockTokensCache) {
-            cache.clear();
-        }
+        lockTokensCache.clear();
     }
 
 
     private void clearAclCache() {
-        for (Cache<Path, AccessControlList> cache : aclCache) {
-            cache.clear();
-        }
+        aclCache.clear();
     }
 
 
     private void clearMetadataCache() {
-        for (Cache<Path, Map<String, String[]>> cache : metadataCache) {
-            cache.clear();
-        }
+        metadataCache.clear();
     }
 
 
@@ -1067,13 +1201,14 @@ public class FSMountPoint implements MountPoint {
             q.add(virtualFile);
             final int zipEntryNameTrim = virtualFile.getVirtualFilePath().length();
             final byte[] buff = new byte[COPY_BUFFER_SIZE];
+            final PermissionChecker readChecker = new PermissionChecker(BasicPermissions.READ);
             while (!q.isEmpty()) {
                 for (VirtualFile current : doGetChildren((VirtualFileImpl)q.pop(), SERVICE_GIT_DIR_FILTER)) {
                     // (1) Check filter.
                     // (2) Check permission directly for current file only.
                     // We already know parent accessible for current user otherwise we should not be here.
                     // Ignore item if don't have permission to read it.
-                    if (filter.accept(current) && hasPermission((VirtualFileImpl)current, BasicPermissions.READ, false)) {
+                    if (filter.accept(current) && readChecker.hasPermission((VirtualFileImpl)current, false)) {
                         final String zipEntryName = current.getVirtualFilePath().subPath(zipEntryNameTrim).toString().substring(1);
                         if (current.isFile()) {
                             final ZipEntry zipEntry = new ZipEntry(zipEntryName);
@@ -1152,7 +1287,7 @@ public class FSMountPoint implements MountPoint {
                 if (relPath.length() > 1) {
                     // create all required parent directories
                     final Path parentPath = parent.getVirtualFilePath().newPath(relPath.subPath(0, relPath.length() - 1));
-                    current = new VirtualFileImpl(new java.io.File(ioRoot, toIoPath(parentPath)), parentPath, pathToId(parentPath), this);
+                    current = new VirtualFileImpl(new java.io.File(ioRoot, toIoPath(parentPath)), parentPath, this);
                     if (!(current.exists() || current.getIoFile().mkdirs())) {
                         throw new ServerException(String.format("Unable create directory '%s' ", parentPath));
                     }
@@ -1169,7 +1304,7 @@ public class FSMountPoint implements MountPoint {
                     }
                 } else {
                     final VirtualFileImpl file =
-                            new VirtualFileImpl(new java.io.File(current.getIoFile(), name), newPath, pathToId(newPath), this);
+                            new VirtualFileImpl(new java.io.File(current.getIoFile(), name), newPath, this);
                     if (file.exists()) {
                         if (isLocked(file)) {
                             throw new ForbiddenException(String.format("File '%s' already exists and locked. ", file.getPath()));
@@ -1231,8 +1366,7 @@ public class FSMountPoint implements MountPoint {
 
 
     private String doLock(VirtualFileImpl virtualFile, long timeout) throws ConflictException, ServerException {
-        final int index = virtualFile.getVirtualFilePath().hashCode() & MASK;
-        if (NO_LOCK == lockTokensCache[index].get(virtualFile.getVirtualFilePath())) // causes read from file if need.
+        if (NO_LOCK == lockTokensCache.get(virtualFile.getVirtualFilePath())) // causes read from file if need.
         {
             final String lockToken = NameGenerator.generate(null, 16);
             final long expired = timeout > 0 ? (System.currentTimeMillis() + timeout) : Long.MAX_VALUE;
@@ -1256,7 +1390,7 @@ public class FSMountPoint implements MountPoint {
             }
 
             // Save lock token in cache if lock successful.
-            lockTokensCache[index].put(virtualFile.getVirtualFilePath(), fileLock);
+            lockTokensCache.put(virtualFile.getVirtualFilePath(), fileLock);
             return lockToken;
         }
 
@@ -1280,7 +1414,6 @@ public class FSMountPoint implements MountPoint {
     }
 
     private void doUnlock(VirtualFileImpl virtualFile, FileLock lock, String lockToken) throws ForbiddenException, ServerException {
-        final int index = virtualFile.getVirtualFilePath().hashCode() & MASK;
         try {
             if (!lock.getLockToken().equals(lockToken)) {
                 throw new ForbiddenException(String.format("Unable unlock file '%s'. Lock token does not match. ", virtualFile.getPath()));
@@ -1290,7 +1423,7 @@ public class FSMountPoint implements MountPoint {
                 throw new IOException(String.format("Unable delete lock file %s. ", lockIoFile));
             }
             // Mark as unlocked in cache.
-            lockTokensCache[index].put(virtualFile.getVirtualFilePath(), NO_LOCK);
+            lockTokensCache.put(virtualFile.getVirtualFilePath(), NO_LOCK);
         } catch (IOException e) {
             String msg = String.format("Unable unlock file '%s'. ", virtualFile.getPath());
             LOG.error(msg + e.getMessage(), e); // More details in log but do not show internal error to caller.
@@ -1304,9 +1437,8 @@ public class FSMountPoint implements MountPoint {
     }
 
     private FileLock checkIsLockValidAndGet(VirtualFileImpl virtualFile) {
-        final int index = virtualFile.getVirtualFilePath().hashCode() & MASK;
         // causes read from file if need
-        final FileLock lock = lockTokensCache[index].get(virtualFile.getVirtualFilePath());
+        final FileLock lock = lockTokensCache.get(virtualFile.getVirtualFilePath());
         if (NO_LOCK == lock) {
             return NO_LOCK;
         }
@@ -1318,7 +1450,7 @@ public class FSMountPoint implements MountPoint {
                     LOG.warn("Unable delete lock file %s. ", lockIoFile);
                 }
             }
-            lockTokensCache[index].put(virtualFile.getVirtualFilePath(), NO_LOCK);
+            lockTokensCache.put(virtualFile.getVirtualFilePath(), NO_LOCK);
             return NO_LOCK;
         }
         return lock;
@@ -1341,14 +1473,13 @@ public class FSMountPoint implements MountPoint {
 
     AccessControlList getACL(VirtualFileImpl virtualFile) {
         // Do not check permission here. We already check 'read' permission when get VirtualFile.
-        return new AccessControlList(aclCache[virtualFile.getVirtualFilePath().hashCode() & MASK].get(virtualFile.getVirtualFilePath()));
+        return new AccessControlList(aclCache.get(virtualFile.getVirtualFilePath()));
     }
 
 
     void updateACL(VirtualFileImpl virtualFile, List<AccessControlEntry> acl, boolean override, String lockToken)
             throws ForbiddenException, ServerException {
-        final int index = virtualFile.getVirtualFilePath().hashCode() & MASK;
-        final AccessControlList actualACL = aclCache[index].get(virtualFile.getVirtualFilePath());
+        final AccessControlList actualACL = aclCache.get(virtualFile.getVirtualFilePath());
 
         if (!hasPermission(virtualFile, BasicPermissions.UPDATE_ACL, true)) {
             throw new ForbiddenException(String.format("Unable update ACL for '%s'. Operation not permitted. ", virtualFile.getPath()));
@@ -1389,8 +1520,13 @@ public class FSMountPoint implements MountPoint {
             closeQuietly(dos);
         }
 
-        // 4. update cache
-        aclCache[index].put(virtualFile.getVirtualFilePath(), copy);
+        // 4. update cache and index
+        aclCache.put(virtualFile.getVirtualFilePath(), copy);
+        if (copy.isEmpty()) {
+            aclIndex.remove(virtualFile.getVirtualFilePath());
+        } else {
+            aclIndex.add(virtualFile.getVirtualFilePath());
+        }
         // 5. update last modification time
         if (!virtualFile.getIoFile().setLastModified(System.currentTimeMillis())) {
             LOG.warn("Unable to set timestamp to '{}'. ", virtualFile.getIoFile());
@@ -1401,43 +1537,77 @@ public class FSMountPoint implements MountPoint {
 
 
     protected boolean hasPermission(VirtualFileImpl virtualFile, BasicPermissions p, boolean checkParent) {
-        // Find the closes access control list on the line of ancestry, starting with the virtual file itself
-        Path path = virtualFile.getVirtualFilePath();
-        AccessControlList accessControlList;
-        while (true) {
-            if (path == null) {
-                return true;
+        return new PermissionChecker(p).hasPermission(virtualFile, checkParent);
+    }
+
+    /**
+     * Checks permission of the current user. Results are remembered by path of ACL which is applied to item, so when permissions of
+     * many items are checked within single request, e.g. children of folder, each ACL is evaluated once.
+     */
+    private class PermissionChecker {
+        private final BasicPermissions      permission;
+        private final Map<Path, Boolean>    results;
+        private       VirtualFileSystemUser user;
+
+        PermissionChecker(BasicPermissions permission) {
+            this.permission = permission;
+            this.results = new HashMap<>(4);
+        }
+
+        boolean hasPermission(VirtualFileImpl virtualFile, boolean checkParent) {
+            // Find the closes access control list on the line of ancestry, starting with the virtual file itself
+            Path path = virtualFile.getVirtualFilePath();
+            AccessControlList accessControlList;
+            while (true) {
+                if (path == null) {
+                    return true;
+                }
+                // Index knows which items have ACL, so items without ACL are skipped without lookup in cache or filesystem
+                if (aclIndex.hasAcl(path)) {
+                    final Boolean result = results.get(path);
+                    if (result != null) {
+                        return result;
+                    }
+                    accessControlList = aclCache.get(path);
+                    if (!accessControlList.isEmpty()) {
+                        // A non-empty ACL, search done
+                        break;
+                    }
+                }
+                if (!checkParent) {
+                    // No ACL and checking parents not enabled, nothing to check
+                    return true;
+                }
+                path = path.getParent();
             }
-            accessControlList = aclCache[path.hashCode() & MASK].get(path);
-            if (!accessControlList.isEmpty()) {
-                // A non-empty ACL, search done
-                break;
+            final boolean result = check(accessControlList);
+            results.put(path, result);
+            return result;
+        }
+
+        private boolean check(AccessControlList accessControlList) {
+            if (user == null) {
+                user = userContext.getVirtualFileSystemUser();
             }
-            if (!checkParent) {
-                // No ACL and checking parents not enabled, nothing to check
-                return true;
+            // 1- Check user permissions
+            Boolean aclCheck = aclPermission(user.getUserId(), Principal.Type.USER, accessControlList, permission);
+            if (aclCheck != null) {
+                return aclCheck;
             }
-            path = path.getParent();
-        }
-        // 1- Check user permissions
-        VirtualFileSystemUser user = userContext.getVirtualFileSystemUser();
-        Boolean aclCheck = aclPermission(user.getUserId(), Principal.Type.USER, accessControlList, p);
-        if (aclCheck != null) {
-            return aclCheck;
-        }
-        // 2- Check group permissions
-        Collection<String> groups = user.getGroups();
-        if (!groups.isEmpty()) {
-            for (String group : groups) {
-                aclCheck = aclPermission(group, Principal.Type.GROUP, accessControlList, p);
-                if (aclCheck != null) {
-                    return aclCheck;
+            // 2- Check group permissions
+            Collection<String> groups = user.getGroups();
+            if (!groups.isEmpty()) {
+                for (String group : groups) {
+                    aclCheck = aclPermission(group, Principal.Type.GROUP, accessControlList, permission);
+                    if (aclCheck != null) {
+                        return aclCheck;
+                    }
                 }
             }
+            // 3- Check everyone permissions
+            aclCheck = aclPermission(VirtualFileSystemInfo.ANY_PRINCIPAL, Principal.Type.USER, accessControlList, permission);
+            return aclCheck != null && aclCheck;
         }
-        // 3- Check everyone permissions
-        aclCheck = aclPermission(VirtualFileSystemInfo.ANY_PRINCIPAL, Principal.Type.USER, accessControlList, p);
-        return aclCheck != null && aclCheck;
     }
 
     /**
@@ -1481,7 +1651,6 @@ public class FSMountPoint implements MountPoint {
 
     void updateProperties(VirtualFileImpl virtualFile, List<Property> properties, String lockToken)
             throws ForbiddenException, ServerException {
-        final int index = virtualFile.getVirtualFilePath().hashCode() & MASK;
         if (!hasPermission(virtualFile, BasicPermissions.WRITE, true)) {
             throw new ForbiddenException(
                     String.format("Unable update properties for '%s'. Operation not permitted. ", virtualFile.getPath()));
@@ -1493,7 +1662,7 @@ public class FSMountPoint implements MountPoint {
         }
 
         // 1. make copy of properties
-        final Map<String, String[]> metadata = copyMetadataMap(metadataCache[index].get(virtualFile.getVirtualFilePath()));
+        final Map<String, String[]> metadata = copyMetadataMap(metadataCache.get(virtualFile.getVirtualFilePath()));
         // 2. update
         for (Property property : properties) {
             final String name = property.getName();
@@ -1508,7 +1677,7 @@ public class FSMountPoint implements MountPoint {
         // 3. save in file
         saveFileMetadata(virtualFile, metadata);
         // 4. update cache
-        metadataCache[index].put(virtualFile.getVirtualFilePath(), metadata);
+        metadataCache.put(virtualFile.getVirtualFilePath(), metadata);
         // 5. update last modification time
         if (!virtualFile.getIoFile().setLastModified(System.currentTimeMillis())) {
             LOG.warn("Unable to set timestamp to '{}'. ", virtualFile.getIoFile());
@@ -1518,23 +1687,20 @@ public class FSMountPoint implements MountPoint {
 
 
     private Map<String, String[]> getFileMetadata(VirtualFileImpl virtualFile) {
-        final int index = virtualFile.getVirtualFilePath().hashCode() & MASK;
-        return copyMetadataMap(metadataCache[index].get(virtualFile.getVirtualFilePath()));
+        return copyMetadataMap(metadataCache.get(virtualFile.getVirtualFilePath()));
     }
 
 
     String getPropertyValue(VirtualFileImpl virtualFile, String name) {
         // Do not check permission here. We already check 'read' permission when get VirtualFile.
-        final int index = virtualFile.getVirtualFilePath().hashCode() & MASK;
-        final String[] value = metadataCache[index].get(virtualFile.getVirtualFilePath()).get(name);
+        final String[] value = metadataCache.get(virtualFile.getVirtualFilePath()).get(name);
         return value == null || value.length == 0 ? null : value[0];
     }
 
 
     String[] getPropertyValues(VirtualFileImpl virtualFile, String name) {
         // Do not check permission here. We already check 'read' permission when get VirtualFile.
-        final int index = virtualFile.getVirtualFilePath().hashCode() & MASK;
-        final String[] value = metadataCache[index].get(virtualFile.getVirtualFilePath()).get(name);
+        final String[] value = metadataCache.get(virtualFile.getVirtualFilePath()).get(name);
         final String[] copyValue = new String[value.length];
         System.arraycopy(value, 0, copyValue, 0, value.length);
         return copyValue;
@@ -1547,9 +1713,8 @@ public class FSMountPoint implements MountPoint {
 
 
     void setProperty(VirtualFileImpl virtualFile, String name, String... value) throws ServerException {
-        final int index = virtualFile.getVirtualFilePath().hashCode() & MASK;
         // 1. make copy of properties
-        final Map<String, String[]> metadata = copyMetadataMap(metadataCache[index].get(virtualFile.getVirtualFilePath()));
+        final Map<String, String[]> metadata = copyMetadataMap(metadataCache.get(virtualFile.getVirtualFilePath()));
         // 2. update
         if (value != null) {
             String[] copyValue = new String[value.length];
@@ -1561,7 +1726,7 @@ public class FSMountPoint implements MountPoint {
         // 3. save in file
         saveFileMetadata(virtualFile, metadata);
         // 4. update cache
-        metadataCache[index].put(virtualFile.getVirtualFilePath(), metadata);
+        metadataCache.put(virtualFile.getVirtualFilePath(), metadata);
     }
 
 
@@ -1632,19 +1797,27 @@ public class FSMountPoint implements MountPoint {
    /* ==================================== */
 
     LazyIterator<Pair<String, String>> countMd5Sums(VirtualFileImpl virtualFile) throws ServerException {
+        return countHashSums(virtualFile, Hashing.md5());
+    }
+
+    /**
+     * Counts hash sums of all files in folder. Tree is walked in the calling thread and files of large trees are hashed in parallel,
+     * result is in the same order as files are visited.
+     */
+    LazyIterator<Pair<String, String>> countHashSums(VirtualFileImpl virtualFile, final HashFunction hashFunction)
+            throws ServerException {
         if (!virtualFile.isFolder()) {
             return LazyIterator.emptyIterator();
         }
-        final List<Pair<String, String>> hashes = new ArrayList<>();
+        final List<FileHash> files = new ArrayList<>();
         final int trimPathLength = virtualFile.getPath().length() + 1;
-        final HashFunction hashFunction = Hashing.md5();
         final ValueHolder<ServerException> errorHolder = new ValueHolder<>();
         virtualFile.accept(new VirtualFileVisitor() {
             @Override
             public void visit(final VirtualFile virtualFile) {
                 try {
                     if (virtualFile.isFile()) {
-                        hashes.add(Pair.of(countHashSum(virtualFile, hashFunction), virtualFile.getPath().substring(trimPathLength)));
+                        files.add(new FileHash((VirtualFileImpl)virtualFile));
                     } else {
                         final LazyIterator<VirtualFile> children = virtualFile.getChildren(VirtualFileFilter.ALL);
                         while (children.hasNext()) {
@@ -1656,16 +1829,42 @@ public class FSMountPoint implements MountPoint {
                 }
             }
         });
+        if (errorHolder.get() != null) {
+            throw errorHolder.get();
+        }
+        ParallelTasks.forEach(files, new ParallelTasks.Task<FileHash, ServerException>() {
+            @Override
+            public void run(FileHash fileHash) throws ServerException {
+                fileHash.hash = countHashSum(fileHash.file, hashFunction);
+            }
+        });
+        final List<Pair<String, String>> hashes = new ArrayList<>(files.size());
+        for (FileHash fileHash : files) {
+            hashes.add(Pair.of(fileHash.hash, fileHash.file.getPath().substring(trimPathLength)));
+        }
         return LazyIterator.fromList(hashes);
     }
 
+    private static class FileHash {
+        final VirtualFileImpl file;
+        String hash;
 
-    private String countHashSum(VirtualFile virtualFile, HashFunction hashFunction) throws ServerException {
+        FileHash(VirtualFileImpl file) {
+            this.file = file;
+        }
+    }
+
+    /** Reads file with fixed size buffer, so large files are never loaded in memory. */
+    private String countHashSum(VirtualFileImpl virtualFile, HashFunction hashFunction) throws ServerException {
         try (PathLockFactory.PathLock lock = acquireLock(virtualFile, false);
-                InputStream contentStream = virtualFile.getContent().getStream()) {
-            return ByteSource.wrap(ByteStreams.toByteArray(contentStream)).hash(hashFunction).toString();
-        } catch (ForbiddenException e) {
-            throw new ServerException(e.getServiceError());
+             InputStream contentStream = new FileInputStream(virtualFile.getIoFile())) {
+            final Hasher hasher = hashFunction.newHasher();
+            final byte[] buffer = HASH_BUFFER.get();
+            int r;
+            while ((r = contentStream.read(buffer)) != -1) {
+                hasher.putBytes(buffer, 0, r);
+            }
+            return hasher.hash().toString();
         } catch (IOException e) {
             throw new ServerException(e);
         }
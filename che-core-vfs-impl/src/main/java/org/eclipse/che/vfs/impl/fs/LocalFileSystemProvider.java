@@ -128,9 +128,11 @@ public class LocalFileSystemProvider extends VirtualFileSystemProvider {
      * @see VirtualFileSystem
      */
     public void mount(java.io.File ioFile) throws ServerException {
-        if (!mountRef.maybeSet(new FSMountPoint(getWorkspaceId(), ioFile, eventService, searcherProvider, systemFilter))) {
+        final FSMountPoint mount = new FSMountPoint(getWorkspaceId(), ioFile, eventService, searcherProvider, systemFilter);
+        if (!mountRef.maybeSet(mount)) {
             throw new ServerException(String.format("Local filesystem '%s' already mounted. ", ioFile));
         }
+        MountPointWatcher.add(mount);
     }
 
     public boolean isMounted() {
@@ -150,6 +152,7 @@ public class LocalFileSystemProvider extends VirtualFileSystemProvider {
                     throw new ServerException(String.format("Virtual filesystem '%s' is not available. ", workspaceId));
                 }
                 mount = newMount;
+                MountPointWatcher.add(mount);
             }
         }
         return mount;
@@ -163,11 +166,7 @@ public class LocalFileSystemProvider extends VirtualFileSystemProvider {
         }
 
         boolean maybeSet(FSMountPoint mountPoint) {
-            final boolean res = ref.compareAndSet(null, mountPoint);
-            if (res) {
-                MountPointCacheCleaner.add(mountPoint);
-            }
-            return res;
+            return ref.compareAndSet(null, mountPoint);
         }
 
         FSMountPoint get() {
@@ -177,7 +176,7 @@ public class LocalFileSystemProvider extends VirtualFileSystemProvider {
         FSMountPoint remove() {
             final FSMountPoint mountPoint = ref.getAndSet(null);
             if (mountPoint != null) {
-                MountPointCacheCleaner.remove(mountPoint);
+                MountPointWatcher.remove(mountPoint);
             }
             return mountPoint;
         }
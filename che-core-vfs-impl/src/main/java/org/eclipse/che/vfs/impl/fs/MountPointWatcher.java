@@ -0,0 +1,622 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.vfs.impl.fs;
+
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.notification.EventSubscriber;
+import org.eclipse.che.api.vfs.server.Path;
+import org.eclipse.che.api.vfs.server.observation.CreateEvent;
+import org.eclipse.che.api.vfs.server.observation.DeleteEvent;
+import org.eclipse.che.api.vfs.server.observation.MoveEvent;
+import org.eclipse.che.api.vfs.server.observation.RenameEvent;
+import org.eclipse.che.api.vfs.server.observation.UpdateContentEvent;
+import org.eclipse.che.api.vfs.server.observation.VirtualFileEvent;
+import org.eclipse.che.api.vfs.server.search.Searcher;
+import org.eclipse.che.api.vfs.server.search.SearcherProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.annotation.PreDestroy;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.file.LinkOption.NOFOLLOW_LINKS;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Watches directory of {@link FSMountPoint} and turns changes which are made directly on filesystem (git checkout, build, terminal
+ * commands, etc) into virtual file system events.
+ * <p/>
+ * Each mount point has own {@link WatchService} and thread. All folders of mount point, except service folders {@code .vfs}, are
+ * registered in watch service, number of registered folders is limited, changes in folders over the limit aren't noticed. Changes are
+ * collected until filesystem is quiet during {@link #DEFAULT_DEBOUNCE_MILLIS} and then published at once. Changes of the same item are
+ * coalesced, e.g. item which is created and then removed is not reported at all, changes of items inside created folder are reported
+ * as creation of this folder. When watch service looses events of folder (overflow) the folder is scanned again and all items which
+ * are modified after last publication are reported as updated.
+ * <p/>
+ * For each published change watcher drops cached data of changed item in mount point, updates search index and publishes {@link
+ * CreateEvent}, {@link UpdateContentEvent} or {@link DeleteEvent}. Changes which are made through virtual file system are already
+ * reported by mount point and skipped by watcher.
+ * <p/>
+ * Creation of file {@code .vfs/cache/reset} in root folder of mount point resets all caches of mount point.
+ */
+class MountPointWatcher implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(MountPointWatcher.class);
+
+    static final long DEFAULT_DEBOUNCE_MILLIS  = 500;
+    static final int  DEFAULT_MAX_WATCHED_DIRS = 8192;
+    /** Max number of changes kept until publication. If filesystem is changed more all caches of mount point are reset. */
+    static final int  MAX_PENDING_CHANGES      = 10000;
+
+    private static final boolean ENABLED          =
+            Boolean.parseBoolean(System.getProperty("org.eclipse.che.vfs.watcher.enabled", "true"));
+    private static final long    DEBOUNCE_MILLIS  = Long.getLong("org.eclipse.che.vfs.watcher.debounce", DEFAULT_DEBOUNCE_MILLIS);
+    private static final int     MAX_WATCHED_DIRS = Integer.getInteger("org.eclipse.che.vfs.watcher.max-dirs", DEFAULT_MAX_WATCHED_DIRS);
+
+    private static final String CACHE_RESET_DIR  = FSMountPoint.SERVICE_DIR + java.io.File.separatorChar + "cache";
+    private static final String CACHE_RESET_FILE = "reset";
+    /** Some filesystems keep modification time with one second precision. */
+    private static final long   MTIME_PRECISION  = 1000;
+
+    private static final int CREATED  = 1;
+    private static final int MODIFIED = 2;
+    private static final int DELETED  = 3;
+
+    private static final Map<java.io.File, MountPointWatcher> watchers = new ConcurrentHashMap<>();
+
+    /** Starts watching changes of mount point. Does nothing if watcher is disabled with system property. */
+    static void add(FSMountPoint mountPoint) {
+        if (!ENABLED) {
+            return;
+        }
+        final java.io.File ioRoot = mountPoint.getRoot().getIoFile();
+        try {
+            final MountPointWatcher watcher = new MountPointWatcher(mountPoint, DEBOUNCE_MILLIS, MAX_WATCHED_DIRS);
+            watcher.start();
+            final MountPointWatcher previous = watchers.put(ioRoot, watcher);
+            if (previous != null) {
+                previous.close();
+            }
+        } catch (IOException e) {
+            LOG.error(String.format("Unable watch changes of VFS mounted at %s. %s", ioRoot, e.getMessage()), e);
+        }
+    }
+
+    static void remove(FSMountPoint mountPoint) {
+        final MountPointWatcher watcher = watchers.remove(mountPoint.getRoot().getIoFile());
+        if (watcher != null) {
+            watcher.close();
+        }
+    }
+
+    public static class Finalizer {
+        @PreDestroy
+        void stop() {
+            for (Iterator<MountPointWatcher> i = watchers.values().iterator(); i.hasNext(); ) {
+                i.next().close();
+                i.remove();
+            }
+            LOG.info("VFS watchers stopped.");
+        }
+    }
+
+    /** Pending change of item. */
+    private static class Change {
+        int     kind;
+        boolean folder;
+        /** Time of the last event of item. */
+        long    time;
+
+        Change(int kind, boolean folder, long time) {
+            this.kind = kind;
+            this.folder = folder;
+            this.time = time;
+        }
+
+        /** Merges next change of the same item into this one. Returns {@code false} if changes cancel each other. */
+        boolean merge(int next, boolean nextFolder) {
+            if (next == CREATED) {
+                // Re-created file, e.g. replaced by git, looks like update for clients.
+                kind = kind == DELETED && !folder && !nextFolder ? MODIFIED : CREATED;
+                folder = nextFolder;
+            } else if (next == MODIFIED) {
+                if (kind != CREATED) {
+                    kind = MODIFIED;
+                }
+            } else {
+                if (kind == CREATED) {
+                    return false;
+                }
+                kind = DELETED;
+                // Removal of folder may be noticed twice: by its parent and by its own watch key.
+                folder |= nextFolder;
+            }
+            return true;
+        }
+    }
+
+    private final FSMountPoint       mountPoint;
+    private final java.nio.file.Path ioRoot;
+    private final java.nio.file.Path resetDir;
+    private final long               debounceNanos;
+    private final long               maxDelayNanos;
+    private final int                maxWatchedDirs;
+    private final WatchService       watchService;
+    private final Thread             thread;
+    private final CountDownLatch     ready;
+
+    /** Paths of items changed through virtual file system and time of change. */
+    private final ConcurrentMap<Path, Long>        ownChanges;
+    private final EventSubscriber<VirtualFileEvent> ownChangesListener;
+
+    /* Accessed from watcher thread only. */
+    private final Map<java.nio.file.Path, WatchKey> watched;
+    private final Map<java.nio.file.Path, Change>   pending;
+    private final Set<java.nio.file.Path>           rescans;
+    private       boolean                           limitReached;
+    private       boolean                           tooManyChanges;
+    private       long                              firstChangeTime;
+    private       long                              lastChangeTime;
+    private       long                              lastSyncTime;
+
+    private volatile boolean closed;
+
+    MountPointWatcher(FSMountPoint mountPoint, long debounceMillis, int maxWatchedDirs) throws IOException {
+        this.mountPoint = mountPoint;
+        this.ioRoot = mountPoint.getRoot().getIoFile().toPath();
+        this.resetDir = ioRoot.resolve(CACHE_RESET_DIR);
+        this.debounceNanos = TimeUnit.MILLISECONDS.toNanos(debounceMillis);
+        this.maxDelayNanos = debounceNanos * 10;
+        this.maxWatchedDirs = maxWatchedDirs;
+        this.watchService = ioRoot.getFileSystem().newWatchService();
+        this.ready = new CountDownLatch(1);
+        this.ownChanges = new ConcurrentHashMap<>();
+        this.watched = new HashMap<>();
+        this.pending = new LinkedHashMap<>();
+        this.rescans = new LinkedHashSet<>();
+        this.lastSyncTime = System.currentTimeMillis();
+        this.thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                watch();
+            }
+        }, "VirtualFileSystemWatcher-" + mountPoint.getWorkspaceId());
+        this.thread.setDaemon(true);
+        this.ownChangesListener = new EventSubscriber<VirtualFileEvent>() {
+            @Override
+            public void onEvent(VirtualFileEvent event) {
+                if (Thread.currentThread() != thread && MountPointWatcher.this.mountPoint.getWorkspaceId().equals(event.getWorkspaceId())) {
+                    final Long now = System.nanoTime();
+                    ownChanges.put(Path.fromString(event.getPath()), now);
+                    if (event instanceof MoveEvent) {
+                        ownChanges.put(Path.fromString(((MoveEvent)event).getOldPath()), now);
+                    } else if (event instanceof RenameEvent) {
+                        ownChanges.put(Path.fromString(((RenameEvent)event).getOldPath()), now);
+                    }
+                }
+            }
+        };
+    }
+
+    void start() throws IOException {
+        Files.createDirectories(resetDir);
+        mountPoint.getEventService().subscribe(ownChangesListener);
+        thread.start();
+    }
+
+    /** Waits until all folders of mount point are registered in watch service, used in tests. */
+    boolean awaitReady(long timeout, TimeUnit unit) throws InterruptedException {
+        return ready.await(timeout, unit);
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        mountPoint.getEventService().unsubscribe(ownChangesListener);
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            LOG.error(e.getMessage(), e);
+        }
+        thread.interrupt();
+    }
+
+    private void watch() {
+        try {
+            register(resetDir);
+            registerTree(ioRoot, false);
+        } finally {
+            ready.countDown();
+        }
+        try {
+            while (!closed) {
+                final WatchKey key;
+                if (pending.isEmpty() && rescans.isEmpty() && !tooManyChanges) {
+                    key = watchService.take();
+                } else {
+                    final long wait = Math.min(lastChangeTime + debounceNanos, firstChangeTime + maxDelayNanos) - System.nanoTime();
+                    key = wait > 0 ? watchService.poll(wait, TimeUnit.NANOSECONDS) : null;
+                    if (key == null) {
+                        flush();
+                        continue;
+                    }
+                }
+                process(key);
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // watcher is closed
+        } catch (RuntimeException e) {
+            LOG.error(String.format("VFS watcher of workspace %s stopped. %s", mountPoint.getWorkspaceId(), e.getMessage()), e);
+        }
+    }
+
+    private void process(WatchKey key) {
+        final java.nio.file.Path dir = (java.nio.file.Path)key.watchable();
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                touch();
+                rescans.add(dir);
+                continue;
+            }
+            final java.nio.file.Path file = dir.resolve((java.nio.file.Path)event.context());
+            final String name = file.getFileName().toString();
+            if (dir.equals(resetDir)) {
+                if (CACHE_RESET_FILE.equals(name) && event.kind() != ENTRY_DELETE) {
+                    resetCaches(file);
+                }
+            } else if (!FSMountPoint.SERVICE_DIR.equals(name)) {
+                if (event.kind() == ENTRY_CREATE) {
+                    if (Files.isDirectory(file, NOFOLLOW_LINKS)) {
+                        record(file, CREATED, true);
+                        registerTree(file, true);
+                    } else {
+                        record(file, CREATED, false);
+                    }
+                } else if (event.kind() == ENTRY_MODIFY) {
+                    // Folders are modified when their children are changed, such changes are reported separately.
+                    if (!Files.isDirectory(file, NOFOLLOW_LINKS)) {
+                        record(file, MODIFIED, false);
+                    }
+                } else {
+                    record(file, DELETED, unregisterTree(file));
+                }
+            }
+        }
+        if (!key.reset()) {
+            if (dir.equals(ioRoot) || dir.equals(resetDir)) {
+                watched.remove(dir);
+            } else if (watched.containsKey(dir)) {
+                // Folder is removed but its parent didn't report it yet.
+                record(dir, DELETED, unregisterTree(dir));
+            }
+        }
+    }
+
+    private long touch() {
+        final long now = System.nanoTime();
+        if (pending.isEmpty() && rescans.isEmpty() && !tooManyChanges) {
+            firstChangeTime = now;
+        }
+        lastChangeTime = now;
+        return now;
+    }
+
+    private void record(java.nio.file.Path file, int kind, boolean folder) {
+        if (tooManyChanges) {
+            return;
+        }
+        final long now = touch();
+        final Change change = pending.get(file);
+        if (change == null) {
+            if (pending.size() >= MAX_PENDING_CHANGES) {
+                tooManyChanges = true;
+                pending.clear();
+                rescans.clear();
+                return;
+            }
+            pending.put(file, new Change(kind, folder, now));
+        } else if (change.merge(kind, folder)) {
+            change.time = now;
+        } else {
+            pending.remove(file);
+        }
+        if (kind == DELETED && folder) {
+            // Changes inside removed folder don't matter anymore.
+            pending.keySet().removeIf(p -> p.startsWith(file) && !p.equals(file));
+            rescans.removeIf(p -> p.startsWith(file));
+        }
+    }
+
+    private void flush() {
+        final long syncTime = System.currentTimeMillis();
+        if (!tooManyChanges) {
+            for (java.nio.file.Path dir : new ArrayList<>(rescans)) {
+                rescan(dir);
+            }
+        }
+        rescans.clear();
+        if (tooManyChanges) {
+            LOG.warn("Too many changes in VFS of workspace {}, reset all caches", mountPoint.getWorkspaceId());
+            mountPoint.reset();
+            tooManyChanges = false;
+        } else {
+            pruneOwnChanges();
+            final Set<java.nio.file.Path> createdFolders = new HashSet<>();
+            for (Map.Entry<java.nio.file.Path, Change> entry : pending.entrySet()) {
+                final java.nio.file.Path file = entry.getKey();
+                final Change change = entry.getValue();
+                if (!isInside(file, createdFolders)) {
+                    if (change.kind == CREATED && change.folder) {
+                        createdFolders.add(file);
+                    }
+                    publish(file, change);
+                }
+            }
+        }
+        pending.clear();
+        lastSyncTime = syncTime;
+    }
+
+    private void publish(java.nio.file.Path file, Change change) {
+        final Path path = toVirtualPath(file);
+        if (isOwnChange(path, change.time)) {
+            return;
+        }
+        if (change.kind != DELETED && !Files.exists(file, NOFOLLOW_LINKS)) {
+            // Removed after change, removal is reported separately.
+            return;
+        }
+        mountPoint.invalidate(path);
+        final String workspaceId = mountPoint.getWorkspaceId();
+        final VirtualFileEvent event;
+        switch (change.kind) {
+            case CREATED:
+                updateSearchIndex(path, file, change);
+                event = new CreateEvent(workspaceId, path.toString(), change.folder);
+                break;
+            case MODIFIED:
+                if (change.folder) {
+                    return;
+                }
+                updateSearchIndex(path, file, change);
+                event = new UpdateContentEvent(workspaceId, path.toString());
+                break;
+            default:
+                updateSearchIndex(path, file, change);
+                event = new DeleteEvent(workspaceId, path.toString(), change.folder);
+                break;
+        }
+        mountPoint.getEventService().publish(event);
+    }
+
+    private void updateSearchIndex(Path path, java.nio.file.Path file, Change change) {
+        final SearcherProvider searcherProvider = mountPoint.getSearcherProvider();
+        if (searcherProvider == null) {
+            return;
+        }
+        try {
+            final Searcher searcher = searcherProvider.getSearcher(mountPoint, true);
+            if (change.kind == DELETED) {
+                searcher.delete(path.toString(), !change.folder);
+            } else {
+                final VirtualFileImpl virtualFile = new VirtualFileImpl(file.toFile(), path, mountPoint);
+                if (change.kind == CREATED) {
+                    searcher.add(virtualFile);
+                } else {
+                    searcher.update(virtualFile);
+                }
+            }
+        } catch (ServerException e) {
+            LOG.error(e.getMessage(), e);
+        }
+    }
+
+    /** Scans folder which events were lost and records all changes which may be found without previous state of folder. */
+    private void rescan(java.nio.file.Path dir) {
+        for (java.nio.file.Path watchedDir : new ArrayList<>(watched.keySet())) {
+            if (dir.equals(watchedDir.getParent()) && !Files.isDirectory(watchedDir, NOFOLLOW_LINKS)) {
+                record(watchedDir, DELETED, unregisterTree(watchedDir));
+            }
+        }
+        try (DirectoryStream<java.nio.file.Path> stream = Files.newDirectoryStream(dir)) {
+            for (java.nio.file.Path entry : stream) {
+                if (FSMountPoint.SERVICE_DIR.equals(entry.getFileName().toString())) {
+                    continue;
+                }
+                final BasicFileAttributes attributes;
+                try {
+                    attributes = Files.readAttributes(entry, BasicFileAttributes.class, NOFOLLOW_LINKS);
+                } catch (NoSuchFileException e) {
+                    continue;
+                }
+                if (attributes.isDirectory()) {
+                    if (!watched.containsKey(entry)) {
+                        record(entry, CREATED, true);
+                        registerTree(entry, true);
+                    }
+                } else if (attributes.lastModifiedTime().toMillis() >= lastSyncTime - MTIME_PRECISION) {
+                    record(entry, MODIFIED, false);
+                }
+            }
+        } catch (IOException | DirectoryIteratorException e) {
+            LOG.warn("Unable scan directory {}. {}", dir, e.getMessage());
+        }
+        // Removed files can't be found without previous state of folder, so drop everything cached for it.
+        if (!dir.equals(ioRoot)) {
+            mountPoint.invalidate(toVirtualPath(dir));
+        }
+    }
+
+    /** Registers folder and all its sub-folders in watch service. Optionally records all found items as created. */
+    private void registerTree(final java.nio.file.Path start, final boolean recordCreated) {
+        try {
+            Files.walkFileTree(start, new SimpleFileVisitor<java.nio.file.Path>() {
+                @Override
+                public FileVisitResult preVisitDirectory(java.nio.file.Path dir, BasicFileAttributes attrs) {
+                    if (!dir.equals(start) && FSMountPoint.SERVICE_DIR.equals(dir.getFileName().toString())) {
+                        return FileVisitResult.SKIP_SUBTREE;
+                    }
+                    if (!register(dir)) {
+                        return FileVisitResult.TERMINATE;
+                    }
+                    if (recordCreated && !dir.equals(start)) {
+                        record(dir, CREATED, true);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFile(java.nio.file.Path file, BasicFileAttributes attrs) {
+                    if (recordCreated) {
+                        record(file, CREATED, false);
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(java.nio.file.Path file, IOException e) {
+                    LOG.debug("Unable watch {}. {}", file, e.getMessage());
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            LOG.warn("Unable watch directory {}. {}", start, e.getMessage());
+        }
+    }
+
+    /** Returns {@code false} if limit of watched folders is reached. */
+    private boolean register(java.nio.file.Path dir) {
+        if (watched.containsKey(dir)) {
+            return true;
+        }
+        if (watched.size() >= maxWatchedDirs) {
+            if (!limitReached) {
+                limitReached = true;
+                LOG.warn("Limit of {} watched directories is reached for VFS of workspace {}, further changes may be not noticed",
+                         maxWatchedDirs, mountPoint.getWorkspaceId());
+            }
+            return false;
+        }
+        try {
+            watched.put(dir, dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY));
+            return true;
+        } catch (NoSuchFileException e) {
+            return true;
+        } catch (IOException e) {
+            // Most probably limit of inotify watches is exhausted.
+            if (!limitReached) {
+                limitReached = true;
+                LOG.warn("Unable watch directory {}, further changes may be not noticed. {}", dir, e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    /** Cancels watching of removed folder and all its sub-folders. Returns {@code true} if item was watched folder. */
+    private boolean unregisterTree(java.nio.file.Path dir) {
+        if (!watched.containsKey(dir)) {
+            return false;
+        }
+        for (Iterator<Map.Entry<java.nio.file.Path, WatchKey>> i = watched.entrySet().iterator(); i.hasNext(); ) {
+            final Map.Entry<java.nio.file.Path, WatchKey> entry = i.next();
+            if (entry.getKey().startsWith(dir)) {
+                entry.getValue().cancel();
+                i.remove();
+            }
+        }
+        limitReached = false;
+        return true;
+    }
+
+    private void resetCaches(java.nio.file.Path resetFile) {
+        mountPoint.reset();
+        LOG.info("Reset cache for VFS mounted at {}", ioRoot);
+        try {
+            Files.deleteIfExists(resetFile);
+        } catch (IOException e) {
+            LOG.error(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Tests whether change of item is made through virtual file system. Virtual file system reports change after it is done, so
+     * events of own change come before its report or shortly after it.
+     */
+    private boolean isOwnChange(Path path, long time) {
+        for (Path p = path; !p.isRoot(); p = p.getParent()) {
+            final Long ownTime = ownChanges.get(p);
+            if (ownTime != null && ownTime - (time - debounceNanos) >= 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void pruneOwnChanges() {
+        // Filesystem events of own change may come until the latest publication of changes.
+        final long expired = System.nanoTime() - (maxDelayNanos + debounceNanos);
+        for (Iterator<Long> i = ownChanges.values().iterator(); i.hasNext(); ) {
+            if (i.next() - expired < 0) {
+                i.remove();
+            }
+        }
+    }
+
+    private static boolean isInside(java.nio.file.Path file, Set<java.nio.file.Path> folders) {
+        if (folders.isEmpty()) {
+            return false;
+        }
+        for (java.nio.file.Path p = file.getParent(); p != null; p = p.getParent()) {
+            if (folders.contains(p)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private Path toVirtualPath(java.nio.file.Path file) {
+        final java.nio.file.Path relative = ioRoot.relativize(file);
+        final String[] elements = new String[relative.getNameCount()];
+        for (int i = 0; i < elements.length; i++) {
+            elements[i] = relative.getName(i).toString();
+        }
+        return Path.ROOT.newPath(elements);
+    }
+}
@@ -0,0 +1,105 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.vfs.impl.fs;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.commons.lang.concurrent.ThreadLocalPropagateContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs i/o tasks of {@link FSMountPoint} over lists of items, e.g. copying of files or calculation of their hash sums. Items of large
+ * lists are split into parts which are processed by pool of threads shared by all mount points, small lists are processed in the
+ * calling thread.
+ */
+class ParallelTasks {
+    /** Lists with less items are processed in the calling thread. */
+    static final int PARALLEL_THRESHOLD = 32;
+
+    private static final int             THREADS  = Math.max(2, Math.min(8, Runtime.getRuntime().availableProcessors()));
+    private static final ExecutorService executor = Executors.newFixedThreadPool(THREADS, new ThreadFactoryBuilder()
+            .setNameFormat("VirtualFileSystem-IO-%d").setDaemon(true).build());
+
+    interface Task<T, E extends Exception> {
+        void run(T item) throws E;
+    }
+
+    /**
+     * Runs task for each item of list. Items of large lists are processed in parallel. If task fails for any item processing of
+     * other items is stopped and error is re-thrown.
+     */
+    @SuppressWarnings("unchecked")
+    static <T, E extends Exception> void forEach(List<T> items, final Task<? super T, E> task) throws E {
+        if (items.size() < PARALLEL_THRESHOLD) {
+            for (T item : items) {
+                task.run(item);
+            }
+            return;
+        }
+        final int parts = Math.min(THREADS, items.size() / PARALLEL_THRESHOLD);
+        final int partSize = (items.size() + parts - 1) / parts;
+        final AtomicBoolean failed = new AtomicBoolean();
+        final List<Future<Void>> futures = new ArrayList<>(parts);
+        for (int start = 0; start < items.size(); start += partSize) {
+            final List<T> part = items.subList(start, Math.min(start + partSize, items.size()));
+            futures.add(executor.submit(ThreadLocalPropagateContext.wrap(new Callable<Void>() {
+                @Override
+                public Void call() throws Exception {
+                    for (T item : part) {
+                        if (failed.get()) {
+                            break;
+                        }
+                        try {
+                            task.run(item);
+                        } catch (Exception e) {
+                            failed.set(true);
+                            throw e;
+                        }
+                    }
+                    return null;
+                }
+            })));
+        }
+        Throwable error = null;
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                if (error == null) {
+                    error = e.getCause();
+                }
+            } catch (InterruptedException e) {
+                failed.set(true);
+                Thread.currentThread().interrupt();
+                if (error == null) {
+                    error = e;
+                }
+            }
+        }
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException)error;
+        } else if (error instanceof Error) {
+            throw (Error)error;
+        } else if (error instanceof InterruptedException) {
+            throw new IllegalStateException("Interrupted while waiting for completion of tasks. ", error);
+        } else if (error != null) {
+            throw (E)error;
+        }
+    }
+}
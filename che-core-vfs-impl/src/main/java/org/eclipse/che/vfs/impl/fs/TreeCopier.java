@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.vfs.impl.fs;
+
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.eclipse.che.vfs.impl.fs.FSMountPoint.PROPERTIES_FILE_SUFFIX;
+import static org.eclipse.che.vfs.impl.fs.FSMountPoint.SERVICE_DIR;
+
+/**
+ * Copies tree of files of {@link FSMountPoint}.
+ * <p/>
+ * Tree is walked once. Items which are not accepted by filter are skipped together with their metadata files, service folders
+ * {@code .vfs} and {@code .git} are copied as is. Folders are created in the calling thread, files of large trees are copied in
+ * parallel with {@link ParallelTasks}. Files are copied with
+ * {@link Files#copy(java.nio.file.Path, java.nio.file.Path, java.nio.file.CopyOption...)} that lets JDK copy content inside kernel if
+ * platform supports it.
+ */
+class TreeCopier {
+    private static final String GIT_DIR   = ".git";
+    private static final String PROPS_DIR = "props";
+
+    /** Tests whether item of tree should be copied. Not called for items in service folders. */
+    interface ItemFilter {
+        /**
+         * @param relative
+         *         path of item relative to the root of copied tree
+         */
+        boolean accept(java.nio.file.Path relative);
+    }
+
+    private final java.nio.file.Path source;
+    private final java.nio.file.Path target;
+    private final ItemFilter         filter;
+
+    TreeCopier(java.nio.file.Path source, java.nio.file.Path target, ItemFilter filter) {
+        this.source = source;
+        this.target = target;
+        this.filter = filter;
+    }
+
+    /**
+     * Copies folder.
+     *
+     * @return paths of copied files, except files in {@code .vfs} folders, relative to the root of copied tree
+     * @throws IOException
+     *         if any i/o error occurs
+     */
+    List<java.nio.file.Path> copy() throws IOException {
+        final Set<java.nio.file.Path> skipped = new HashSet<>();
+        final List<java.nio.file.Path> files = new ArrayList<>();
+        final List<java.nio.file.Path> metadataFiles = new ArrayList<>();
+        final List<java.nio.file.Path> visibleFiles = new ArrayList<>();
+        Files.walkFileTree(source, EnumSet.of(FileVisitOption.FOLLOW_LINKS), Integer.MAX_VALUE, new SimpleFileVisitor<java.nio.file.Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(java.nio.file.Path dir, BasicFileAttributes attrs) throws IOException {
+                if (dir.startsWith(target)) {
+                    // never copy the copy itself when target is inside of source
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                final java.nio.file.Path relative = source.relativize(dir);
+                if (!relative.toString().isEmpty() && !isInServiceFolder(relative) && !filter.accept(relative)) {
+                    skipped.add(relative);
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                Files.createDirectories(target.resolve(relative));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(java.nio.file.Path file, BasicFileAttributes attrs) {
+                final java.nio.file.Path relative = source.relativize(file);
+                if (isMetadataFile(relative)) {
+                    // Owner of metadata file may be not visited yet, so check them when whole tree is walked.
+                    metadataFiles.add(relative);
+                } else if (isInServiceFolder(relative)) {
+                    files.add(relative);
+                    if (!isIn(relative, SERVICE_DIR)) {
+                        visibleFiles.add(relative);
+                    }
+                } else if (filter.accept(relative)) {
+                    files.add(relative);
+                    visibleFiles.add(relative);
+                } else {
+                    skipped.add(relative);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        if (!skipped.isEmpty()) {
+            for (java.nio.file.Path metadataFile : metadataFiles) {
+                if (!skipped.contains(getMetadataOwner(metadataFile))) {
+                    files.add(metadataFile);
+                }
+            }
+        } else {
+            files.addAll(metadataFiles);
+        }
+        ParallelTasks.forEach(files, new ParallelTasks.Task<java.nio.file.Path, IOException>() {
+            @Override
+            public void run(java.nio.file.Path relative) throws IOException {
+                Files.copy(source.resolve(relative), target.resolve(relative), StandardCopyOption.REPLACE_EXISTING);
+            }
+        });
+        return visibleFiles;
+    }
+
+    private static boolean isInServiceFolder(java.nio.file.Path relative) {
+        return isIn(relative, SERVICE_DIR) || isIn(relative, GIT_DIR);
+    }
+
+    private static boolean isIn(java.nio.file.Path relative, String folder) {
+        for (int i = 0, n = relative.getNameCount() - 1; i < n; i++) {
+            if (folder.equals(relative.getName(i).toString())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Tests whether file is {@code <folder>/.vfs/props/<name>_props}. */
+    private static boolean isMetadataFile(java.nio.file.Path relative) {
+        final int n = relative.getNameCount();
+        return n >= 3
+               && relative.getFileName().toString().endsWith(PROPERTIES_FILE_SUFFIX)
+               && PROPS_DIR.equals(relative.getName(n - 2).toString())
+               && SERVICE_DIR.equals(relative.getName(n - 3).toString());
+    }
+
+    private static java.nio.file.Path getMetadataOwner(java.nio.file.Path metadataFile) {
+        final String fileName = metadataFile.getFileName().toString();
+        final String name = fileName.substring(0, fileName.length() - PROPERTIES_FILE_SUFFIX.length());
+        final int n = metadataFile.getNameCount();
+        return n == 3 ? metadataFile.getFileSystem().getPath(name) : metadataFile.subpath(0, n - 3).resolve(name);
+    }
+}
@@ -29,6 +29,7 @@ import org.eclipse.che.api.vfs.shared.dto.Property;
 import org.eclipse.che.commons.lang.Pair;
 
 import java.io.InputStream;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -41,9 +42,16 @@ import java.util.Set;
  */
 public class VirtualFileImpl implements VirtualFile {
     private final java.io.File ioFile;
-    private final String       id;
     private final Path         path;
     private final FSMountPoint mountPoint;
+    /** Calculated on demand, many items are created only to be filtered or sorted and never show their id. */
+    private       String       id;
+    /**
+     * Attributes read together with listing of parent folder or {@code null}. Saves separate filesystem call for each of {@link
+     * #isFile()}, {@link #isFolder()}, {@link #getLength()} and {@link #getLastModificationDate()}. Dropped when item is modified
+     * through this instance.
+     */
+    private       BasicFileAttributes attributes;
 
     VirtualFileImpl(java.io.File ioFile, Path path, String id, FSMountPoint mountPoint) {
         this.ioFile = ioFile;
@@ -52,8 +60,20 @@ public class VirtualFileImpl implements VirtualFile {
         this.mountPoint = mountPoint;
     }
 
+    VirtualFileImpl(java.io.File ioFile, Path path, FSMountPoint mountPoint) {
+        this(ioFile, path, null, mountPoint);
+    }
+
+    VirtualFileImpl(java.io.File ioFile, Path path, FSMountPoint mountPoint, BasicFileAttributes attributes) {
+        this(ioFile, path, null, mountPoint);
+        this.attributes = attributes;
+    }
+
     @Override
     public String getId() {
+        if (id == null) {
+            id = mountPoint.pathToId(path);
+        }
         return id;
     }
 
@@ -84,12 +104,14 @@ public class VirtualFileImpl implements VirtualFile {
 
     @Override
     public boolean isFile() {
-        return getIoFile().isFile();
+        final BasicFileAttributes attrs = attributes;
+        return attrs == null ? getIoFile().isFile() : attrs.isRegularFile();
     }
 
     @Override
     public boolean isFolder() {
-        return getIoFile().isDirectory();
+        final BasicFileAttributes attrs = attributes;
+        return attrs == null ? getIoFile().isDirectory() : attrs.isDirectory();
     }
 
     @Override
@@ -114,12 +136,14 @@ public class VirtualFileImpl implements VirtualFile {
 
     @Override
     public VirtualFile updateContent(String mediaType, InputStream content, String lockToken) throws ForbiddenException, ServerException {
+        invalidateAttributes();
         mountPoint.updateContent(this, mediaType, content, lockToken);
         return this;
     }
 
     @Override
     public VirtualFile updateContent(InputStream content, String lockToken) throws ForbiddenException, ServerException {
+        invalidateAttributes();
         mountPoint.updateContent(this, content, lockToken);
         return this;
     }
@@ -136,6 +160,7 @@ public class VirtualFileImpl implements VirtualFile {
 
     //    @Override
     public VirtualFile setMediaType(String mediaType) throws ServerException {
+        invalidateAttributes();
         mountPoint.setProperty(this, "vfs:mimeType", mediaType);
         return this;
     }
@@ -148,12 +173,18 @@ public class VirtualFileImpl implements VirtualFile {
 
     @Override
     public long getLastModificationDate() {
-        return getIoFile().lastModified();
+        final BasicFileAttributes attrs = attributes;
+        return attrs == null ? getIoFile().lastModified() : attrs.lastModifiedTime().toMillis();
     }
 
     @Override
     public long getLength() throws ServerException {
-        return getIoFile().length();
+        final BasicFileAttributes attrs = attributes;
+        if (attrs == null) {
+            return getIoFile().length();
+        }
+        // java.io.File returns 0 for folders
+        return attrs.isRegularFile() ? attrs.size() : 0;
     }
 
     //
@@ -169,6 +200,7 @@ public class VirtualFileImpl implements VirtualFile {
 
     @Override
     public VirtualFile updateProperties(List<Property> properties, String lockToken) throws ForbiddenException, ServerException {
+        invalidateAttributes();
         mountPoint.updateProperties(this, properties, lockToken);
         return this;
     }
@@ -207,6 +239,7 @@ public class VirtualFileImpl implements VirtualFile {
     }
 
     public VirtualFileImpl copyTo(VirtualFile parent, String name, boolean overWrite) throws ForbiddenException, ConflictException, ServerException {
+        ((VirtualFileImpl)parent).invalidateAttributes();
         return mountPoint.copy(this, (VirtualFileImpl) parent, name, overWrite);
     }
 
@@ -216,17 +249,21 @@ public class VirtualFileImpl implements VirtualFile {
     }
 
     public VirtualFileImpl moveTo(VirtualFile parent, String name, boolean overWrite, String lockToken) throws ForbiddenException, ConflictException, ServerException {
+        invalidateAttributes();
+        ((VirtualFileImpl)parent).invalidateAttributes();
         return mountPoint.move(this, (VirtualFileImpl) parent, name, overWrite, lockToken);
     }
 
     @Override
     public VirtualFile rename(String newName, String newMediaType, String lockToken)
             throws ForbiddenException, ConflictException, ServerException {
+        invalidateAttributes();
         return mountPoint.rename(this, newName, newMediaType, lockToken);
     }
 
     @Override
     public void delete(String lockToken) throws ForbiddenException, ServerException {
+        invalidateAttributes();
         mountPoint.delete(this, lockToken);
     }
 
@@ -239,6 +276,7 @@ public class VirtualFileImpl implements VirtualFile {
 
     @Override
     public void unzip(InputStream zipped, boolean overwrite, int stripNumber) throws ForbiddenException, ConflictException, ServerException {
+        invalidateAttributes();
         mountPoint.unzip(this, zipped, overwrite, stripNumber);
     }
 
@@ -275,6 +313,7 @@ public class VirtualFileImpl implements VirtualFile {
     @Override
     public VirtualFile updateACL(List<AccessControlEntry> acl, boolean override, String lockToken)
             throws ForbiddenException, ServerException {
+        invalidateAttributes();
         mountPoint.updateACL(this, acl, override, lockToken);
         return this;
     }
@@ -284,11 +323,13 @@ public class VirtualFileImpl implements VirtualFile {
     @Override
     public VirtualFile createFile(String name, String mediaType, InputStream content)
             throws ForbiddenException, ConflictException, ServerException {
+        invalidateAttributes();
         return mountPoint.createFile(this, name, mediaType, content);
     }
 
     @Override
     public VirtualFile createFolder(String name) throws ForbiddenException, ConflictException, ServerException {
+        invalidateAttributes();
         return mountPoint.createFolder(this, name);
     }
 
@@ -331,4 +372,9 @@ public class VirtualFileImpl implements VirtualFile {
     public final java.io.File getIoFile() {
         return ioFile;
     }
+
+    /** Forces next calls of {@link #isFile()}, {@link #getLength()}, etc to read actual state of file. */
+    void invalidateAttributes() {
+        attributes = null;
+    }
 }
@@ -30,7 +30,7 @@ public class VirtualFileSystemFSModule extends AbstractModule {
         multibinder.addBinding().to(DefaultVirtualFileFilter.class);
         //bind(LocalFSMountStrategy.class).to(WorkspaceHashLocalFSMountStrategy.class);
         bind(SearcherProvider.class).to(CleanableSearcherProvider.class);
-        bind(MountPointCacheCleaner.Finalizer.class).asEagerSingleton();
+        bind(MountPointWatcher.Finalizer.class).asEagerSingleton();
     }
 
     public static class DefaultVirtualFileFilter implements VirtualFileFilter {
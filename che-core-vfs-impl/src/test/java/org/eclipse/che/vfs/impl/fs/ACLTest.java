@@ -268,6 +268,28 @@ public class ACLTest extends LocalFileSystemTest {
         assertTrue(updatedAcl.isEmpty()); // TODO
     }
 
+    public void testUpdateACLAppliedToNextRequest() throws Exception {
+        String noAclFilePath = createFile(testRootPath, "ACLTest_NoAclFile", DEFAULT_CONTENT_BYTES);
+        String noAclFileId = pathToId(noAclFilePath);
+        String itemPath = SERVICE_URI + "item/" + noAclFileId;
+        // Item has no ACL, it is accessible for current user.
+        ContainerResponse response = launcher.service(HttpMethod.GET, itemPath, BASE_URI, null, null, null);
+        assertEquals(200, response.getStatus());
+
+        String acl = "[{\"principal\":{\"name\":\"john\",\"type\":\"USER\"},\"permissions\":[\"read\"]}]";
+        Map<String, List<String>> h = new HashMap<>(1);
+        h.put(HttpHeaders.CONTENT_TYPE, Arrays.asList(MediaType.APPLICATION_JSON));
+        String requestPath = SERVICE_URI + "acl/" + noAclFileId + '?' + "override=" + true;
+        response = launcher.service(HttpMethod.POST, requestPath, BASE_URI, h, acl.getBytes(), null);
+        assertEquals(204, response.getStatus());
+
+        // New ACL must be applied without reset of mount point caches.
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        response = launcher.service(HttpMethod.GET, itemPath, BASE_URI, null, null, writer, null);
+        log.info(new String(writer.getBody()));
+        assertEquals(403, response.getStatus());
+    }
+
     private Map<Principal, Set<String>> toMap(List<AccessControlEntry> acl) {
         Map<Principal, Set<String>> map = new HashMap<>(acl.size());
         for (AccessControlEntry ace : acl) {
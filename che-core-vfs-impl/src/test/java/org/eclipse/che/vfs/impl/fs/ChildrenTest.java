@@ -102,6 +102,27 @@ public class ChildrenTest extends LocalFileSystemTest {
         }
     }
 
+    public void testGetChildrenAttributes() throws Exception {
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        String requestPath = SERVICE_URI + "children/" + folderId;
+        ContainerResponse response = launcher.service(HttpMethod.GET, requestPath, BASE_URI, null, null, writer, null);
+        assertEquals("Error: " + response.getEntity(), 200, response.getStatus());
+        @SuppressWarnings("unchecked")
+        ItemList children = (ItemList)response.getEntity();
+        assertEquals(4, children.getItems().size());
+        for (Item i : children.getItems()) {
+            String childPath = folderPath + '/' + i.getName();
+            assertEquals(pathToId(childPath), i.getId());
+            assertEquals(childPath, i.getPath());
+            if (i.getName().startsWith("FILE")) {
+                assertTrue(i.getItemType() == ItemType.FILE);
+                assertEquals(DEFAULT_CONTENT_BYTES.length, ((org.eclipse.che.api.vfs.shared.dto.File)i).getLength());
+            } else {
+                assertTrue(i.getItemType() == ItemType.FOLDER);
+            }
+        }
+    }
+
     public void testGetChildren_File() throws Exception {
         ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
         String requestPath = SERVICE_URI + "children/" + fileId;
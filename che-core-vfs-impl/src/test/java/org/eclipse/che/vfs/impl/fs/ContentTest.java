@@ -10,10 +10,13 @@
  *******************************************************************************/
 package org.eclipse.che.vfs.impl.fs;
 
+import org.eclipse.che.api.vfs.server.LazyIterator;
 import org.eclipse.che.api.vfs.shared.dto.Principal;
+import org.eclipse.che.commons.lang.Pair;
 import org.eclipse.che.dto.server.DtoFactory;
 
 import com.google.common.collect.Sets;
+import com.google.common.hash.Hashing;
 
 import org.everrest.core.impl.ContainerResponse;
 import org.everrest.core.tools.ByteArrayContainerResponseWriter;
@@ -190,4 +193,28 @@ public class ContentTest extends LocalFileSystemTest {
         assertTrue("Content must not be updated", Arrays.equals(content, readFile(lockedFilePath)));
         assertNull("Properties must not be updated", readProperties(lockedFilePath));
     }
+
+    public void testCountMd5Sums() throws Exception {
+        String folderPath = createDirectory(testRootPath, "ContentTest_Md5Sums");
+        String subFolderPath = createDirectory(folderPath, "sub");
+        // Enough files to get them hashed in parallel.
+        Map<String, byte[]> expected = new HashMap<>();
+        for (int i = 0; i < 2 * ParallelTasks.PARALLEL_THRESHOLD; i++) {
+            byte[] fileContent = ("file-" + i).getBytes();
+            String name = "file-" + i;
+            createFile(i % 2 == 0 ? folderPath : subFolderPath, name, fileContent);
+            expected.put(i % 2 == 0 ? name : "sub/" + name, fileContent);
+        }
+
+        LazyIterator<Pair<String, String>> md5Sums = mountPoint.getVirtualFile(folderPath).countMd5Sums();
+        int num = 0;
+        while (md5Sums.hasNext()) {
+            Pair<String, String> md5Sum = md5Sums.next();
+            byte[] fileContent = expected.get(md5Sum.second);
+            assertNotNull("Unexpected file " + md5Sum.second, fileContent);
+            assertEquals(Hashing.md5().hashBytes(fileContent).toString(), md5Sum.first);
+            num++;
+        }
+        assertEquals(expected.size(), num);
+    }
 }
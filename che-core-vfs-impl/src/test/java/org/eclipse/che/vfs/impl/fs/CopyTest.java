@@ -228,4 +228,36 @@ public class CopyTest extends LocalFileSystemTest {
         assertEquals(409, response.getStatus());
         assertTrue("Source folder not found. ", exists(folderPath));
     }
+
+    public void testCopyFolderToItsChild() throws Exception {
+        String childPath = createDirectory(folderPath, "CopyTest_Child");
+        List<String> before = flattenDirectory(folderPath);
+        String requestPath = SERVICE_URI + "copy/" + folderId + '?' + "parentId=" + pathToId(childPath);
+        ContainerResponse response = launcher.service(HttpMethod.POST, requestPath, BASE_URI, null, null, null);
+        assertEquals("Error: " + response.getEntity(), 200, response.getStatus());
+        String copyPath = childPath + '/' + folderName;
+        assertTrue(exists(copyPath));
+        // Copy has the same content as source had before copying and does not include copy of itself.
+        assertEquals(before, flattenDirectory(copyPath));
+        assertFalse(exists(copyPath + "/CopyTest_Child/" + folderName));
+    }
+
+    public void testCopyLargeFolder() throws Exception {
+        // Enough files to get them copied in parallel.
+        String largeFolderPath = createDirectory(testRootPath, "CopyTest_LargeFolder");
+        Map<String, String[]> properties = new HashMap<>(1);
+        properties.put("MyProperty", new String[]{"foo"});
+        for (int i = 0; i < 4 * ParallelTasks.PARALLEL_THRESHOLD; i++) {
+            String path = createFile(largeFolderPath, "file-" + i, ("file-" + i).getBytes());
+            if (i % 3 == 0) {
+                writeProperties(path, properties);
+            }
+        }
+        String requestPath = SERVICE_URI + "copy/" + pathToId(largeFolderPath) + '?' + "parentId=" + destinationId;
+        ContainerResponse response = launcher.service(HttpMethod.POST, requestPath, BASE_URI, null, null, null);
+        assertEquals("Error: " + response.getEntity(), 200, response.getStatus());
+        String expectedPath = destinationPath + "/CopyTest_LargeFolder";
+        compareDirectories(largeFolderPath, expectedPath, true);
+        validateProperties(expectedPath + "/file-0", properties);
+    }
 }
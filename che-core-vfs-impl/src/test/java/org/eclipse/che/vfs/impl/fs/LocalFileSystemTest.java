@@ -94,6 +94,8 @@ public abstract class LocalFileSystemTest extends TestCase {
     static {
         // enable assertion to test state of some components.
         enableAssertion(FSMountPoint.class);
+        // tests change files directly and check events of virtual file system, see MountPointWatcherTest
+        System.setProperty("org.eclipse.che.vfs.watcher.enabled", "false");
         URLHandlerFactorySetup.setup(virtualFileSystemRegistry);
     }
 
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.vfs.impl.fs;
+
+import org.eclipse.che.api.core.notification.EventSubscriber;
+import org.eclipse.che.api.vfs.server.observation.VirtualFileEvent;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.eclipse.che.commons.lang.IoUtil.deleteRecursive;
+
+public class MountPointWatcherTest extends LocalFileSystemTest {
+    private static final long DEBOUNCE_MILLIS = 100;
+    private static final long TIMEOUT_MILLIS  = 5000;
+
+    private MountPointWatcher                 watcher;
+    private BlockingQueue<VirtualFileEvent>   events;
+    private EventSubscriber<VirtualFileEvent> subscriber;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        events = new LinkedBlockingQueue<>();
+        subscriber = new EventSubscriber<VirtualFileEvent>() {
+            @Override
+            public void onEvent(VirtualFileEvent event) {
+                events.add(event);
+            }
+        };
+        watcher = new MountPointWatcher(mountPoint, DEBOUNCE_MILLIS, MountPointWatcher.DEFAULT_MAX_WATCHED_DIRS);
+        watcher.start();
+        assertTrue(watcher.awaitReady(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS));
+        mountPoint.getEventService().subscribe(subscriber);
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        mountPoint.getEventService().unsubscribe(subscriber);
+        watcher.close();
+        super.tearDown();
+    }
+
+    public void testFileCreatedOnFilesystem() throws Exception {
+        String path = createFile(testRootPath, "MountPointWatcherTest_File", DEFAULT_CONTENT_BYTES);
+
+        VirtualFileEvent event = nextEvent();
+        assertEquals(VirtualFileEvent.ChangeType.CREATED, event.getType());
+        assertEquals(path, event.getPath());
+        assertFalse(event.isFolder());
+        assertNoMoreEvents();
+    }
+
+    public void testFileUpdatedOnFilesystem() throws Exception {
+        String path = testRootPath + "/MountPointWatcherTest_File";
+        mountPoint.getVirtualFile(testRootPath).createFile("MountPointWatcherTest_File", "text/plain",
+                                                           new ByteArrayInputStream(DEFAULT_CONTENT_BYTES));
+        assertEquals(VirtualFileEvent.ChangeType.CREATED, nextEvent().getType());
+        // change made through virtual file system is not reported twice
+        assertNoMoreEvents();
+
+        writeFile(path, "updated".getBytes());
+
+        VirtualFileEvent event = nextEvent();
+        assertEquals(VirtualFileEvent.ChangeType.CONTENT_UPDATED, event.getType());
+        assertEquals(path, event.getPath());
+        assertNoMoreEvents();
+    }
+
+    public void testFileDeletedOnFilesystem() throws Exception {
+        String path = createFile(testRootPath, "MountPointWatcherTest_File", DEFAULT_CONTENT_BYTES);
+        assertEquals(VirtualFileEvent.ChangeType.CREATED, nextEvent().getType());
+
+        Files.delete(getIoFile(path).toPath());
+
+        VirtualFileEvent event = nextEvent();
+        assertEquals(VirtualFileEvent.ChangeType.DELETED, event.getType());
+        assertEquals(path, event.getPath());
+        assertFalse(event.isFolder());
+        assertNoMoreEvents();
+    }
+
+    public void testCreatedTreeReportedOnce() throws Exception {
+        String folderPath = createDirectory(testRootPath, "MountPointWatcherTest_Folder");
+        String subFolderPath = createDirectory(folderPath, "a");
+        createFile(subFolderPath, "file1", DEFAULT_CONTENT_BYTES);
+        createFile(subFolderPath, "file2", DEFAULT_CONTENT_BYTES);
+
+        VirtualFileEvent event = nextEvent();
+        assertEquals(VirtualFileEvent.ChangeType.CREATED, event.getType());
+        assertEquals(folderPath, event.getPath());
+        assertTrue(event.isFolder());
+        assertNoMoreEvents();
+    }
+
+    public void testTemporaryFileIsNotReported() throws Exception {
+        String folderPath = createDirectory(testRootPath, "MountPointWatcherTest_Folder");
+        assertEquals(VirtualFileEvent.ChangeType.CREATED, nextEvent().getType());
+
+        String path = createFile(folderPath, "tmp", DEFAULT_CONTENT_BYTES);
+        Files.delete(getIoFile(path).toPath());
+        assertTrue(deleteRecursive(getIoFile(folderPath)));
+
+        VirtualFileEvent event = nextEvent();
+        assertEquals(VirtualFileEvent.ChangeType.DELETED, event.getType());
+        assertEquals(folderPath, event.getPath());
+        assertTrue(event.isFolder());
+        assertNoMoreEvents();
+    }
+
+    private VirtualFileEvent nextEvent() throws InterruptedException {
+        VirtualFileEvent event = events.poll(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        assertNotNull("Event expected", event);
+        return event;
+    }
+
+    private void assertNoMoreEvents() throws InterruptedException {
+        VirtualFileEvent event = events.poll(DEBOUNCE_MILLIS * 10, TimeUnit.MILLISECONDS);
+        assertNull("Unexpected event " + (event == null ? null : event.getType() + " " + event.getPath()), event);
+    }
+}
@@ -18,6 +18,8 @@ import com.google.common.collect.Sets;
 import org.everrest.core.impl.ContainerResponse;
 import org.everrest.core.tools.ByteArrayContainerResponseWriter;
 
+import java.nio.file.Files;
+import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
@@ -275,4 +277,38 @@ public class MoveTest extends LocalFileSystemTest {
         assertTrue(String.format("Missed items: %s", sourceBefore), sourceBefore.isEmpty());
     }
 
+    public void testMoveFolderInPlace() throws Exception {
+        // Folder without locked or protected items is renamed on filesystem, files keep their identity.
+        String file = null;
+        for (String relative : flattenDirectory(folderPath)) {
+            if (getIoFile(folderPath + '/' + relative).isFile()) {
+                file = relative;
+                break;
+            }
+        }
+        assertNotNull(file);
+        Object fileKey = Files.readAttributes(getIoFile(folderPath + '/' + file).toPath(), BasicFileAttributes.class).fileKey();
+        String requestPath = SERVICE_URI + "move/" + folderId + '?' + "parentId=" + destinationId;
+        ContainerResponse response = launcher.service(HttpMethod.POST, requestPath, BASE_URI, null, null, null);
+        assertEquals("Error: " + response.getEntity(), 200, response.getStatus());
+        String expectedPath = destinationPath + '/' + folderName;
+        assertFalse("Folder must be moved. ", exists(folderPath));
+        if (fileKey != null) {
+            assertEquals(fileKey,
+                         Files.readAttributes(getIoFile(expectedPath + '/' + file).toPath(), BasicFileAttributes.class).fileKey());
+        }
+        // Metadata of items is moved with them.
+        for (java.io.File child : getIoFile(expectedPath).listFiles(SERVICE_DIR_FILTER)) {
+            validateProperties(expectedPath + '/' + child.getName(), properties, true);
+        }
+    }
+
+    public void testMoveFolderToItsChild() throws Exception {
+        String childPath = createDirectory(folderPath, "MoveTest_Child");
+        List<String> before = flattenDirectory(folderPath);
+        String requestPath = SERVICE_URI + "move/" + folderId + '?' + "parentId=" + pathToId(childPath);
+        ContainerResponse response = launcher.service(HttpMethod.POST, requestPath, BASE_URI, null, null, null);
+        assertEquals(403, response.getStatus());
+        assertEquals(before, flattenDirectory(folderPath));
+    }
 }
@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.vfs.impl.fs;
+
+import junit.framework.TestCase;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class ParallelTasksTest extends TestCase {
+    public void testForEachProcessesAllItemsOfLargeList() throws Exception {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 4 * ParallelTasks.PARALLEL_THRESHOLD; i++) {
+            items.add(i);
+        }
+        final Set<Integer> processed = Collections.synchronizedSet(new HashSet<Integer>());
+
+        ParallelTasks.forEach(items, new ParallelTasks.Task<Integer, RuntimeException>() {
+            @Override
+            public void run(Integer item) {
+                processed.add(item);
+            }
+        });
+
+        assertEquals(new HashSet<>(items), processed);
+    }
+
+    public void testForEachRethrowsErrorOfTask() throws Exception {
+        List<Integer> items = new ArrayList<>();
+        for (int i = 0; i < 4 * ParallelTasks.PARALLEL_THRESHOLD; i++) {
+            items.add(i);
+        }
+        final AtomicInteger processed = new AtomicInteger();
+        try {
+            ParallelTasks.forEach(items, new ParallelTasks.Task<Integer, IOException>() {
+                @Override
+                public void run(Integer item) throws IOException {
+                    if (item == 10) {
+                        throw new IOException("test error");
+                    }
+                    processed.incrementAndGet();
+                }
+            });
+            fail("IOException expected");
+        } catch (IOException e) {
+            assertEquals("test error", e.getMessage());
+        }
+        assertTrue(processed.get() < items.size());
+    }
+}
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.vfs.impl.fs;
+
+import junit.framework.TestCase;
+
+import org.eclipse.che.commons.lang.IoUtil;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+public class TreeCopierTest extends TestCase {
+    private Path root;
+
+    @Override
+    protected void setUp() throws Exception {
+        super.setUp();
+        root = Files.createTempDirectory("tree-copier");
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        IoUtil.deleteRecursive(root.toFile());
+        super.tearDown();
+    }
+
+    public void testCopyTreeSkipsNotAcceptedItemsWithTheirMetadata() throws Exception {
+        Path source = root.resolve("source");
+        write(source.resolve("a.txt"), "a");
+        write(source.resolve("b.txt"), "b");
+        write(source.resolve("sub/c.txt"), "c");
+        write(source.resolve(".vfs/props/a.txt_props"), "a props");
+        write(source.resolve(".vfs/props/b.txt_props"), "b props");
+        Path target = root.resolve("target");
+
+        List<Path> copied = new TreeCopier(source, target, relative -> !relative.toString().equals("b.txt")).copy();
+
+        assertEquals(new HashSet<>(asPaths("a.txt", "sub/c.txt")), new HashSet<>(copied));
+        assertEquals("c", read(target.resolve("sub/c.txt")));
+        assertEquals("a props", read(target.resolve(".vfs/props/a.txt_props")));
+        assertFalse(Files.exists(target.resolve("b.txt")));
+        assertFalse(Files.exists(target.resolve(".vfs/props/b.txt_props")));
+    }
+
+    public void testCopyToFolderInsideOfSource() throws Exception {
+        Path source = root.resolve("source");
+        write(source.resolve("a.txt"), "a");
+        write(source.resolve("sub/b.txt"), "b");
+        Path target = source.resolve("sub/copy");
+
+        List<Path> copied = new TreeCopier(source, target, relative -> true).copy();
+
+        assertEquals(new HashSet<>(asPaths("a.txt", "sub/b.txt")), new HashSet<>(copied));
+        assertEquals("b", read(target.resolve("sub/b.txt")));
+        assertFalse("Copy must not be copied again. ", Files.exists(target.resolve("sub/copy")));
+    }
+
+    public void testCopyLargeTree() throws Exception {
+        Path source = root.resolve("source");
+        Set<Path> expected = new HashSet<>();
+        for (int i = 0; i < 4 * ParallelTasks.PARALLEL_THRESHOLD; i++) {
+            String name = (i % 2 == 0 ? "" : "sub/") + "file-" + i;
+            write(source.resolve(name), name);
+            expected.add(source.getFileSystem().getPath(name));
+        }
+        Path target = root.resolve("target");
+
+        List<Path> copied = new TreeCopier(source, target, relative -> true).copy();
+
+        assertEquals(expected, new HashSet<>(copied));
+        for (Path relative : expected) {
+            assertEquals(relative.toString(), read(target.resolve(relative)));
+        }
+    }
+
+    private List<Path> asPaths(String... names) {
+        List<Path> paths = new ArrayList<>(names.length);
+        for (String name : names) {
+            paths.add(root.getFileSystem().getPath(name));
+        }
+        return paths;
+    }
+
+    private static void write(Path file, String content) throws IOException {
+        Files.createDirectories(file.getParent());
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String read(Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+}
@@ -55,6 +55,7 @@ public class MessageBusImpl implements MessageBus {
     /** Max. number of attempts to reconnect for every <code>SELDOM_RECONNECTION_PERIOD</code> ms. */
     private final static int    MAX_SELDOM_RECONNECTION_ATTEMPTS     = 5;
     private static final String MESSAGE_TYPE_HEADER_NAME             = "x-everrest-websocket-message-type";
+    private static final String CHANNEL_HEADER_NAME                  = "x-everrest-websocket-channel";
     /** Timer for sending heartbeat pings to prevent autoclosing an idle WebSocket connection. */
     private final        Timer  heartbeatTimer                       = new Timer() {
         @Override
@@ -115,6 +116,8 @@ public class MessageBusImpl implements MessageBus {
     private ListenerManager<ConnectionErrorHandler>  connectionErrorHandlers  = ListenerManager.create();
     private WsListener wsListener;
     private List<String> messages2send = new ArrayList<>();
+    /** Pending subscription or unsubscription message of channel, see {@link #sendChannelMessage(String, Message)}. */
+    private Map<String, String> channelMessages2send = new HashMap<>();
 
     /**
      * Creates new {@link MessageBus} instance.
@@ -191,19 +194,24 @@ public class MessageBusImpl implements MessageBus {
             return;
         }
 
-        //TODO Should be revised to remove
+        // Look through headers once, get channel and check location together.
+        String channel = null;
         List<Pair> headers = message.getHeaders().toList();
         if (headers != null) {
             for (Pair header : headers) {
+                //TODO Should be revised to remove
                 if (HTTPHeader.LOCATION.equals(header.getName()) && header.getValue().contains("async/")) {
                     return;
                 }
+                if (channel == null && CHANNEL_HEADER_NAME.equals(header.getName())) {
+                    channel = header.getValue();
+                }
             }
         }
 
-        if (getChannel(message) != null) {
+        if (channel != null) {
             // this is a message received by subscription
-            processSubscriptionMessage(message);
+            processSubscriptionMessage(channel, message);
         } else {
             String uuid = message.getStringField(MessageBuilder.UUID_FIELD);
             ReplyHandler replyCallback = replyCallbackMap.remove(uuid);
@@ -221,11 +229,12 @@ public class MessageBusImpl implements MessageBus {
     /**
      * Process the {@link Message} that received by subscription.
      *
+     * @param channel
+     *         channel from which message was received
      * @param message
      *         {@link Message}
      */
-    private void processSubscriptionMessage(Message message) {
-        String channel = getChannel(message);
+    private void processSubscriptionMessage(String channel, Message message) {
         List<MessageHandler> subscribersSet = channelToSubscribersMap.get(channel);
         if (subscribersSet != null) {
             for (MessageHandler handler : subscribersSet) {
@@ -259,27 +268,6 @@ public class MessageBusImpl implements MessageBus {
         return heartbeatMessage;
     }
 
-    /**
-     * Get channel from which {@link Message} was received.
-     *
-     * @param message
-     *         {@link Message}
-     * @return channel identifier or <code>null</code> if message is invalid.
-     */
-    private String getChannel(Message message) {
-        List<Pair> headers = message.getHeaders().toList();
-
-        if (headers != null) {
-            for (Pair header : headers) {
-                if ("x-everrest-websocket-channel".equals(header.getName())) {
-                    return header.getValue();
-                }
-            }
-        }
-
-        return null;
-    }
-
     /** {@inheritDoc} */
     @Override
     public void send(Message message, RequestCallback callback) throws WebSocketException {
@@ -395,8 +383,7 @@ public class MessageBusImpl implements MessageBus {
         builder.header(MESSAGE_TYPE_HEADER_NAME, "subscribe-channel")
                .data("{\"channel\":\"" + channel + "\"}");
 
-        Message message = builder.build();
-        send(message, null);
+        sendChannelMessage(channel, builder.build());
     }
 
     /**
@@ -412,8 +399,32 @@ public class MessageBusImpl implements MessageBus {
         builder.header(MESSAGE_TYPE_HEADER_NAME, "unsubscribe-channel")
                .data("{\"channel\":\"" + channel + "\"}");
 
-        Message message = builder.build();
-        send(message, null);
+        sendChannelMessage(channel, builder.build());
+    }
+
+    /**
+     * Send subscription or unsubscription message. While connection isn't opened only the latest of such messages is kept for each
+     * channel, since it alone defines whether client is subscribed to channel when connection is opened.
+     *
+     * @param channel
+     *         channel identifier
+     * @param message
+     *         subscription or unsubscription message
+     * @throws WebSocketException
+     *         throws if an any error has occurred while sending data
+     */
+    private void sendChannelMessage(String channel, Message message) throws WebSocketException {
+        checkWebSocketConnectionState();
+        final String textMessage = message.serialize();
+        if (getReadyState() != ReadyState.OPEN) {
+            final String superseded = channelMessages2send.put(channel, textMessage);
+            if (superseded != null) {
+                messages2send.remove(superseded);
+            }
+            messages2send.add(textMessage);
+            return;
+        }
+        send(textMessage);
     }
 
     /** {@inheritDoc} */
@@ -544,6 +555,7 @@ public class MessageBusImpl implements MessageBus {
                     send(message);
                 }
                 messages2send.clear();
+                channelMessages2send.clear();
             } catch (WebSocketException e) {
                 Log.error(MessageBusImpl.class, e);
             }
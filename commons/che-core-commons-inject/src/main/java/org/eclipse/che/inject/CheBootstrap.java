@@ -99,9 +99,26 @@ public class CheBootstrap extends EverrestGuiceContextListener {
      */
     private static final String CHE_LOCAL_CONF_DIR = "CHE_LOCAL_CONF_DIR";
 
+    /**
+     * System property that enables parallel initialization of components created on startup and report of startup timeline.
+     *
+     * @see InitModule#completeStartup(Injector)
+     */
+    private static final String PARALLEL_INIT = "che.startup.parallel_init";
+
+    private final InitModule initModule = new InitModule(PostConstruct.class, Boolean.getBoolean(PARALLEL_INIT));
 
     private final List<Module> modules = new ArrayList<>();
 
+    @Override
+    public void contextInitialized(ServletContextEvent sce) {
+        super.contextInitialized(sce);
+        final Injector injector = getInjector(sce.getServletContext());
+        if (injector != null) {
+            initModule.completeStartup(injector);
+        }
+    }
+
     @Override
     public void contextDestroyed(ServletContextEvent sce) {
         final ServletContext ctx = sce.getServletContext();
@@ -115,7 +132,7 @@ public class CheBootstrap extends EverrestGuiceContextListener {
     @Override
     protected List<Module> getModules() {
         // based on logic that getServletModule() is called BEFORE getModules() in the EverrestGuiceContextListener
-        modules.add(new InitModule(PostConstruct.class));
+        modules.add(initModule);
         modules.add(new DestroyModule(PreDestroy.class, DestroyErrorHandler.DUMMY));
         modules.add(new URIConverter());
         modules.add(new URLConverter());
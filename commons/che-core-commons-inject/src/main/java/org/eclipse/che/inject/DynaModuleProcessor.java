@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.inject;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Annotation processor which writes names of all classes annotated with &#064DynaModule to {@link ModuleScanner#INDEX} resource at
+ * compile time. {@link ModuleScanner} loads modules listed in such resources without scanning of classpath.
+ * <p/>
+ * Processor is registered in META-INF/services so it is applied automatically when project depends on this library. Processor must
+ * not load {@link ModuleScanner} since servlet API isn't always available at compile time.
+ * <p/>
+ * Processor is invoked even if there are no annotated classes in compiled sources, so index written by previous build is pruned when
+ * &#064DynaModule is removed from class or class is deleted.
+ */
+@SupportedAnnotationTypes("*")
+public class DynaModuleProcessor extends AbstractProcessor {
+    private final Set<String> modules = new TreeSet<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        if (roundEnv.processingOver()) {
+            writeIndex();
+        } else {
+            for (Element element : roundEnv.getElementsAnnotatedWith(DynaModule.class)) {
+                if (element.getKind() == ElementKind.CLASS) {
+                    modules.add(processingEnv.getElementUtils().getBinaryName((TypeElement)element).toString());
+                }
+            }
+        }
+        return false;
+    }
+
+    private void writeIndex() {
+        // keep modules which aren't recompiled in incremental build
+        final Set<String> previous = new TreeSet<>();
+        boolean exists = false;
+        try {
+            final FileObject existing = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", ModuleScanner.INDEX);
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(existing.openInputStream(), StandardCharsets.UTF_8))) {
+                exists = true;
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.trim().isEmpty()) {
+                        previous.add(line.trim());
+                    }
+                }
+            }
+        } catch (IOException ignored) {
+            // index doesn't exist yet
+        }
+        for (String name : previous) {
+            final TypeElement type = processingEnv.getElementUtils().getTypeElement(name.replace('$', '.'));
+            if (type != null && type.getAnnotation(DynaModule.class) != null) {
+                modules.add(name);
+            }
+        }
+        if (modules.isEmpty() && !exists) {
+            // don't add empty index to libraries without modules
+            return;
+        }
+        try {
+            final FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", ModuleScanner.INDEX);
+            try (Writer writer = new OutputStreamWriter(index.openOutputStream(), StandardCharsets.UTF_8)) {
+                for (String module : modules) {
+                    writer.write(module);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                                                     String.format("Unable to write %s: %s", ModuleScanner.INDEX, e.getMessage()));
+        }
+    }
+}
@@ -19,35 +19,112 @@ import javax.servlet.ServletContainerInitializer;
 import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
 import javax.servlet.annotation.HandlesTypes;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
-/** Utility for finding Guice modules annotated with &#064DynaModule. */
+/**
+ * Utility for finding Guice modules annotated with &#064DynaModule.
+ * <p/>
+ * Modules are loaded from {@link #INDEX} resources which are generated at compile time by {@link DynaModuleProcessor}. Modules found
+ * by servlet container with scanning of classpath but missed in index, e.g. from libraries built without the processor, are added
+ * as well. When all libraries are indexed scanning of classpath by container may be disabled to speed up startup.
+ */
 @HandlesTypes({DynaModule.class})
 public class ModuleScanner implements ServletContainerInitializer {
     private static final Logger LOG = LoggerFactory.getLogger(ModuleScanner.class);
 
-    private static final List<Module> modules = new ArrayList<>();
+    /** Resource with names of classes annotated with &#064DynaModule, one class per line. */
+    public static final String INDEX = "META-INF/che/dynamodules";
+
+    private static final Set<Class<?>> scanned = new LinkedHashSet<>();
 
     public static List<Module> findModules() {
-        return new ArrayList<>(modules);
+        final long start = System.currentTimeMillis();
+        final ClassLoader classLoader = getClassLoader();
+        final Set<String> indexed = readIndex(classLoader);
+        final List<Module> modules = new ArrayList<>();
+        for (String className : indexed) {
+            final Class<?> clazz;
+            try {
+                clazz = Class.forName(className, false, classLoader);
+            } catch (ClassNotFoundException | LinkageError e) {
+                LOG.error("Problem with loading Module {} : {}", className, e.getMessage());
+                continue;
+            }
+            addModule(clazz, modules);
+        }
+        int fromScan = 0;
+        synchronized (scanned) {
+            for (Class<?> clazz : scanned) {
+                if (!indexed.contains(clazz.getName())) {
+                    addModule(clazz, modules);
+                    fromScan++;
+                }
+            }
+        }
+        LOG.info("Found {} modules ({} from index, {} from classpath scanning) in {} ms",
+                 modules.size(), modules.size() - fromScan, fromScan, System.currentTimeMillis() - start);
+        return modules;
     }
 
     @Override
     public void onStartup(Set<Class<?>> c, ServletContext ctx) throws ServletException {
         if (c != null) {
-            for (Class<?> clazz : c) {
-                if (Module.class.isAssignableFrom(clazz)) {
-                    try {
-                        modules.add((Module)clazz.newInstance());
-                    } catch (Exception e) {
-                        LOG.error("Problem with instantiating Module {} : {}", clazz, e.getMessage());
+            synchronized (scanned) {
+                scanned.addAll(c);
+            }
+        }
+    }
+
+    private static void addModule(Class<?> clazz, List<Module> modules) {
+        if (Module.class.isAssignableFrom(clazz)) {
+            try {
+                modules.add((Module)clazz.newInstance());
+            } catch (Exception e) {
+                LOG.error("Problem with instantiating Module {} : {}", clazz, e.getMessage());
+            }
+        } else {
+            LOG.warn("Ignored non {} class annotated with {}", Module.class.getName(), DynaModule.class.getName());
+        }
+    }
+
+    /** Reads names of modules from all index resources, empty lines and lines started with '#' are ignored. */
+    static Set<String> readIndex(ClassLoader classLoader) {
+        final Set<String> modules = new LinkedHashSet<>();
+        final Enumeration<URL> resources;
+        try {
+            resources = classLoader.getResources(INDEX);
+        } catch (IOException e) {
+            LOG.error(e.getMessage(), e);
+            return modules;
+        }
+        while (resources.hasMoreElements()) {
+            final URL resource = resources.nextElement();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(resource.openStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    line = line.trim();
+                    if (!line.isEmpty() && line.charAt(0) != '#') {
+                        modules.add(line);
                     }
-                } else {
-                    LOG.warn("Ignored non {} class annotated with {}", Module.class.getName(), DynaModule.class.getName());
                 }
+            } catch (IOException e) {
+                LOG.error("Unable to read {} : {}", resource, e.getMessage());
             }
         }
+        return modules;
+    }
+
+    private static ClassLoader getClassLoader() {
+        final ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        return classLoader != null ? classLoader : ModuleScanner.class.getClassLoader();
     }
 }
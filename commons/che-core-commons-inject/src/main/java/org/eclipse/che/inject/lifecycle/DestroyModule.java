@@ -21,11 +21,10 @@ import java.lang.reflect.Method;
 
 /** @author andrew00x */
 public final class DestroyModule extends LifecycleModule {
-    private final Class<? extends Annotation> annotationType;
-    private final DestroyErrorHandler         errorHandler;
+    private final DestroyErrorHandler errorHandler;
 
     public DestroyModule(Class<? extends Annotation> annotationType, DestroyErrorHandler errorHandler) {
-        this.annotationType = annotationType;
+        super(annotationType);
         this.errorHandler = errorHandler;
     }
 
@@ -36,18 +35,18 @@ public final class DestroyModule extends LifecycleModule {
         bindListener(Matchers.any(), new TypeListener() {
             @Override
             public <T> void hear(TypeLiteral<T> type, TypeEncounter<T> encounter) {
-                encounter.register(new InjectionListener<T>() {
-                    @Override
-                    public void afterInjection(T injectee) {
-                        final Method[] methods = get(injectee.getClass(), annotationType);
-                        if (methods.length > 0) {
+                final Method[] methods = get(type.getRawType());
+                if (methods.length > 0) {
+                    encounter.register(new InjectionListener<T>() {
+                        @Override
+                        public void afterInjection(T injectee) {
                             // copy array when pass it outside
                             final Method[] copy = new Method[methods.length];
                             System.arraycopy(methods, 0, copy, 0, methods.length);
                             destroyer.add(injectee, copy);
                         }
-                    }
-                });
+                    });
+                }
             }
         });
     }
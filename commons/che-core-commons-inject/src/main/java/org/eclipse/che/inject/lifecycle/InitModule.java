@@ -10,6 +10,7 @@
  *******************************************************************************/
 package org.eclipse.che.inject.lifecycle;
 
+import com.google.inject.Injector;
 import com.google.inject.ProvisionException;
 import com.google.inject.TypeLiteral;
 import com.google.inject.matcher.Matchers;
@@ -21,42 +22,93 @@ import java.lang.annotation.Annotation;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
-/** @author andrew00x */
+/**
+ * Invokes initialization methods, e.g. annotated with &#064PostConstruct, of components created by injector.
+ * <p/>
+ * By default initialization methods are invoked right after injection of component. In parallel mode initialization of components
+ * which are created while injector is being created and which no other component depends on is deferred until
+ * {@link #completeStartup(Injector)} is called, then initialization methods of such components are invoked in parallel. Component
+ * which is injected into other component is initialized before constructor or provider method of the other component is invoked, so
+ * they always get initialized dependencies. Time of construction and initialization of each binding is reported to log to help find
+ * slow steps of startup.
+ * <p/>
+ * Limitation of parallel mode: component which is got directly with {@link Injector#getInstance(Class)} before
+ * {@link #completeStartup(Injector)} is called may be not initialized yet, the same is true for component which is used from
+ * initialization method of other component without injection.
+ *
+ * @author andrew00x
+ */
 public final class InitModule extends LifecycleModule {
-    private final Class<? extends Annotation> annotationType;
+    private final StartupTracker startupTracker;
 
     public InitModule(Class<? extends Annotation> annotationType) {
-        this.annotationType = annotationType;
+        this(annotationType, false);
+    }
+
+    /**
+     * @param annotationType
+     *         annotation of initialization methods
+     * @param parallel
+     *         if {@code true} components created on startup are initialized in parallel with {@link #completeStartup(Injector)}
+     */
+    public InitModule(Class<? extends Annotation> annotationType, boolean parallel) {
+        super(annotationType);
+        startupTracker = parallel ? new StartupTracker() : null;
     }
 
     @Override
     protected void configure() {
+        if (startupTracker != null) {
+            requestInjection(startupTracker);
+            bindListener(Matchers.any(), startupTracker);
+        }
         bindListener(Matchers.any(), new TypeListener() {
             @Override
             public <T> void hear(TypeLiteral<T> type, TypeEncounter<T> encounter) {
-                encounter.register(new InjectionListener<T>() {
-                    @Override
-                    public void afterInjection(T injectee) {
-                        final Method[] methods = get(injectee.getClass(), annotationType);
-                        if (methods.length > 0) {
-                            for (Method method : methods) {
-                                try {
-                                    method.invoke(injectee);
-                                } catch (IllegalArgumentException e) {
-                                    // method MUST NOT have any parameters
-                                    throw new ProvisionException(e.getMessage(), e);
-                                } catch (IllegalAccessException e) {
-                                    throw new ProvisionException(String.format("Failed access to %s on %s", method, injectee), e);
-                                } catch (InvocationTargetException e) {
-                                    final Throwable cause = e.getTargetException();
-                                    throw new ProvisionException(String.format("Invocation error of method %s on %s", method, injectee),
-                                                                 cause);
-                                }
+                final Method[] methods = get(type.getRawType());
+                if (methods.length > 0) {
+                    encounter.register(new InjectionListener<T>() {
+                        @Override
+                        public void afterInjection(T injectee) {
+                            if (startupTracker == null || !startupTracker.defer(injectee, methods)) {
+                                init(injectee, methods);
                             }
                         }
-                    }
-                });
+                    });
+                }
             }
         });
     }
+
+    /**
+     * Invokes deferred initialization methods of components which are created while injector is being created and waits until all of
+     * them are done. Does nothing if this module isn't in parallel mode. Components created after this method is called are
+     * initialized right after injection.
+     *
+     * @param injector
+     *         injector created with this module
+     * @throws ProvisionException
+     *         if initialization of any component failed
+     */
+    public void completeStartup(Injector injector) {
+        if (startupTracker != null) {
+            startupTracker.complete(injector);
+        }
+    }
+
+    static void init(Object injectee, Method[] methods) {
+        for (Method method : methods) {
+            try {
+                method.invoke(injectee);
+            } catch (IllegalArgumentException e) {
+                // method MUST NOT have any parameters
+                throw new ProvisionException(e.getMessage(), e);
+            } catch (IllegalAccessException e) {
+                throw new ProvisionException(String.format("Failed access to %s on %s", method, injectee), e);
+            } catch (InvocationTargetException e) {
+                final Throwable cause = e.getTargetException();
+                throw new ProvisionException(String.format("Invocation error of method %s on %s", method, injectee), cause);
+            }
+        }
+    }
 }
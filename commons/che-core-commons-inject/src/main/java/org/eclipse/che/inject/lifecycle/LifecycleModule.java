@@ -12,8 +12,6 @@ package org.eclipse.che.inject.lifecycle;
 
 import com.google.inject.AbstractModule;
 
-import org.everrest.core.impl.HelperCache;
-
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -25,64 +23,23 @@ import java.util.Set;
 
 /** @author andrew00x */
 abstract class LifecycleModule extends AbstractModule {
-    private static class Key {
-        final Class<?>                    type;
-        final Class<? extends Annotation> annotationType;
-        final int                         hashCode;
-
-        static Key of(Class<?> type, Class<? extends Annotation> annotationType) {
-            return new Key(type, annotationType);
-        }
+    private final Class<? extends Annotation> annotationType;
+    // Methods are resolved once per type, lookup doesn't need any locking.
+    private final ClassValue<Method[]>        methods;
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) {
-                return true;
-            }
-            if (!(o instanceof Key)) {
-                return false;
+    LifecycleModule(Class<? extends Annotation> annotationType) {
+        this.annotationType = annotationType;
+        methods = new ClassValue<Method[]>() {
+            @Override
+            protected Method[] computeValue(Class<?> type) {
+                return doGet(type, LifecycleModule.this.annotationType);
             }
-            Key key = (Key)o;
-            return annotationType.equals(key.annotationType) && type.equals(key.type);
-        }
-
-        @Override
-        public int hashCode() {
-            return hashCode;
-        }
-
-        private Key(Class<?> type, Class<? extends Annotation> annotationType) {
-            this.type = type;
-            this.annotationType = annotationType;
-            int hash = annotationType.hashCode();
-            hash = 31 * hash + type.hashCode();
-            this.hashCode = hash;
-        }
-    }
-
-    private static final int SIZE = 1 << 3;
-    private static final int MASK = SIZE - 1;
-
-    private final HelperCache<Key, Method[]>[] caches;
-
-    @SuppressWarnings("unchecked")
-    LifecycleModule() {
-        caches = new HelperCache[SIZE];
-        for (int i = 0; i < SIZE; i++) {
-            caches[i] = new HelperCache<>(60 * 1000, 50);
-        }
+        };
     }
 
-    Method[] get(Class<?> type, Class<? extends Annotation> annotationType) {
-        final Key key = Key.of(type, annotationType);
-        final HelperCache<Key, Method[]> cache = caches[key.hashCode() & MASK];
-        synchronized (cache) {
-            Method[] methods = cache.get(key);
-            if (methods == null) {
-                cache.put(key, methods = doGet(type, annotationType));
-            }
-            return methods;
-        }
+    /** Returns methods annotated with lifecycle annotation of this module. Returned array must not be modified. */
+    Method[] get(Class<?> type) {
+        return methods.get(type);
     }
 
     private Method[] doGet(Class<?> type, Class<? extends Annotation> annotationType) {
@@ -0,0 +1,280 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.inject.lifecycle;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Binding;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.ProvisionException;
+import com.google.inject.spi.Dependency;
+import com.google.inject.spi.HasDependencies;
+import com.google.inject.spi.LinkedKeyBinding;
+import com.google.inject.spi.ProvisionListener;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records components provisioned while injector is being created and defers their initialization until {@link #complete(Injector)}.
+ * <p/>
+ * Constructor or provider method may use its dependencies right away, so initialization is deferred only for components which are
+ * not provisioned as dependency of other component. If deferred component is injected later into other one, it is initialized before
+ * the other component is provisioned. Thus components which are still deferred at {@link #complete(Injector)} don't depend on each
+ * other and are initialized in parallel.
+ *
+ * @see InitModule#completeStartup(Injector)
+ */
+final class StartupTracker implements ProvisionListener {
+    private static final Logger LOG = LoggerFactory.getLogger(StartupTracker.class);
+
+    private final ThreadLocal<Deque<Node>> provisioning;
+    private final List<Node>               nodes;
+    /** Components which initialization is deferred, by key of binding which provisioned them. */
+    private final Map<Key<?>, List<Node>>  deferred;
+
+    private volatile boolean  complete;
+    private volatile Injector injector;
+
+    StartupTracker() {
+        provisioning = new ThreadLocal<Deque<Node>>() {
+            @Override
+            protected Deque<Node> initialValue() {
+                return new ArrayDeque<>();
+            }
+        };
+        nodes = new ArrayList<>();
+        deferred = new HashMap<>();
+    }
+
+    /** Injector is used for resolving linked bindings of dependencies, it is set before any eager singleton is created. */
+    @Inject
+    void setInjector(Injector injector) {
+        this.injector = injector;
+    }
+
+    @Override
+    public <T> void onProvision(ProvisionInvocation<T> provision) {
+        if (complete) {
+            provision.provision();
+            return;
+        }
+        initDeferredDependencies(provision.getBinding());
+        final Deque<Node> stack = provisioning.get();
+        final Node node = new Node(provision.getBinding());
+        final Node parent = stack.peek();
+        if (parent != null) {
+            parent.children.add(node);
+        }
+        stack.push(node);
+        final long start = System.nanoTime();
+        try {
+            provision.provision();
+        } finally {
+            node.constructionTime = System.nanoTime() - start;
+            stack.pop();
+            synchronized (nodes) {
+                nodes.add(node);
+            }
+        }
+    }
+
+    /**
+     * Initializes component which is provisioned on startup or defers its initialization if nothing depends on it yet.
+     *
+     * @return {@code true} if component is initialized or its initialization is deferred and {@code false} if component isn't
+     * provisioned on startup and should be initialized by caller
+     */
+    boolean defer(Object injectee, Method[] methods) {
+        if (complete) {
+            return false;
+        }
+        // listeners of component are notified while it is on the top of provisioning stack
+        final Deque<Node> stack = provisioning.get();
+        final Node node = stack.peek();
+        if (node == null || node.instance != null) {
+            return false;
+        }
+        node.instance = injectee;
+        node.initMethods = methods;
+        if (stack.size() > 1) {
+            // component is dependency of other component which is being provisioned and may be used by it right away
+            node.init();
+        } else {
+            synchronized (deferred) {
+                List<Node> list = deferred.get(node.binding.getKey());
+                if (list == null) {
+                    deferred.put(node.binding.getKey(), list = new ArrayList<>(1));
+                }
+                list.add(node);
+            }
+        }
+        return true;
+    }
+
+    /** Initializes all deferred components and logs startup timeline. */
+    void complete(Injector injector) {
+        complete = true;
+        final List<Node> all;
+        synchronized (nodes) {
+            all = new ArrayList<>(nodes);
+            nodes.clear();
+        }
+        final List<Node> pending = new ArrayList<>();
+        synchronized (deferred) {
+            for (List<Node> list : deferred.values()) {
+                pending.addAll(list);
+            }
+            deferred.clear();
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors(),
+                                                                       new ThreadFactoryBuilder().setNameFormat("StartupInitializer-%d")
+                                                                                                 .setDaemon(true)
+                                                                                                 .build());
+        final long start = System.nanoTime();
+        try {
+            final List<CompletableFuture<Void>> futures = new ArrayList<>(pending.size());
+            for (Node node : pending) {
+                futures.add(CompletableFuture.runAsync(node::init, executor));
+            }
+            try {
+                CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).join();
+            } catch (CompletionException e) {
+                final Throwable cause = e.getCause();
+                if (cause instanceof ProvisionException) {
+                    throw (ProvisionException)cause;
+                }
+                throw new ProvisionException(cause.getMessage(), cause);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        report(all, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /** Initializes deferred components which binding depends on, so they are ready when binding provisions its instance. */
+    private void initDeferredDependencies(Binding<?> binding) {
+        if (!(binding instanceof HasDependencies)) {
+            return;
+        }
+        final List<Node> ready = new ArrayList<>();
+        synchronized (deferred) {
+            if (deferred.isEmpty()) {
+                return;
+            }
+            for (Dependency<?> dependency : ((HasDependencies)binding).getDependencies()) {
+                final Key<?> key = unwrapProvider(dependency.getKey());
+                addAll(ready, deferred.remove(key));
+                addAll(ready, deferred.remove(resolve(key)));
+            }
+        }
+        for (Node node : ready) {
+            node.init();
+        }
+    }
+
+    private void report(List<Node> all, long totalTime) {
+        final List<Node> sorted = new ArrayList<>(all);
+        Collections.sort(sorted, (o1, o2) -> Long.compare(o2.getSelfTime() + o2.initTime, o1.getSelfTime() + o1.initTime));
+        final StringBuilder timeline = new StringBuilder();
+        timeline.append(String.format("Startup timeline, %d bindings, parallel initialization took %d ms%n", all.size(), totalTime));
+        timeline.append(String.format("%12s %12s  %s%n", "construct ms", "init ms", "binding"));
+        for (Node node : sorted) {
+            timeline.append(String.format("%12d %12d  %s%n",
+                                          TimeUnit.NANOSECONDS.toMillis(node.getSelfTime()),
+                                          TimeUnit.NANOSECONDS.toMillis(node.initTime),
+                                          node.binding.getKey()));
+        }
+        LOG.info(timeline.toString());
+    }
+
+    private static <T> void addAll(List<T> target, List<T> source) {
+        if (source != null) {
+            target.addAll(source);
+        }
+    }
+
+    /** Follows linked bindings to the key of binding which actually provides instances. */
+    private Key<?> resolve(Key<?> key) {
+        final Injector injector = this.injector;
+        if (injector == null) {
+            return key;
+        }
+        Binding<?> binding = injector.getExistingBinding(key);
+        while (binding instanceof LinkedKeyBinding) {
+            key = ((LinkedKeyBinding<?>)binding).getLinkedKey();
+            binding = injector.getExistingBinding(key);
+        }
+        return key;
+    }
+
+    /** Component may get instance from injected provider at any time, so provider depends on component it provides. */
+    private static Key<?> unwrapProvider(Key<?> key) {
+        final Type type = key.getTypeLiteral().getType();
+        if (Provider.class.isAssignableFrom(key.getTypeLiteral().getRawType()) && type instanceof ParameterizedType) {
+            return key.ofType(((ParameterizedType)type).getActualTypeArguments()[0]);
+        }
+        return key;
+    }
+
+    private static final class Node {
+        final Binding<?> binding;
+        /** Components provisioned while this one was being provisioned. */
+        final List<Node> children;
+
+        long     constructionTime;
+        long     initTime;
+        Object   instance;
+        Method[] initMethods;
+
+        Node(Binding<?> binding) {
+            this.binding = binding;
+            children = new ArrayList<>();
+        }
+
+        void init() {
+            final long start = System.nanoTime();
+            try {
+                InitModule.init(instance, initMethods);
+            } finally {
+                initTime = System.nanoTime() - start;
+            }
+        }
+
+        /** Time of construction of component itself without time of construction of its dependencies. */
+        long getSelfTime() {
+            long time = constructionTime;
+            for (Node child : children) {
+                time -= child.constructionTime;
+            }
+            return Math.max(time, 0);
+        }
+    }
+}
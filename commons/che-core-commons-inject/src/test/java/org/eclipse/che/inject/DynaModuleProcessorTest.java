@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.inject;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class DynaModuleProcessorTest {
+    private Path sources;
+    private Path classes;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        sources = Files.createTempDirectory("dyna-sources");
+        classes = Files.createTempDirectory("dyna-classes");
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        delete(sources);
+        delete(classes);
+    }
+
+    @Test
+    public void shouldWriteAnnotatedModulesToIndex() throws Exception {
+        compile(source("MyModule", "@org.eclipse.che.inject.DynaModule public class MyModule {}"),
+                source("Plain", "public class Plain {}"));
+
+        Assert.assertEquals(readIndex(), Collections.singletonList("test.MyModule"));
+    }
+
+    @Test
+    public void shouldPruneIndexWhenThereAreNoAnnotatedModules() throws Exception {
+        compile(source("MyModule", "@org.eclipse.che.inject.DynaModule public class MyModule {}"));
+
+        // annotation is removed in the next incremental build
+        compile(source("MyModule", "public class MyModule {}"));
+
+        Assert.assertEquals(readIndex(), Collections.emptyList());
+    }
+
+    @Test
+    public void shouldNotWriteIndexWhenThereAreNoAnnotatedModules() throws Exception {
+        compile(source("Plain", "public class Plain {}"));
+
+        Assert.assertFalse(Files.exists(classes.resolve(ModuleScanner.INDEX)));
+    }
+
+    private Path source(String name, String body) throws IOException {
+        final Path source = sources.resolve("test").resolve(name + ".java");
+        Files.createDirectories(source.getParent());
+        Files.write(source, Arrays.asList("package test;", body), StandardCharsets.UTF_8);
+        return source;
+    }
+
+    private void compile(Path... files) {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final String[] args = new String[files.length + 6];
+        args[0] = "-processor";
+        args[1] = DynaModuleProcessor.class.getName();
+        args[2] = "-classpath";
+        args[3] = System.getProperty("java.class.path");
+        args[4] = "-d";
+        args[5] = classes.toString();
+        for (int i = 0; i < files.length; i++) {
+            args[i + 6] = files[i].toString();
+        }
+        Assert.assertEquals(compiler.run(null, null, null, args), 0, "compilation failed");
+    }
+
+    private List<String> readIndex() throws IOException {
+        return Files.readAllLines(classes.resolve(ModuleScanner.INDEX), StandardCharsets.UTF_8);
+    }
+
+    private static void delete(Path root) throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+}
@@ -18,6 +18,7 @@ import com.google.inject.Binder;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
 import com.google.inject.Module;
+import com.google.inject.Stage;
 
 import org.testng.Assert;
 import org.testng.annotations.BeforeTest;
@@ -52,6 +53,46 @@ public class LifecycleTest {
         Assert.assertEquals(component.destroy, 1, "'destroy' method must be called just once");
     }
 
+    @Test
+    public void testParallelInitRespectsDependencies() {
+        final InitModule initModule = new InitModule(PostConstruct.class, true);
+        final Injector parallelInjector = Guice.createInjector(Stage.PRODUCTION, initModule, new Module() {
+            @Override
+            public void configure(Binder binder) {
+                binder.bind(DependentComponent.class);
+                binder.bind(SlowComponent.class);
+            }
+        });
+        final DependentComponent component = parallelInjector.getInstance(DependentComponent.class);
+        Assert.assertEquals(component.init, 0, "'init' method must be deferred until startup is completed");
+        Assert.assertEquals(component.slow.init, 1, "dependency must be initialized when it is injected");
+
+        initModule.completeStartup(parallelInjector);
+
+        Assert.assertEquals(component.slow.init, 1, "'init' method must be called just once");
+        Assert.assertEquals(component.init, 1, "'init' method must be called just once");
+        Assert.assertTrue(component.dependencyInitialized, "dependency must be initialized before dependent component");
+    }
+
+    @Test
+    public void testParallelInitCompletesDependencyBeforeConstructorUsesIt() {
+        final InitModule initModule = new InitModule(PostConstruct.class, true);
+        final Injector parallelInjector = Guice.createInjector(Stage.PRODUCTION, initModule, new Module() {
+            @Override
+            public void configure(Binder binder) {
+                // SlowComponent is created first and nothing depends on it yet, so its initialization is deferred
+                binder.bind(SlowComponent.class);
+                binder.bind(ConstructorComponent.class);
+            }
+        });
+        final ConstructorComponent component = parallelInjector.getInstance(ConstructorComponent.class);
+        Assert.assertTrue(component.dependencyInitialized, "dependency must be initialized before constructor uses it");
+
+        initModule.completeStartup(parallelInjector);
+
+        Assert.assertEquals(component.slow.init, 1, "'init' method must be called just once");
+    }
+
     public static class MyModule implements Module {
         @Override
         public void configure(Binder binder) {
@@ -74,6 +115,47 @@ public class LifecycleTest {
         }
     }
 
+    @Singleton
+    public static class SlowComponent {
+        volatile int init;
+
+        @PostConstruct
+        public void init() throws InterruptedException {
+            Thread.sleep(100);
+            init++;
+        }
+    }
+
+    @Singleton
+    public static class DependentComponent {
+        final SlowComponent slow;
+        int     init;
+        boolean dependencyInitialized;
+
+        @Inject
+        public DependentComponent(SlowComponent slow) {
+            this.slow = slow;
+        }
+
+        @PostConstruct
+        public void init() {
+            dependencyInitialized = slow.init == 1;
+            init++;
+        }
+    }
+
+    @Singleton
+    public static class ConstructorComponent {
+        final SlowComponent slow;
+        final boolean       dependencyInitialized;
+
+        @Inject
+        public ConstructorComponent(SlowComponent slow) {
+            this.slow = slow;
+            dependencyInitialized = slow.init == 1;
+        }
+    }
+
     @Singleton
     public static class TestComponent extends SuperClass {
         @Inject
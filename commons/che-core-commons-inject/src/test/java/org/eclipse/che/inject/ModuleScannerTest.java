@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.inject;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Module;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+public class ModuleScannerTest {
+    private ClassLoader contextClassLoader;
+    private Path        indexRoot;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        contextClassLoader = Thread.currentThread().getContextClassLoader();
+        indexRoot = Files.createTempDirectory("module-index");
+        final Path index = indexRoot.resolve(ModuleScanner.INDEX);
+        Files.createDirectories(index.getParent());
+        Files.write(index, Arrays.asList("# generated", "", IndexedModule.class.getName(), "org.eclipse.che.inject.NotExistedModule"),
+                    StandardCharsets.UTF_8);
+        Thread.currentThread().setContextClassLoader(new URLClassLoader(new URL[]{indexRoot.toUri().toURL()}, contextClassLoader));
+    }
+
+    @AfterMethod
+    public void tearDown() throws Exception {
+        Thread.currentThread().setContextClassLoader(contextClassLoader);
+        Files.delete(indexRoot.resolve(ModuleScanner.INDEX));
+        Files.delete(indexRoot.resolve(ModuleScanner.INDEX).getParent());
+        Files.delete(indexRoot.resolve("META-INF"));
+        Files.delete(indexRoot);
+    }
+
+    @Test
+    public void shouldLoadModulesFromIndex() throws Exception {
+        final List<Module> modules = ModuleScanner.findModules();
+
+        Assert.assertEquals(modules.size(), 1);
+        Assert.assertTrue(modules.get(0) instanceof IndexedModule);
+    }
+
+    @Test
+    public void shouldNotLoadModuleTwiceIfItIsFoundWithScanning() throws Exception {
+        new ModuleScanner().onStartup(new HashSet<Class<?>>(Arrays.asList(IndexedModule.class)), null);
+
+        final List<Module> modules = ModuleScanner.findModules();
+
+        Assert.assertEquals(modules.size(), 1);
+        Assert.assertTrue(modules.get(0) instanceof IndexedModule);
+    }
+
+    @DynaModule
+    public static class IndexedModule extends AbstractModule {
+        @Override
+        protected void configure() {
+        }
+    }
+}
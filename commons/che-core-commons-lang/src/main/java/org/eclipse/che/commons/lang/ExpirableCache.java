@@ -14,7 +14,7 @@ import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
- * @deprecated Use Guava cache or other cache implementations
+ * @deprecated Use {@link org.eclipse.che.commons.lang.cache.ExpiringCache}
  */
 @Deprecated
 public class ExpirableCache<K, V> {
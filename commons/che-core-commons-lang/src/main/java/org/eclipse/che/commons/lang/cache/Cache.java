@@ -16,10 +16,8 @@ import java.util.Map.Entry;
 /**
  * Cache abstraction.
  *
- * @deprecated Use Guava cache or other cache implementations
- *
- * */
-@Deprecated
+ * @see ExpiringCache
+ */
 public interface Cache<K, V> extends Iterable<Entry<K, V>> {
     V get(K key);
 
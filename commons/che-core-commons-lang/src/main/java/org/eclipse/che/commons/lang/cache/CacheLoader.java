@@ -0,0 +1,30 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.lang.cache;
+
+/**
+ * Loads values of {@link ExpiringCache}.
+ *
+ * @see ExpiringCache.Builder#build(CacheLoader)
+ */
+@FunctionalInterface
+public interface CacheLoader<K, V> {
+    /**
+     * Load value in implementation specific way.
+     *
+     * @param key
+     *         key
+     * @return value or {@code null} if there is no value for the key, {@code null} values are not cached
+     * @throws RuntimeException
+     *         if failed to load value
+     */
+    V load(K key) throws RuntimeException;
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.lang.cache;
+
+/**
+ * Snapshot of statistics of {@link ExpiringCache}.
+ *
+ * @see ExpiringCache#getStats()
+ */
+public final class CacheStats {
+    private final long hitCount;
+    private final long missCount;
+    private final long loadSuccessCount;
+    private final long loadFailureCount;
+    private final long evictionCount;
+    private final long expirationCount;
+
+    CacheStats(long hitCount, long missCount, long loadSuccessCount, long loadFailureCount, long evictionCount, long expirationCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.loadSuccessCount = loadSuccessCount;
+        this.loadFailureCount = loadFailureCount;
+        this.evictionCount = evictionCount;
+        this.expirationCount = expirationCount;
+    }
+
+    /** Number of lookups which found value in cache. */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /** Number of lookups which didn't find value in cache. */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /** Ratio of hits to all lookups or 1.0 if there were no lookups. */
+    public double getHitRate() {
+        final long requestCount = hitCount + missCount;
+        return requestCount == 0 ? 1.0 : (double)hitCount / requestCount;
+    }
+
+    /** Number of values successfully loaded, including refreshes. */
+    public long getLoadSuccessCount() {
+        return loadSuccessCount;
+    }
+
+    /** Number of loads which failed with exception. */
+    public long getLoadFailureCount() {
+        return loadFailureCount;
+    }
+
+    /** Number of values evicted because of size or weight limit. */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /** Number of expired values. */
+    public long getExpirationCount() {
+        return expirationCount;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{" +
+               "hitCount=" + hitCount +
+               ", missCount=" + missCount +
+               ", loadSuccessCount=" + loadSuccessCount +
+               ", loadFailureCount=" + loadFailureCount +
+               ", evictionCount=" + evictionCount +
+               ", expirationCount=" + expirationCount +
+               '}';
+    }
+}
@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.lang.cache;
+
+/**
+ * Receives notifications when values are removed from {@link ExpiringCache}.
+ * <p/>
+ * Listener is called by thread which modified cache after cache releases its internal locks, so it is safe to access the cache from
+ * listener.
+ *
+ * @see ExpiringCache.Builder#evictionListener(EvictionListener)
+ */
+@FunctionalInterface
+public interface EvictionListener<K, V> {
+    /** Reason of removal of value from cache. */
+    enum Cause {
+        /** Value removed with {@link Cache#remove(Object)} or {@link Cache#clear()}. */
+        EXPLICIT,
+        /** Value replaced with new value for the same key. */
+        REPLACED,
+        /** Value removed because of size or weight limit of cache. */
+        SIZE,
+        /** Value expired. */
+        EXPIRED
+    }
+
+    /**
+     * Is called when value is removed from cache.
+     *
+     * @param key
+     *         key
+     * @param value
+     *         removed value
+     * @param cause
+     *         reason of removal
+     */
+    void onEviction(K key, V value, Cause cause);
+}
@@ -0,0 +1,597 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.lang.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Threadsafe cache with size or weight limit, expiration of entries and optional loading of values.
+ * <p/>
+ * Cache is split in segments by hash of key, each segment has own lock, LRU order of entries and share of size (weight) limit, so
+ * threads which access different segments don't block each other and eviction is O(1). Expired entries are found with {@link
+ * TimerWheel} which is advanced on each operation, so there is no cleanup thread and no scan of all entries.
+ * <p/>
+ * If cache is built with {@link CacheLoader} missed values are loaded by thread which requested them. Loading holds lock of segment,
+ * so concurrent requests for the same key load value once. When {@link Builder#refreshAfterWrite(long, TimeUnit) refresh} is set,
+ * value which is older than refresh interval is returned as is and new value is loaded asynchronously.
+ * <p/>
+ * Usage example:
+ * <pre>{@code
+ *     Cache<String, Project> projects = ExpiringCache.<String, Project>newBuilder()
+ *                                                    .maximumSize(1000)
+ *                                                    .expireAfterAccess(10, TimeUnit.MINUTES)
+ *                                                    .build(this::loadProject);
+ * }</pre>
+ *
+ * @see EvictionListener
+ * @see CacheStats
+ */
+public final class ExpiringCache<K, V> implements Cache<K, V> {
+    private static final Logger LOG = LoggerFactory.getLogger(ExpiringCache.class);
+
+    /** Creates builder of new cache. */
+    public static <K, V> Builder<K, V> newBuilder() {
+        return new Builder<>();
+    }
+
+    private final Segment<K, V>[]                        segments;
+    private final int                                    segmentMask;
+    private final Weigher<? super K, ? super V>          weigher;
+    private final CacheLoader<? super K, V>              loader;
+    private final EvictionListener<? super K, ? super V> listener;
+    private final Executor                               executor;
+    private final LongSupplier                           ticker;
+    private final long                                   expireAfterWriteNanos;
+    private final long                                   expireAfterAccessNanos;
+    private final long                                   refreshAfterWriteNanos;
+
+    private final LongAdder hitCount         = new LongAdder();
+    private final LongAdder missCount        = new LongAdder();
+    private final LongAdder loadSuccessCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder evictionCount    = new LongAdder();
+    private final LongAdder expirationCount  = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    private ExpiringCache(Builder<K, V> builder, CacheLoader<? super K, V> loader) {
+        this.loader = loader;
+        this.weigher = builder.weigher;
+        this.listener = builder.listener;
+        this.executor = builder.executor;
+        this.ticker = builder.ticker;
+        this.expireAfterWriteNanos = builder.expireAfterWriteNanos;
+        this.expireAfterAccessNanos = builder.expireAfterAccessNanos;
+        this.refreshAfterWriteNanos = builder.refreshAfterWriteNanos;
+
+        int segmentsNum = 1;
+        while (segmentsNum < builder.concurrencyLevel
+               && (builder.maximumWeight == Builder.UNSET || segmentsNum * 2 <= builder.maximumWeight)) {
+            segmentsNum <<= 1;
+        }
+        final long now = ticker.getAsLong();
+        segments = new Segment[segmentsNum];
+        for (int i = 0; i < segmentsNum; i++) {
+            long maxWeight = Long.MAX_VALUE;
+            if (builder.maximumWeight != Builder.UNSET) {
+                // spread remainder over the first segments to keep total limit exact
+                maxWeight = builder.maximumWeight / segmentsNum + (i < builder.maximumWeight % segmentsNum ? 1 : 0);
+            }
+            segments[i] = new Segment<>(maxWeight, now);
+        }
+        segmentMask = segmentsNum - 1;
+    }
+
+    /**
+     * Returns value for the given key. If there is no value in cache and cache has loader, value is loaded and put in cache.
+     *
+     * @return value or {@code null} if there is no value for the key
+     * @throws NullPointerException
+     *         if key is null
+     * @throws RuntimeException
+     *         if loader fails
+     */
+    @Override
+    public V get(K key) {
+        requireNonNull(key, "Null key is not allowed");
+        final Segment<K, V> segment = segmentFor(key);
+        final List<Eviction<K, V>> evictions = new ArrayList<>();
+        Entry<K, V> refresh = null;
+        V value;
+        segment.lock.lock();
+        try {
+            final long now = ticker.getAsLong();
+            expireEntries(segment, now, evictions);
+            final Entry<K, V> entry = getLiveEntry(segment, key, now, evictions);
+            if (entry != null) {
+                hitCount.increment();
+                value = entry.value;
+                if (expireAfterAccessNanos > 0) {
+                    entry.accessTime = now;
+                    scheduleExpiration(segment, entry);
+                }
+                if (refreshAfterWriteNanos > 0 && !entry.refreshing && now - entry.writeTime >= refreshAfterWriteNanos) {
+                    entry.refreshing = true;
+                    refresh = entry;
+                }
+            } else {
+                missCount.increment();
+                value = loader == null ? null : load(key);
+                if (value != null) {
+                    putEntry(segment, key, value, now, evictions);
+                }
+            }
+        } finally {
+            segment.lock.unlock();
+            notifyListener(evictions);
+        }
+        if (refresh != null) {
+            refreshAsync(segment, refresh);
+        }
+        return value;
+    }
+
+    /**
+     * Puts value in cache.
+     *
+     * @return previous value or {@code null} if there was no value for the key
+     * @throws NullPointerException
+     *         if key or value is null
+     */
+    @Override
+    public V put(K key, V value) {
+        requireNonNull(key, "Null key is not allowed");
+        requireNonNull(value, "Null value is not allowed");
+        final Segment<K, V> segment = segmentFor(key);
+        final List<Eviction<K, V>> evictions = new ArrayList<>();
+        segment.lock.lock();
+        try {
+            final long now = ticker.getAsLong();
+            expireEntries(segment, now, evictions);
+            final Entry<K, V> previous = getLiveEntry(segment, key, now, evictions);
+            putEntry(segment, key, value, now, evictions);
+            return previous == null ? null : previous.value;
+        } finally {
+            segment.lock.unlock();
+            notifyListener(evictions);
+        }
+    }
+
+    /**
+     * Removes value from cache.
+     *
+     * @return removed value or {@code null} if there was no value for the key
+     */
+    @Override
+    public V remove(K key) {
+        requireNonNull(key, "Null key is not allowed");
+        final Segment<K, V> segment = segmentFor(key);
+        final List<Eviction<K, V>> evictions = new ArrayList<>();
+        segment.lock.lock();
+        try {
+            final long now = ticker.getAsLong();
+            expireEntries(segment, now, evictions);
+            final Entry<K, V> entry = getLiveEntry(segment, key, now, evictions);
+            if (entry == null) {
+                return null;
+            }
+            removeEntry(segment, entry, EvictionListener.Cause.EXPLICIT, evictions);
+            return entry.value;
+        } finally {
+            segment.lock.unlock();
+            notifyListener(evictions);
+        }
+    }
+
+    /** Tests whether cache contains not expired value for the key. Doesn't load value. */
+    @Override
+    public boolean contains(K key) {
+        requireNonNull(key, "Null key is not allowed");
+        final Segment<K, V> segment = segmentFor(key);
+        segment.lock.lock();
+        try {
+            final Entry<K, V> entry = segment.map.get(key);
+            return entry != null && !isExpired(entry, ticker.getAsLong());
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    /** Removes all values from cache. */
+    @Override
+    public void clear() {
+        final List<Eviction<K, V>> evictions = new ArrayList<>();
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                for (Entry<K, V> entry : new ArrayList<>(segment.map.values())) {
+                    removeEntry(segment, entry, EvictionListener.Cause.EXPLICIT, evictions);
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        notifyListener(evictions);
+    }
+
+    /** Returns number of values in cache. Value may include expired entries which are not removed yet, see {@link #cleanUp()}. */
+    @Override
+    public int size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.map.size();
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return (int)Math.min(size, Integer.MAX_VALUE);
+    }
+
+    /** Returns iterator over snapshot of not expired entries. Modification of cache doesn't affect iterator. */
+    @Override
+    public Iterator<Map.Entry<K, V>> iterator() {
+        final List<Map.Entry<K, V>> snapshot = new ArrayList<>();
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                final long now = ticker.getAsLong();
+                for (Entry<K, V> entry : segment.map.values()) {
+                    if (!isExpired(entry, now)) {
+                        snapshot.add(new SimpleImmutableEntry<>(entry.key, entry.value));
+                    }
+                }
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        return snapshot.iterator();
+    }
+
+    /** Removes expired entries. Usually it is not needed to call this method since expired entries are removed on each access. */
+    public void cleanUp() {
+        final List<Eviction<K, V>> evictions = new ArrayList<>();
+        for (Segment<K, V> segment : segments) {
+            segment.lock.lock();
+            try {
+                expireEntries(segment, ticker.getAsLong(), evictions);
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        notifyListener(evictions);
+    }
+
+    /** Returns snapshot of statistics of this cache. */
+    public CacheStats getStats() {
+        return new CacheStats(hitCount.sum(),
+                              missCount.sum(),
+                              loadSuccessCount.sum(),
+                              loadFailureCount.sum(),
+                              evictionCount.sum(),
+                              expirationCount.sum());
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        final int h = key.hashCode();
+        return segments[(h ^ (h >>> 16)) & segmentMask];
+    }
+
+    private V load(K key) {
+        final V value;
+        try {
+            value = loader.load(key);
+        } catch (RuntimeException e) {
+            loadFailureCount.increment();
+            throw e;
+        }
+        loadSuccessCount.increment();
+        return value;
+    }
+
+    private void refreshAsync(Segment<K, V> segment, Entry<K, V> entry) {
+        try {
+            executor.execute(() -> refresh(segment, entry));
+        } catch (RuntimeException e) {
+            LOG.warn("Unable to refresh value of cache: {}", e.getMessage());
+            entry.refreshing = false;
+        }
+    }
+
+    private void refresh(Segment<K, V> segment, Entry<K, V> entry) {
+        V value = null;
+        try {
+            value = load(entry.key);
+        } catch (RuntimeException e) {
+            LOG.warn(String.format("Unable to refresh value of cache for key '%s'", entry.key), e);
+        }
+        final List<Eviction<K, V>> evictions = new ArrayList<>();
+        segment.lock.lock();
+        try {
+            entry.refreshing = false;
+            // value may be removed or replaced while it was loaded
+            if (value != null && segment.map.get(entry.key) == entry) {
+                putEntry(segment, entry.key, value, ticker.getAsLong(), evictions);
+            }
+        } finally {
+            segment.lock.unlock();
+            notifyListener(evictions);
+        }
+    }
+
+    /** Returns not expired entry, removes entry if it is expired. Doesn't change order of entries. */
+    private Entry<K, V> getLiveEntry(Segment<K, V> segment, K key, long now, List<Eviction<K, V>> evictions) {
+        final Entry<K, V> entry = segment.map.get(key);
+        if (entry != null && isExpired(entry, now)) {
+            removeEntry(segment, entry, EvictionListener.Cause.EXPIRED, evictions);
+            return null;
+        }
+        return entry;
+    }
+
+    private void putEntry(Segment<K, V> segment, K key, V value, long now, List<Eviction<K, V>> evictions) {
+        final Entry<K, V> entry = new Entry<>(key, value, weigher == null ? 1 : weigher.weigh(key, value), now);
+        final Entry<K, V> previous = segment.map.put(key, entry);
+        if (previous != null) {
+            segment.weight -= previous.weight;
+            segment.wheel.deschedule(previous);
+            evictions.add(new Eviction<>(previous, EvictionListener.Cause.REPLACED));
+        }
+        segment.weight += entry.weight;
+        scheduleExpiration(segment, entry);
+        final Iterator<Entry<K, V>> it = segment.map.values().iterator();
+        while (segment.weight > segment.maxWeight && it.hasNext()) {
+            final Entry<K, V> eldest = it.next();
+            it.remove();
+            segment.weight -= eldest.weight;
+            segment.wheel.deschedule(eldest);
+            evictionCount.increment();
+            evictions.add(new Eviction<>(eldest, EvictionListener.Cause.SIZE));
+        }
+    }
+
+    private void removeEntry(Segment<K, V> segment, Entry<K, V> entry, EvictionListener.Cause cause, List<Eviction<K, V>> evictions) {
+        segment.map.remove(entry.key);
+        segment.weight -= entry.weight;
+        segment.wheel.deschedule(entry);
+        if (cause == EvictionListener.Cause.EXPIRED) {
+            expirationCount.increment();
+        }
+        evictions.add(new Eviction<>(entry, cause));
+    }
+
+    private void expireEntries(Segment<K, V> segment, long now, List<Eviction<K, V>> evictions) {
+        if (expireAfterWriteNanos > 0 || expireAfterAccessNanos > 0) {
+            segment.wheel.advance(now, entry -> {
+                if (isExpired(entry, now)) {
+                    removeEntry(segment, entry, EvictionListener.Cause.EXPIRED, evictions);
+                } else {
+                    segment.wheel.schedule(entry);
+                }
+            });
+        }
+    }
+
+    private void scheduleExpiration(Segment<K, V> segment, Entry<K, V> entry) {
+        if (expireAfterWriteNanos > 0 || expireAfterAccessNanos > 0) {
+            entry.deadline = deadlineOf(entry);
+            segment.wheel.schedule(entry);
+        }
+    }
+
+    private long deadlineOf(Entry<K, V> entry) {
+        if (expireAfterWriteNanos > 0 && expireAfterAccessNanos > 0) {
+            final long writeDeadline = entry.writeTime + expireAfterWriteNanos;
+            final long accessDeadline = entry.accessTime + expireAfterAccessNanos;
+            return writeDeadline - accessDeadline < 0 ? writeDeadline : accessDeadline;
+        }
+        return expireAfterWriteNanos > 0 ? entry.writeTime + expireAfterWriteNanos : entry.accessTime + expireAfterAccessNanos;
+    }
+
+    private boolean isExpired(Entry<K, V> entry, long now) {
+        return (expireAfterWriteNanos > 0 || expireAfterAccessNanos > 0) && now - deadlineOf(entry) >= 0;
+    }
+
+    private void notifyListener(List<Eviction<K, V>> evictions) {
+        if (listener == null) {
+            return;
+        }
+        for (Eviction<K, V> eviction : evictions) {
+            try {
+                listener.onEviction(eviction.entry.key, eviction.entry.value, eviction.cause);
+            } catch (RuntimeException e) {
+                LOG.error(e.getMessage(), e);
+            }
+        }
+    }
+
+    private static final class Segment<K, V> {
+        final ReentrantLock            lock;
+        final Map<K, Entry<K, V>>      map;
+        final TimerWheel<Entry<K, V>>  wheel;
+        final long                     maxWeight;
+        long                           weight;
+
+        Segment(long maxWeight, long now) {
+            this.maxWeight = maxWeight;
+            lock = new ReentrantLock();
+            map = new LinkedHashMap<>(16, 0.75f, true);
+            wheel = new TimerWheel<>(now);
+        }
+    }
+
+    private static final class Entry<K, V> extends TimerWheel.Node {
+        final K    key;
+        final V    value;
+        final int  weight;
+        final long writeTime;
+        long       accessTime;
+        boolean    refreshing;
+
+        Entry(K key, V value, int weight, long now) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.writeTime = now;
+            this.accessTime = now;
+        }
+    }
+
+    private static final class Eviction<K, V> {
+        final Entry<K, V>            entry;
+        final EvictionListener.Cause cause;
+
+        Eviction(Entry<K, V> entry, EvictionListener.Cause cause) {
+            this.entry = entry;
+            this.cause = cause;
+        }
+    }
+
+    /**
+     * Builder of {@link ExpiringCache}. By default cache has no size limit and entries never expire.
+     *
+     * @see ExpiringCache#newBuilder()
+     */
+    public static final class Builder<K, V> {
+        private static final long UNSET = -1;
+
+        private long                                   maximumWeight          = UNSET;
+        private Weigher<? super K, ? super V>          weigher;
+        private long                                   expireAfterWriteNanos;
+        private long                                   expireAfterAccessNanos;
+        private long                                   refreshAfterWriteNanos;
+        private int                                    concurrencyLevel       = 4;
+        private EvictionListener<? super K, ? super V> listener;
+        private Executor                               executor               = ForkJoinPool.commonPool();
+        private LongSupplier                           ticker                 = System::nanoTime;
+
+        private Builder() {
+        }
+
+        /** Limits number of entries in cache, least recently used entries are evicted when cache exceeds limit. */
+        public Builder<K, V> maximumSize(long maximumSize) {
+            if (maximumSize < 1) {
+                throw new IllegalArgumentException("Maximum size must be greater than 0");
+            }
+            if (weigher != null) {
+                throw new IllegalStateException("Maximum weight is already set");
+            }
+            this.maximumWeight = maximumSize;
+            return this;
+        }
+
+        /**
+         * Limits total weight of entries in cache, least recently used entries are evicted when cache exceeds limit.
+         *
+         * @param maximumWeight
+         *         max total weight
+         * @param weigher
+         *         calculates weight of entries
+         */
+        public Builder<K, V> maximumWeight(long maximumWeight, Weigher<? super K, ? super V> weigher) {
+            if (maximumWeight < 1) {
+                throw new IllegalArgumentException("Maximum weight must be greater than 0");
+            }
+            if (this.maximumWeight != UNSET && this.weigher == null) {
+                throw new IllegalStateException("Maximum size is already set");
+            }
+            this.maximumWeight = maximumWeight;
+            this.weigher = requireNonNull(weigher, "Required non-null weigher");
+            return this;
+        }
+
+        /** Entries expire when the given time passes after value is put in cache. */
+        public Builder<K, V> expireAfterWrite(long duration, TimeUnit unit) {
+            this.expireAfterWriteNanos = toPositiveNanos(duration, unit);
+            return this;
+        }
+
+        /** Entries expire when the given time passes after the last access to value or after value is put in cache. */
+        public Builder<K, V> expireAfterAccess(long duration, TimeUnit unit) {
+            this.expireAfterAccessNanos = toPositiveNanos(duration, unit);
+            return this;
+        }
+
+        /**
+         * Value which is older than the given time is reloaded asynchronously on the next access to it, while old value is returned
+         * until new one is loaded. Works only for caches with {@link CacheLoader}.
+         *
+         * @see #executor(Executor)
+         */
+        public Builder<K, V> refreshAfterWrite(long duration, TimeUnit unit) {
+            this.refreshAfterWriteNanos = toPositiveNanos(duration, unit);
+            return this;
+        }
+
+        /** Expected number of threads which access cache concurrently, cache is split in the same number of segments. */
+        public Builder<K, V> concurrencyLevel(int concurrencyLevel) {
+            if (concurrencyLevel < 1) {
+                throw new IllegalArgumentException("Concurrency level must be greater than 0");
+            }
+            this.concurrencyLevel = concurrencyLevel;
+            return this;
+        }
+
+        /** Sets listener which is notified about every value removed from cache. */
+        public Builder<K, V> evictionListener(EvictionListener<? super K, ? super V> listener) {
+            this.listener = requireNonNull(listener, "Required non-null listener");
+            return this;
+        }
+
+        /** Sets executor for asynchronous refresh of values. By default {@link ForkJoinPool#commonPool()} is used. */
+        public Builder<K, V> executor(Executor executor) {
+            this.executor = requireNonNull(executor, "Required non-null executor");
+            return this;
+        }
+
+        /** Sets source of time in nanoseconds, for tests. */
+        Builder<K, V> ticker(LongSupplier ticker) {
+            this.ticker = requireNonNull(ticker, "Required non-null ticker");
+            return this;
+        }
+
+        /** Builds cache which doesn't load values. */
+        public ExpiringCache<K, V> build() {
+            if (refreshAfterWriteNanos > 0) {
+                throw new IllegalStateException("Refresh requires cache loader");
+            }
+            return new ExpiringCache<>(this, null);
+        }
+
+        /** Builds cache which loads missed values with the given loader. */
+        public ExpiringCache<K, V> build(CacheLoader<? super K, V> loader) {
+            return new ExpiringCache<>(this, requireNonNull(loader, "Required non-null loader"));
+        }
+
+        private static long toPositiveNanos(long duration, TimeUnit unit) {
+            if (duration < 1) {
+                throw new IllegalArgumentException("Duration must be greater than 0");
+            }
+            return requireNonNull(unit, "Required non-null time unit").toNanos(duration);
+        }
+    }
+}
@@ -17,7 +17,7 @@ import java.util.Map.Entry;
  * Synchronized cache.
  *
  * @see Cache
- * @deprecated Use Guava cache or other cache implementations
+ * @deprecated Use {@link ExpiringCache}
  */
 @Deprecated
 public final class SynchronizedCache<K, V> implements Cache<K, V> {
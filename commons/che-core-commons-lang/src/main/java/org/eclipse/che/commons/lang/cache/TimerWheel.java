@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.lang.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical timing wheel which finds expired nodes without scanning all of them.
+ * <p/>
+ * Wheel has few levels of 64 buckets, bucket of the first level covers about one second, bucket of each next level covers 64 times
+ * longer period (about a minute, an hour and three days). Node is put in the bucket of the lowest level which covers its deadline.
+ * When time passes buckets of the elapsed periods are emptied, expired nodes are reported and others are moved to buckets of lower
+ * levels. So scheduling and expiration of node are amortized O(1).
+ * <p/>
+ * Wheel reports nodes with delay up to length of the first level bucket, so exact deadline should be checked by clients when they
+ * access nodes.
+ * <p/>
+ * Implementation is not threadsafe.
+ *
+ * @param <N>
+ *         type of node
+ */
+final class TimerWheel<N extends TimerWheel.Node> {
+    static final int   BUCKETS = 64;
+    static final int[] SHIFTS  = {30, 36, 42, 48};
+
+    private static final int MASK = BUCKETS - 1;
+
+    /** Node of wheel, it is linked in bucket list. */
+    static class Node {
+        /** Deadline in nanoseconds. */
+        long deadline;
+        Node prev;
+        Node next;
+
+        boolean isScheduled() {
+            return next != null;
+        }
+    }
+
+    private final Node[][] wheel;
+    private       long     time;
+
+    TimerWheel(long time) {
+        this.time = time;
+        wheel = new Node[SHIFTS.length][BUCKETS];
+        for (Node[] level : wheel) {
+            for (int i = 0; i < BUCKETS; i++) {
+                final Node sentinel = new Node();
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                level[i] = sentinel;
+            }
+        }
+    }
+
+    /** Schedules node by its deadline or re-schedules it if node is already in wheel. */
+    void schedule(N node) {
+        if (node.isScheduled()) {
+            unlink(node);
+        }
+        link(bucketFor(node.deadline), node);
+    }
+
+    /** Removes node from wheel. Does nothing if node is not scheduled. */
+    void deschedule(N node) {
+        if (node.isScheduled()) {
+            unlink(node);
+        }
+    }
+
+    /**
+     * Moves wheel to the given time.
+     *
+     * @param now
+     *         current time in nanoseconds
+     * @param expired
+     *         receives nodes which deadline is not after {@code now}, node is removed from wheel before it is passed to consumer
+     */
+    void advance(long now, Consumer<? super N> expired) {
+        final long previous = time;
+        time = now;
+        for (int level = 0; level < SHIFTS.length; level++) {
+            final long previousTicks = previous >>> SHIFTS[level];
+            final long ticks = now >>> SHIFTS[level];
+            if (ticks - previousTicks <= 0) {
+                break;
+            }
+            expire(level, previousTicks, ticks, now, expired);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void expire(int level, long fromTicks, long toTicks, long now, Consumer<? super N> expired) {
+        final int count = (int)Math.min(toTicks - fromTicks + 1, BUCKETS);
+        for (int i = 0; i < count; i++) {
+            final Node sentinel = wheel[level][(int)((fromTicks + i) & MASK)];
+            Node node = sentinel.next;
+            sentinel.prev = sentinel;
+            sentinel.next = sentinel;
+            while (node != sentinel) {
+                final Node next = node.next;
+                node.prev = null;
+                node.next = null;
+                if (node.deadline - now <= 0) {
+                    expired.accept((N)node);
+                } else {
+                    link(bucketFor(node.deadline), node);
+                }
+                node = next;
+            }
+        }
+    }
+
+    private Node bucketFor(long deadline) {
+        final long delay = deadline - time;
+        int level = SHIFTS.length - 1;
+        for (int i = 0; i < SHIFTS.length; i++) {
+            if (delay < 1L << (SHIFTS[i] + 6)) {
+                level = i;
+                break;
+            }
+        }
+        return wheel[level][(int)((deadline >>> SHIFTS[level]) & MASK)];
+    }
+
+    private static void link(Node sentinel, Node node) {
+        node.prev = sentinel.prev;
+        node.next = sentinel;
+        sentinel.prev.next = node;
+        sentinel.prev = node;
+    }
+
+    private static void unlink(Node node) {
+        node.prev.next = node.next;
+        node.next.prev = node.prev;
+        node.prev = null;
+        node.next = null;
+    }
+}
@@ -0,0 +1,29 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.lang.cache;
+
+/**
+ * Calculates weight of cache entry.
+ *
+ * @see ExpiringCache.Builder#maximumWeight(long, Weigher)
+ */
+@FunctionalInterface
+public interface Weigher<K, V> {
+    /**
+     * Returns weight of entry, it must not be negative. Weight is calculated once when value is put in cache.
+     *
+     * @param key
+     *         key
+     * @param value
+     *         value
+     */
+    int weigh(K key, V value);
+}
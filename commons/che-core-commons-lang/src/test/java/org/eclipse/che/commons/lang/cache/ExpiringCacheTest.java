@@ -0,0 +1,272 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.lang.cache;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+/** Test of ExpiringCache class */
+public class ExpiringCacheTest {
+    private AtomicLong                   time;
+    private List<EvictionListener.Cause> causes;
+
+    @BeforeMethod
+    public void setUp() {
+        time = new AtomicLong(System.nanoTime());
+        causes = new ArrayList<>();
+    }
+
+    @Test
+    public void shouldBeAbleToGetValueAfterPut() throws Exception {
+        ExpiringCache<String, String> cache = ExpiringCache.<String, String>newBuilder().build();
+        cache.put("k1", "v1");
+
+        assertEquals(cache.get("k1"), "v1");
+        assertTrue(cache.contains("k1"));
+        assertEquals(cache.size(), 1);
+    }
+
+    @Test
+    public void shouldReturnPreviousValueAndNotifyListenerOnReplace() throws Exception {
+        ExpiringCache<String, String> cache = ExpiringCache.<String, String>newBuilder()
+                                                           .evictionListener((k, v, cause) -> causes.add(cause))
+                                                           .build();
+        cache.put("k1", "v1");
+
+        assertEquals(cache.put("k1", "v2"), "v1");
+        assertEquals(cache.get("k1"), "v2");
+        assertEquals(causes.size(), 1);
+        assertEquals(causes.get(0), EvictionListener.Cause.REPLACED);
+    }
+
+    @Test
+    public void shouldEvictLeastRecentlyUsedValue() throws Exception {
+        ExpiringCache<String, String> cache = ExpiringCache.<String, String>newBuilder()
+                                                           .maximumSize(2)
+                                                           .concurrencyLevel(1)
+                                                           .evictionListener((k, v, cause) -> causes.add(cause))
+                                                           .build();
+        cache.put("k1", "v1");
+        cache.put("k2", "v2");
+        cache.get("k1");
+        cache.put("k3", "v3");
+
+        assertEquals(cache.get("k1"), "v1");
+        assertNull(cache.get("k2"));
+        assertEquals(cache.get("k3"), "v3");
+        assertEquals(causes.size(), 1);
+        assertEquals(causes.get(0), EvictionListener.Cause.SIZE);
+        assertEquals(cache.getStats().getEvictionCount(), 1);
+    }
+
+    @Test
+    public void shouldEvictValuesByWeight() throws Exception {
+        ExpiringCache<String, String> cache = ExpiringCache.<String, String>newBuilder()
+                                                           .maximumWeight(10, (k, v) -> v.length())
+                                                           .concurrencyLevel(1)
+                                                           .build();
+        cache.put("k1", "1234");
+        cache.put("k2", "1234");
+        cache.put("k3", "1234");
+
+        assertNull(cache.get("k1"));
+        assertEquals(cache.size(), 2);
+    }
+
+    @Test
+    public void shouldNotExceedMaximumSizeWithManySegments() throws Exception {
+        ExpiringCache<Integer, Integer> cache = ExpiringCache.<Integer, Integer>newBuilder()
+                                                             .maximumSize(100)
+                                                             .concurrencyLevel(8)
+                                                             .build();
+        for (int i = 0; i < 1000; i++) {
+            cache.put(i, i);
+        }
+
+        assertTrue(cache.size() <= 100);
+    }
+
+    @Test
+    public void shouldExpireValueAfterWrite() throws Exception {
+        ExpiringCache<String, String> cache = ExpiringCache.<String, String>newBuilder()
+                                                           .expireAfterWrite(5, TimeUnit.SECONDS)
+                                                           .evictionListener((k, v, cause) -> causes.add(cause))
+                                                           .ticker(time::get)
+                                                           .build();
+        cache.put("k1", "v1");
+        time.addAndGet(TimeUnit.SECONDS.toNanos(4));
+        assertEquals(cache.get("k1"), "v1");
+
+        time.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertNull(cache.get("k1"));
+        assertFalse(cache.contains("k1"));
+        assertEquals(causes.size(), 1);
+        assertEquals(causes.get(0), EvictionListener.Cause.EXPIRED);
+        assertEquals(cache.getStats().getExpirationCount(), 1);
+    }
+
+    @Test
+    public void shouldProlongValueOnAccess() throws Exception {
+        ExpiringCache<String, String> cache = ExpiringCache.<String, String>newBuilder()
+                                                           .expireAfterAccess(5, TimeUnit.SECONDS)
+                                                           .ticker(time::get)
+                                                           .build();
+        cache.put("k1", "v1");
+        for (int i = 0; i < 5; i++) {
+            time.addAndGet(TimeUnit.SECONDS.toNanos(3));
+            assertEquals(cache.get("k1"), "v1");
+        }
+
+        time.addAndGet(TimeUnit.SECONDS.toNanos(5));
+        assertNull(cache.get("k1"));
+    }
+
+    @Test
+    public void shouldRemoveExpiredValuesOnCleanUp() throws Exception {
+        ExpiringCache<Integer, Integer> cache = ExpiringCache.<Integer, Integer>newBuilder()
+                                                             .expireAfterWrite(1, TimeUnit.HOURS)
+                                                             .ticker(time::get)
+                                                             .build();
+        for (int i = 0; i < 100; i++) {
+            cache.put(i, i);
+            time.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        }
+        time.addAndGet(TimeUnit.MINUTES.toNanos(59));
+
+        cache.cleanUp();
+
+        // 3640 seconds passed since the first value was put, so the first 41 values expired
+        assertEquals(cache.size(), 59);
+        time.addAndGet(TimeUnit.MINUTES.toNanos(2));
+        cache.cleanUp();
+        assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void shouldLoadMissedValueOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        ExpiringCache<String, String> cache = ExpiringCache.<String, String>newBuilder()
+                                                           .build(key -> {
+                                                               loads.incrementAndGet();
+                                                               return key.toUpperCase();
+                                                           });
+
+        assertEquals(cache.get("k1"), "K1");
+        assertEquals(cache.get("k1"), "K1");
+        assertEquals(loads.get(), 1);
+        CacheStats stats = cache.getStats();
+        assertEquals(stats.getHitCount(), 1);
+        assertEquals(stats.getMissCount(), 1);
+        assertEquals(stats.getLoadSuccessCount(), 1);
+    }
+
+    @Test
+    public void shouldNotCacheNullLoadedValue() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        ExpiringCache<String, String> cache = ExpiringCache.<String, String>newBuilder()
+                                                           .build(key -> {
+                                                               loads.incrementAndGet();
+                                                               return null;
+                                                           });
+
+        assertNull(cache.get("k1"));
+        assertNull(cache.get("k1"));
+        assertEquals(loads.get(), 2);
+        assertEquals(cache.size(), 0);
+    }
+
+    @Test(expectedExceptions = IllegalStateException.class)
+    public void shouldPropagateLoaderFailure() throws Exception {
+        ExpiringCache<String, String> cache = ExpiringCache.<String, String>newBuilder()
+                                                           .build(key -> {
+                                                               throw new IllegalStateException("failed");
+                                                           });
+        try {
+            cache.get("k1");
+        } finally {
+            assertEquals(cache.getStats().getLoadFailureCount(), 1);
+        }
+    }
+
+    @Test
+    public void shouldReturnStaleValueAndRefreshItAsynchronously() throws Exception {
+        AtomicInteger version = new AtomicInteger();
+        List<Runnable> tasks = new ArrayList<>();
+        ExpiringCache<String, String> cache = ExpiringCache.<String, String>newBuilder()
+                                                           .refreshAfterWrite(1, TimeUnit.MINUTES)
+                                                           .executor(tasks::add)
+                                                           .ticker(time::get)
+                                                           .build(key -> key + version.incrementAndGet());
+        assertEquals(cache.get("k"), "k1");
+        time.addAndGet(TimeUnit.MINUTES.toNanos(2));
+
+        assertEquals(cache.get("k"), "k1");
+        assertEquals(cache.get("k"), "k1");
+        assertEquals(tasks.size(), 1);
+
+        tasks.get(0).run();
+        assertEquals(cache.get("k"), "k2");
+    }
+
+    @Test
+    public void shouldNotifyListenerAboutRemovedValues() throws Exception {
+        List<String> removed = new ArrayList<>();
+        ExpiringCache<String, String> cache = ExpiringCache.<String, String>newBuilder()
+                                                           .evictionListener((k, v, cause) -> {
+                                                               removed.add(v);
+                                                               causes.add(cause);
+                                                           })
+                                                           .build();
+        cache.put("k1", "v1");
+        cache.put("k2", "v2");
+        cache.put("k3", "v3");
+
+        assertEquals(cache.remove("k1"), "v1");
+        cache.clear();
+
+        assertEquals(removed.size(), 3);
+        assertEquals(removed.get(0), "v1");
+        for (EvictionListener.Cause cause : causes) {
+            assertEquals(cause, EvictionListener.Cause.EXPLICIT);
+        }
+        assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void shouldIterateOverSnapshotOfValues() throws Exception {
+        ExpiringCache<String, String> cache = ExpiringCache.<String, String>newBuilder().build();
+        cache.put("k1", "v1");
+        cache.put("k2", "v2");
+
+        Iterator<Map.Entry<String, String>> it = cache.iterator();
+        cache.clear();
+
+        int count = 0;
+        while (it.hasNext()) {
+            it.next();
+            count++;
+        }
+        assertEquals(count, 2);
+    }
+}
@@ -14,6 +14,7 @@ package org.eclipse.che.commons.xml;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
+import org.w3c.dom.Text;
 
 import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilder;
@@ -23,6 +24,7 @@ import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
 import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 import javax.xml.xpath.XPathFactoryConfigurationException;
@@ -34,10 +36,13 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static javax.xml.XMLConstants.FEATURE_SECURE_PROCESSING;
 import static javax.xml.stream.XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES;
@@ -48,13 +53,10 @@ import static org.eclipse.che.commons.xml.XMLTreeUtil.asElement;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.asElements;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.closeTagLength;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.indexOf;
-import static org.eclipse.che.commons.xml.XMLTreeUtil.indexOfAttributeName;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.replaceAll;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.rootStart;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.single;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.level;
-import static org.eclipse.che.commons.xml.XMLTreeUtil.insertBetween;
-import static org.eclipse.che.commons.xml.XMLTreeUtil.insertInto;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.lastIndexOf;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.openTagLength;
 import static org.eclipse.che.commons.xml.XMLTreeUtil.tabulate;
@@ -62,9 +64,12 @@ import static com.google.common.collect.Maps.newHashMapWithExpectedSize;
 import static com.google.common.io.ByteStreams.toByteArray;
 import static java.nio.file.Files.readAllBytes;
 import static java.util.Objects.requireNonNull;
+import static javax.xml.XMLConstants.XMLNS_ATTRIBUTE;
 import static javax.xml.XMLConstants.XML_NS_URI;
+import static javax.xml.stream.XMLStreamConstants.CDATA;
 import static javax.xml.stream.XMLStreamConstants.CHARACTERS;
 import static javax.xml.stream.XMLStreamConstants.COMMENT;
+import static javax.xml.stream.XMLStreamConstants.DTD;
 import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
 import static javax.xml.stream.XMLStreamConstants.PROCESSING_INSTRUCTION;
 import static javax.xml.stream.XMLStreamConstants.SPACE;
@@ -72,7 +77,6 @@ import static javax.xml.stream.XMLStreamConstants.START_DOCUMENT;
 import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
 import static javax.xml.xpath.XPathConstants.NODESET;
 import static javax.xml.xpath.XPathConstants.STRING;
-import static org.w3c.dom.Node.CDATA_SECTION_NODE;
 import static org.w3c.dom.Node.TEXT_NODE;
 
 /**
@@ -175,6 +179,16 @@ public final class XMLTree {
     private static final XPathFactory           XPATH_FACTORY            = XPathFactory.newInstance();
     private static final String                 ROOT_TEMPLATE            = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<%s>\n</%s>";
     private static final int                    EXPECTED_NAMESPACES_SIZE = 2;
+    private static final int                    XPATH_CACHE_SIZE         = 128;
+    private static final byte[]                 CDATA_START              = "<![CDATA[".getBytes(UTF_8);
+    private static final byte[]                 CDATA_END                = "]]>".getBytes(UTF_8);
+    private static final String                 REPORT_CDATA             = "http://java.sun.com/xml/stream/properties/report-cdata-event";
+
+    /**
+     * Neither {@link XPath} nor compiled {@link XPathExpression} are thread-safe,
+     * so each thread has its own instance of xpath and cache of compiled expressions.
+     */
+    private static final ThreadLocal<XPathExpressionCache> XPATH_EXPRESSIONS = ThreadLocal.withInitial(XPathExpressionCache::new);
 
     /** Factories configuration. */
     static {
@@ -195,6 +209,10 @@ public final class XMLTree {
             XML_INPUT_FACTORY.setProperty(SUPPORT_DTD, false);
             // Disable usage of external entities to avoid: XML External Entity Injection
             XML_INPUT_FACTORY.setProperty(IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+            // Report cdata sections separately from text to keep them in the document
+            if (XML_INPUT_FACTORY.isPropertySupported(REPORT_CDATA)) {
+                XML_INPUT_FACTORY.setProperty(REPORT_CDATA, true);
+            }
         } catch (ParserConfigurationException | XPathFactoryConfigurationException confEx) {
             throw XMLTreeException.wrap(confEx);
         }
@@ -202,21 +220,22 @@ public final class XMLTree {
 
     private Document            document;
     private Map<String, String> namespaces;
-    private List<Element>       elements;
-    private byte[]              xml;
+    private Set<Element>        elements;
+    private XMLTreeBuffer       xml;
 
     private XMLTree(byte[] xml) {
         if (xml.length == 0) {
             throw new XMLTreeException("Source content is empty");
         }
-        elements = new LinkedList<>();
+        elements = new HashSet<>();
         namespaces = newHashMapWithExpectedSize(EXPECTED_NAMESPACES_SIZE);
-        this.xml = normalizeLineEndings(xml);
         //reason: parser is going to replace all '\r\n' sequences with single '\n'
         //which will affect elements position in source xml and produce incorrect XMLTree behaviour
         //it comes from spec http://www.w3.org/TR/2004/REC-xml11-20040204/
-        document = parseQuietly(this.xml);
-        constructTreeQuietly();
+        final byte[] normalized = normalizeLineEndings(xml);
+        document = newDocument();
+        constructTreeQuietly(normalized);
+        this.xml = new XMLTreeBuffer(normalized);
     }
 
     /**
@@ -382,9 +401,9 @@ public final class XMLTree {
     public byte[] getBytes() {
         final String separator = System.getProperty("line.separator");
         if (!"\n".equals(separator)) {
-            return replaceAll(xml, "\n".getBytes(), separator.getBytes());
+            return replaceAll(xml.toByteArray(), "\n".getBytes(), separator.getBytes());
         }
-        return Arrays.copyOf(xml, xml.length);
+        return xml.toByteArray();
     }
 
     /**
@@ -413,25 +432,22 @@ public final class XMLTree {
      * Evaluates xpath expression with given return type.
      * Rethrows all exceptions as {@link XMLTreeException}
      */
-    @SuppressWarnings("unchecked")
     private Object evaluateXPath(String expression, QName returnType) {
-        final XPath xpath = XPATH_FACTORY.newXPath();
         try {
-            return xpath.evaluate(expression, document, returnType);
+            return XPATH_EXPRESSIONS.get().compile(expression).evaluate(document, returnType);
         } catch (XPathExpressionException xpathEx) {
             throw XMLTreeException.wrap(xpathEx);
         }
     }
 
     /**
-     * Parses document using {@link DocumentBuilder}
+     * Creates empty document using {@link DocumentBuilder}
      * Rethrows all exceptions as {@link XMLTreeException}
      */
-    private Document parseQuietly(byte[] xml) {
+    private Document newDocument() {
         try {
-            final DocumentBuilder db = DOCUMENT_BUILDER_FACTORY.newDocumentBuilder();
-            return db.parse(new ByteArrayInputStream(xml));
-        } catch (Exception ex) {
+            return DOCUMENT_BUILDER_FACTORY.newDocumentBuilder().newDocument();
+        } catch (ParserConfigurationException ex) {
             throw XMLTreeException.wrap(ex);
         }
     }
@@ -451,74 +467,83 @@ public final class XMLTree {
 
     /**
      * Constructs tree based on segments which are supplied by {@link XMLStreamReader}.
-     * Before this method is invoked {@link #document} should be initialized first.
+     * Document nodes are created in the same pass, so source bytes are parsed only once.
      * For START_ELEMENT, END_ELEMENT, CHARACTERS reader provides offset from
      * start of source array bytes, so we can fetch position of elements and text.
      * Each created element associated with related {@link Node} and vise-versa.
      */
-    private void constructTree() throws XMLStreamException {
-        final XMLStreamReader reader = newXMLStreamReader();
+    private void constructTree(byte[] xml) throws XMLStreamException {
+        final XMLStreamReader reader = newXMLStreamReader(xml);
         final LinkedList<Element> stack = new LinkedList<>();
         //before element open tag index
         int beforeStart = rootStart(xml) - 1;
-        //used to associate each element with document node
-        Node node = document.getDocumentElement();
+        //parent of the nodes created for the next events
+        Node parent = document;
         //used to hold previous reader event
         int prevEvent = START_DOCUMENT;
         while (reader.hasNext()) {
             switch (reader.next()) {
                 case START_ELEMENT:
+                    final org.w3c.dom.Element node = createElementNode(reader);
+                    parent.appendChild(node);
                     final Element newElement = new Element(this);
-                    newElement.start = new Segment(beforeStart + 1, elementRight(beforeStart + 1, reader));
-                    //if new node is not xml root - set up relationships
-                    if (!stack.isEmpty()) {
-                        node = deepNext(node, true);
-                    }
+                    newElement.start = new Segment(beforeStart + 1, elementRight(xml, beforeStart + 1, reader));
                     //connect node with element
                     node.setUserData("element", newElement, null);
 
-                    newElement.delegate = safeCast(node);
+                    newElement.delegate = node;
                     //let next event know about its start
                     beforeStart = newElement.start.right;
                     //if element has declared namespaces register it
                     putNamespaces(reader);
                     stack.push(newElement);
+                    parent = node;
                     break;
                 case END_ELEMENT:
                     final Element element = stack.pop();
-                    element.end = new Segment(beforeStart + 1, elementRight(beforeStart + 1, reader));
+                    element.end = new Segment(beforeStart + 1, elementRight(xml, beforeStart + 1, reader));
                     elements.add(element);
                     beforeStart = element.end.right;
+                    parent = parent.getParentNode();
                     break;
                 case CHARACTERS:
+                case CDATA:
+                case SPACE:
+                    //whitespaces outside of the root element are not the part of the document
+                    if (stack.isEmpty()) break;
+
+                    appendTextNode(parent, reader);
                     //characters event may be invoked 2 or more times
-                    //on the element text, but related node is single text node
-                    //so the only segment should be created for it
-                    if (prevEvent == CHARACTERS) continue;
+                    //on the element text and text may be mixed with cdata
+                    //but the only segment should be created for such chain
+                    if (isText(prevEvent)) break;
 
                     final Element current = stack.peek();
                     if (current.text == null) {
-                        //TODO replace with array list as we know current node 'text nodes' count
                         current.text = new LinkedList<>();
                     }
-
-                    final Node nextNode = deepNext(node, true);
-
                     final int left = beforeStart + 1;
-                    final int right = left + textLength(nextNode) - 1;
+                    final int right = textRight(xml, left);
 
                     current.text.add(new Segment(left, right));
                     beforeStart = right;
-                    node = skipTextNodes(nextNode);
                     break;
                 case COMMENT:
-                case SPACE:
+                    parent.appendChild(document.createComment(reader.getText()));
+                    if (!stack.isEmpty()) {
+                        beforeStart = lastIndexOf(xml, '>', reader.getLocation().getCharacterOffset());
+                    }
+                    break;
                 case PROCESSING_INSTRUCTION:
+                    final String data = reader.getPIData();
+                    parent.appendChild(document.createProcessingInstruction(reader.getPITarget(), data == null ? "" : data));
                     if (!stack.isEmpty()) {
-                        node = deepNext(node, true);
                         beforeStart = lastIndexOf(xml, '>', reader.getLocation().getCharacterOffset());
                     }
                     break;
+                case DTD:
+                    // Doctype is disallowed to avoid: XML Entity Expansion injection, XML External Entity Injection
+                    throw new XMLTreeException("DOCTYPE is disallowed");
                 default:
                     //DO NOTHING
             }
@@ -526,67 +551,92 @@ public final class XMLTree {
         }
     }
 
+    private static boolean isText(int event) {
+        return event == CHARACTERS || event == CDATA || event == SPACE;
+    }
+
     /**
-     * Returns length of cdata and text nodes chain.
+     * Creates element node with attributes for START_ELEMENT event.
+     * Document is not namespace aware, so prefixed names are used
+     * and namespace declarations are kept as regular attributes.
      */
-    private int textLength(Node node) {
-        int length = node.getTextContent().length();
-        node = node.getNextSibling();
-        while (node != null && (node.getNodeType() == TEXT_NODE || node.getNodeType() == CDATA_SECTION_NODE)) {
-            length += node.getTextContent().length();
-            if (node.getNodeType() == CDATA_SECTION_NODE) {
-                length += 12; //<![CDATA[]]> - 12
-            }
-            node = node.getNextSibling();
+    private org.w3c.dom.Element createElementNode(XMLStreamReader reader) {
+        final org.w3c.dom.Element node = document.createElement(qualifiedName(reader.getPrefix(), reader.getLocalName()));
+        for (int i = 0; i < reader.getNamespaceCount(); i++) {
+            final String prefix = reader.getNamespacePrefix(i);
+            final String uri = reader.getNamespaceURI(i);
+            node.setAttribute(qualifiedName(prefix, XMLNS_ATTRIBUTE), uri == null ? "" : uri);
         }
-        return length;
+        for (int i = 0; i < reader.getAttributeCount(); i++) {
+            node.setAttribute(qualifiedName(reader.getAttributePrefix(i), reader.getAttributeLocalName(i)), reader.getAttributeValue(i));
+        }
+        return node;
+    }
+
+    private static String qualifiedName(String prefix, String localName) {
+        if (prefix == null || prefix.isEmpty()) {
+            return localName;
+        }
+        return XMLNS_ATTRIBUTE.equals(localName) ? localName + ':' + prefix : prefix + ':' + localName;
     }
 
     /**
-     * Returns safe Element instance for node or throws exception
-     * if it is not possible to cast {@code node} to {@link org.w3c.dom.Element}.
+     * Appends text of CHARACTERS or CDATA event to the parent,
+     * adjacent text is merged into single text node like {@link DocumentBuilder} does.
      */
-    private org.w3c.dom.Element safeCast(Node node) {
-        if (!(node instanceof org.w3c.dom.Element)) {
-            throw new XMLTreeException("It is not possible to associate xml elements");
+    private void appendTextNode(Node parent, XMLStreamReader reader) {
+        if (reader.getEventType() == CDATA) {
+            parent.appendChild(document.createCDATASection(reader.getText()));
+            return;
+        }
+        final Node last = parent.getLastChild();
+        if (last != null && last.getNodeType() == TEXT_NODE) {
+            ((Text)last).appendData(reader.getText());
+        } else {
+            parent.appendChild(document.createTextNode(reader.getText()));
         }
-        return (org.w3c.dom.Element)node;
     }
 
     /**
-     * Returns last text or cdata node in the chain of cdata and text nodes.
-     * <p>
-     * i.e. node1 is text <i>node</i> and <i>node1</i> has next sibling <i>node2</i> as cdata node and
-     * <i>node2</i> has next sibling <i>node3</i> as text node and node3 has next sibling <i>node4</i> as element
-     * node, then <i>node3</i> will be returned as last text node in the chain. Consider following examples:
-     * <pre>
-     * 1.
-     * node3 - last text node
-     *
-     * text     cdata    text     element
-     * node1 -> node2 -> node3 -> node4
-     *
-     * 2.
-     * node2 - last text result
-     *
-     * text     cdata
-     * node1 -> node2 -> null
-     *
-     * </pre>
+     * Searches for the right bound of the text which starts from {@code left}.
+     * Text lasts until the next markup, cdata sections are the part of the text.
      */
-    private Node skipTextNodes(Node node) {
-        final Node next = node.getNextSibling();
-        if (next != null && (next.getNodeType() == CDATA_SECTION_NODE || next.getNodeType() == TEXT_NODE)) {
-            return skipTextNodes(next);
+    private static int textRight(byte[] xml, int left) {
+        int i = left;
+        while (i < xml.length) {
+            if (xml[i] == '<') {
+                if (!isCDATAStart(xml, i)) {
+                    break;
+                }
+                final int cdataEnd = indexOf(xml, CDATA_END, i + CDATA_START.length);
+                if (cdataEnd == -1) {
+                    return xml.length - 1;
+                }
+                i = cdataEnd + CDATA_END.length;
+            } else {
+                i++;
+            }
         }
-        return node;
+        return i - 1;
+    }
+
+    private static boolean isCDATAStart(byte[] xml, int idx) {
+        if (idx + CDATA_START.length > xml.length) {
+            return false;
+        }
+        for (int i = 0; i < CDATA_START.length; i++) {
+            if (xml[idx + i] != CDATA_START[i]) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
      * Searches for the element start right bound index.
      * TODO respect element attributes text content while checking '<'
      */
-    private int elementRight(int left, XMLStreamReader reader) {
+    private static int elementRight(byte[] xml, int left, XMLStreamReader reader) {
         int rightIdx = lastIndexOf(xml, '>', reader.getLocation().getCharacterOffset());
         int leftIdx = lastIndexOf(xml, '<', rightIdx);
         while (leftIdx > left) {
@@ -596,26 +646,13 @@ public final class XMLTree {
         return rightIdx;
     }
 
-    private Node deepNext(Node node, boolean deep) {
-        if (deep && node.getChildNodes().getLength() != 0) {
-            return node.getFirstChild();
-        }
-        final Node next = node.getNextSibling();
-        if (next != null) {
-            return next;
-        } else if (node == document.getDocumentElement()) {
-            return node;
-        }
-        return deepNext(node.getParentNode(), false);
-    }
-
     /**
-     * Same as {@link #constructTree()}, only difference
+     * Same as {@link #constructTree(byte[])}, only difference
      * that it wraps {@link XMLStreamException} to {@link XMLTreeException}
      */
-    private void constructTreeQuietly() {
+    private void constructTreeQuietly(byte[] xml) {
         try {
-            constructTree();
+            constructTree(xml);
         } catch (XMLStreamException xmlEx) {
             throw XMLTreeException.wrap(xmlEx);
         }
@@ -636,7 +673,7 @@ public final class XMLTree {
     /**
      * Creates new stream reader instance
      */
-    private XMLStreamReader newXMLStreamReader() {
+    private XMLStreamReader newXMLStreamReader(byte[] xml) {
         try {
             return XML_INPUT_FACTORY.createXMLStreamReader(new ByteArrayInputStream(xml), "UTF-8");
         } catch (Exception xmlEx) {
@@ -680,14 +717,13 @@ public final class XMLTree {
      */
     void appendChild(NewElement newElement, Element relatedToNew, Element parent) {
         final int level = level(parent) + 1;
-        final int lengthBefore = xml.length;
-        final int insertHere = lastIndexOf(xml, '>', parent.end.left) + 1;
+        final int lengthBefore = xml.length();
+        final int insertHere = xml.lastIndexOf('>', parent.end.left) + 1;
         //inserting new element bytes to tree bytes
-        xml = insertInto(xml,
-                         insertHere,
-                         '\n' + tabulate(newElement.asString(), level));
+        xml.insertInto(insertHere,
+                       '\n' + tabulate(newElement.asString(), level));
         //shift existing segments which are after parent start
-        shiftSegments(insertHere, xml.length - lengthBefore);
+        shiftSegments(insertHere, xml.length() - lengthBefore);
         //create and set up start, end, text segments to created element
         applySegments(newElement, relatedToNew, insertHere - 1, level);
         //let tree know about added element
@@ -699,13 +735,12 @@ public final class XMLTree {
      */
     void insertAfter(NewElement newElement, Element relatedToNew, Element refElement) {
         final int level = level(refElement);
-        final int lengthBefore = xml.length;
+        final int lengthBefore = xml.length();
         //inserting new element bytes to tree bytes
-        xml = insertInto(xml,
-                         refElement.end.right + 1,
-                         '\n' + tabulate(newElement.asString(), level));
+        xml.insertInto(refElement.end.right + 1,
+                       '\n' + tabulate(newElement.asString(), level));
         //shift existing segments which are after parent start
-        shiftSegments(refElement.end.right, xml.length - lengthBefore);
+        shiftSegments(refElement.end.right, xml.length() - lengthBefore);
         //create and set up start, end, text segments to created element
         //+1 because of \n
         applySegments(newElement, relatedToNew, refElement.end.right, level);
@@ -723,13 +758,12 @@ public final class XMLTree {
      */
     void insertAfterParent(NewElement newElement, Element relatedToNew, Element parent) {
         final int level = level(parent) + 1;
-        final int lengthBefore = xml.length;
+        final int lengthBefore = xml.length();
         //inserting after parent
-        xml = insertInto(xml,
-                         parent.start.right + 1,
-                         '\n' + tabulate(newElement.asString(), level));
+        xml.insertInto(parent.start.right + 1,
+                       '\n' + tabulate(newElement.asString(), level));
         //shift existing segments which are after parent start
-        shiftSegments(parent.start.right, xml.length - lengthBefore);
+        shiftSegments(parent.start.right, xml.length() - lengthBefore);
         //create and set up start, end, text segments to created element
         applySegments(newElement, relatedToNew, parent.start.right, level);
         //let tree know about inserted element
@@ -761,20 +795,17 @@ public final class XMLTree {
      * good and pretty formatted before document.
      */
     void removeElement(Element element) {
-        final int leftBound = lastIndexOf(xml, '>', element.start.left) + 1;
-        final int lengthBefore = xml.length;
+        final int leftBound = xml.lastIndexOf('>', element.start.left) + 1;
+        final int lengthBefore = xml.length();
         //if text segment before removal element
         //exists it should go to hell with removal
         if (leftBound != element.start.left - 1) {
             removeSegmentFromElement(element.getParent(), leftBound);
         }
         //replacing content with nothing
-        xml = insertBetween(xml,
-                            leftBound,
-                            element.end.right,
-                            "");
+        xml.insertBetween(leftBound, element.end.right, "");
         //shift all elements which are right from removed element
-        shiftSegments(element.end.right, xml.length - lengthBefore);
+        shiftSegments(element.end.right, xml.length() - lengthBefore);
         //let tree know that element is not a family member
         unregisterElement(element);
     }
@@ -783,13 +814,12 @@ public final class XMLTree {
      * Inserts new attribute value content to tree bytes
      */
     void insertAttribute(NewAttribute attribute, Element owner) {
-        final int len = xml.length;
+        final int len = xml.length();
         //inserting new attribute content
-        xml = insertInto(xml,
-                         owner.start.right,
-                         ' ' + attribute.asString());
+        xml.insertInto(owner.start.right,
+                       ' ' + attribute.asString());
         //shift all elements which are right from removed element
-        shiftSegments(owner.start.left - 1, xml.length - len);
+        shiftSegments(owner.start.left - 1, xml.length() - len);
     }
 
     /**
@@ -797,15 +827,12 @@ public final class XMLTree {
      */
     void removeAttribute(Attribute attribute) {
         final Element element = attribute.getElement();
-        final int lengthBefore = xml.length;
+        final int lengthBefore = xml.length();
         final Segment segment = attributeSegment(attribute);
         //replacing attribute segment with nothing
-        xml = insertBetween(xml,
-                            segment.left - 1,
-                            segment.right,
-                            "");
+        xml.insertBetween(segment.left - 1, segment.right, "");
         //shift all elements which are left from owner left
-        shiftSegments(element.start.left, xml.length - lengthBefore);
+        shiftSegments(element.start.left, xml.length() - lengthBefore);
     }
 
     //TODO should it be public?
@@ -870,9 +897,9 @@ public final class XMLTree {
      * on offset equal to removal segment length
      */
     private void removeSegment(Segment segment) {
-        final int lengthBefore = xml.length;
-        xml = insertBetween(xml, segment.left, segment.right, "");
-        shiftSegments(segment.left, xml.length - lengthBefore);
+        final int lengthBefore = xml.length();
+        xml.insertBetween(segment.left, segment.right, "");
+        shiftSegments(segment.left, xml.length() - lengthBefore);
     }
 
     /**
@@ -881,9 +908,9 @@ public final class XMLTree {
      * source bytes length
      */
     private void updateSegmentContent(Segment segment, String content) {
-        final int lengthBefore = xml.length;
-        xml = insertBetween(xml, segment.left, segment.right, content);
-        shiftSegments(segment.left, xml.length - lengthBefore);
+        final int lengthBefore = xml.length();
+        xml.insertBetween(segment.left, segment.right, content);
+        shiftSegments(segment.left, xml.length() - lengthBefore);
         segment.right = segment.left + content.length() - 1;
     }
 
@@ -916,8 +943,8 @@ public final class XMLTree {
         final byte[] name = attribute.getName().getBytes();
         final byte[] value = attribute.getValue().getBytes();
 
-        final int attrLeft = indexOfAttributeName(xml, name, owner.start.left + owner.getName().length());
-        final int valueLeft = indexOf(xml, value, attrLeft + name.length);
+        final int attrLeft = xml.indexOfAttributeName(name, owner.start.left + owner.getName().length());
+        final int valueLeft = xml.indexOf(value, attrLeft + name.length);
 
         return new Segment(attrLeft, valueLeft + value.length);
     }
@@ -931,8 +958,8 @@ public final class XMLTree {
         final byte[] name = attribute.getName().getBytes();
         final byte[] value = oldValue.getBytes();
 
-        final int attrLeft = indexOfAttributeName(xml, name, owner.start.left + owner.getName().length());
-        final int valueLeft = indexOf(xml, value, attrLeft + name.length);
+        final int attrLeft = xml.indexOfAttributeName(name, owner.start.left + owner.getName().length());
+        final int valueLeft = xml.indexOf(value, attrLeft + name.length);
 
         return new Segment(valueLeft, valueLeft + value.length - 1);
     }
@@ -1022,6 +1049,31 @@ public final class XMLTree {
         return replaceAll(src, "\r".getBytes(), "\n".getBytes());
     }
 
+    /**
+     * LRU cache of compiled xpath expressions.
+     */
+    private static class XPathExpressionCache extends LinkedHashMap<String, XPathExpression> {
+        private final XPath xpath = XPATH_FACTORY.newXPath();
+
+        XPathExpressionCache() {
+            super(16, 0.75f, true);
+        }
+
+        XPathExpression compile(String expression) throws XPathExpressionException {
+            XPathExpression compiled = get(expression);
+            if (compiled == null) {
+                compiled = xpath.compile(expression);
+                put(expression, compiled);
+            }
+            return compiled;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, XPathExpression> eldest) {
+            return size() > XPATH_CACHE_SIZE;
+        }
+    }
+
     /**
      * Describes element, attribute or text position in
      * the source array of bytes.
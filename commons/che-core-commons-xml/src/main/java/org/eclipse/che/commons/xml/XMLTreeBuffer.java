@@ -0,0 +1,169 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.xml;
+
+import static java.lang.Character.isWhitespace;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+import static java.lang.System.arraycopy;
+
+/**
+ * Source bytes of {@link XMLTree} which may be edited in place.
+ * <p>
+ * Bytes are kept in a gap buffer: array has a free gap at the position
+ * of the last edit, so the next edit moves only bytes between positions of
+ * two edits instead of copying whole content into a new array. Updates of a
+ * tree usually touch neighbour elements (e.g. dependencies of a pom.xml), so
+ * most edits cost as much as the size of the edited content.
+ * <p>
+ * All indexes are logical, gap is invisible for the clients.
+ *
+ * @see XMLTreeUtil#insertBetween(byte[], int, int, String)
+ * @see XMLTreeUtil#insertInto(byte[], int, String)
+ */
+final class XMLTreeBuffer {
+
+    private static final int MIN_GAP_SIZE = 256;
+
+    private byte[] buffer;
+    /** Logical (and physical) index of the first byte of the gap */
+    private int    gapStart;
+    /** Physical index of the first byte after the gap */
+    private int    gapEnd;
+
+    XMLTreeBuffer(byte[] content) {
+        buffer = content;
+        gapStart = gapEnd = content.length;
+    }
+
+    /**
+     * Returns number of content bytes
+     */
+    int length() {
+        return buffer.length - (gapEnd - gapStart);
+    }
+
+    byte byteAt(int idx) {
+        return idx < gapStart ? buffer[idx] : buffer[idx + gapEnd - gapStart];
+    }
+
+    /**
+     * Replaces bytes from {@code left} to {@code right} inclusive with content,
+     * same as {@link XMLTreeUtil#insertBetween(byte[], int, int, String)} does.
+     */
+    void insertBetween(int left, int right, String content) {
+        replace(left, right + 1, content.getBytes(XMLTreeUtil.UTF_8));
+    }
+
+    /**
+     * Inserts content from the {@code pos}, same as {@link XMLTreeUtil#insertInto(byte[], int, String)} does.
+     */
+    void insertInto(int pos, String content) {
+        replace(pos, pos, content.getBytes(XMLTreeUtil.UTF_8));
+    }
+
+    /**
+     * Replaces bytes in range [from, to) with {@code content}
+     */
+    void replace(int from, int to, byte[] content) {
+        if (from < 0 || to < from || to > length()) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") is out of content bounds");
+        }
+        moveGap(from);
+        //removed bytes join the gap
+        gapEnd += to - from;
+        ensureGap(content.length);
+        arraycopy(content, 0, buffer, gapStart, content.length);
+        gapStart += content.length;
+    }
+
+    /**
+     * Same as {@link XMLTreeUtil#lastIndexOf(byte[], char, int)}
+     */
+    int lastIndexOf(char c, int fromIdx) {
+        for (int i = min(fromIdx, length() - 1); i >= 0; i--) {
+            if (byteAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Same as {@link XMLTreeUtil#indexOf(byte[], byte[], int)}
+     */
+    int indexOf(byte[] target, int fromIdx) {
+        final int to = length() - target.length + 1;
+        for (int i = fromIdx; i < to; i++) {
+            int j = 0;
+            while (j < target.length && byteAt(i + j) == target[j]) {
+                j++;
+            }
+            if (j == target.length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Same as {@link XMLTreeUtil#indexOfAttributeName(byte[], byte[], int)}
+     */
+    int indexOfAttributeName(byte[] target, int fromIdx) {
+        int idx = indexOf(target, fromIdx);
+        while (idx != -1) {
+            final int next = idx + target.length;
+            if (next == length() || isWhitespace(byteAt(next)) || byteAt(next) == '=') {
+                return idx;
+            }
+            idx = indexOf(target, idx + 1);
+        }
+        return -1;
+    }
+
+    /**
+     * Returns copy of content bytes
+     */
+    byte[] toByteArray() {
+        final byte[] content = new byte[length()];
+        arraycopy(buffer, 0, content, 0, gapStart);
+        arraycopy(buffer, gapEnd, content, gapStart, buffer.length - gapEnd);
+        return content;
+    }
+
+    private void moveGap(int pos) {
+        if (pos < gapStart) {
+            final int len = gapStart - pos;
+            arraycopy(buffer, pos, buffer, gapEnd - len, len);
+            gapStart -= len;
+            gapEnd -= len;
+        } else if (pos > gapStart) {
+            final int len = pos - gapStart;
+            arraycopy(buffer, gapEnd, buffer, gapStart, len);
+            gapStart += len;
+            gapEnd += len;
+        }
+    }
+
+    private void ensureGap(int size) {
+        if (gapEnd - gapStart >= size) {
+            return;
+        }
+        final int length = length();
+        //grow buffer by half of content length to make next edits cheap
+        final byte[] newBuffer = new byte[length + max(size, max(length >> 1, MIN_GAP_SIZE))];
+        final int tailLength = buffer.length - gapEnd;
+        arraycopy(buffer, 0, newBuffer, 0, gapStart);
+        arraycopy(buffer, gapEnd, newBuffer, newBuffer.length - tailLength, tailLength);
+        gapEnd = newBuffer.length - tailLength;
+        buffer = newBuffer;
+    }
+}
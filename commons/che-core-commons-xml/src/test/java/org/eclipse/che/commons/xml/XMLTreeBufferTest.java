@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.commons.xml;
+
+import org.testng.annotations.Test;
+
+import static org.eclipse.che.commons.xml.XMLTreeUtil.UTF_8;
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests for {@link XMLTreeBuffer}
+ */
+public class XMLTreeBufferTest {
+
+    @Test
+    public void shouldInsertContent() {
+        final XMLTreeBuffer buffer = new XMLTreeBuffer("<a></a>".getBytes(UTF_8));
+
+        buffer.insertInto(3, "text");
+        buffer.insertInto(0, "<root>");
+        buffer.insertInto(buffer.length(), "</root>");
+
+        assertEquals(asString(buffer), "<root><a>text</a></root>");
+    }
+
+    @Test
+    public void shouldReplaceContentBetweenAnchors() {
+        final XMLTreeBuffer buffer = new XMLTreeBuffer("<a>text</a><b>text</b>".getBytes(UTF_8));
+
+        buffer.insertBetween(14, 17, "new text");
+        buffer.insertBetween(3, 6, "");
+
+        assertEquals(asString(buffer), "<a></a><b>new text</b>");
+    }
+
+    @Test
+    public void shouldSearchContentAroundGap() {
+        final XMLTreeBuffer buffer = new XMLTreeBuffer("<a attr=\"v\"></a>".getBytes(UTF_8));
+        buffer.insertInto(3, "attr2=\"v\" ");
+
+        assertEquals(buffer.indexOf("</a>".getBytes(UTF_8), 0), 22);
+        assertEquals(buffer.indexOfAttributeName("attr".getBytes(UTF_8), 0), 13);
+        assertEquals(buffer.lastIndexOf('>', buffer.length()), 25);
+        assertEquals(buffer.lastIndexOf('<', 21), 0);
+    }
+
+    @Test
+    public void shouldGrowWhenInsertedContentIsBiggerThanGap() {
+        final XMLTreeBuffer buffer = new XMLTreeBuffer("<a></a>".getBytes(UTF_8));
+        final StringBuilder expected = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            buffer.insertInto(3 + expected.length(), "<b/>");
+            expected.append("<b/>");
+        }
+
+        assertEquals(asString(buffer), "<a>" + expected + "</a>");
+    }
+
+    @Test(expectedExceptions = IndexOutOfBoundsException.class)
+    public void shouldNotReplaceContentOutOfBounds() {
+        new XMLTreeBuffer("<a></a>".getBytes(UTF_8)).replace(5, 10, new byte[0]);
+    }
+
+    private String asString(XMLTreeBuffer buffer) {
+        return new String(buffer.toByteArray(), UTF_8);
+    }
+}
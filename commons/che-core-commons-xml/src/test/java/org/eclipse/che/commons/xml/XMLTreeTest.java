@@ -1702,6 +1702,58 @@ public class XMLTreeTest {
         assertEquals(tree.toString(), "<parent \r\n\r\n\r\n attr1=\"v\"><child>new text</child></parent>");
     }
 
+    @Test
+    public void shouldRespectContentPositionsWhenTextContainsEntityReferences() {
+        final XMLTree tree = XMLTree.from("<parent><first>a &amp; b &lt; c</first><second>text</second></parent>");
+
+        tree.updateText("/parent/second", "new text");
+
+        assertEquals(tree.getSingleText("/parent/first"), "a & b < c");
+        assertEquals(tree.toString(), "<parent><first>a &amp; b &lt; c</first><second>new text</second></parent>");
+    }
+
+    @Test
+    public void shouldRespectContentPositionsWhenElementTextStartsWithCDATA() {
+        final XMLTree tree = XMLTree.from("<parent>\n" +
+                                          "    <first><![CDATA[<text>]]></first>\n" +
+                                          "    <second>text</second>\n" +
+                                          "</parent>");
+
+        tree.removeElement("/parent/first");
+        tree.updateText("/parent/second", "new text");
+
+        assertEquals(tree.toString(), "<parent>\n" +
+                                      "    <second>new text</second>\n" +
+                                      "</parent>");
+    }
+
+    @Test
+    public void shouldBeAbleToMakeManyUpdatesOfTheSameTree() {
+        final XMLTree tree = XMLTree.create("dependencies");
+        for (int i = 0; i < 100; i++) {
+            tree.appendChild("/dependencies", NewElement.createElement("dependency", NewElement.createElement("artifactId", "a" + i)));
+        }
+        for (int i = 0; i < 100; i += 2) {
+            tree.removeElement("/dependencies/dependency[artifactId='a" + i + "']");
+        }
+        for (int i = 1; i < 100; i += 2) {
+            tree.updateText("/dependencies/dependency[artifactId='a" + i + "']/artifactId", "b" + i);
+        }
+
+        final StringBuilder expected = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<dependencies>");
+        for (int i = 1; i < 100; i += 2) {
+            expected.append("\n    <dependency>\n        <artifactId>b").append(i).append("</artifactId>\n    </dependency>");
+        }
+        expected.append("\n</dependencies>");
+        assertEquals(tree.toString(), expected.toString());
+        assertEquals(XMLTree.from(tree.getBytes()).getText("/dependencies/dependency/artifactId").size(), 50);
+    }
+
+    @Test(expectedExceptions = XMLTreeException.class)
+    public void shouldThrowExceptionWhenXPathExpressionIsInvalid() {
+        XMLTree.create("root").getElements("/root/[");
+    }
+
     @Test(dataProvider = "custom-xml-files")
     public void shouldBeAbleToCreateTreeFromCustomXML(File xml) throws IOException {
         //should be able to parse file
@@ -31,6 +31,8 @@ public class NodeDescriptor {
     private NodeDescriptor  parent;
     private List<NodeDescriptor> children = new ArrayList<>();
     private boolean root;
+    /** Position of this descriptor in the list of children of its parent. Checked before use since list may be changed. */
+    private int     indexInParent = -1;
 
     private String domId;
 
@@ -78,8 +80,7 @@ public class NodeDescriptor {
             getChildren().addAll(children);
             Collections.sort(getChildren(), treeNodeStorage.buildFullComparator());
         } else {
-            int actualIndex = index == 0 ? 0 : (getChildren().indexOf(getChildren().get(index - 1)) + 1);
-            getChildren().addAll(actualIndex, children);
+            getChildren().addAll(index, children);
         }
 
         for (NodeDescriptor child : children) {
@@ -91,6 +92,33 @@ public class NodeDescriptor {
         children.clear();
     }
 
+    /**
+     * Gets position of the child in the list of children of this descriptor.
+     * <p/>
+     * Children remember their positions, positions are recalculated at once for all children only when list of children is changed.
+     * So getting index of each child in a row doesn't scan list of children again and again.
+     *
+     * @param child
+     *         child descriptor
+     * @return position of the child or {@code -1} if the given descriptor is not a child of this descriptor
+     */
+    public int indexOf(NodeDescriptor child) {
+        if (!isAtIndex(child)) {
+            for (int i = 0, size = children.size(); i < size; i++) {
+                children.get(i).indexInParent = i;
+            }
+            if (!isAtIndex(child)) {
+                return -1;
+            }
+        }
+        return child.indexInParent;
+    }
+
+    private boolean isAtIndex(NodeDescriptor child) {
+        final int index = child.indexInParent;
+        return index >= 0 && index < children.size() && children.get(index) == child;
+    }
+
     public List<NodeDescriptor> getChildren() {
         return children;
     }
@@ -116,7 +144,10 @@ public class NodeDescriptor {
     }
 
     public void remove(NodeDescriptor descriptor) {
-        children.remove(descriptor);
+        int index = indexOf(descriptor);
+        if (index != -1) {
+            children.remove(index);
+        }
     }
 
     public void reset() {
@@ -685,9 +685,14 @@ public class Tree extends Widget implements HasBeforeExpandNodeHandlers, HasExpa
     }
 
     protected void findChildren(Node parent, List<Node> list, boolean onlyVisible) {
-        for (Node child : nodeStorage.getChildren(parent)) {
-            list.add(child);
-            if (!onlyVisible || findNode(child).isExpanded()) {
+        findChildren(findNode(parent), list, onlyVisible);
+    }
+
+    /** Walks descriptors directly, this is called for whole visible tree on each scroll, so avoid copying of children lists. */
+    private void findChildren(NodeDescriptor parent, List<Node> list, boolean onlyVisible) {
+        for (NodeDescriptor child : parent.getChildren()) {
+            list.add(child.getNode());
+            if (!onlyVisible || child.isExpanded()) {
                 findChildren(child, list, onlyVisible);
             }
         }
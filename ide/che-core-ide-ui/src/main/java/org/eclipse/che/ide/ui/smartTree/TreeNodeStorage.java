@@ -32,9 +32,10 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Hierarchical type storage. Based on Parent-Child relationship,
@@ -160,7 +161,7 @@ public class TreeNodeStorage implements StoreHandlers.HasStoreHandlers {
      * @return
      */
     public List<Node> getAll() {
-        List<NodeDescriptor> allChildren = new LinkedList<>(roots.getChildren());
+        List<NodeDescriptor> allChildren = new ArrayList<>(roots.getChildren());
         for (int i = 0; i < allChildren.size(); i++) {
             allChildren.addAll(allChildren.get(i).getChildren());
         }
@@ -175,7 +176,7 @@ public class TreeNodeStorage implements StoreHandlers.HasStoreHandlers {
      * @return
      */
     public List<Node> getAllChildren(Node parent) {
-        List<NodeDescriptor> allChildren = new LinkedList<>(getWrapper(parent).getChildren());
+        List<NodeDescriptor> allChildren = new ArrayList<>(getWrapper(parent).getChildren());
         for (int i = 0; i < allChildren.size(); i++) {
             allChildren.addAll(allChildren.get(i).getChildren());
         }
@@ -188,12 +189,16 @@ public class TreeNodeStorage implements StoreHandlers.HasStoreHandlers {
      * @return
      */
     public int getAllItemsCount() {
-        List<NodeDescriptor> allChildren = new LinkedList<>(roots.getChildren());
-        for (int i = 0; i < allChildren.size(); i++) {
-            allChildren.addAll(allChildren.get(i).getChildren());
-        }
+        return countDescendants(roots);
+    }
 
-        return allChildren.size();
+    private int countDescendants(NodeDescriptor parent) {
+        List<NodeDescriptor> children = parent.getChildren();
+        int count = children.size();
+        for (NodeDescriptor child : children) {
+            count += countDescendants(child);
+        }
+        return count;
     }
 
     /**
@@ -278,11 +283,15 @@ public class TreeNodeStorage implements StoreHandlers.HasStoreHandlers {
      * @return
      */
     public Node getNextSibling(Node item) {
-        Node parent = getParent(item);
-        List<Node> children = parent == null ? getRootItems() : getChildren(parent);
-        int index = children.indexOf(item);
-        if (children.size() > (index + 1)) {
-            return children.get(index + 1);
+        NodeDescriptor nodeDescriptor = getWrapper(item);
+        NodeDescriptor parent = nodeDescriptor.getParent();
+        if (parent == null) {
+            return null;
+        }
+        List<NodeDescriptor> children = parent.getChildren();
+        int index = parent.indexOf(nodeDescriptor);
+        if (index != -1 && children.size() > (index + 1)) {
+            return children.get(index + 1).getNode();
         }
         return null;
     }
@@ -294,11 +303,14 @@ public class TreeNodeStorage implements StoreHandlers.HasStoreHandlers {
      * @return
      */
     public Node getPreviousSibling(Node item) {
-        Node parent = getParent(item);
-        List<Node> children = parent == null ? getRootItems() : getChildren(parent);
-        int index = children.indexOf(item);
+        NodeDescriptor nodeDescriptor = getWrapper(item);
+        NodeDescriptor parent = nodeDescriptor.getParent();
+        if (parent == null) {
+            return null;
+        }
+        int index = parent.indexOf(nodeDescriptor);
         if (index > 0) {
-            return children.get(index - 1);
+            return parent.getChildren().get(index - 1).getNode();
         }
         return null;
     }
@@ -339,12 +351,9 @@ public class TreeNodeStorage implements StoreHandlers.HasStoreHandlers {
      * @return
      */
     public int indexOf(Node item) {
-        Node parent = getParent(item);
-        if (parent == null) {
-            return getRootItems().indexOf(item);
-        } else {
-            return getChildren(parent).indexOf(item);
-        }
+        NodeDescriptor nodeDescriptor = getWrapper(item);
+        NodeDescriptor parent = nodeDescriptor == null ? null : nodeDescriptor.getParent();
+        return parent == null ? -1 : parent.indexOf(nodeDescriptor);
     }
 
     /**
@@ -385,22 +394,18 @@ public class TreeNodeStorage implements StoreHandlers.HasStoreHandlers {
      */
     public void insert(NodeDescriptor parent, int index, List<Node> children) {
         int initialCount = parent.getChildren().size();
-        parent.addChildren(index, wrap(children));
+        List<NodeDescriptor> wrapped = wrap(children);
+        parent.addChildren(index, wrapped);
 
         if (initialCount != parent.getChildren().size()) {
             List<Node> addedChildren = new ArrayList<>();
             List<NodeDescriptor> currentChildren = parent.getChildren();
             if (isSorted()) {
-                int currentChildrenSize = currentChildren.size();
-                for (int i = 0; i < currentChildrenSize; i++) {
-                    int childrenSize = children.size();
-                    for (int j = 0; j < childrenSize; j++) {
-                        Node currentData = currentChildren.get(i).getNode();
-                        Node child = children.get(j);
-                        if (child == currentData) {
-                            addedChildren.add(child);
-                            break;
-                        }
+                // Collect added children in sorted order, descriptors are compared by identity.
+                Set<NodeDescriptor> added = new HashSet<>(wrapped);
+                for (NodeDescriptor current : currentChildren) {
+                    if (added.contains(current)) {
+                        addedChildren.add(current.getNode());
                     }
                 }
             } else {
@@ -430,18 +435,13 @@ public class TreeNodeStorage implements StoreHandlers.HasStoreHandlers {
      */
     public void insert(NodeDescriptor parent, int index, Node child) {
         int initialCount = parent.getChildren().size();
-        parent.addChild(index, wrap(child));
+        NodeDescriptor wrapped = wrap(child);
+        parent.addChild(index, wrapped);
 
         if (parent.getChildren().size() != initialCount) {
-            int addedIndex = -1;
+            int addedIndex;
             if (isSorted()) {
-                List<NodeDescriptor> childrenModels = parent.getChildren();
-                for (int i = 0; i < childrenModels.size(); i++) {
-                    if (childrenModels.get(i).getNode().equals(child)) {
-                        addedIndex = i;
-                        break;
-                    }
-                }
+                addedIndex = parent.indexOf(wrapped);
             } else {
                 addedIndex = index;
             }
@@ -455,12 +455,12 @@ public class TreeNodeStorage implements StoreHandlers.HasStoreHandlers {
         if (nodeDescriptor != null) {
             Node parent = getParent(node);
             List<Node> children = getAllChildren(node);
-            int visibleIndex = nodeDescriptor.getParent().getChildren().indexOf(nodeDescriptor);
+            int visibleIndex = nodeDescriptor.getParent().indexOf(nodeDescriptor);
             nodeDescriptor.getParent().remove(nodeDescriptor);
             if (visibleIndex != -1) {
                 fireEvent(new StoreRemoveEvent(visibleIndex, node, parent, children));
             } else {
-                List<NodeDescriptor> descriptors = new LinkedList<>();
+                List<NodeDescriptor> descriptors = new ArrayList<>();
                 descriptors.add(nodeDescriptor);
                 for (int i = 0; i < descriptors.size(); i++) {
                     nodeDescriptor = descriptors.get(i);
@@ -480,18 +480,18 @@ public class TreeNodeStorage implements StoreHandlers.HasStoreHandlers {
 
     private void removeChildren(NodeDescriptor parent) {
         if (parent.getChildren().size() != 0) {
-            List<NodeDescriptor> models = new LinkedList<>();
-            models.addAll(parent.getChildren());
+            List<NodeDescriptor> models = new ArrayList<>(parent.getChildren());
             parent.clear();
             for (int i = 0; i < models.size(); i++) {
                 NodeDescriptor wrapper = models.get(i);
                 models.addAll(wrapper.getChildren());
 
-                List<Node> children = getAllChildren(wrapper.getNode());
-
-                idToNodeMap.remove(getKeyProvider().getKey(wrapper.getNode()));
                 if (wrapper.getParent() == parent) {
+                    List<Node> children = getAllChildren(wrapper.getNode());
+                    idToNodeMap.remove(getKeyProvider().getKey(wrapper.getNode()));
                     fireEvent(new StoreRemoveEvent(0, wrapper.getNode(), parent.getNode(), children));
+                } else {
+                    idToNodeMap.remove(getKeyProvider().getKey(wrapper.getNode()));
                 }
             }
         }
@@ -505,8 +505,7 @@ public class TreeNodeStorage implements StoreHandlers.HasStoreHandlers {
             roots.addChildren(0, wrap(children));
         } else {
             NodeDescriptor parentNodeDescriptor = getWrapper(parent);
-            List<NodeDescriptor> models = new LinkedList<>();
-            models.addAll(parentNodeDescriptor.getChildren());
+            List<NodeDescriptor> models = new ArrayList<>(parentNodeDescriptor.getChildren());
             for (int i = 0; i < models.size(); i++) {
                 NodeDescriptor wrapper = models.get(i);
                 models.addAll(wrapper.getChildren());
@@ -60,8 +60,12 @@ import javax.ws.rs.core.UriBuilder;
 import java.security.Principal;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static java.lang.String.format;
 import static java.util.Collections.singletonList;
@@ -194,12 +198,7 @@ public class AccountService extends Service {
     public List<MemberDescriptor> getMemberships(@Context SecurityContext securityContext) throws NotFoundException, ServerException {
         final Principal principal = securityContext.getUserPrincipal();
         final User current = userDao.getByAlias(principal.getName());
-        final List<Member> memberships = accountDao.getByMember(current.getId());
-        final List<MemberDescriptor> result = new ArrayList<>(memberships.size());
-        for (Member membership : memberships) {
-            result.add(toDescriptor(membership, accountDao.getById(membership.getAccountId()), securityContext));
-        }
-        return result;
+        return toMembershipDescriptors(accountDao.getByMember(current.getId()), securityContext);
     }
 
     /**
@@ -238,10 +237,33 @@ public class AccountService extends Service {
                                                                                                                 ConflictException {
         requiredNotNull(userId, "User identifier");
         final User user = userDao.getById(userId);
-        final List<Member> memberships = accountDao.getByMember(user.getId());
+        return toMembershipDescriptors(accountDao.getByMember(user.getId()), securityContext);
+    }
+
+    /**
+     * Converts account memberships to descriptors, all referenced accounts are fetched with single call to {@link AccountDao}.
+     *
+     * @throws NotFoundException
+     *         when some of referenced accounts doesn't exist
+     */
+    private List<MemberDescriptor> toMembershipDescriptors(List<Member> memberships, SecurityContext securityContext)
+            throws NotFoundException, ServerException {
+        final Set<String> accountIds = new LinkedHashSet<>();
+        for (Member membership : memberships) {
+            accountIds.add(membership.getAccountId());
+        }
+        final Map<String, Account> accounts = new HashMap<>();
+        for (Account account : accountDao.getByIds(accountIds)) {
+            accounts.put(account.getId(), account);
+        }
         final List<MemberDescriptor> result = new ArrayList<>(memberships.size());
         for (Member membership : memberships) {
-            result.add(toDescriptor(membership, accountDao.getById(membership.getAccountId()), securityContext));
+            Account account = accounts.get(membership.getAccountId());
+            if (account == null) {
+                // keeps the same error as single lookup
+                account = accountDao.getById(membership.getAccountId());
+            }
+            result.add(toDescriptor(membership, account, securityContext));
         }
         return result;
     }
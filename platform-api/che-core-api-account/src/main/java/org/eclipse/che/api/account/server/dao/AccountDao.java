@@ -14,6 +14,8 @@ import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -49,6 +51,24 @@ public interface AccountDao {
      */
     Account getById(String id) throws NotFoundException, ServerException;
 
+    /**
+     * Gets accounts from persistent layer by identifiers. Implementations should override this method to get all accounts at once.
+     *
+     * @param ids
+     *         account identifiers
+     * @return List of accounts, accounts which don't exist are skipped
+     */
+    default List<Account> getByIds(Collection<String> ids) throws ServerException {
+        final List<Account> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            try {
+                result.add(getById(id));
+            } catch (NotFoundException ignored) {
+            }
+        }
+        return result;
+    }
+
     /**
      * Gets user from persistent layer it  name
      *
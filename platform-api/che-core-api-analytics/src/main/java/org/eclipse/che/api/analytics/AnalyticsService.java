@@ -17,6 +17,7 @@ import org.eclipse.che.api.analytics.shared.dto.MetricInfoDTO;
 import org.eclipse.che.api.analytics.shared.dto.MetricInfoListDTO;
 import org.eclipse.che.api.analytics.shared.dto.MetricValueDTO;
 import org.eclipse.che.api.analytics.shared.dto.MetricValueListDTO;
+import org.eclipse.che.api.core.ApiException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.rest.Service;
 import org.eclipse.che.api.core.rest.annotations.GenerateLink;
@@ -91,13 +92,15 @@ public class AnalyticsService extends Service {
                              @QueryParam("page") String page,
                              @ApiParam(value = "Number of results per page.")
                              @QueryParam("per_page") String perPage,
-                             @Context UriInfo uriInfo) throws ServerException {
+                             @Context UriInfo uriInfo) throws ApiException {
         try {
             Map<String, String> metricContext = extractContext(uriInfo,
                                                                page,
                                                                perPage);
             MetricValueDTO value = metricHandler.getValue(metricName, metricContext, uriInfo);
             return Response.status(Response.Status.OK).entity(value).build();
+        } catch (ApiException e) {
+            throw e;
         } catch (Exception e) {
             LOG.error(e.getMessage(), e);
             throw new ServerException("Unexpected error occurred. Can't get value for metric " + metricName);
@@ -123,11 +126,13 @@ public class AnalyticsService extends Service {
                                   @PathParam("name") String metricName,
                                   @Context UriInfo uriInfo,
                                   @ApiParam(value = "Search filter", required = true)
-                                  List<Map<String, String>> parameters) throws ServerException {
+                                  List<Map<String, String>> parameters) throws ApiException {
         try {
             Map<String, String> metricContext = extractContext(uriInfo);
             MetricValueListDTO list = metricHandler.getListValues(metricName, parameters, metricContext, uriInfo);
             return Response.status(Response.Status.OK).entity(list).build();
+        } catch (ApiException e) {
+            throw e;
         } catch (Exception e) {
             LOG.error(e.getMessage(), e);
             throw new ServerException("Unexpected error occurred. Can't get list of metrics");
@@ -144,7 +149,7 @@ public class AnalyticsService extends Service {
                                    @PathParam("name") String metricName,
                                    @QueryParam("page") String page,
                                    @QueryParam("per_page") String perPage,
-                                   @Context UriInfo uriInfo) throws ServerException {
+                                   @Context UriInfo uriInfo) throws ApiException {
         try {
             Map<String, String> metricContext = extractContext(uriInfo,
                                                                page,
@@ -154,6 +159,8 @@ public class AnalyticsService extends Service {
                                                                 metricContext,
                                                                 uriInfo);
             return Response.status(Response.Status.OK).entity(value).build();
+        } catch (ApiException e) {
+            throw e;
         } catch (Exception e) {
             LOG.error(e.getMessage(), e);
             throw new ServerException("Unexpected error occurred. Can't get value for metric " + metricName);
@@ -178,13 +185,15 @@ public class AnalyticsService extends Service {
                                    @QueryParam("page") String page,
                                    @ApiParam(value = "Resylts per page")
                                    @QueryParam("per_page") String perPage,
-                                   @Context UriInfo uriInfo) throws ServerException {
+                                   @Context UriInfo uriInfo) throws ApiException {
         try {
             Map<String, String> metricContext = extractContext(uriInfo,
                                                                page,
                                                                perPage);
             MetricValueDTO value = metricHandler.getPublicValue(metricName, metricContext, uriInfo);
             return Response.status(Response.Status.OK).entity(value).build();
+        } catch (ApiException e) {
+            throw e;
         } catch (Exception e) {
             LOG.error(e.getMessage(), e);
             throw new ServerException("Unexpected error occurred. Can't get value for metric " + metricName);
@@ -206,13 +215,15 @@ public class AnalyticsService extends Service {
     @Produces(MediaType.APPLICATION_JSON)
     @RolesAllowed({"user", "system/admin", "system/manager"})
     public Response getUserValues(@ApiParam(value = "Metric names", required = true)
-                                      List<String> metricNames, @Context UriInfo uriInfo) throws ServerException {
+                                      List<String> metricNames, @Context UriInfo uriInfo) throws ApiException {
         try {
             Map<String, String> metricContext = extractContext(uriInfo);
             MetricValueListDTO list = metricHandler.getUserValues(new JsonArrayImpl<>(metricNames),
                                                                   metricContext,
                                                                   uriInfo);
             return Response.status(Response.Status.OK).entity(list).build();
+        } catch (ApiException e) {
+            throw e;
         } catch (Exception e) {
             LOG.error(e.getMessage(), e);
             throw new ServerException("Unexpected error occurred. Can't get values of metrics");
@@ -233,10 +244,12 @@ public class AnalyticsService extends Service {
     @Path("/metricinfo/{name}")
     @RolesAllowed({"user", "system/admin", "system/manager"})
     public Response getInfo(@ApiParam(value = "Metric name", required = true)
-                                @PathParam("name") String metricName, @Context UriInfo uriInfo) throws ServerException {
+                                @PathParam("name") String metricName, @Context UriInfo uriInfo) throws ApiException {
         try {
             MetricInfoDTO metricInfoDTO = metricHandler.getInfo(metricName, uriInfo);
             return Response.status(Response.Status.OK).entity(metricInfoDTO).build();
+        } catch (ApiException e) {
+            throw e;
         } catch (Exception e) {
             LOG.error(e.getMessage(), e);
             throw new ServerException("Unexpected error occurred. Can't get info for metric " + metricName);
@@ -256,10 +269,12 @@ public class AnalyticsService extends Service {
     @Produces(MediaType.APPLICATION_JSON)
     @Path("/metricinfo")
     @RolesAllowed({"user", "system/admin", "system/manager"})
-    public Response getAllInfo(@Context UriInfo uriInfo) throws ServerException {
+    public Response getAllInfo(@Context UriInfo uriInfo) throws ApiException {
         try {
             MetricInfoListDTO metricInfoListDTO = metricHandler.getAllInfo(uriInfo);
             return Response.status(Response.Status.OK).entity(metricInfoListDTO).build();
+        } catch (ApiException e) {
+            throw e;
         } catch (Exception e) {
             LOG.error(e.getMessage(), e);
             throw new ServerException("Unexpected error occurred. Can't get metric info");
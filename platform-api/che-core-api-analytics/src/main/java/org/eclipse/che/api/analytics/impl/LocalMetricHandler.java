@@ -0,0 +1,231 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.analytics.impl;
+
+import com.google.inject.Inject;
+
+import org.eclipse.che.api.analytics.MetricHandler;
+import org.eclipse.che.api.analytics.metrics.Aggregation;
+import org.eclipse.che.api.analytics.metrics.MetricsStore;
+import org.eclipse.che.api.analytics.shared.dto.MetricInfoDTO;
+import org.eclipse.che.api.analytics.shared.dto.MetricInfoListDTO;
+import org.eclipse.che.api.analytics.shared.dto.MetricValueDTO;
+import org.eclipse.che.api.analytics.shared.dto.MetricValueListDTO;
+import org.eclipse.che.api.core.BadRequestException;
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.metrics.MetricRegistry;
+import org.eclipse.che.dto.server.DtoFactory;
+
+import javax.annotation.PreDestroy;
+import javax.ws.rs.core.UriInfo;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SortedSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers metric queries from metrics of this server, see {@link MetricRegistry}, without requests to remote analytics server.
+ * <p/>
+ * Without context parameters current value of metric is returned. With {@code window} parameter samples of metric for the given number
+ * of seconds are aggregated with function which is set with {@code aggregate} parameter, see {@link Aggregation} for supported
+ * functions, by default the average value is returned. Invalid {@code window} or {@code aggregate} is reported with
+ * {@link BadRequestException}. Samples are kept in memory, interval between samples and number of samples per
+ * metric are configured with {@value #SAMPLE_INTERVAL} and {@value #SAMPLES} properties, by default samples of the last 24 hours with
+ * 15 seconds interval are kept.
+ * <p/>
+ * Handler is enabled by setting {@code analytics.api.metric_handler} property to the name of this class.
+ */
+public class LocalMetricHandler implements MetricHandler {
+    public static final String SAMPLE_INTERVAL = "analytics.metrics.sample_interval_sec";
+    public static final String SAMPLES         = "analytics.metrics.samples";
+
+    private static final String WINDOW    = "WINDOW";
+    private static final String AGGREGATE = "AGGREGATE";
+
+    private final MetricsStore store;
+
+    private MetricRegistry registry;
+
+    public LocalMetricHandler() {
+        this(new Properties());
+    }
+
+    public LocalMetricHandler(Properties properties) {
+        this(new MetricsStore(TimeUnit.SECONDS.toMillis(Long.parseLong(properties.getProperty(SAMPLE_INTERVAL, "15"))),
+                              Integer.parseInt(properties.getProperty(SAMPLES, "5760"))));
+    }
+
+    LocalMetricHandler(MetricsStore store) {
+        this.store = store;
+    }
+
+    /** Starts sampling of metrics of the given registry. Is called by injector when handler is bound. */
+    @Inject
+    public void setMetricRegistry(MetricRegistry registry) {
+        this.registry = registry;
+        store.start(registry);
+    }
+
+    /** Stops sampling of metrics. */
+    @PreDestroy
+    public void stop() {
+        store.stop();
+    }
+
+    @Override
+    public MetricValueDTO getValue(String metricName,
+                                   Map<String, String> metricContext,
+                                   UriInfo uriInfo) throws NotFoundException, BadRequestException {
+        final String window = metricContext.get(WINDOW);
+        final double value;
+        if (window == null) {
+            final Double current = registry == null ? null : registry.sample().get(metricName);
+            if (current == null) {
+                throw new NotFoundException("Metric " + metricName + " not found");
+            }
+            value = current;
+        } else {
+            final long from = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(parseWindow(window));
+            final Aggregation aggregation = parseAggregation(metricContext.get(AGGREGATE));
+            if (!getNames().contains(metricName)) {
+                throw new NotFoundException("Metric " + metricName + " not found");
+            }
+            value = store.aggregate(metricName, from, aggregation);
+        }
+        return createMetricValueDTO(metricName, value);
+    }
+
+    @Override
+    public MetricValueListDTO getListValues(String metricName,
+                                            List<Map<String, String>> parameters,
+                                            Map<String, String> context,
+                                            UriInfo uriInfo) throws NotFoundException, BadRequestException {
+        final List<MetricValueDTO> values = new ArrayList<>(parameters.size());
+        for (Map<String, String> parameter : parameters) {
+            values.add(getValue(metricName, merge(context, parameter), uriInfo));
+        }
+        final MetricValueListDTO metricValueListDTO = DtoFactory.getInstance().createDto(MetricValueListDTO.class);
+        metricValueListDTO.setMetrics(values);
+        return metricValueListDTO;
+    }
+
+    @Override
+    public MetricValueDTO getValueByJson(String metricName,
+                                         Map<String, String> parameters,
+                                         Map<String, String> metricContext,
+                                         UriInfo uriInfo) throws NotFoundException, BadRequestException {
+        return getValue(metricName, merge(metricContext, parameters), uriInfo);
+    }
+
+    @Override
+    public MetricValueDTO getPublicValue(String metricName,
+                                         Map<String, String> metricContext,
+                                         UriInfo uriInfo) throws NotFoundException, BadRequestException {
+        return getValue(metricName, metricContext, uriInfo);
+    }
+
+    @Override
+    public MetricValueListDTO getUserValues(List<String> metricNames,
+                                            Map<String, String> metricContext,
+                                            UriInfo uriInfo) throws NotFoundException, BadRequestException {
+        final List<MetricValueDTO> values = new ArrayList<>(metricNames.size());
+        for (String metricName : metricNames) {
+            values.add(getValue(metricName, metricContext, uriInfo));
+        }
+        final MetricValueListDTO metricValueListDTO = DtoFactory.getInstance().createDto(MetricValueListDTO.class);
+        metricValueListDTO.setMetrics(values);
+        return metricValueListDTO;
+    }
+
+    @Override
+    public MetricInfoDTO getInfo(String metricName, UriInfo uriInfo) throws NotFoundException {
+        if (!getNames().contains(metricName)) {
+            throw new NotFoundException("Metric " + metricName + " not found");
+        }
+        return createMetricInfoDTO(metricName, uriInfo);
+    }
+
+    @Override
+    public MetricInfoListDTO getAllInfo(UriInfo uriInfo) {
+        final List<MetricInfoDTO> metricInfoDTOs = new ArrayList<>();
+        for (String metricName : getNames()) {
+            metricInfoDTOs.add(createMetricInfoDTO(metricName, uriInfo));
+        }
+        final MetricInfoListDTO metricInfoListDTO = DtoFactory.getInstance().createDto(MetricInfoListDTO.class);
+        metricInfoListDTO.setMetrics(metricInfoDTOs);
+        return metricInfoListDTO;
+    }
+
+    private static long parseWindow(String window) throws BadRequestException {
+        try {
+            final long seconds = Long.parseLong(window);
+            if (seconds > 0) {
+                return seconds;
+            }
+        } catch (NumberFormatException ignored) {
+        }
+        throw new BadRequestException("Invalid window '" + window + "', positive number of seconds is expected");
+    }
+
+    private static Aggregation parseAggregation(String aggregate) throws BadRequestException {
+        if (aggregate == null) {
+            return Aggregation.AVG;
+        }
+        try {
+            return Aggregation.valueOf(aggregate.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unknown aggregate '" + aggregate + "', one of " + Arrays.toString(Aggregation.values()) +
+                                          " is expected");
+        }
+    }
+
+    private SortedSet<String> getNames() {
+        final SortedSet<String> names = store.getNames();
+        if (registry != null) {
+            names.addAll(registry.sample().keySet());
+        }
+        return names;
+    }
+
+    private Map<String, String> merge(Map<String, String> context, Map<String, String> parameters) {
+        final Map<String, String> merged = new HashMap<>(context);
+        for (Map.Entry<String, String> entry : parameters.entrySet()) {
+            merged.put(entry.getKey().toUpperCase(), entry.getValue());
+        }
+        return merged;
+    }
+
+    private MetricValueDTO createMetricValueDTO(String metricName, double value) {
+        final MetricValueDTO metricValueDTO = DtoFactory.getInstance().createDto(MetricValueDTO.class);
+        metricValueDTO.setName(metricName);
+        if (value == Math.rint(value) && !Double.isInfinite(value)) {
+            metricValueDTO.setValue(Long.toString((long)value));
+        } else {
+            metricValueDTO.setValue(Double.toString(value));
+        }
+        return metricValueDTO;
+    }
+
+    private MetricInfoDTO createMetricInfoDTO(String metricName, UriInfo uriInfo) {
+        final MetricInfoDTO metricInfoDTO = DtoFactory.getInstance().createDto(MetricInfoDTO.class);
+        metricInfoDTO.setName(metricName);
+        metricInfoDTO.setDescription("Metric " + metricName + " of this server, sampled every " +
+                                     TimeUnit.MILLISECONDS.toSeconds(store.getInterval()) + " seconds");
+        if (uriInfo != null) {
+            metricInfoDTO.setLinks(RemoteMetricHandler.getLinks(metricName, uriInfo));
+        }
+        return metricInfoDTO;
+    }
+}
@@ -285,7 +285,7 @@ public class RemoteMetricHandler implements MetricHandler {
         }
     }
 
-    private static List<Link> getLinks(String metricName, UriInfo uriInfo) {
+    static List<Link> getLinks(String metricName, UriInfo uriInfo) {
         final UriBuilder servicePathBuilder = uriInfo.getBaseUriBuilder();
         List<Link> links = new ArrayList<>();
 
@@ -10,22 +10,38 @@
  *******************************************************************************/
 package org.eclipse.che.api.analytics.logger;
 
+import com.google.inject.Inject;
 import com.google.inject.Singleton;
+import com.google.inject.name.Named;
 
+import org.eclipse.che.api.core.metrics.MetricRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.annotation.PostConstruct;
 import javax.annotation.PreDestroy;
+import java.io.IOException;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.Queue;
 import java.util.Set;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 /**
+ * Logs analytics events asynchronously. Events are validated and formatted on the caller's thread and put to the lock-free ring
+ * buffer, single background thread takes events from buffer by batches and passes them to the {@link EventSink}s. Caller never waits
+ * for sinks: if buffer is full event is dropped and counted.
+ * <p/>
+ * Part of valid events may be skipped with sampling rate which is configured with {@code analytics.logger.sampling_rate} property,
+ * by default all events are logged. Events are logged with {@link LogEventSink} if no other sinks are bound.
+ *
  * @author Anatoliy Bazko
  */
 @Singleton
@@ -54,7 +70,8 @@ public class EventLogger {
     private static final int RESERVED_PARAMS_NUMBER     = 6;
     private static final int MAX_PARAM_NAME_LENGTH      = 20;
     private static final int MAX_PARAM_VALUE_LENGTH     = 100;
-    private static final int QUEUE_MAX_CAPACITY         = 10000;
+    private static final int QUEUE_MAX_CAPACITY         = 16384;
+    private static final int BATCH_SIZE                 = 256;
 
     private static final Set<String> ALLOWED_EVENTS = new HashSet<String>() {{
         add(IDE_USAGE);
@@ -65,22 +82,67 @@ public class EventLogger {
         add(PROJECT_OPENED);
     }};
 
-    private final Thread        logThread;
-    private final Queue<String> queue;
+    private final LogThread             logThread;
+    private final MpscRingBuffer<Event> buffer;
 
-    /**
-     * Stores the number of ignored events due to maximum queue capacity
-     */
-    private long ignoredEvents;
+    private final AtomicLong acceptedEvents;
+    private final AtomicLong ignoredEvents;
+    private final AtomicLong sampledOutEvents;
+    private final AtomicLong writtenEvents;
+    private final AtomicLong totalLatency;
+    private final AtomicLong maxLatency;
+
+    private volatile List<EventSink> sinks;
+    private volatile double          samplingRate;
 
     public EventLogger() {
-        this.queue = new LinkedBlockingQueue<>(QUEUE_MAX_CAPACITY);
-        this.ignoredEvents = 0;
+        this.buffer = new MpscRingBuffer<>(QUEUE_MAX_CAPACITY);
+        this.acceptedEvents = new AtomicLong();
+        this.ignoredEvents = new AtomicLong();
+        this.sampledOutEvents = new AtomicLong();
+        this.writtenEvents = new AtomicLong();
+        this.totalLatency = new AtomicLong();
+        this.maxLatency = new AtomicLong();
+        this.sinks = Collections.<EventSink>singletonList(new LogEventSink());
+        this.samplingRate = 1.0;
 
         logThread = new LogThread();
         logThread.setDaemon(true);
     }
 
+    /**
+     * Sets part of events which are logged, e.g. {@code 0.1} means that every tenth event in average is logged.
+     *
+     * @throws IllegalArgumentException
+     *         if rate isn't in range {@code (0, 1]}
+     */
+    @Inject(optional = true)
+    public void setSamplingRate(@Named("analytics.logger.sampling_rate") double samplingRate) {
+        if (!(samplingRate > 0 && samplingRate <= 1)) {
+            throw new IllegalArgumentException("Sampling rate must be in range (0, 1] but was " + samplingRate);
+        }
+        this.samplingRate = samplingRate;
+    }
+
+    /** Replaces default {@link LogEventSink} with the given sinks. Must be called before {@link #init()}. */
+    @Inject(optional = true)
+    public void setSinks(Set<EventSink> sinks) {
+        if (!sinks.isEmpty()) {
+            this.sinks = new ArrayList<>(sinks);
+        }
+    }
+
+    /** Registers counters and latency of events in the given registry. */
+    @Inject
+    public void setMetricRegistry(MetricRegistry registry) {
+        registry.gauge("analytics.events.accepted", acceptedEvents::get);
+        registry.gauge("analytics.events.dropped", ignoredEvents::get);
+        registry.gauge("analytics.events.sampled_out", sampledOutEvents::get);
+        registry.gauge("analytics.events.written", writtenEvents::get);
+        registry.gauge("analytics.events.latency_avg", this::getAverageLatency);
+        registry.gauge("analytics.events.latency_max", this::getMaxLatency);
+    }
+
     @PostConstruct
     public void init() {
         logThread.start();
@@ -88,7 +150,44 @@ public class EventLogger {
 
     @PreDestroy
     public void destroy() {
-        logThread.interrupt();
+        logThread.running = false;
+        LockSupport.unpark(logThread);
+        try {
+            logThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** Returns number of events accepted for logging. */
+    public long getAcceptedEvents() {
+        return acceptedEvents.get();
+    }
+
+    /** Returns number of events dropped because buffer was full or sink failed. */
+    public long getDroppedEvents() {
+        return ignoredEvents.get();
+    }
+
+    /** Returns number of valid events skipped due to sampling. */
+    public long getSampledOutEvents() {
+        return sampledOutEvents.get();
+    }
+
+    /** Returns number of events written to sinks. */
+    public long getWrittenEvents() {
+        return writtenEvents.get();
+    }
+
+    /** Returns average time in microseconds from logging of event till it is written to sinks. */
+    public long getAverageLatency() {
+        final long written = writtenEvents.get();
+        return written == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(totalLatency.get() / written);
+    }
+
+    /** Returns max time in microseconds from logging of event till it is written to sinks. */
+    public long getMaxLatency() {
+        return TimeUnit.NANOSECONDS.toMicros(maxLatency.get());
     }
 
     public void log(String event, Map<String, String> parameters) throws UnsupportedEncodingException {
@@ -99,17 +198,32 @@ public class EventLogger {
 
             validate(parameters);
 
+            final double rate = samplingRate;
+            if (rate < 1 && ThreadLocalRandom.current().nextDouble() >= rate) {
+                sampledOutEvents.incrementAndGet();
+                return;
+            }
+
             String message = createMessage(event, parameters);
-            if (!offerEvent(message)) {
-                if (ignoredEvents++ % 1000 == 0) {
-                    LOG.warn("Ignored " + ignoredEvents + " events due to maximum queue capacity");
+            if (offerEvent(message)) {
+                acceptedEvents.incrementAndGet();
+            } else {
+                final long ignored = ignoredEvents.incrementAndGet();
+                if (ignored % 1000 == 1) {
+                    LOG.warn("Ignored " + ignored + " events due to maximum queue capacity");
                 }
             }
         }
     }
 
     protected boolean offerEvent(String message) {
-        return queue.offer(message);
+        if (!buffer.offer(new Event(message, System.nanoTime()))) {
+            return false;
+        }
+        if (logThread.waiting) {
+            LockSupport.unpark(logThread);
+        }
+        return true;
     }
 
     private String createMessage(String event, Map<String, String> parameters) throws UnsupportedEncodingException {
@@ -185,34 +299,89 @@ public class EventLogger {
         }
     }
 
-    /**
-     * Is responsible for logging events.
-     * Rate-limit is 50 messages per second.
-     */
+    private static final class Event {
+        final String message;
+        final long   created;
+
+        Event(String message, long created) {
+            this.message = message;
+            this.created = created;
+        }
+    }
+
+    /** Is responsible for passing batches of events to sinks. Parks when buffer is empty. */
     private class LogThread extends Thread {
+        volatile boolean running = true;
+        volatile boolean waiting;
+
         private LogThread() {
             super("Analytics Event Logger");
         }
 
         @Override
         public void run() {
-            LOG.info(getName() + " thread is started, queue is initialized for " + QUEUE_MAX_CAPACITY + " messages");
-            while (!isInterrupted()) {
-                String message = queue.poll();
-
-                try {
-                    if (message != null) {
-                        LOG.info(message);
-                        sleep(20);
-                    } else {
-                        sleep(1000);
+            LOG.info(getName() + " thread is started, queue is initialized for " + buffer.capacity() + " messages");
+            final List<Event> batch = new ArrayList<>(BATCH_SIZE);
+            final List<String> messages = new ArrayList<>(BATCH_SIZE);
+            while (running && !isInterrupted()) {
+                if (buffer.drainTo(batch, BATCH_SIZE) > 0) {
+                    write(batch, messages);
+                } else {
+                    waiting = true;
+                    // producer may add event before flag is visible to it
+                    if (buffer.isEmpty() && running) {
+                        LockSupport.parkNanos(this, TimeUnit.SECONDS.toNanos(1));
                     }
-                } catch (InterruptedException e) {
-                    break;
+                    waiting = false;
+                }
+            }
+            while (buffer.drainTo(batch, BATCH_SIZE) > 0) {
+                write(batch, messages);
+            }
+            for (EventSink sink : sinks) {
+                try {
+                    sink.close();
+                } catch (IOException e) {
+                    LOG.error(e.getMessage(), e);
                 }
             }
 
             LOG.info(getName() + " thread is stopped");
         }
+
+        private void write(List<Event> batch, List<String> messages) {
+            for (Event event : batch) {
+                messages.add(event.message);
+            }
+            boolean written = true;
+            for (EventSink sink : sinks) {
+                try {
+                    sink.write(messages);
+                } catch (IOException | RuntimeException e) {
+                    written = false;
+                    LOG.error("Unable to write " + messages.size() + " events to " + sink.getClass().getName(), e);
+                }
+            }
+            if (written) {
+                final long now = System.nanoTime();
+                long total = 0;
+                long max = 0;
+                for (Event event : batch) {
+                    final long latency = now - event.created;
+                    total += latency;
+                    max = Math.max(max, latency);
+                }
+                writtenEvents.addAndGet(batch.size());
+                totalLatency.addAndGet(total);
+                // max latency is updated only by this thread
+                if (max > maxLatency.get()) {
+                    maxLatency.set(max);
+                }
+            } else {
+                ignoredEvents.addAndGet(batch.size());
+            }
+            batch.clear();
+            messages.clear();
+        }
     }
 }
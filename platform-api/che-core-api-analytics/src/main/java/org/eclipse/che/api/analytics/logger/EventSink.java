@@ -0,0 +1,34 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.analytics.logger;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination of analytics events. {@link EventLogger} passes events to sinks in batches from the single thread, so implementations
+ * don't need to be thread-safe.
+ */
+public interface EventSink {
+    /**
+     * Writes batch of formatted events.
+     *
+     * @param events
+     *         formatted events in the order they were logged
+     * @throws IOException
+     *         if events can't be written, such batch is counted as dropped
+     */
+    void write(List<String> events) throws IOException;
+
+    /** Releases resources of sink. Is called once when {@link EventLogger} is stopped. */
+    default void close() throws IOException {
+    }
+}
@@ -0,0 +1,113 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.analytics.logger;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Appends events to local file, one event per line. Whole batch is encoded and written with single write call. When size of file
+ * exceeds limit file is renamed to {@code <name>.1}, previous backups are shifted and the oldest one is removed.
+ */
+public class FileEventSink implements EventSink {
+    private final File file;
+    private final long maxFileSize;
+    private final int  maxBackups;
+
+    private OutputStream out;
+    private long         size;
+
+    /**
+     * @param file
+     *         file to append events to
+     * @param maxFileSize
+     *         max size of file in bytes after which file is rotated
+     * @param maxBackups
+     *         number of rotated files to keep
+     */
+    public FileEventSink(File file, long maxFileSize, int maxBackups) {
+        if (maxFileSize <= 0) {
+            throw new IllegalArgumentException("Max file size must be positive");
+        }
+        if (maxBackups < 0) {
+            throw new IllegalArgumentException("Number of backups must not be negative");
+        }
+        this.file = file;
+        this.maxFileSize = maxFileSize;
+        this.maxBackups = maxBackups;
+    }
+
+    @Override
+    public void write(List<String> events) throws IOException {
+        final StringBuilder batch = new StringBuilder();
+        for (String event : events) {
+            batch.append(event).append('\n');
+        }
+        final byte[] bytes = batch.toString().getBytes(StandardCharsets.UTF_8);
+        if (out == null) {
+            open();
+        } else if (size > 0 && size + bytes.length > maxFileSize) {
+            rotate();
+        }
+        out.write(bytes);
+        out.flush();
+        size += bytes.length;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (out != null) {
+            out.close();
+            out = null;
+        }
+    }
+
+    private void open() throws IOException {
+        final File parent = file.getParentFile();
+        if (parent != null && !parent.isDirectory() && !parent.mkdirs()) {
+            throw new IOException("Unable create directory " + parent);
+        }
+        out = new FileOutputStream(file, true);
+        size = file.length();
+    }
+
+    private void rotate() throws IOException {
+        close();
+        if (maxBackups == 0) {
+            if (!file.delete()) {
+                throw new IOException("Unable delete " + file);
+            }
+        } else {
+            final File oldest = backup(maxBackups);
+            if (oldest.exists() && !oldest.delete()) {
+                throw new IOException("Unable delete " + oldest);
+            }
+            for (int i = maxBackups - 1; i >= 1; i--) {
+                final File backup = backup(i);
+                if (backup.exists() && !backup.renameTo(backup(i + 1))) {
+                    throw new IOException("Unable rename " + backup);
+                }
+            }
+            if (!file.renameTo(backup(1))) {
+                throw new IOException("Unable rename " + file);
+            }
+        }
+        open();
+    }
+
+    private File backup(int index) {
+        return new File(file.getPath() + '.' + index);
+    }
+}
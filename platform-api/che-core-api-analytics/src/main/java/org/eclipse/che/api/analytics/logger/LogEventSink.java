@@ -0,0 +1,31 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.analytics.logger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Writes each event as separate line to the log of {@link EventLogger}, so format of log which is parsed by analytics doesn't change.
+ * This sink is used when no other sinks are configured.
+ */
+public class LogEventSink implements EventSink {
+    private static final Logger LOG = LoggerFactory.getLogger(EventLogger.class);
+
+    @Override
+    public void write(List<String> events) {
+        for (String event : events) {
+            LOG.info(event);
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.analytics.logger;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Bounded lock-free queue for many producers and single consumer. Every slot of ring has sequence number which tells whether slot is
+ * free for producer or filled for consumer, so producers compete only for the tail index and never block each other or consumer.
+ * <p/>
+ * Methods {@link #poll()}, {@link #drainTo(Collection, int)} and {@link #isEmpty()} must be called from the single consumer thread.
+ */
+final class MpscRingBuffer<E> {
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray         sequences;
+    private final int                     mask;
+    private final AtomicLong              tail;
+
+    private long head;
+
+    /**
+     * @param capacity
+     *         min capacity of buffer, actual capacity is rounded up to the power of two
+     */
+    MpscRingBuffer(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity);
+        }
+        final int size = capacity == 1 ? 1 : Integer.highestOneBit(capacity - 1) << 1;
+        slots = new AtomicReferenceArray<>(size);
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+        mask = size - 1;
+        tail = new AtomicLong();
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Adds element to the buffer.
+     *
+     * @return {@code false} if buffer is full
+     */
+    boolean offer(E element) {
+        long position;
+        int index;
+        for (; ; ) {
+            position = tail.get();
+            index = (int)(position & mask);
+            final long diff = sequences.get(index) - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    break;
+                }
+            } else if (diff < 0) {
+                // slot still holds element which isn't read by consumer
+                return false;
+            }
+            // otherwise other producer took this position, retry with new tail
+        }
+        slots.lazySet(index, element);
+        // publishes element to consumer
+        sequences.set(index, position + 1);
+        return true;
+    }
+
+    /** Retrieves and removes the head of buffer or returns {@code null} if buffer is empty. */
+    E poll() {
+        final int index = (int)(head & mask);
+        if (sequences.get(index) != head + 1) {
+            return null;
+        }
+        final E element = slots.get(index);
+        slots.lazySet(index, null);
+        // frees slot for producers of the next round
+        sequences.set(index, head + mask + 1);
+        head++;
+        return element;
+    }
+
+    /**
+     * Moves up to {@code max} elements from buffer to the given collection.
+     *
+     * @return number of moved elements
+     */
+    int drainTo(Collection<? super E> target, int max) {
+        int count = 0;
+        E element;
+        while (count < max && (element = poll()) != null) {
+            target.add(element);
+            count++;
+        }
+        return count;
+    }
+
+    boolean isEmpty() {
+        return sequences.get((int)(head & mask)) != head + 1;
+    }
+}
@@ -0,0 +1,29 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.analytics.metrics;
+
+/**
+ * Function which reduces samples of metric within time window to a single value.
+ *
+ * @see MetricsStore#aggregate(String, long, Aggregation)
+ */
+public enum Aggregation {
+    /** The latest sample. */
+    LAST,
+    MIN,
+    MAX,
+    AVG,
+    SUM,
+    /** Difference between the latest and the earliest sample, e.g. increment of counter within window. */
+    DELTA,
+    /** Number of samples. */
+    COUNT
+}
@@ -0,0 +1,112 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.analytics.metrics;
+
+import org.eclipse.che.api.core.metrics.MetricRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps history of values of {@link MetricRegistry} metrics in memory. Values of all metrics are sampled periodically and stored in
+ * fixed size ring per metric, so memory used by store doesn't grow with time, only the latest {@code capacity} samples are kept.
+ */
+public class MetricsStore {
+    private static final Logger LOG = LoggerFactory.getLogger(MetricsStore.class);
+
+    private final long                              interval;
+    private final int                               capacity;
+    private final ConcurrentMap<String, TimeSeries> series;
+
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * @param interval
+     *         interval between samples in milliseconds
+     * @param capacity
+     *         max number of samples kept per metric
+     */
+    public MetricsStore(long interval, int capacity) {
+        if (interval <= 0) {
+            throw new IllegalArgumentException("Sample interval must be positive");
+        }
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        this.interval = interval;
+        this.capacity = capacity;
+        this.series = new ConcurrentHashMap<>();
+    }
+
+    /** Returns interval between samples in milliseconds. */
+    public long getInterval() {
+        return interval;
+    }
+
+    /** Starts periodic sampling of metrics of the given registry. */
+    public synchronized void start(MetricRegistry registry) {
+        if (scheduler != null) {
+            throw new IllegalStateException("Already started");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "MetricsSampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(() -> {
+            try {
+                add(System.currentTimeMillis(), registry.sample());
+            } catch (RuntimeException e) {
+                LOG.error(e.getMessage(), e);
+            }
+        }, 0, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /** Adds samples of metrics taken at the given time. */
+    public void add(long time, Map<String, Double> values) {
+        for (Map.Entry<String, Double> entry : values.entrySet()) {
+            series.computeIfAbsent(entry.getKey(), name -> new TimeSeries(capacity)).add(time, entry.getValue());
+        }
+    }
+
+    /**
+     * Aggregates samples of metric taken at or after {@code from}.
+     *
+     * @return aggregated value or {@link Double#NaN} if metric is unknown or there are no samples in window
+     */
+    public double aggregate(String name, long from, Aggregation aggregation) {
+        final TimeSeries timeSeries = series.get(name);
+        if (timeSeries == null) {
+            return aggregation == Aggregation.COUNT ? 0 : Double.NaN;
+        }
+        return timeSeries.aggregate(from, aggregation);
+    }
+
+    /** Returns sorted names of metrics which have samples. */
+    public SortedSet<String> getNames() {
+        return new TreeSet<>(series.keySet());
+    }
+}
@@ -0,0 +1,86 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.analytics.metrics;
+
+/** Fixed size ring of samples of single metric. When ring is full the oldest sample is overwritten. */
+final class TimeSeries {
+    private final long[]   times;
+    private final double[] values;
+
+    /** Index of slot for the next sample. */
+    private int next;
+    private int size;
+
+    TimeSeries(int capacity) {
+        times = new long[capacity];
+        values = new double[capacity];
+    }
+
+    synchronized void add(long time, double value) {
+        times[next] = time;
+        values[next] = value;
+        next = (next + 1) % times.length;
+        if (size < times.length) {
+            size++;
+        }
+    }
+
+    /**
+     * Aggregates samples which are taken at or after {@code from}.
+     *
+     * @return aggregated value or {@link Double#NaN} if there are no samples in window
+     */
+    synchronized double aggregate(long from, Aggregation aggregation) {
+        // walk from the latest sample to the oldest one, samples are ordered by time
+        double last = Double.NaN;
+        double first = Double.NaN;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        double sum = 0;
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            final int index = (next - 1 - i + times.length) % times.length;
+            if (times[index] < from) {
+                break;
+            }
+            final double value = values[index];
+            if (count == 0) {
+                last = value;
+            }
+            first = value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+            sum += value;
+            count++;
+        }
+        if (count == 0) {
+            return aggregation == Aggregation.COUNT ? 0 : Double.NaN;
+        }
+        switch (aggregation) {
+            case LAST:
+                return last;
+            case MIN:
+                return min;
+            case MAX:
+                return max;
+            case AVG:
+                return sum / count;
+            case SUM:
+                return sum;
+            case DELTA:
+                return last - first;
+            case COUNT:
+                return count;
+            default:
+                throw new IllegalArgumentException("Unsupported aggregation " + aggregation);
+        }
+    }
+}
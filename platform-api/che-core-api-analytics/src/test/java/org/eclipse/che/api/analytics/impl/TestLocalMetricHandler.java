@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.analytics.impl;
+
+import org.eclipse.che.api.analytics.metrics.MetricsStore;
+import org.eclipse.che.api.core.BadRequestException;
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.metrics.MetricRegistry;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+
+public class TestLocalMetricHandler {
+
+    private MetricsStore       store;
+    private LocalMetricHandler handler;
+
+    @BeforeMethod
+    public void setUp() {
+        final MetricRegistry registry = new MetricRegistry();
+        registry.counter("test.counter").add(3);
+        store = new MetricsStore(TimeUnit.HOURS.toMillis(1), 10);
+        handler = new LocalMetricHandler(store);
+        handler.setMetricRegistry(registry);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        handler.stop();
+    }
+
+    @Test
+    public void shouldReturnCurrentValue() throws Exception {
+        assertEquals(handler.getValue("test.counter", Collections.<String, String>emptyMap(), null).getValue(), "3");
+    }
+
+    @Test
+    public void shouldAggregateSamplesInWindow() throws Exception {
+        final long now = System.currentTimeMillis();
+        store.add(now - TimeUnit.HOURS.toMillis(1), Collections.singletonMap("test.samples", 100.0));
+        store.add(now - 2000, Collections.singletonMap("test.samples", 1.0));
+        store.add(now - 1000, Collections.singletonMap("test.samples", 4.0));
+
+        assertEquals(handler.getValue("test.samples", context("60", "sum"), null).getValue(), "5");
+        assertEquals(handler.getValue("test.samples", context("60", null), null).getValue(), "2.5");
+    }
+
+    @Test(expectedExceptions = NotFoundException.class)
+    public void shouldNotFindCurrentValueOfUnknownMetric() throws Exception {
+        handler.getValue("unknown.metric", Collections.<String, String>emptyMap(), null);
+    }
+
+    @Test(expectedExceptions = NotFoundException.class)
+    public void shouldNotFindSamplesOfUnknownMetric() throws Exception {
+        handler.getValue("unknown.metric", context("60", "max"), null);
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void shouldRejectInvalidWindow() throws Exception {
+        handler.getValue("test.counter", context("day", null), null);
+    }
+
+    @Test(expectedExceptions = BadRequestException.class)
+    public void shouldRejectUnknownAggregate() throws Exception {
+        handler.getValue("test.counter", context("60", "median"), null);
+    }
+
+    private Map<String, String> context(String window, String aggregate) {
+        final Map<String, String> context = new HashMap<>();
+        context.put("WINDOW", window);
+        if (aggregate != null) {
+            context.put("AGGREGATE", aggregate);
+        }
+        return context;
+    }
+}
@@ -16,10 +16,14 @@ import org.testng.annotations.Test;
 
 import java.io.UnsupportedEncodingException;
 import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
+import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
@@ -129,4 +133,48 @@ public class TestEventLogger {
         assertEquals(message.getValue(), "EVENT#ide-usage# PARAMETERS#p4=+,p5=%2B#");
         assertEquals(URLDecoder.decode(message.getValue(), "UTF-8"), "EVENT#ide-usage# PARAMETERS#p4= ,p5=+#");
     }
+
+    @Test
+    public void shouldSkipEventsOutOfSampling() throws UnsupportedEncodingException {
+        eventLogger.setSamplingRate(Double.MIN_VALUE);
+
+        eventLogger.log(EventLogger.IDE_USAGE, new HashMap<String, String>());
+
+        verify(eventLogger, never()).offerEvent(anyString());
+        assertEquals(eventLogger.getSampledOutEvents(), 1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldValidateEventsOutOfSampling() throws UnsupportedEncodingException {
+        eventLogger.setSamplingRate(Double.MIN_VALUE);
+        Map<String, String> parameters = new HashMap<String, String>() {{
+            put("0123456789012345678901234567890123456789", "value");
+        }};
+
+        eventLogger.log(EventLogger.IDE_USAGE, parameters);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldRejectInvalidSamplingRate() {
+        eventLogger.setSamplingRate(1.5);
+    }
+
+    @Test
+    public void shouldWriteEventsToSinks() throws Exception {
+        final List<String> written = Collections.synchronizedList(new ArrayList<String>());
+        EventLogger logger = new EventLogger();
+        logger.setSinks(Collections.<EventSink>singleton(written::addAll));
+        logger.init();
+
+        logger.log(EventLogger.IDE_USAGE, new HashMap<String, String>());
+        logger.log(EventLogger.PROJECT_OPENED, new HashMap<String, String>());
+        logger.destroy();
+
+        assertEquals(written.size(), 2);
+        assertEquals(written.get(0), "EVENT#ide-usage# PARAMETERS##");
+        assertEquals(written.get(1), "EVENT#project-opened# PARAMETERS##");
+        assertEquals(logger.getAcceptedEvents(), 2);
+        assertEquals(logger.getWrittenEvents(), 2);
+        assertEquals(logger.getDroppedEvents(), 0);
+    }
 }
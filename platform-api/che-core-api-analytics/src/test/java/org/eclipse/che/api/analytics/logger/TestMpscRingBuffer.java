@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.analytics.logger;
+
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+public class TestMpscRingBuffer {
+
+    @Test
+    public void shouldRoundCapacityToPowerOfTwo() {
+        assertEquals(new MpscRingBuffer<>(1).capacity(), 1);
+        assertEquals(new MpscRingBuffer<>(5).capacity(), 8);
+        assertEquals(new MpscRingBuffer<>(16).capacity(), 16);
+    }
+
+    @Test
+    public void shouldRejectElementsWhenBufferIsFull() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+
+        for (int i = 0; i < 4; i++) {
+            assertTrue(buffer.offer(i));
+        }
+        assertFalse(buffer.offer(4));
+
+        assertEquals(buffer.poll(), Integer.valueOf(0));
+        assertTrue(buffer.offer(4));
+    }
+
+    @Test
+    public void shouldKeepOrderOfElementsAcrossRounds() {
+        MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(4);
+        List<Integer> drained = new ArrayList<>();
+
+        for (int i = 0; i < 10; i++) {
+            assertTrue(buffer.offer(i));
+            if (i % 3 == 2) {
+                buffer.drainTo(drained, 2);
+            }
+        }
+        buffer.drainTo(drained, Integer.MAX_VALUE);
+
+        assertTrue(buffer.isEmpty());
+        assertNull(buffer.poll());
+        assertEquals(drained.size(), 10);
+        for (int i = 0; i < 10; i++) {
+            assertEquals(drained.get(i), Integer.valueOf(i));
+        }
+    }
+
+    @Test
+    public void shouldNotLoseElementsOfConcurrentProducers() throws Exception {
+        final int producers = 4;
+        final int perProducer = 10000;
+        final MpscRingBuffer<Integer> buffer = new MpscRingBuffer<>(64);
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        for (int p = 0; p < producers; p++) {
+            final int producer = p;
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    while (!buffer.offer(producer * perProducer + i)) {
+                        Thread.yield();
+                    }
+                }
+            });
+        }
+        start.countDown();
+
+        int[] last = new int[producers];
+        Arrays.fill(last, -1);
+        int received = 0;
+        while (received < producers * perProducer) {
+            Integer element = buffer.poll();
+            if (element == null) {
+                Thread.yield();
+                continue;
+            }
+            int producer = element / perProducer;
+            int value = element % perProducer;
+            // elements of the same producer come in the order they were added
+            assertEquals(value, last[producer] + 1);
+            last[producer] = value;
+            received++;
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue(buffer.isEmpty());
+    }
+}
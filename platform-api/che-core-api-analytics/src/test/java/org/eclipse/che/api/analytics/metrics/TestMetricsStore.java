@@ -0,0 +1,54 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.analytics.metrics;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class TestMetricsStore {
+
+    private MetricsStore store;
+
+    @BeforeMethod
+    public void setUp() {
+        store = new MetricsStore(1000, 4);
+        for (int i = 1; i <= 6; i++) {
+            store.add(i * 1000L, Collections.singletonMap("test.metric", (double)i));
+        }
+    }
+
+    @Test
+    public void shouldKeepOnlyLatestSamples() {
+        assertEquals(store.aggregate("test.metric", 0, Aggregation.COUNT), 4.0);
+        assertEquals(store.aggregate("test.metric", 0, Aggregation.MIN), 3.0);
+        assertEquals(store.aggregate("test.metric", 0, Aggregation.MAX), 6.0);
+    }
+
+    @Test
+    public void shouldAggregateSamplesInWindow() {
+        assertEquals(store.aggregate("test.metric", 5000, Aggregation.AVG), 5.5);
+        assertEquals(store.aggregate("test.metric", 5000, Aggregation.SUM), 11.0);
+        assertEquals(store.aggregate("test.metric", 4000, Aggregation.DELTA), 2.0);
+        assertEquals(store.aggregate("test.metric", 4000, Aggregation.LAST), 6.0);
+    }
+
+    @Test
+    public void shouldReturnNaNWhenThereAreNoSamples() {
+        assertTrue(Double.isNaN(store.aggregate("test.metric", 7000, Aggregation.AVG)));
+        assertTrue(Double.isNaN(store.aggregate("unknown.metric", 0, Aggregation.LAST)));
+        assertEquals(store.aggregate("unknown.metric", 0, Aggregation.COUNT), 0.0);
+    }
+}
@@ -15,6 +15,7 @@ import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.eclipse.che.api.builder.dto.BaseBuilderRequest;
 import org.eclipse.che.api.builder.dto.BuildOptions;
 import org.eclipse.che.api.builder.dto.BuildRequest;
+import org.eclipse.che.api.builder.dto.BuilderMetric;
 import org.eclipse.che.api.builder.dto.BuilderServerAccessCriteria;
 import org.eclipse.che.api.builder.dto.BuilderServerLocation;
 import org.eclipse.che.api.builder.dto.BuilderServerRegistration;
@@ -23,11 +24,13 @@ import org.eclipse.che.api.builder.dto.DependencyRequest;
 import org.eclipse.che.api.builder.internal.BuilderEvent;
 import org.eclipse.che.api.builder.internal.Constants;
 import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.metrics.MetricRegistry;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.core.notification.EventSubscriber;
 import org.eclipse.che.api.core.rest.HttpJsonRequestFactory;
 import org.eclipse.che.api.core.rest.ServiceContext;
 import org.eclipse.che.api.core.rest.shared.dto.Link;
+import org.eclipse.che.api.core.util.ExpiredTaskCleaner;
 import org.eclipse.che.api.project.server.ProjectService;
 import org.eclipse.che.api.project.shared.dto.BuilderConfiguration;
 import org.eclipse.che.api.project.shared.dto.BuildersDescriptor;
@@ -36,8 +39,7 @@ import org.eclipse.che.api.workspace.server.WorkspaceService;
 import org.eclipse.che.api.workspace.shared.dto.WorkspaceDescriptor;
 import org.eclipse.che.commons.env.EnvironmentContext;
 import org.eclipse.che.commons.lang.cache.Cache;
-import org.eclipse.che.commons.lang.cache.SLRUCache;
-import org.eclipse.che.commons.lang.cache.SynchronizedCache;
+import org.eclipse.che.commons.lang.cache.ExpiringCache;
 import org.eclipse.che.commons.lang.concurrent.ThreadLocalPropagateContext;
 import org.eclipse.che.commons.user.User;
 import org.eclipse.che.dto.server.DtoFactory;
@@ -56,6 +58,7 @@ import javax.ws.rs.core.UriBuilder;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
@@ -93,18 +96,26 @@ public class BuildQueue {
 
     private static final long CHECK_AVAILABLE_BUILDER_DELAY = 2000;
 
+    private static final int SUCCESSFUL_BUILDS_CACHE_SIZE = 600;
+
+    /** Period of checking of expired tasks in milliseconds. */
+    private static final long CLEANUP_PERIOD = TimeUnit.MINUTES.toMillis(1);
+
     private static final AtomicLong sequence = new AtomicLong(1);
 
     private final ConcurrentMap<String, RemoteBuilderServer> builderServices;
     private final BuilderSelectionStrategy                   builderSelector;
     private final ConcurrentMap<Long, BuildQueueTask>        tasks;
+    private final BuildTaskCleaner                           cleaner;
     private final ConcurrentMap<BuilderListKey, BuilderList> builderListMapping;
     private final int                                        maxExecutionTimeMillis;
     private final HttpJsonRequestFactory                     requestFactory;
     private final EventService                               eventService;
     /** Max time for request to be in queue in milliseconds. */
     private final long                                       waitingTimeMillis;
-    private final Cache<BaseBuilderRequest, RemoteTask>      successfulBuilds;
+    private final Cache<BuildKey, RemoteTask>                successfulBuilds;
+    private final AtomicLong                                 successfulBuildsHits;
+    private final AtomicLong                                 successfulBuildsMisses;
     private final AtomicBoolean                              started;
     private final long                                       keepResultTimeMillis;
 
@@ -116,6 +127,10 @@ public class BuildQueue {
     @Named(Constants.BUILDER_SLAVE_BUILDER_URLS)
     private String[] slaves = new String[0];
 
+    // Switched to default for test.
+    // private
+    long cleanerPeriod = CLEANUP_PERIOD;
+
     /**
      * @param waitingTime
      *         max time for request to be in queue in seconds. Configuration parameter that sets max time (in seconds) which request may be
@@ -139,7 +154,16 @@ public class BuildQueue {
 
         tasks = new ConcurrentHashMap<>();
         builderListMapping = new ConcurrentHashMap<>();
-        successfulBuilds = new SynchronizedCache<>(new SLRUCache<BaseBuilderRequest, RemoteTask>(200, 400));
+        // Remote builder removes results of build after keepResultTime, so it's not possible to reuse build after that time.
+        final ExpiringCache.Builder<BuildKey, RemoteTask> cacheBuilder =
+                ExpiringCache.<BuildKey, RemoteTask>newBuilder().maximumSize(SUCCESSFUL_BUILDS_CACHE_SIZE);
+        if (keepResultTime > 0) {
+            cacheBuilder.expireAfterWrite(keepResultTime, TimeUnit.SECONDS);
+        }
+        successfulBuilds = cacheBuilder.build();
+        successfulBuildsHits = new AtomicLong();
+        successfulBuildsMisses = new AtomicLong();
+        cleaner = new BuildTaskCleaner();
         builderServices = new ConcurrentHashMap<>();
         started = new AtomicBoolean(false);
     }
@@ -170,6 +194,14 @@ public class BuildQueue {
         return count;
     }
 
+    /** Registers size of queue and statistic of cleanup of expired tasks in the given registry. */
+    @Inject
+    public void setMetricRegistry(MetricRegistry registry) {
+        registry.gauge("build_queue.tasks", tasks::size);
+        registry.gauge("build_queue.cleanup_time", cleaner::getLastCleanupTime);
+        registry.gauge("build_queue.cleanup_tasks", cleaner::getLastCleanupTasks);
+    }
+
     public List<RemoteBuilderServer> getRegisterBuilderServers() {
         return new ArrayList<>(builderServices.values());
     }
@@ -298,7 +330,8 @@ public class BuildQueue {
         if (!hasBuilder(request)) {
             throw new BuilderException(String.format("Builder '%s' is not available for workspace %s.", request.getBuilder(), wsId));
         }
-        final RemoteTask successfulTask = successfulBuilds.get(request);
+        final BuildKey buildKey = new BuildKey(request);
+        final RemoteTask successfulTask = successfulBuilds.get(buildKey);
         Callable<RemoteTask> callable = null;
         boolean reuse = false;
         if (successfulTask != null) {
@@ -319,9 +352,14 @@ public class BuildQueue {
                     }
                 };
             } else {
-                successfulBuilds.remove(request);
+                successfulBuilds.remove(buildKey);
             }
         }
+        if (reuse) {
+            successfulBuildsHits.incrementAndGet();
+        } else {
+            successfulBuildsMisses.incrementAndGet();
+        }
         if (callable == null) {
             request.setTimeout(getBuildTimeout(workspace));
             callable = createTaskFor(request);
@@ -331,6 +369,7 @@ public class BuildQueue {
         request.setId(id);
         final BuildQueueTask task = new BuildQueueTask(id, request, waitingTimeMillis, future, eventService, serviceContext.getServiceUriBuilder());
         tasks.put(id, task);
+        cleaner.schedule(id, task.getCreationTime() + waitingTimeMillis);
         eventService.publish(BuilderEvent.queueStartedEvent(id, wsId, project));
         executor.execute(future);
         return task;
@@ -388,6 +427,7 @@ public class BuildQueue {
         request.setId(id);
         final BuildQueueTask task = new BuildQueueTask(id, request, waitingTimeMillis, future, eventService, serviceContext.getServiceUriBuilder());
         tasks.put(id, task);
+        cleaner.schedule(id, task.getCreationTime() + waitingTimeMillis);
         executor.execute(future);
         return task;
     }
@@ -586,58 +626,9 @@ public class BuildQueue {
             scheduler.scheduleAtFixedRate(ThreadLocalPropagateContext.wrap(new Runnable() {
                 @Override
                 public void run() {
-                    int num = 0;
-                    int waitingNum = 0;
-                    for (Iterator<BuildQueueTask> i = tasks.values().iterator(); i.hasNext(); ) {
-                        if (Thread.currentThread().isInterrupted()) {
-                            return;
-                        }
-                        final BuildQueueTask task = i.next();
-                        final boolean waiting = task.isWaiting();
-                        final BaseBuilderRequest request = task.getRequest();
-                        if (waiting) {
-                            if ((task.getCreationTime() + waitingTimeMillis) < System.currentTimeMillis()) {
-                                try {
-                                    task.cancel();
-                                    eventService.publish(
-                                            BuilderEvent.terminatedEvent(task.getId(), request.getWorkspace(), request.getProject()));
-                                } catch (Exception e) {
-                                    LOG.warn(e.getMessage(), e);
-                                }
-                                i.remove();
-                                waitingNum++;
-                                num++;
-                            }
-                        } else {
-                            RemoteTask remote = null;
-                            try {
-                                remote = task.getRemoteTask();
-                            } catch (Exception e) {
-                                LOG.warn(e.getMessage(), e);
-                            }
-                            if (remote == null) {
-                                i.remove();
-                                successfulBuilds.remove(DtoFactory.getInstance().clone(request).withId(0L).withTimeout(0L));
-                                num++;
-                            } else if ((remote.getCreationTime() + keepResultTimeMillis) < System.currentTimeMillis()) {
-                                try {
-                                    remote.getBuildTaskDescriptor();
-                                } catch (NotFoundException e) {
-                                    i.remove();
-                                    num++;
-                                } catch (Exception e) {
-                                    LOG.warn(e.getMessage(), e);
-                                    i.remove();
-                                    num++;
-                                }
-                            }
-                        }
-                    }
-                    if (num > 0) {
-                        LOG.debug("Remove {} expired tasks, {} of them were waiting for processing", num, waitingNum);
-                    }
+                    cleanup();
                 }
-            }), 1, 1, TimeUnit.MINUTES);
+            }), cleanerPeriod, cleanerPeriod, TimeUnit.MILLISECONDS);
 
             eventService.subscribe(new EventSubscriber<BuilderEvent>() {
                 @Override
@@ -647,10 +638,8 @@ public class BuildQueue {
                         try {
                             final BuildQueueTask task = getTask(id);
                             final BaseBuilderRequest request = task.getRequest();
-                            if (task.getDescriptor().getStatus() == BuildStatus.SUCCESSFUL) {
-                                // Clone request and replace its id and timeout with 0.
-                                successfulBuilds
-                                        .put(DtoFactory.getInstance().clone(request).withId(0L).withTimeout(0L), task.getRemoteTask());
+                            if (request instanceof BuildRequest && task.getDescriptor().getStatus() == BuildStatus.SUCCESSFUL) {
+                                successfulBuilds.put(new BuildKey((BuildRequest)request), task.getRemoteTask());
                             }
                         } catch (NotFoundException ignored) {
                         } catch (Exception e) {
@@ -720,6 +709,43 @@ public class BuildQueue {
         }
     }
 
+    // Switched to default for test.
+    // private
+    void cleanup() {
+        cleaner.cleanup();
+    }
+
+    /** Gets statistic of this queue. */
+    public List<BuilderMetric> getStats() {
+        final DtoFactory dtoFactory = DtoFactory.getInstance();
+        final List<BuilderMetric> stats = new ArrayList<>(6);
+        stats.add(dtoFactory.createDto(BuilderMetric.class)
+                            .withName(BuilderMetric.QUEUE_SIZE)
+                            .withValue(Integer.toString(tasks.size()))
+                            .withDescription("Number of tasks in queue"));
+        stats.add(dtoFactory.createDto(BuilderMetric.class)
+                            .withName(BuilderMetric.CLEANUP_TIME)
+                            .withValue(Long.toString(cleaner.getLastCleanupTime()))
+                            .withDescription("Duration of the last cleanup of expired tasks in milliseconds"));
+        stats.add(dtoFactory.createDto(BuilderMetric.class)
+                            .withName(BuilderMetric.CLEANUP_TASKS)
+                            .withValue(Integer.toString(cleaner.getLastCleanupTasks()))
+                            .withDescription("Number of tasks checked by the last cleanup of expired tasks"));
+        stats.add(dtoFactory.createDto(BuilderMetric.class)
+                            .withName(BuilderMetric.EXPIRED_TASKS)
+                            .withValue(Long.toString(cleaner.getExpiredTasks()))
+                            .withDescription("Number of expired tasks removed from queue"));
+        stats.add(dtoFactory.createDto(BuilderMetric.class)
+                            .withName(BuilderMetric.REUSED_BUILDS)
+                            .withValue(Long.toString(successfulBuildsHits.get()))
+                            .withDescription("Number of build requests served with result of previous successful build"));
+        stats.add(dtoFactory.createDto(BuilderMetric.class)
+                            .withName(BuilderMetric.NOT_REUSED_BUILDS)
+                            .withValue(Long.toString(successfulBuildsMisses.get()))
+                            .withDescription("Number of build requests sent to slave builders"));
+        return stats;
+    }
+
     protected void checkStarted() {
         if (!started.get()) {
             throw new IllegalStateException("Is not started yet.");
@@ -751,6 +777,7 @@ public class BuildQueue {
                 executor.shutdownNow();
             }
             tasks.clear();
+            cleaner.clear();
             builderListMapping.clear();
             successfulBuilds.clear();
             if (interrupted) {
@@ -765,7 +792,7 @@ public class BuildQueue {
         return eventService;
     }
 
-    private static class InternalBuildTask extends FutureTask<RemoteTask> {
+    private class InternalBuildTask extends FutureTask<RemoteTask> {
         final Long    id;
         final String  workspace;
         final String  project;
@@ -778,6 +805,64 @@ public class BuildQueue {
             this.project = project;
             this.reused = reused;
         }
+
+        @Override
+        protected void done() {
+            // Task isn't waiting any more, let cleaner check it at next run.
+            cleaner.schedule(id, System.currentTimeMillis());
+        }
+    }
+
+    /** Removes builds that wait for builder too long and builds which results are removed by slave builder. */
+    private class BuildTaskCleaner extends ExpiredTaskCleaner<BuildQueueTask, RemoteTask> {
+        BuildTaskCleaner() {
+            super(tasks);
+        }
+
+        @Override
+        protected long getRecheckPeriod() {
+            return cleanerPeriod;
+        }
+
+        @Override
+        protected boolean isWaiting(BuildQueueTask task) {
+            return task.isWaiting();
+        }
+
+        @Override
+        protected long getWaitingDeadline(BuildQueueTask task) {
+            return task.getCreationTime() + waitingTimeMillis;
+        }
+
+        @Override
+        protected void cancel(BuildQueueTask task) throws Exception {
+            task.cancel();
+            final BaseBuilderRequest request = task.getRequest();
+            eventService.publish(BuilderEvent.terminatedEvent(task.getId(), request.getWorkspace(), request.getProject()));
+        }
+
+        @Override
+        protected RemoteTask getRemoteTask(BuildQueueTask task) throws Exception {
+            return task.getRemoteTask();
+        }
+
+        @Override
+        protected long getResultDeadline(BuildQueueTask task, RemoteTask remote) {
+            return remote.getCreationTime() + keepResultTimeMillis;
+        }
+
+        @Override
+        protected void checkRemoteTask(RemoteTask remote) throws Exception {
+            remote.getBuildTaskDescriptor();
+        }
+
+        @Override
+        protected void onRemoteTaskMissed(BuildQueueTask task) {
+            final BaseBuilderRequest request = task.getRequest();
+            if (request instanceof BuildRequest) {
+                successfulBuilds.remove(new BuildKey((BuildRequest)request));
+            }
+        }
     }
 
     private static class BuilderListKey {
@@ -821,6 +906,79 @@ public class BuildQueue {
     }
 
 
+    /**
+     * Key of successful build. Contains only parameters that affect result of build, so build of the same project with the same
+     * parameters may be reused by any user of workspace. Whether sources of project are not changed since build is checked separately.
+     */
+    // Switched to default for test.
+    // private
+    static class BuildKey {
+        final String              workspace;
+        final String              project;
+        final String              builder;
+        final List<String>        targets;
+        final Map<String, String> options;
+        final boolean             includeDependencies;
+        final boolean             skipTest;
+        final int                 hashCode;
+
+        BuildKey(BuildRequest request) {
+            workspace = request.getWorkspace();
+            project = request.getProject();
+            builder = request.getBuilder();
+            targets = request.getTargets() == null ? Collections.<String>emptyList() : new ArrayList<>(request.getTargets());
+            options = request.getOptions() == null ? Collections.<String, String>emptyMap() : new HashMap<>(request.getOptions());
+            includeDependencies = request.isIncludeDependencies();
+            skipTest = request.isSkipTest();
+            int hash = 7;
+            hash = hash * 31 + (workspace == null ? 0 : workspace.hashCode());
+            hash = hash * 31 + (project == null ? 0 : project.hashCode());
+            hash = hash * 31 + (builder == null ? 0 : builder.hashCode());
+            hash = hash * 31 + targets.hashCode();
+            hash = hash * 31 + options.hashCode();
+            hash = hash * 31 + (includeDependencies ? 1 : 0);
+            hash = hash * 31 + (skipTest ? 1 : 0);
+            hashCode = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof BuildKey)) {
+                return false;
+            }
+            BuildKey other = (BuildKey)o;
+            return hashCode == other.hashCode
+                   && includeDependencies == other.includeDependencies
+                   && skipTest == other.skipTest
+                   && (workspace == null ? other.workspace == null : workspace.equals(other.workspace))
+                   && (project == null ? other.project == null : project.equals(other.project))
+                   && (builder == null ? other.builder == null : builder.equals(other.builder))
+                   && targets.equals(other.targets)
+                   && options.equals(other.options);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public String toString() {
+            return "BuildKey{" +
+                   "workspace='" + workspace + '\'' +
+                   ", project='" + project + '\'' +
+                   ", builder='" + builder + '\'' +
+                   ", targets=" + targets +
+                   ", options=" + options +
+                   ", includeDependencies=" + includeDependencies +
+                   ", skipTest=" + skipTest +
+                   '}';
+        }
+    }
+
     private static class BuilderList {
         final Collection<RemoteBuilder> builders;
         final BuilderSelectionStrategy  builderSelector;
@@ -11,6 +11,7 @@
 package org.eclipse.che.api.builder;
 
 import org.eclipse.che.api.builder.dto.BuilderDescriptor;
+import org.eclipse.che.api.builder.dto.BuilderMetric;
 import org.eclipse.che.api.builder.dto.BuilderServer;
 import org.eclipse.che.api.builder.dto.BuilderServerLocation;
 import org.eclipse.che.api.builder.dto.BuilderServerRegistration;
@@ -150,4 +151,20 @@ public class BuilderAdminService extends Service {
 
         return result;
     }
+
+    @ApiOperation(value = "Get statistic of build queue",
+                  notes = "Get statistic of build queue, e.g. number of tasks and cost of the last cleanup of expired tasks",
+                  response = BuilderMetric.class,
+                  responseContainer = "List",
+                  position = 4)
+    @ApiResponses(value = {
+            @ApiResponse(code = 200, message = "OK"),
+            @ApiResponse(code = 403, message = "User not authorized to call this method"),
+            @ApiResponse(code = 500, message = "Internal Server Error")})
+    @GET
+    @Produces(MediaType.APPLICATION_JSON)
+    @Path("/queue/stats")
+    public List<BuilderMetric> getQueueStats() {
+        return buildQueue.getStats();
+    }
 }
@@ -36,6 +36,16 @@ public interface BuilderMetric {
 
     String MAX_QUEUE_SIZE = "maxQueueSize";
 
+    String CLEANUP_TIME = "cleanupTime";
+
+    String CLEANUP_TASKS = "cleanupTasks";
+
+    String EXPIRED_TASKS = "expiredTasks";
+
+    String REUSED_BUILDS = "reusedBuilds";
+
+    String NOT_REUSED_BUILDS = "notReusedBuilds";
+
 
     String getName();
 
@@ -10,8 +10,422 @@
  *******************************************************************************/
 package org.eclipse.che.api.builder;
 
+import org.eclipse.che.api.builder.dto.BuildOptions;
+import org.eclipse.che.api.builder.dto.BuildRequest;
+import org.eclipse.che.api.builder.dto.BuildTaskDescriptor;
+import org.eclipse.che.api.builder.dto.BuilderDescriptor;
+import org.eclipse.che.api.builder.dto.BuilderMetric;
+import org.eclipse.che.api.builder.dto.BuilderServerLocation;
+import org.eclipse.che.api.builder.dto.BuilderServerRegistration;
+import org.eclipse.che.api.builder.internal.BuilderEvent;
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.notification.EventService;
+import org.eclipse.che.api.core.notification.EventSubscriber;
+import org.eclipse.che.api.core.rest.DefaultHttpJsonRequest;
+import org.eclipse.che.api.core.rest.DefaultHttpJsonResponse;
+import org.eclipse.che.api.core.rest.HttpJsonRequest;
+import org.eclipse.che.api.core.rest.HttpJsonRequestFactory;
+import org.eclipse.che.api.core.rest.ServiceContext;
+import org.eclipse.che.api.core.rest.shared.dto.Link;
+import org.eclipse.che.api.project.shared.dto.BuildersDescriptor;
+import org.eclipse.che.api.project.shared.dto.ProjectDescriptor;
+import org.eclipse.che.api.workspace.shared.dto.WorkspaceDescriptor;
+import org.eclipse.che.commons.env.EnvironmentContext;
+import org.eclipse.che.commons.lang.Pair;
+import org.eclipse.che.commons.user.UserImpl;
+import org.eclipse.che.dto.server.DtoFactory;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import javax.ws.rs.core.UriBuilder;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
 /**
  * @author andrew00x
  */
 public class BuildQueueTest {
+    private static final String BUILDER_URL = "http://localhost:8080/api/internal/builder";
+    private static final String WS_ID       = "my_ws";
+    private static final String PROJECT     = "/my_project";
+
+    private final DtoFactory         dtoFactory = DtoFactory.getInstance();
+    private final List<BuilderEvent> events     = new CopyOnWriteArrayList<>();
+    private final AtomicLong         remoteIds  = new AtomicLong(1);
+
+    private EventService        eventService;
+    private TestBuildQueue      buildQueue;
+    private TestRequestFactory  requestFactory;
+    private ProjectDescriptor   project;
+    private WorkspaceDescriptor workspace;
+    private ServiceContext      serviceContext;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        eventService = new EventService();
+        eventService.subscribe(new EventSubscriber<BuilderEvent>() {
+            @Override
+            public void onEvent(BuilderEvent event) {
+                events.add(event);
+            }
+        });
+        requestFactory = new TestRequestFactory();
+        // waiting time and time of keeping results of build on slave builder are 1 second
+        buildQueue = new TestBuildQueue(1, 60, 1, new LastInUseBuilderSelectionStrategy(), requestFactory, eventService);
+        buildQueue.start();
+        // Scheduler is already started with default period, so expired tasks are checked only when test calls cleanup().
+        buildQueue.cleanerPeriod = 100;
+
+        project = dto(ProjectDescriptor.class).withName(PROJECT.substring(1))
+                                              .withPath(PROJECT)
+                                              .withBuilders(dto(BuildersDescriptor.class).withDefault("maven"));
+        workspace = dto(WorkspaceDescriptor.class).withId(WS_ID).withName(WS_ID);
+        serviceContext = new ServiceContext() {
+            @Override
+            public UriBuilder getServiceUriBuilder() {
+                return UriBuilder.fromUri("http://localhost:8080/api/builder/" + WS_ID);
+            }
+
+            @Override
+            public UriBuilder getBaseUriBuilder() {
+                return UriBuilder.fromUri("http://localhost:8080/api");
+            }
+        };
+        buildQueue.registerBuilderServer(
+                dto(BuilderServerRegistration.class).withBuilderServerLocation(dto(BuilderServerLocation.class).withUrl(BUILDER_URL)));
+        events.clear();
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        buildQueue.stop();
+        EnvironmentContext.reset();
+    }
+
+    @Test
+    public void testRemoveTaskAtWaitingDeadline() throws Exception {
+        final CountDownLatch neverReleased = new CountDownLatch(1);
+        buildQueue.remoteTask = new Callable<RemoteTask>() {
+            @Override
+            public RemoteTask call() throws Exception {
+                neverReleased.await();
+                return null;
+            }
+        };
+        BuildQueueTask task = buildQueue.scheduleBuild(WS_ID, PROJECT, serviceContext, null);
+        assertTrue(task.isWaiting());
+
+        buildQueue.cleanup();
+        // waiting deadline isn't reached yet, task isn't checked
+        assertEquals(buildQueue.getTask(task.getId()), task);
+        assertEquals(getMetric(BuilderMetric.CLEANUP_TASKS), "0");
+
+        TimeUnit.MILLISECONDS.sleep(1200);
+        buildQueue.cleanup();
+        assertFalse(task.isWaiting());
+        assertTrue(task.isCancelled());
+        assertTaskRemoved(task);
+        assertTrue(hasEvent(BuilderEvent.EventType.BUILD_TASK_QUEUE_TIME_EXCEEDED));
+        assertEquals(getMetric(BuilderMetric.QUEUE_SIZE), "0");
+        assertEquals(getMetric(BuilderMetric.CLEANUP_TASKS), "1");
+        assertEquals(getMetric(BuilderMetric.EXPIRED_TASKS), "1");
+    }
+
+    @Test
+    public void testRecheckTaskAtKeepResultDeadline() throws Exception {
+        // results of build are kept on slave builder longer than keep result time
+        final TestRemoteTask remote = new TestRemoteTask(1L, System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(2));
+        buildQueue.remoteTask = new Callable<RemoteTask>() {
+            @Override
+            public RemoteTask call() throws Exception {
+                return remote;
+            }
+        };
+        BuildQueueTask task = buildQueue.scheduleBuild(WS_ID, PROJECT, serviceContext, null);
+        waitForCompletion(task);
+
+        buildQueue.cleanup();
+        // slave builder still has result, task is checked again after cleaner period
+        assertEquals(remote.statusRequests, 1);
+        assertEquals(buildQueue.getTask(task.getId()), task);
+        assertEquals(getMetric(BuilderMetric.CLEANUP_TASKS), "1");
+        assertEquals(getMetric(BuilderMetric.EXPIRED_TASKS), "0");
+
+        buildQueue.cleanup();
+        assertEquals(remote.statusRequests, 1);
+        assertEquals(getMetric(BuilderMetric.CLEANUP_TASKS), "0");
+
+        remote.removed = true;
+        TimeUnit.MILLISECONDS.sleep(200);
+        buildQueue.cleanup();
+        assertEquals(remote.statusRequests, 2);
+        assertTaskRemoved(task);
+        assertEquals(getMetric(BuilderMetric.QUEUE_SIZE), "0");
+        assertEquals(getMetric(BuilderMetric.CLEANUP_TASKS), "1");
+        assertEquals(getMetric(BuilderMetric.EXPIRED_TASKS), "1");
+    }
+
+    @Test
+    public void testKeepTaskUntilKeepResultDeadline() throws Exception {
+        final TestRemoteTask remote = new TestRemoteTask(1L, System.currentTimeMillis());
+        buildQueue.remoteTask = new Callable<RemoteTask>() {
+            @Override
+            public RemoteTask call() throws Exception {
+                return remote;
+            }
+        };
+        BuildQueueTask task = buildQueue.scheduleBuild(WS_ID, PROJECT, serviceContext, null);
+        waitForCompletion(task);
+
+        buildQueue.cleanup();
+        // keep result deadline isn't reached, slave builder isn't asked
+        assertEquals(remote.statusRequests, 0);
+        assertEquals(buildQueue.getTask(task.getId()), task);
+        assertEquals(getMetric(BuilderMetric.QUEUE_SIZE), "1");
+
+        remote.removed = true;
+        TimeUnit.MILLISECONDS.sleep(1200);
+        buildQueue.cleanup();
+        assertEquals(remote.statusRequests, 1);
+        assertTaskRemoved(task);
+        assertEquals(getMetric(BuilderMetric.EXPIRED_TASKS), "1");
+    }
+
+    @Test
+    public void testBuildKeyDoesNotDependOnUser() {
+        BuildRequest request1 = buildRequest("user1");
+        BuildRequest request2 = buildRequest("user2");
+        assertEquals(new BuildQueue.BuildKey(request1), new BuildQueue.BuildKey(request2));
+        assertEquals(new BuildQueue.BuildKey(request1).hashCode(), new BuildQueue.BuildKey(request2).hashCode());
+    }
+
+    @Test
+    public void testBuildKeyDependsOnBuildParameters() {
+        BuildQueue.BuildKey key = new BuildQueue.BuildKey(buildRequest("user1"));
+
+        BuildRequest otherTargets = buildRequest("user1");
+        otherTargets.setTargets(Arrays.asList("clean", "install"));
+        assertNotEquals(new BuildQueue.BuildKey(otherTargets), key);
+
+        BuildRequest otherOptions = buildRequest("user1");
+        otherOptions.setOptions(Collections.singletonMap("-Dmaven.test.failure.ignore", "true"));
+        assertNotEquals(new BuildQueue.BuildKey(otherOptions), key);
+
+        BuildRequest skipTest = buildRequest("user1");
+        skipTest.setSkipTest(true);
+        assertNotEquals(new BuildQueue.BuildKey(skipTest), key);
+    }
+
+    @Test
+    public void testReuseSuccessfulBuildOfOtherUser() throws Exception {
+        setUser("user1");
+        BuildQueueTask first = buildSuccessfully(null);
+
+        setUser("user2");
+        BuildQueueTask second = buildQueue.scheduleBuild(WS_ID, PROJECT, serviceContext, null);
+        waitForCompletion(second);
+        assertEquals(second.getRemoteTask(), first.getRemoteTask());
+        assertEquals(getMetric(BuilderMetric.REUSED_BUILDS), "1");
+        assertEquals(getMetric(BuilderMetric.NOT_REUSED_BUILDS), "1");
+    }
+
+    @Test
+    public void testNotReuseBuildWithOtherParameters() throws Exception {
+        buildSuccessfully(null);
+
+        buildSuccessfully(dto(BuildOptions.class).withTargets(Arrays.asList("clean", "install")));
+        buildSuccessfully(dto(BuildOptions.class).withOptions(Collections.singletonMap("-Dmaven.test.failure.ignore", "true")));
+        buildSuccessfully(dto(BuildOptions.class).withSkipTest(true));
+        assertEquals(getMetric(BuilderMetric.REUSED_BUILDS), "0");
+        assertEquals(getMetric(BuilderMetric.NOT_REUSED_BUILDS), "4");
+
+        // each of builds above is cached with own parameters
+        buildQueue.scheduleBuild(WS_ID, PROJECT, serviceContext, dto(BuildOptions.class).withSkipTest(true));
+        assertEquals(getMetric(BuilderMetric.REUSED_BUILDS), "1");
+        assertEquals(getMetric(BuilderMetric.NOT_REUSED_BUILDS), "4");
+    }
+
+    @Test
+    public void testNotReuseBuildAfterProjectModification() throws Exception {
+        BuildQueueTask first = buildSuccessfully(null);
+
+        project.setModificationDate(System.currentTimeMillis() + 1000);
+        BuildQueueTask second = buildSuccessfully(null);
+        assertNotEquals(second.getRemoteTask(), first.getRemoteTask());
+        assertEquals(getMetric(BuilderMetric.REUSED_BUILDS), "0");
+        assertEquals(getMetric(BuilderMetric.NOT_REUSED_BUILDS), "2");
+    }
+
+    /** Runs build with new remote task and notifies queue about its successful end, so the build may be reused. */
+    private BuildQueueTask buildSuccessfully(BuildOptions options) throws Exception {
+        final TestRemoteTask remote = new TestRemoteTask(remoteIds.getAndIncrement(), System.currentTimeMillis());
+        buildQueue.remoteTask = new Callable<RemoteTask>() {
+            @Override
+            public RemoteTask call() throws Exception {
+                return remote;
+            }
+        };
+        BuildQueueTask task = buildQueue.scheduleBuild(WS_ID, PROJECT, serviceContext, options);
+        waitForCompletion(task);
+        assertEquals(task.getRemoteTask(), remote);
+        eventService.publish(BuilderEvent.doneEvent(task.getId(), WS_ID, PROJECT));
+        return task;
+    }
+
+    private BuildRequest buildRequest(String userId) {
+        BuildRequest request = dto(BuildRequest.class);
+        request.setWorkspace(WS_ID);
+        request.setProject(PROJECT);
+        request.setBuilder("maven");
+        request.setUserId(userId);
+        return request;
+    }
+
+    private void setUser(String name) {
+        EnvironmentContext.getCurrent().setUser(new UserImpl(name, name, null, Collections.<String>emptyList(), false));
+    }
+
+    private void waitForCompletion(BuildQueueTask task) throws InterruptedException {
+        final long deadline = System.currentTimeMillis() + 5000;
+        while (task.isWaiting()) {
+            if (System.currentTimeMillis() > deadline) {
+                fail("Task is not completed");
+            }
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+    }
+
+    private void assertTaskRemoved(BuildQueueTask task) {
+        try {
+            buildQueue.getTask(task.getId());
+            fail("Task must be removed from queue");
+        } catch (NotFoundException expected) {
+        }
+    }
+
+    private boolean hasEvent(BuilderEvent.EventType type) {
+        for (BuilderEvent event : events) {
+            if (event.getType() == type) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String getMetric(String name) {
+        for (BuilderMetric metric : buildQueue.getStats()) {
+            if (name.equals(metric.getName())) {
+                return metric.getValue();
+            }
+        }
+        return null;
+    }
+
+    private <T> T dto(Class<T> type) {
+        return dtoFactory.createDto(type);
+    }
+
+    private class TestBuildQueue extends BuildQueue {
+        Callable<RemoteTask> remoteTask;
+
+        TestBuildQueue(int waitingTime, int maxExecutionTime, int keepResultTime, BuilderSelectionStrategy builderSelector,
+                       HttpJsonRequestFactory requestFactory, EventService eventService) {
+            super(waitingTime, maxExecutionTime, keepResultTime, builderSelector, requestFactory, eventService);
+        }
+
+        @Override
+        RemoteBuilderServer createRemoteBuilderServer(String url) {
+            return new RemoteBuilderServer(url, requestFactory) {
+                @Override
+                public List<RemoteBuilder> getRemoteBuilders() {
+                    return Collections.singletonList(new RemoteBuilder(getBaseUrl(),
+                                                                       dto(BuilderDescriptor.class).withName("maven"),
+                                                                       Collections.<Link>emptyList(),
+                                                                       requestFactory));
+                }
+            };
+        }
+
+        @Override
+        protected Callable<RemoteTask> createTaskFor(BuildRequest request) {
+            return remoteTask;
+        }
+    }
+
+    private class TestRemoteTask extends RemoteTask {
+        final long created;
+
+        volatile boolean removed;
+        volatile int     statusRequests;
+
+        TestRemoteTask(Long id, long created) {
+            super(BUILDER_URL, "maven", id, requestFactory);
+            this.created = created;
+        }
+
+        @Override
+        public long getCreationTime() {
+            return created;
+        }
+
+        @Override
+        public BuildTaskDescriptor getBuildTaskDescriptor() throws NotFoundException {
+            statusRequests++;
+            if (removed) {
+                throw new NotFoundException("Task is removed");
+            }
+            return dto(BuildTaskDescriptor.class).withTaskId(getId())
+                                                 .withStatus(BuildStatus.SUCCESSFUL)
+                                                 .withEndTime(created);
+        }
+    }
+
+    private class TestJsonRequest extends DefaultHttpJsonRequest {
+        TestJsonRequest(String url) {
+            super(url);
+        }
+
+        TestJsonRequest(Link link) {
+            super(link);
+        }
+
+        @Override
+        protected DefaultHttpJsonResponse doRequest(int timeout, String url, String method, Object body,
+                                                    List<Pair<String, ?>> parameters) throws IOException {
+            if (url.contains("/workspace/")) {
+                return new DefaultHttpJsonResponse(dtoFactory.toJson(workspace), 200);
+            }
+            if (url.contains("/project/")) {
+                return new DefaultHttpJsonResponse(dtoFactory.toJson(project), 200);
+            }
+            throw new IOException("Unexpected request " + url);
+        }
+    }
+
+    private class TestRequestFactory implements HttpJsonRequestFactory {
+        @Override
+        public HttpJsonRequest fromUrl(String url) {
+            return new TestJsonRequest(url);
+        }
+
+        @Override
+        public HttpJsonRequest fromLink(Link link) {
+            return new TestJsonRequest(link);
+        }
+    }
 }
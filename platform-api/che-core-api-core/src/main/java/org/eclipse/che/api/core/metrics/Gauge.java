@@ -0,0 +1,21 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.metrics;
+
+/**
+ * Value which is measured at the moment it is read, e.g. size of queue. Implementation must be cheap and thread-safe since it is
+ * read periodically from the thread of metrics sampler.
+ *
+ * @see MetricRegistry#gauge(String, Gauge)
+ */
+public interface Gauge {
+    double getValue();
+}
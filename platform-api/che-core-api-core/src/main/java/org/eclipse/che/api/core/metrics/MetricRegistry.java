@@ -0,0 +1,124 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.metrics;
+
+import org.eclipse.che.api.core.rest.LatencyHistogram;
+
+import javax.inject.Singleton;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Named in-process metrics of components. Component registers its metrics once and updates them without any locking, consumers read
+ * current values of all metrics with {@link #sample()}. Names are dot separated, first part is the name of component, e.g.
+ * {@code event_bus.published}.
+ * <p/>
+ * Metrics of three kinds are supported:
+ * <ul>
+ * <li>{@link Counter} - monotonically increasing count</li>
+ * <li>{@link Gauge} - value which is measured when it is read</li>
+ * <li>{@link LatencyHistogram} - distribution of durations in milliseconds, it is sampled as {@code <name>.count},
+ * {@code <name>.mean}, {@code <name>.p50}, {@code <name>.p99} and {@code <name>.max}</li>
+ * </ul>
+ */
+@Singleton
+public class MetricRegistry {
+    private final ConcurrentMap<String, Object> metrics = new ConcurrentHashMap<>();
+
+    /**
+     * Returns counter with the given name, creates it if it doesn't exist yet.
+     *
+     * @throws IllegalArgumentException
+     *         if metric with the same name but of other kind is registered
+     */
+    public Counter counter(String name) {
+        return get(name, Counter.class);
+    }
+
+    /**
+     * Returns histogram with the given name, creates it if it doesn't exist yet.
+     *
+     * @throws IllegalArgumentException
+     *         if metric with the same name but of other kind is registered
+     */
+    public LatencyHistogram histogram(String name) {
+        return get(name, LatencyHistogram.class);
+    }
+
+    /**
+     * Registers gauge, replaces previously registered gauge with the same name.
+     *
+     * @throws IllegalArgumentException
+     *         if metric with the same name but of other kind is registered
+     */
+    public void gauge(String name, Gauge gauge) {
+        metrics.compute(name, (n, existing) -> {
+            if (existing != null && !(existing instanceof Gauge)) {
+                throw new IllegalArgumentException(String.format("Metric %s isn't a gauge", name));
+            }
+            return gauge;
+        });
+    }
+
+    /** Removes metric with the given name. Does nothing if there is no such metric. */
+    public void remove(String name) {
+        metrics.remove(name);
+    }
+
+    /** Returns sorted names of registered metrics. */
+    public SortedSet<String> getNames() {
+        return new TreeSet<>(metrics.keySet());
+    }
+
+    /** Returns current values of all metrics sorted by name. Histograms are flattened as described in the class description. */
+    public Map<String, Double> sample() {
+        final Map<String, Double> values = new TreeMap<>();
+        for (Map.Entry<String, Object> entry : metrics.entrySet()) {
+            final String name = entry.getKey();
+            final Object metric = entry.getValue();
+            if (metric instanceof Counter) {
+                values.put(name, (double)((Counter)metric).getCount());
+            } else if (metric instanceof Gauge) {
+                final double value = ((Gauge)metric).getValue();
+                if (!Double.isNaN(value)) {
+                    values.put(name, value);
+                }
+            } else {
+                final LatencyHistogram histogram = (LatencyHistogram)metric;
+                values.put(name + ".count", (double)histogram.getCount());
+                values.put(name + ".mean", histogram.getMean());
+                values.put(name + ".p50", (double)histogram.getPercentile(0.5));
+                values.put(name + ".p99", (double)histogram.getPercentile(0.99));
+                values.put(name + ".max", (double)histogram.getMax());
+            }
+        }
+        return values;
+    }
+
+    private <T> T get(String name, Class<T> type) {
+        Object metric = metrics.get(name);
+        if (metric == null) {
+            metric = metrics.computeIfAbsent(name, n -> newInstance(type));
+        }
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException(String.format("Metric %s isn't a %s", name, type.getSimpleName()));
+        }
+        return type.cast(metric);
+    }
+
+    private static Object newInstance(Class<?> type) {
+        return type == Counter.class ? new Counter() : new LatencyHistogram();
+    }
+}
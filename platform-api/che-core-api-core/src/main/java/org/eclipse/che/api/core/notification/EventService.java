@@ -10,13 +10,16 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.notification;
 
+import org.eclipse.che.api.core.metrics.Counter;
+import org.eclipse.che.api.core.metrics.MetricRegistry;
+import org.eclipse.che.api.core.rest.LatencyHistogram;
 import org.eclipse.che.commons.lang.cache.Cache;
-import org.eclipse.che.commons.lang.cache.LoadingValueSLRUCache;
-import org.eclipse.che.commons.lang.cache.SynchronizedCache;
+import org.eclipse.che.commons.lang.cache.ExpiringCache;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
@@ -27,6 +30,7 @@ import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Dispatchers events to listeners. Usage example:
@@ -47,40 +51,51 @@ import java.util.concurrent.CopyOnWriteArraySet;
 public class EventService {
     private static final Logger LOG = LoggerFactory.getLogger(EventService.class);
 
-    private static final int CACHE_NUM  = 1 << 2;
-    private static final int CACHE_MASK = CACHE_NUM - 1;
-    private static final int SEG_SIZE   = 32;
+    private static final int TYPE_CACHE_SIZE = 256;
 
-    private final Cache<Class<?>, Set<Class<?>>>[]              typeCache;
+    private final Cache<Class<?>, Set<Class<?>>>                typeCache;
     private final ConcurrentMap<Class<?>, Set<EventSubscriber>> subscribersByEventType;
 
-    @SuppressWarnings("unchecked")
+    private volatile Counter          published;
+    private volatile Counter          errors;
+    private volatile LatencyHistogram dispatchTime;
+
     public EventService() {
         subscribersByEventType = new ConcurrentHashMap<>();
-        typeCache = new Cache[CACHE_NUM];
-        for (int i = 0; i < CACHE_NUM; i++) {
-            typeCache[i] = new SynchronizedCache<>(new LoadingValueSLRUCache<Class<?>, Set<Class<?>>>(SEG_SIZE, SEG_SIZE) {
-                @Override
-                protected Set<Class<?>> loadValue(Class<?> eventClass) throws RuntimeException {
-                    LinkedList<Class<?>> parents = new LinkedList<>();
-                    Set<Class<?>> classes = new HashSet<>();
-                    parents.add(eventClass);
-                    while (!parents.isEmpty()) {
-                        Class<?> clazz = parents.pop();
-                        classes.add(clazz);
-                        Class<?> parent = clazz.getSuperclass();
-                        if (parent != null) {
-                            parents.add(parent);
-                        }
-                        Class<?>[] interfaces = clazz.getInterfaces();
-                        if (interfaces.length > 0) {
-                            Collections.addAll(parents, interfaces);
-                        }
-                    }
-                    return classes;
-                }
-            });
+        typeCache = ExpiringCache.<Class<?>, Set<Class<?>>>newBuilder()
+                                 .maximumSize(TYPE_CACHE_SIZE)
+                                 .build(EventService::getTypeHierarchy);
+        published = new Counter();
+        errors = new Counter();
+        dispatchTime = new LatencyHistogram();
+    }
+
+    /** Registers number of published events, failures of subscribers and time of dispatching of event in the given registry. */
+    @Inject
+    public void setMetricRegistry(MetricRegistry registry) {
+        published = registry.counter("event_bus.published");
+        errors = registry.counter("event_bus.subscriber_errors");
+        dispatchTime = registry.histogram("event_bus.dispatch_time");
+        registry.gauge("event_bus.event_types", subscribersByEventType::size);
+    }
+
+    private static Set<Class<?>> getTypeHierarchy(Class<?> eventClass) {
+        LinkedList<Class<?>> parents = new LinkedList<>();
+        Set<Class<?>> classes = new HashSet<>();
+        parents.add(eventClass);
+        while (!parents.isEmpty()) {
+            Class<?> clazz = parents.pop();
+            classes.add(clazz);
+            Class<?> parent = clazz.getSuperclass();
+            if (parent != null) {
+                parents.add(parent);
+            }
+            Class<?>[] interfaces = clazz.getInterfaces();
+            if (interfaces.length > 0) {
+                Collections.addAll(parents, interfaces);
+            }
         }
+        return classes;
     }
 
     /**
@@ -94,8 +109,9 @@ public class EventService {
         if (event == null) {
             throw new IllegalArgumentException("Null event.");
         }
+        final long start = System.nanoTime();
         final Class<?> eventClass = event.getClass();
-        for (Class<?> clazz : typeCache[eventClass.hashCode() & CACHE_MASK].get(eventClass)) {
+        for (Class<?> clazz : typeCache.get(eventClass)) {
             final Set<EventSubscriber> eventSubscribers = subscribersByEventType.get(clazz);
             if (eventSubscribers != null && !eventSubscribers.isEmpty()) {
                 for (EventSubscriber eventSubscriber : eventSubscribers) {
@@ -103,11 +119,14 @@ public class EventService {
                         LOG.debug("Publish event {} for {}", event, eventSubscriber);
                         eventSubscriber.onEvent(event);
                     } catch (RuntimeException e) {
+                        errors.increment();
                         LOG.error(e.getMessage(), e);
                     }
                 }
             }
         }
+        published.increment();
+        dispatchTime.record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
     }
 
     /**
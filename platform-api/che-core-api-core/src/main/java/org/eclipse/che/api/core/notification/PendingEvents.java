@@ -0,0 +1,85 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.notification;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded FIFO queue of events which wait for sending to websocket clients. Events are never dropped or reordered while queue is
+ * open: if queue is full publisher waits until consumer takes some events out of it. Once queue is closed it doesn't accept new
+ * events any more, so publishers are never blocked by stopped consumer.
+ */
+final class PendingEvents {
+    /** How often waiting publisher checks whether queue is closed. */
+    private static final long CLOSE_CHECK_PERIOD_MS = 100;
+
+    private final BlockingQueue<Object> queue;
+    private final AtomicLong            delayedEvents;
+
+    private volatile boolean closed;
+
+    PendingEvents(int capacity) {
+        queue = new LinkedBlockingQueue<>(capacity);
+        delayedEvents = new AtomicLong();
+    }
+
+    /**
+     * Adds event to the tail of queue, waits if queue is full.
+     *
+     * @return {@code true} if event is added and {@code false} if queue is closed
+     * @throws InterruptedException
+     *         if publisher is interrupted while waiting for free room in queue
+     */
+    boolean add(Object event) throws InterruptedException {
+        if (closed) {
+            return false;
+        }
+        if (queue.offer(event)) {
+            return true;
+        }
+        delayedEvents.incrementAndGet();
+        while (!closed) {
+            if (queue.offer(event, CLOSE_CHECK_PERIOD_MS, TimeUnit.MILLISECONDS)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Waits for at least one event and moves up to {@code max} events from the head of queue to {@code batch}.
+     *
+     * @throws InterruptedException
+     *         if consumer is interrupted while waiting for event
+     */
+    void takeBatch(List<Object> batch, int max) throws InterruptedException {
+        batch.add(queue.take());
+        queue.drainTo(batch, max - 1);
+    }
+
+    /** Stops accepting of new events and releases waiting publishers. */
+    void close() {
+        closed = true;
+    }
+
+    /** Gets number of events which waited for free room in queue since last call of this method. */
+    long resetDelayedEvents() {
+        return delayedEvents.getAndSet(0);
+    }
+
+    int size() {
+        return queue.size();
+    }
+}
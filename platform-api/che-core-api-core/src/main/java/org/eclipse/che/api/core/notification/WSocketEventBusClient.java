@@ -118,16 +118,24 @@ public final class WSocketEventBusClient {
     }
 
     protected void propagate(Object event) {
-        connections.values().stream().filter(future -> future.isDone()).forEach(future -> {
+        // Serialize event once and only if it is sent to any connection.
+        String message = null;
+        for (Future<WSClient> future : connections.values()) {
+            if (!future.isDone()) {
+                continue;
+            }
             try {
                 final WSClient client = future.get();
                 if (policy != null && policy.shouldPropagated(client.getServerUri(), event)) {
-                    client.send(messageConverter.toString(Messages.clientMessage(event)));
+                    if (message == null) {
+                        message = messageConverter.toString(Messages.clientMessage(event));
+                    }
+                    client.send(message);
                 }
             } catch (Exception e) {
                 LOG.error(e.getMessage(), e);
             }
-        });
+        }
     }
 
     @PreDestroy
@@ -10,21 +10,35 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.notification;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import org.everrest.websockets.WSConnectionContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.eclipse.che.commons.annotation.Nullable;
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.ws.rs.Consumes;
 import javax.ws.rs.POST;
 import javax.ws.rs.Path;
 import javax.ws.rs.core.MediaType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
+ * Sends events of local EventService to websocket clients.
+ * <p/>
+ * Events are not sent in thread that publishes them. Events are put in bounded queue and sent by separate thread which takes all
+ * events accumulated in queue at once, so publishers are not blocked by slow websocket connections. Events are never dropped: if
+ * too many events wait for sending publisher waits for free room in queue, see {@link PendingEvents}. Each event is still sent as
+ * separate websocket message since clients expect one event per channel message.
+ *
  * @author andrew00x
  */
 @Singleton
@@ -32,9 +46,17 @@ import java.util.concurrent.atomic.AtomicBoolean;
 public final class WSocketEventBusServer {
     private static final Logger LOG = LoggerFactory.getLogger(WSocketEventBusServer.class);
 
+    /** Max number of events which wait for sending. Publishers wait if queue is full. */
+    private static final int MAX_PENDING_EVENTS = 10000;
+    /** Max number of events which are taken from queue at once. */
+    private static final int MAX_BATCH_SIZE     = 256;
+
     private final EventService                 eventService;
     private final ServerEventPropagationPolicy policy;
     private final AtomicBoolean                start;
+    private final PendingEvents                pendingEvents;
+
+    private ExecutorService executor;
 
     @Inject
     public WSocketEventBusServer(EventService eventService, @Nullable ServerEventPropagationPolicy policy) {
@@ -42,6 +64,7 @@ public final class WSocketEventBusServer {
         this.policy = policy;
 
         start = new AtomicBoolean(false);
+        pendingEvents = new PendingEvents(MAX_PENDING_EVENTS);
     }
 
     @POST
@@ -61,6 +84,14 @@ public final class WSocketEventBusServer {
     void start() {
         if (start.compareAndSet(false, true)) {
             if (policy != null) {
+                executor = Executors.newSingleThreadExecutor(new ThreadFactoryBuilder().setNameFormat("WSocketEventBusServer")
+                                                                                      .setDaemon(true).build());
+                executor.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        sendEvents();
+                    }
+                });
                 eventService.subscribe(new EventSubscriber<Object>() {
                     @Override
                     public void onEvent(Object event) {
@@ -71,12 +102,47 @@ public final class WSocketEventBusServer {
         }
     }
 
+    @PreDestroy
+    void stop() {
+        if (start.compareAndSet(true, false) && executor != null) {
+            pendingEvents.close();
+            executor.shutdownNow();
+        }
+    }
+
     protected void propagate(Object event) {
         if (policy.shouldPropagated(event)) {
             try {
-                WSConnectionContext.sendMessage(Messages.broadcastMessage(resolveChannelName(event), event));
-            } catch (Exception e) {
-                LOG.error(e.getMessage(), e);
+                if (!pendingEvents.add(event)) {
+                    LOG.debug("Event {} is not sent to websocket clients, server is stopped. ", event);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                LOG.warn("Event {} is not sent to websocket clients, publisher is interrupted. ", event);
+            }
+        }
+    }
+
+    private void sendEvents() {
+        final List<Object> batch = new ArrayList<>(MAX_BATCH_SIZE);
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                pendingEvents.takeBatch(batch, MAX_BATCH_SIZE);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            for (Object event : batch) {
+                try {
+                    WSConnectionContext.sendMessage(Messages.broadcastMessage(resolveChannelName(event), event));
+                } catch (Exception e) {
+                    LOG.error(e.getMessage(), e);
+                }
+            }
+            batch.clear();
+            final long delayed = pendingEvents.resetDelayedEvents();
+            if (delayed > 0) {
+                LOG.warn("Publishers of {} events waited for sending to websocket clients, too many events wait for sending. ", delayed);
             }
         }
     }
@@ -14,6 +14,9 @@ import org.eclipse.che.commons.annotation.Nullable;
 import org.eclipse.che.dto.server.DtoFactory;
 import org.eclipse.che.dto.server.JsonSerializable;
 import org.eclipse.che.dto.shared.DTO;
+import org.eclipse.che.everrest.ETagResponseFilter;
+import org.everrest.core.ApplicationContext;
+import org.everrest.core.impl.ApplicationContextImpl;
 import org.everrest.core.impl.provider.JsonEntityProvider;
 
 import javax.inject.Inject;
@@ -38,12 +41,17 @@ import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
 /**
  * Implementation of {@link MessageBodyReader} and {@link MessageBodyWriter} needed for binding JSON content to and from Java Objects.
+ * <p/>
+ * DTOs which implement {@link org.eclipse.che.dto.shared.CompactJsonDto} are written in compact (array based) form if client accepts
+ * media type with parameter {@code format=compact}, see {@link #APPLICATION_COMPACT_JSON}. Request body is read in compact form if its
+ * content type has the same parameter. All other DTOs are always written and read in regular form.
  *
  * @author andrew00x
  * @see DTO
@@ -54,6 +62,12 @@ import java.util.Set;
 @Produces({MediaType.APPLICATION_JSON})
 @Consumes({MediaType.APPLICATION_JSON})
 public class CodenvyJsonProvider<T> implements MessageBodyReader<T>, MessageBodyWriter<T> {
+    /** Name of media type parameter which selects form of JSON representation of DTOs. */
+    public static final String FORMAT_PARAMETER         = "format";
+    /** Value of {@link #FORMAT_PARAMETER} which selects compact (array based) form of DTOs. */
+    public static final String COMPACT_FORMAT           = "compact";
+    public static final String APPLICATION_COMPACT_JSON = MediaType.APPLICATION_JSON + ";" + FORMAT_PARAMETER + "=" + COMPACT_FORMAT;
+
     private Set<Class> ignoredClasses;
     private final JsonEntityProvider delegate = new JsonEntityProvider<>();
 
@@ -80,10 +94,32 @@ public class CodenvyJsonProvider<T> implements MessageBodyReader<T>, MessageBody
                         MultivaluedMap<String, Object> httpHeaders, OutputStream entityStream) throws IOException, WebApplicationException {
         // Add Cache-Control before start write body.
         httpHeaders.putSingle(HttpHeaders.CACHE_CONTROL, "public, no-cache, no-store, no-transform");
-        if (t instanceof JsonSerializable) {
+        if (isCompactFormat(mediaType) || isCompactFormatAccepted()) {
+            final Object dto = t instanceof Collection ? firstItem((Collection<?>)t) : t;
+            if (dto != null && DtoFactory.isCompactJsonDto(dto.getClass())
+                && (t instanceof JsonSerializable || isDtoCollection((Collection<?>)t))) {
+                httpHeaders.putSingle(HttpHeaders.CONTENT_TYPE, APPLICATION_COMPACT_JSON);
+                try (Writer w = new OutputStreamWriter(entityStream, StandardCharsets.UTF_8)) {
+                    DtoFactory.getInstance().toCompactJson(t, w);
+                }
+                return;
+            }
+        }
+        final String json = getEntityJson(t);
+        if (json != null) {
+            // JSON is already computed by ETagResponseFilter.
+            try (Writer w = new OutputStreamWriter(entityStream, StandardCharsets.UTF_8)) {
+                w.write(json);
+            }
+        } else if (t instanceof JsonSerializable) {
             try (Writer w = new OutputStreamWriter(entityStream, StandardCharsets.UTF_8)) {
                 ((JsonSerializable)t).toJson(w);
             }
+        } else if (t instanceof Collection && isDtoCollection((Collection<?>)t)) {
+            // Write list of DTOs straight to the entity stream with the same Gson that serializes single DTOs.
+            try (Writer w = new OutputStreamWriter(entityStream, StandardCharsets.UTF_8)) {
+                DtoFactory.getInstance().getGson().toJson(t, w);
+            }
         } else {
             delegate.writeTo(t, type, genericType, annotations, mediaType, httpHeaders, entityStream);
         }
@@ -100,7 +136,11 @@ public class CodenvyJsonProvider<T> implements MessageBodyReader<T>, MessageBody
     @Override
     public T readFrom(Class<T> type, Type genericType, Annotation[] annotations, MediaType mediaType,
                       MultivaluedMap<String, String> httpHeaders, InputStream entityStream) throws IOException, WebApplicationException {
+        final boolean compact = isCompactFormat(mediaType);
         if (type.isAnnotationPresent(DTO.class)) {
+            if (compact) {
+                return DtoFactory.getInstance().createDtoFromCompactJson(entityStream, type);
+            }
             return DtoFactory.getInstance().createDtoFromJson(entityStream, type);
         } else if (type.isAssignableFrom(List.class) && genericType instanceof ParameterizedType) {
             ParameterizedType parameterizedType = (ParameterizedType)genericType;
@@ -108,6 +148,9 @@ public class CodenvyJsonProvider<T> implements MessageBodyReader<T>, MessageBody
             if (elementType instanceof Class) {
                 Class elementClass = (Class)elementType;
                 if (elementClass.isAnnotationPresent(DTO.class)) {
+                    if (compact) {
+                        return (T)DtoFactory.getInstance().createListDtoFromCompactJson(entityStream, elementClass);
+                    }
                     return (T)DtoFactory.getInstance().createListDtoFromJson(entityStream, elementClass);
                 }
             }
@@ -115,6 +158,48 @@ public class CodenvyJsonProvider<T> implements MessageBodyReader<T>, MessageBody
         return (T)delegate.readFrom(type, genericType, annotations, mediaType, httpHeaders, entityStream);
     }
 
+    private static boolean isCompactFormat(MediaType mediaType) {
+        return mediaType != null && COMPACT_FORMAT.equalsIgnoreCase(mediaType.getParameters().get(FORMAT_PARAMETER));
+    }
+
+    private static boolean isCompactFormatAccepted() {
+        final ApplicationContext context = ApplicationContextImpl.getCurrent();
+        if (context == null) {
+            return false;
+        }
+        for (MediaType accepted : context.getHttpHeaders().getAcceptableMediaTypes()) {
+            if (isCompactFormat(accepted)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String getEntityJson(Object entity) {
+        final ApplicationContext context = ApplicationContextImpl.getCurrent();
+        if (context == null) {
+            return null;
+        }
+        final Object entityJson = context.getAttributes().get(ETagResponseFilter.ENTITY_JSON_ATTRIBUTE);
+        return entityJson instanceof ETagResponseFilter.EntityJson ? ((ETagResponseFilter.EntityJson)entityJson).getJson(entity) : null;
+    }
+
+    private static Object firstItem(Collection<?> collection) {
+        return collection.isEmpty() ? null : collection.iterator().next();
+    }
+
+    private boolean isDtoCollection(Collection<?> collection) {
+        if (collection.isEmpty()) {
+            return false;
+        }
+        for (Object item : collection) {
+            if (!(item instanceof JsonSerializable) || ignoredClasses.contains(item.getClass())) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Get Set of classes that we never try to serialize or deserialize. Returned Set is mutable and new classes may be added in ignored
      * Set.
@@ -10,8 +10,6 @@
  *******************************************************************************/
 package org.eclipse.che.api.core.rest;
 
-import com.google.common.io.CharStreams;
-
 import org.eclipse.che.api.core.BadRequestException;
 import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.ForbiddenException;
@@ -38,11 +36,13 @@ import javax.ws.rs.core.UriBuilder;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.Reader;
+import java.io.Writer;
 import java.net.HttpURLConnection;
 import java.net.URL;
 import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
@@ -64,6 +64,8 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
  
     private static final int      DEFAULT_QUERY_PARAMS_LIST_SIZE = 5;
     private static final Object[] EMPTY_ARRAY                    = new Object[0];
+    /** Max initial size of buffer for response body, bigger bodies grow buffer while they are read. */
+    private static final int      MAX_INITIAL_BODY_BUFFER_SIZE   = 64 * 1024;
 
     private final String url;
 
@@ -199,9 +201,8 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
             }
             url = ub.build().toString();
         }
-        final HttpURLConnection conn = (HttpURLConnection)new URL(url).openConnection();
-        conn.setConnectTimeout(timeout > 0 ? timeout : 60000);
-        conn.setReadTimeout(timeout > 0 ? timeout : 60000);
+        final HttpURLConnection conn = openConnection(url, timeout);
+        boolean consumed = false;
         try {
             conn.setRequestMethod(method);
             //drop a hint for server side that we want to receive application/json
@@ -218,8 +219,8 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
                     conn.setRequestProperty("X-HTTP-Method-Override", HttpMethod.DELETE);
                 }
 
-                try (OutputStream output = conn.getOutputStream()) {
-                    output.write(DtoFactory.getInstance().toJson(body).getBytes());
+                try (Writer output = new OutputStreamWriter(conn.getOutputStream(), StandardCharsets.UTF_8)) {
+                    DtoFactory.getInstance().toJson(body, output);
                 }
             }
 
@@ -229,10 +230,8 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
                 if (in == null) {
                     in = conn.getInputStream();
                 }
-                final String str;
-                try (Reader reader = new InputStreamReader(in)) {
-                    str = CharStreams.toString(reader);
-                }
+                final String str = readBody(conn, in);
+                consumed = true;
                 final String contentType = conn.getContentType();
                 if (contentType != null && contentType.startsWith(MediaType.APPLICATION_JSON)) {
                     final ServiceError serviceError = DtoFactory.getInstance().createDtoFromJson(str, ServiceError.class);
@@ -262,12 +261,57 @@ public class DefaultHttpJsonRequest implements HttpJsonRequest {
                 throw new IOException(conn.getResponseMessage() + " [ Content-Type: " + contentType + " ]");
             }
 
-            try (Reader reader = new InputStreamReader(conn.getInputStream())) {
-                return new DefaultHttpJsonResponse(CharStreams.toString(reader), responseCode);
-            }
+            final DefaultHttpJsonResponse response = new DefaultHttpJsonResponse(readBody(conn, conn.getInputStream()), responseCode);
+            consumed = true;
+            return response;
         } finally {
-            conn.disconnect();
+            releaseConnection(conn, consumed);
+        }
+    }
+
+    /**
+     * Opens connection to the given {@code url}.
+     *
+     * @param url
+     *         request url
+     * @param timeout
+     *         connect and read timeout, used only if it is greater than 0, otherwise 60 seconds timeout is used
+     */
+    protected HttpURLConnection openConnection(String url, int timeout) throws IOException {
+        final HttpURLConnection conn = (HttpURLConnection)new URL(url).openConnection();
+        conn.setConnectTimeout(timeout > 0 ? timeout : 60000);
+        conn.setReadTimeout(timeout > 0 ? timeout : 60000);
+        return conn;
+    }
+
+    /**
+     * Releases connection after request. This implementation always closes underlying socket.
+     *
+     * @param conn
+     *         connection to release
+     * @param consumed
+     *         {@code true} if response body was read fully, so connection may be reused for next request to the same host
+     */
+    protected void releaseConnection(HttpURLConnection conn, boolean consumed) {
+        conn.disconnect();
+    }
+
+    /**
+     * Reads whole response body in a single pass. Buffer is sized with Content-Length of response if server provides it, but not
+     * bigger than {@link #MAX_INITIAL_BODY_BUFFER_SIZE}, so wrong or huge Content-Length doesn't cause big allocation. Content is
+     * decoded in "UTF-8".
+     */
+    private static String readBody(HttpURLConnection conn, InputStream in) throws IOException {
+        final int length = conn.getContentLength();
+        final StringBuilder body = new StringBuilder(length > 0 ? Math.min(length, MAX_INITIAL_BODY_BUFFER_SIZE) : 1024);
+        final char[] buffer = new char[8192];
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            int r;
+            while ((r = reader.read(buffer)) != -1) {
+                body.append(buffer, 0, r);
+            }
         }
+        return body.toString();
     }
 
     private String getAuthenticationToken() {
@@ -0,0 +1,106 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free histogram of latencies in milliseconds, e.g. of requests.
+ * <p/>
+ * Latencies are counted in buckets with upper bounds 1, 2, 4, ... 65536 ms, last bucket counts all greater
+ * latencies. So percentiles are approximated with upper bound of the bucket they fall in.
+ *
+ * @see PooledHttpJsonRequestFactory#getLatencyHistogram(String)
+ * @see org.eclipse.che.api.core.metrics.MetricRegistry#histogram(String)
+ */
+public class LatencyHistogram {
+    static final int BUCKETS = 18;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong      count   = new AtomicLong();
+    private final AtomicLong      total   = new AtomicLong();
+    private final AtomicLong      max     = new AtomicLong();
+
+    /** Records single latency value. Negative values are counted as 0. */
+    public void record(long millis) {
+        if (millis < 0) {
+            millis = 0;
+        }
+        buckets.incrementAndGet(bucketOf(millis));
+        count.incrementAndGet();
+        total.addAndGet(millis);
+        long current;
+        while (millis > (current = max.get()) && !max.compareAndSet(current, millis)) {
+            // retry
+        }
+    }
+
+    /** Returns number of recorded values. */
+    public long getCount() {
+        return count.get();
+    }
+
+    /** Returns max recorded latency in milliseconds. */
+    public long getMax() {
+        return max.get();
+    }
+
+    /** Returns mean latency in milliseconds or 0 if nothing is recorded. */
+    public double getMean() {
+        final long n = count.get();
+        return n == 0 ? 0 : (double)total.get() / n;
+    }
+
+    /**
+     * Returns approximate latency in milliseconds which is not exceeded by the given fraction of recorded values.
+     *
+     * @param fraction
+     *         fraction of values in range (0, 1], e.g. 0.99 for 99th percentile
+     */
+    public long getPercentile(double fraction) {
+        if (fraction <= 0 || fraction > 1) {
+            throw new IllegalArgumentException("Fraction must be in range (0, 1]");
+        }
+        final long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+        final long threshold = (long)Math.ceil(n * fraction);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS - 1; i++) {
+            seen += buckets.get(i);
+            if (seen >= threshold) {
+                return Math.min(1L << i, getMax());
+            }
+        }
+        return getMax();
+    }
+
+    private static int bucketOf(long millis) {
+        if (millis <= 1) {
+            return 0;
+        }
+        // index of the smallest power of two which is greater or equal to millis
+        return Math.min(64 - Long.numberOfLeadingZeros(millis - 1), BUCKETS - 1);
+    }
+
+    @Override
+    public String toString() {
+        return "LatencyHistogram{" +
+               "count=" + getCount() +
+               ", mean=" + getMean() +
+               ", p50=" + getPercentile(0.5) +
+               ", p99=" + getPercentile(0.99) +
+               ", max=" + getMax() +
+               '}';
+    }
+}
@@ -0,0 +1,214 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import org.eclipse.che.api.core.BadRequestException;
+import org.eclipse.che.api.core.ConflictException;
+import org.eclipse.che.api.core.ForbiddenException;
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.api.core.ServerException;
+import org.eclipse.che.api.core.UnauthorizedException;
+import org.eclipse.che.api.core.metrics.MetricRegistry;
+import org.eclipse.che.api.core.rest.shared.dto.Link;
+import org.eclipse.che.commons.env.EnvironmentContext;
+import org.eclipse.che.commons.lang.Pair;
+import org.eclipse.che.commons.lang.concurrent.ThreadLocalPropagateContext;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.inject.Singleton;
+import javax.validation.constraints.NotNull;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Creates {@link HttpJsonRequest} instances which reuse persistent (keep-alive) connections.
+ * <p/>
+ * Unlike {@link DefaultHttpJsonRequest}, requests created by this factory don't close socket after response is read, so JDK keeps
+ * it in its keep-alive cache and next request to the same host reuses it. Size of the cache per host is controlled with standard
+ * {@code http.maxConnections} system property. Number of concurrent requests to a single host is limited with {@link
+ * #MAX_CONNECTIONS_PER_HOST}, requests over the limit wait for a free slot. Latency of requests is recorded per host, see {@link
+ * #getLatencyHistogram(String)}.
+ * <p/>
+ * To use this implementation bind it instead of default one:
+ * <pre>{@code
+ *     bind(HttpJsonRequestFactory.class).to(PooledHttpJsonRequestFactory.class);
+ * }</pre>
+ *
+ * @see #requestAsync(HttpJsonRequest)
+ */
+@Singleton
+public class PooledHttpJsonRequestFactory implements HttpJsonRequestFactory {
+    public static final String MAX_CONNECTIONS_PER_HOST = "che.http.client.max_connections_per_host";
+    public static final String ASYNC_THREADS            = "che.http.client.async_threads";
+
+    private final int                                     maxConnectionsPerHost;
+    private final ConcurrentMap<String, Semaphore>        hostPermits;
+    private final ConcurrentMap<String, LatencyHistogram> latencies;
+    private final ExecutorService                         executor;
+
+    private volatile MetricRegistry metricRegistry;
+
+    @Inject
+    public PooledHttpJsonRequestFactory(@Named(MAX_CONNECTIONS_PER_HOST) int maxConnectionsPerHost,
+                                        @Named(ASYNC_THREADS) int asyncThreads) {
+        if (maxConnectionsPerHost < 1) {
+            throw new IllegalArgumentException("Max number of connections per host must be greater than 0");
+        }
+        if (asyncThreads < 1) {
+            throw new IllegalArgumentException("Number of threads for async requests must be greater than 0");
+        }
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.hostPermits = new ConcurrentHashMap<>();
+        this.latencies = new ConcurrentHashMap<>();
+        this.executor = Executors.newFixedThreadPool(asyncThreads, new ThreadFactoryBuilder().setNameFormat("HttpJsonRequest-%d")
+                                                                                            .setDaemon(true)
+                                                                                            .build());
+    }
+
+    @Override
+    public HttpJsonRequest fromUrl(@NotNull String url) {
+        return new PooledHttpJsonRequest(url);
+    }
+
+    @Override
+    public HttpJsonRequest fromLink(@NotNull Link link) {
+        return new PooledHttpJsonRequest(link);
+    }
+
+    /**
+     * Performs {@code request} asynchronously. {@link EnvironmentContext} of the caller is propagated to the thread which performs
+     * request, so request is authorized with token of the current user.
+     * <p/>
+     * Request must not be modified until returned future is done.
+     *
+     * @param request
+     *         request to perform
+     * @return future of response, {@link Future#get()} throws {@link java.util.concurrent.ExecutionException} with exception thrown by
+     * {@link HttpJsonRequest#request()} as cause
+     * @throws NullPointerException
+     *         when request is null
+     */
+    public Future<HttpJsonResponse> requestAsync(@NotNull HttpJsonRequest request) {
+        requireNonNull(request, "Required non-null request");
+        return executor.submit(ThreadLocalPropagateContext.wrap(request::request));
+    }
+
+    /** Registers latencies of requests as {@code http_client.<host>} histograms in the given registry. */
+    @Inject
+    public void setMetricRegistry(MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
+    /** Returns latencies of requests to the given host or empty histogram if there were no requests to the host. */
+    public LatencyHistogram getLatencyHistogram(String host) {
+        final LatencyHistogram histogram = latencies.get(host);
+        return histogram == null ? new LatencyHistogram() : histogram;
+    }
+
+    /** Returns latencies of requests by host. */
+    public Map<String, LatencyHistogram> getLatencyHistograms() {
+        return Collections.unmodifiableMap(new HashMap<>(latencies));
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    private LatencyHistogram newHistogram(String host) {
+        final MetricRegistry registry = metricRegistry;
+        return registry == null ? new LatencyHistogram() : registry.histogram("http_client." + host);
+    }
+
+    private static String hostOf(String url) {
+        final URI uri;
+        try {
+            uri = new URI(url);
+        } catch (URISyntaxException e) {
+            return url;
+        }
+        if (uri.getHost() == null) {
+            return url;
+        }
+        return uri.getPort() == -1 ? uri.getHost() : uri.getHost() + ':' + uri.getPort();
+    }
+
+    private class PooledHttpJsonRequest extends DefaultHttpJsonRequest {
+        PooledHttpJsonRequest(String url) {
+            super(url);
+        }
+
+        PooledHttpJsonRequest(Link link) {
+            super(link);
+        }
+
+        @Override
+        protected DefaultHttpJsonResponse doRequest(int timeout,
+                                                    String url,
+                                                    String method,
+                                                    Object body,
+                                                    List<Pair<String, ?>> parameters) throws IOException,
+                                                                                             ServerException,
+                                                                                             ForbiddenException,
+                                                                                             NotFoundException,
+                                                                                             UnauthorizedException,
+                                                                                             ConflictException,
+                                                                                             BadRequestException {
+            final String host = hostOf(url);
+            final Semaphore permits = hostPermits.computeIfAbsent(host, h -> new Semaphore(maxConnectionsPerHost, true));
+            try {
+                if (!permits.tryAcquire(timeout > 0 ? timeout : 60000, TimeUnit.MILLISECONDS)) {
+                    throw new IOException(String.format("Timeout waiting for free connection to %s", host));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException(String.format("Interrupted while waiting for free connection to %s", host));
+            }
+            final long start = System.nanoTime();
+            try {
+                return super.doRequest(timeout, url, method, body, parameters);
+            } finally {
+                permits.release();
+                latencies.computeIfAbsent(host, PooledHttpJsonRequestFactory.this::newHistogram)
+                         .record(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        }
+
+        @Override
+        protected void releaseConnection(HttpURLConnection conn, boolean consumed) {
+            // Connection whose response is read fully goes back to keep-alive cache,
+            // otherwise close it since it can't be reused for the next request.
+            if (!consumed) {
+                conn.disconnect();
+            }
+        }
+    }
+}
@@ -0,0 +1,219 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+import org.eclipse.che.api.core.NotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Removes expired tasks from queue of tasks which are processed by remote servers, e.g. queue of builds or queue of runs. Task is expired
+ * if it waits for processing too long or if remote server doesn't keep result of task any more.
+ * <p/>
+ * Cleaner never scans all tasks. Every task has time when it should be checked and cleaner gets only tasks which time is over. Task
+ * that isn't expired yet gets new time, it is its waiting deadline or deadline of its result, and is checked again at that time. If
+ * deadline of result is over but remote server still has result, task is checked again after {@link #getRecheckPeriod()}.
+ *
+ * @param <T>
+ *         type of task of queue
+ * @param <R>
+ *         type of remote task
+ */
+public abstract class ExpiredTaskCleaner<T, R> {
+    private static final Logger LOG = LoggerFactory.getLogger(ExpiredTaskCleaner.class);
+
+    private final ConcurrentMap<Long, T> tasks;
+    private final DelayQueue<Expiration> expirations;
+    private final AtomicLong             expiredTasks;
+
+    /** Duration of the last cleanup in milliseconds. */
+    private volatile long lastCleanupTime;
+    /** Number of tasks checked by the last cleanup. */
+    private volatile int  lastCleanupTasks;
+
+    /**
+     * @param tasks
+     *         tasks of queue, cleaner removes expired tasks from this map
+     */
+    protected ExpiredTaskCleaner(ConcurrentMap<Long, T> tasks) {
+        this.tasks = tasks;
+        expirations = new DelayQueue<>();
+        expiredTasks = new AtomicLong();
+    }
+
+    /** Schedules check of task with specified id at specified time in milliseconds. */
+    public void schedule(Long id, long time) {
+        expirations.add(new Expiration(id, time));
+    }
+
+    /** Removes all scheduled checks. */
+    public void clear() {
+        expirations.clear();
+    }
+
+    /** Gets duration of the last cleanup in milliseconds. */
+    public long getLastCleanupTime() {
+        return lastCleanupTime;
+    }
+
+    /** Gets number of tasks checked by the last cleanup. */
+    public int getLastCleanupTasks() {
+        return lastCleanupTasks;
+    }
+
+    /** Gets number of expired tasks removed by this cleaner. */
+    public long getExpiredTasks() {
+        return expiredTasks.get();
+    }
+
+    /** Checks tasks which time is over and removes expired tasks. */
+    public void cleanup() {
+        final long start = System.currentTimeMillis();
+        final Set<Long> expired = new LinkedHashSet<>();
+        for (Expiration expiration; (expiration = expirations.poll()) != null; ) {
+            expired.add(expiration.taskId);
+        }
+        int num = 0;
+        int waitingNum = 0;
+        for (Long id : expired) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            final T task = tasks.get(id);
+            if (task == null) {
+                continue;
+            }
+            final long now = System.currentTimeMillis();
+            if (isWaiting(task)) {
+                final long waitingDeadline = getWaitingDeadline(task);
+                final boolean expiredWaiting;
+                try {
+                    expiredWaiting = waitingDeadline < now || isStopped(task);
+                } catch (Exception e) {
+                    LOG.warn(e.getMessage(), e);
+                    schedule(id, now + getRecheckPeriod());
+                    continue;
+                }
+                if (expiredWaiting) {
+                    try {
+                        cancel(task);
+                    } catch (Exception e) {
+                        LOG.warn(e.getMessage(), e);
+                    }
+                    tasks.remove(id);
+                    waitingNum++;
+                    num++;
+                } else {
+                    schedule(id, waitingDeadline);
+                }
+            } else {
+                R remote = null;
+                try {
+                    remote = getRemoteTask(task);
+                } catch (Exception e) {
+                    LOG.warn(e.getMessage(), e);
+                }
+                if (remote == null) {
+                    tasks.remove(id);
+                    onRemoteTaskMissed(task);
+                    num++;
+                } else {
+                    final long resultDeadline = getResultDeadline(task, remote);
+                    if (resultDeadline < now) {
+                        try {
+                            checkRemoteTask(remote);
+                            // Result is still available on remote server, check it again later.
+                            schedule(id, now + getRecheckPeriod());
+                        } catch (NotFoundException e) {
+                            tasks.remove(id);
+                            num++;
+                        } catch (Exception e) {
+                            LOG.warn(e.getMessage(), e);
+                            tasks.remove(id);
+                            num++;
+                        }
+                    } else {
+                        schedule(id, resultDeadline);
+                    }
+                }
+            }
+        }
+        expiredTasks.addAndGet(num);
+        lastCleanupTasks = expired.size();
+        lastCleanupTime = System.currentTimeMillis() - start;
+        if (num > 0) {
+            LOG.debug("Remove {} expired tasks, {} of them were waiting for processing", num, waitingNum);
+        }
+    }
+
+    /** Gets period in milliseconds of checking of task which result is still available on remote server after its deadline. */
+    protected abstract long getRecheckPeriod();
+
+    /** Checks whether task waits for processing. */
+    protected abstract boolean isWaiting(T task);
+
+    /** Gets time in milliseconds after which waiting task is cancelled. */
+    protected abstract long getWaitingDeadline(T task);
+
+    /** Checks whether waiting task is stopped by user and may be cancelled before its waiting deadline. */
+    protected boolean isStopped(T task) throws Exception {
+        return false;
+    }
+
+    /** Cancels task which waits for processing too long. */
+    protected abstract void cancel(T task) throws Exception;
+
+    /** Gets remote task or {@code null} if task isn't processed by remote server. */
+    protected abstract R getRemoteTask(T task) throws Exception;
+
+    /** Gets time in milliseconds after which remote server may remove result of task. */
+    protected abstract long getResultDeadline(T task, R remote);
+
+    /**
+     * Checks whether remote server still has result of task.
+     *
+     * @throws NotFoundException
+     *         if remote server doesn't have result of task any more
+     */
+    protected abstract void checkRemoteTask(R remote) throws Exception;
+
+    /** Notified when task is removed because it isn't processed by remote server. */
+    protected void onRemoteTaskMissed(T task) {
+    }
+
+    private static class Expiration implements Delayed {
+        final Long taskId;
+        final long time;
+
+        Expiration(Long taskId, long time) {
+            this.taskId = taskId;
+            this.time = time;
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(time - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed o) {
+            return Long.compare(time, ((Expiration)o).time);
+        }
+    }
+}
@@ -24,11 +24,13 @@ import org.everrest.core.impl.ApplicationContextImpl;
 
 import javax.ws.rs.HttpMethod;
 import javax.ws.rs.core.EntityTag;
+import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 import javax.ws.rs.core.Request;
 import javax.ws.rs.core.Response;
 
 import java.nio.charset.Charset;
+import java.util.Collections;
 import java.util.List;
 
 import static org.eclipse.che.everrest.ETagResponseFilter.EntityType.JSON_SERIALIZABLE;
@@ -39,11 +41,37 @@ import static org.eclipse.che.everrest.ETagResponseFilter.EntityType.UNKNOWN;
  * Filter implementing {@link org.everrest.core.ResponseFilter} in order to generate ETag for clients that want to use conditional
  * requests.
  * It is applying on GET method and JSON content type only.
+ * <p/>
+ * If resource already sets ETag to the response, e.g. from modification time or version of entity, this ETag is used as is and entity
+ * isn't hashed. Otherwise ETag is MD5 hash of JSON representation of entity. JSON computed for hashing of {@link JsonSerializable}
+ * entity (or list of them) is saved in attribute {@link #ENTITY_JSON_ATTRIBUTE} of {@link ApplicationContext}, so JSON provider may
+ * write it to the response without serializing entity once again.
  *
  * @author Florent Benoit
  */
 @Filter
 public class ETagResponseFilter implements ResponseFilter {
+    /**
+     * Name of attribute of {@link ApplicationContext} with JSON representation of entity of response, value of attribute is {@link
+     * EntityJson}.
+     */
+    public static final String ENTITY_JSON_ATTRIBUTE = ETagResponseFilter.class.getName() + ".entityJson";
+
+    /** JSON representation of entity of response. */
+    public static class EntityJson {
+        private final Object entity;
+        private final String json;
+
+        EntityJson(Object entity, String json) {
+            this.entity = entity;
+            this.json = json;
+        }
+
+        /** Gets JSON if it was computed for the given entity or {@code null} otherwise. */
+        public String getJson(Object entity) {
+            return this.entity == entity ? json : null;
+        }
+    }
 
     public enum EntityType {
         JSON_SERIALIZABLE,
@@ -51,6 +79,13 @@ public class ETagResponseFilter implements ResponseFilter {
         UNKNOWN
     }
 
+    /** {@code true} if subclass overrides {@link #addHash(Object, Hasher)}, then this method is used for hashing of every entity. */
+    private final boolean customHash;
+
+    public ETagResponseFilter() {
+        customHash = overridesAddHash(getClass());
+    }
+
     /**
      * Filter the given container response
      *
@@ -81,22 +116,71 @@ public class ETagResponseFilter implements ResponseFilter {
             return;
         }
 
+        // resource provides own ETag, no need to hash entity
+        Object existingTag = containerResponse.getHttpHeaders().getFirst(HttpHeaders.ETAG);
+        if (existingTag != null) {
+            EntityTag entityTag = existingTag instanceof EntityTag ? (EntityTag)existingTag : EntityTag.valueOf(existingTag.toString());
+            Response.ResponseBuilder builder = request.evaluatePreconditions(entityTag);
+            if (builder != null) {
+                containerResponse.setResponse(builder.tag(entityTag).build());
+            }
+            return;
+        }
+
         // calculate hash with MD5
         HashFunction hashFunction = Hashing.md5();
         Hasher hasher = hashFunction.newHasher();
-        boolean hashingSuccess = true;
+        boolean hashingSuccess;
+        // JSON of entity, collected only if entity is JsonSerializable or list of them
+        StringBuilder json = null;
 
-        // Manage a list
-        if (entity instanceof List) {
-            List<?> entities = (List)entity;
-            for (Object simpleEntity : entities) {
+        if (customHash) {
+            hashingSuccess = true;
+            for (Object simpleEntity : entity instanceof List ? (List<?>)entity : Collections.singletonList(entity)) {
                 hashingSuccess = addHash(simpleEntity, hasher);
                 if (!hashingSuccess) {
                     break;
                 }
             }
+        } else if (entity instanceof List) {
+            // Manage a list
+            List<?> entities = (List)entity;
+            hashingSuccess = true;
+            if (!entities.isEmpty()) {
+                json = new StringBuilder().append('[');
+            }
+            for (Object simpleEntity : entities) {
+                EntityType entityType = getElementType(simpleEntity);
+                String elementJson = getJsonForHash(simpleEntity, entityType);
+                if (elementJson == null) {
+                    hashingSuccess = false;
+                    break;
+                }
+                hasher.putString(elementJson, Charset.defaultCharset());
+                if (json != null) {
+                    if (entityType == JSON_SERIALIZABLE) {
+                        if (json.length() > 1) {
+                            json.append(',');
+                        }
+                        json.append(elementJson);
+                    } else {
+                        json = null;
+                    }
+                }
+            }
+            if (json != null) {
+                json.append(']');
+            }
         } else {
-            hashingSuccess = addHash(entity, hasher);
+            EntityType entityType = getElementType(entity);
+            String entityJson = getJsonForHash(entity, entityType);
+            hashingSuccess = entityJson != null;
+            if (hashingSuccess) {
+                hasher.putString(entityJson, Charset.defaultCharset());
+                if (entityType == JSON_SERIALIZABLE) {
+                    json = new StringBuilder(entityJson);
+                }
+            }
         }
 
         // if we're able to handle the hash
@@ -108,6 +192,11 @@ public class ETagResponseFilter implements ResponseFilter {
             // Create the entity tag
             EntityTag entityTag = new EntityTag(hashCode.toString());
 
+            // keep JSON of entity to avoid serialization of it when body is written
+            if (json != null) {
+                applicationContext.getAttributes().put(ENTITY_JSON_ATTRIBUTE, new EntityJson(entity, json.toString()));
+            }
+
             // Check the etag
             Response.ResponseBuilder builder = request.evaluatePreconditions(entityTag);
 
@@ -125,6 +214,9 @@ public class ETagResponseFilter implements ResponseFilter {
 
     /**
      * Helper method to add entity to hash. If there is an invalid entity type it will return false
+     * <p/>
+     * If this method is overridden it is used for hashing of every entity (or every element of list) and JSON of entity isn't saved in
+     * attribute {@link #ENTITY_JSON_ATTRIBUTE}.
      *
      * @param entity
      *         the entity object to analyze and extract JSON for hashing it
@@ -132,24 +224,39 @@ public class ETagResponseFilter implements ResponseFilter {
      *         the hasher used to add the hashes
      */
     protected boolean addHash(Object entity, Hasher hasher) {
-        // get entity type
-        EntityType entityType = getElementType(entity);
+        String json = getJsonForHash(entity, getElementType(entity));
+        if (json == null) {
+            return false;
+        }
+        hasher.putString(json, Charset.defaultCharset());
+        return true;
+    }
+
+    private static boolean overridesAddHash(Class<?> filterClass) {
+        for (Class<?> c = filterClass; c != ETagResponseFilter.class; c = c.getSuperclass()) {
+            try {
+                c.getDeclaredMethod("addHash", Object.class, Hasher.class);
+                return true;
+            } catch (NoSuchMethodException ignored) {
+            }
+        }
+        return false;
+    }
 
-        // check
+    /**
+     * Helper method to get JSON of entity for hashing. Returns {@code null} if entity has unknown type or it can't be serialized.
+     */
+    private String getJsonForHash(Object entity, EntityType entityType) {
         if (entityType == UNKNOWN) {
-            // unknown entity type, cannot perform hash
-            return false;
+            return null;
         }
-        // add hash if all is OK
         try {
-            hasher.putString(getJson(entity, entityType), Charset.defaultCharset());
+            return getJson(entity, entityType);
         } catch (RuntimeException e) {
-            return false;
+            return null;
         }
-        return true;
     }
 
-
     /**
      * Helper method to retrieving the JSON content based on the entity type
      *
@@ -0,0 +1,74 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.metrics;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Map;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+
+public class MetricRegistryTest {
+    private MetricRegistry registry;
+
+    @BeforeMethod
+    public void setUp() {
+        registry = new MetricRegistry();
+    }
+
+    @Test
+    public void shouldReturnSameCounterForSameName() {
+        Counter counter = registry.counter("test.counter");
+        counter.increment();
+
+        assertSame(registry.counter("test.counter"), counter);
+        assertEquals(registry.counter("test.counter").getCount(), 1);
+    }
+
+    @Test
+    public void shouldSampleAllMetrics() {
+        registry.counter("test.counter").add(3);
+        registry.gauge("test.gauge", () -> 1.5);
+        registry.histogram("test.latency").record(10);
+
+        Map<String, Double> sample = registry.sample();
+
+        assertEquals((double)sample.get("test.counter"), 3.0);
+        assertEquals((double)sample.get("test.gauge"), 1.5);
+        assertEquals((double)sample.get("test.latency.count"), 1.0);
+        assertEquals((double)sample.get("test.latency.max"), 10.0);
+        assertEquals(registry.getNames().size(), 3);
+    }
+
+    @Test
+    public void shouldReplaceGauge() {
+        registry.gauge("test.gauge", () -> 1);
+        registry.gauge("test.gauge", () -> 2);
+
+        assertEquals((double)registry.sample().get("test.gauge"), 2.0);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldNotReplaceMetricOfOtherKind() {
+        registry.counter("test.metric");
+
+        registry.gauge("test.metric", () -> 1);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldNotReturnCounterForHistogramName() {
+        registry.histogram("test.metric");
+
+        registry.counter("test.metric");
+    }
+}
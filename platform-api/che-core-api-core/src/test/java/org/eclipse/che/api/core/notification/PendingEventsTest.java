@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.notification;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class PendingEventsTest {
+    @Test
+    public void shouldTakeEventsInPublishOrder() throws Exception {
+        PendingEvents events = new PendingEvents(10);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertTrue(events.add(i));
+        }
+        List<Object> batch = new ArrayList<>();
+        events.takeBatch(batch, 3);
+        Assert.assertEquals(batch, list(0, 1, 2));
+        batch.clear();
+        events.takeBatch(batch, 3);
+        Assert.assertEquals(batch, list(3, 4));
+        Assert.assertEquals(events.size(), 0);
+        Assert.assertEquals(events.resetDelayedEvents(), 0);
+    }
+
+    @Test(timeOut = 10000)
+    public void shouldWaitForFreeRoomInsteadOfDroppingEvents() throws Exception {
+        final PendingEvents events = new PendingEvents(2);
+        final int total = 100;
+        Thread publisher = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    for (int i = 0; i < total; i++) {
+                        events.add(i);
+                    }
+                } catch (InterruptedException ignored) {
+                }
+            }
+        };
+        publisher.start();
+        // let publisher fill the queue
+        while (events.size() < 2) {
+            Thread.sleep(10);
+        }
+        List<Object> received = new ArrayList<>();
+        while (received.size() < total) {
+            events.takeBatch(received, 2);
+        }
+        publisher.join();
+
+        List<Object> expected = new ArrayList<>();
+        for (int i = 0; i < total; i++) {
+            expected.add(i);
+        }
+        Assert.assertEquals(received, expected);
+        Assert.assertTrue(events.resetDelayedEvents() > 0);
+        Assert.assertEquals(events.resetDelayedEvents(), 0);
+    }
+
+    @Test(timeOut = 10000)
+    public void shouldReleaseWaitingPublisherWhenClosed() throws Exception {
+        final PendingEvents events = new PendingEvents(1);
+        Assert.assertTrue(events.add("first"));
+        final boolean[] added = {true};
+        Thread publisher = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    added[0] = events.add("second");
+                } catch (InterruptedException ignored) {
+                }
+            }
+        };
+        publisher.start();
+        TimeUnit.MILLISECONDS.sleep(200);
+        events.close();
+        publisher.join();
+
+        Assert.assertFalse(added[0]);
+        Assert.assertFalse(events.add("third"));
+        Assert.assertEquals(events.size(), 1);
+    }
+
+    private static List<Object> list(Object... items) {
+        List<Object> list = new ArrayList<>();
+        for (Object item : items) {
+            list.add(item);
+        }
+        return list;
+    }
+}
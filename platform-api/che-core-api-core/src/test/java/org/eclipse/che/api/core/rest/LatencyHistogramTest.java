@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import org.testng.annotations.Test;
+
+import static org.testng.Assert.assertEquals;
+
+/**
+ * Tests of {@link LatencyHistogram}.
+ */
+public class LatencyHistogramTest {
+
+    @Test
+    public void shouldReturnZerosWhenNothingRecorded() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(histogram.getCount(), 0);
+        assertEquals(histogram.getMax(), 0);
+        assertEquals(histogram.getMean(), 0.0);
+        assertEquals(histogram.getPercentile(0.99), 0);
+    }
+
+    @Test
+    public void shouldApproximatePercentilesWithUpperBoundOfBucket() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 98; i++) {
+            histogram.record(3);
+        }
+        histogram.record(100);
+        histogram.record(1000);
+
+        assertEquals(histogram.getCount(), 100);
+        assertEquals(histogram.getMax(), 1000);
+        assertEquals(histogram.getPercentile(0.5), 4);
+        assertEquals(histogram.getPercentile(0.99), 128);
+        assertEquals(histogram.getPercentile(1), 1000);
+    }
+
+    @Test
+    public void shouldCountLatenciesGreaterThanLastBucketBound() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000_000);
+
+        assertEquals(histogram.getPercentile(0.5), 1_000_000);
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldNotAcceptZeroFraction() {
+        new LatencyHistogram().getPercentile(0);
+    }
+}
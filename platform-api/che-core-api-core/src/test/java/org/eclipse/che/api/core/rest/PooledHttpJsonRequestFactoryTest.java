@@ -0,0 +1,145 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.rest;
+
+import org.eclipse.che.api.core.NotFoundException;
+import org.eclipse.che.commons.env.EnvironmentContext;
+import org.eclipse.che.commons.user.User;
+import org.eclipse.che.commons.user.UserImpl;
+import org.everrest.assured.EverrestJetty;
+import org.everrest.core.Filter;
+import org.everrest.core.GenericContainerRequest;
+import org.everrest.core.RequestFilter;
+import org.testng.ITestContext;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Listeners;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.fail;
+
+/**
+ * Tests of {@link PooledHttpJsonRequestFactory}.
+ */
+@Listeners(EverrestJetty.class)
+public class PooledHttpJsonRequestFactoryTest {
+
+    @SuppressWarnings("unused") // used by EverrestJetty
+    private static final EnvironmentFilter  FILTER           = new EnvironmentFilter();
+    @SuppressWarnings("unused") // used by EverrestJetty
+    private static final ApiExceptionMapper EXCEPTION_MAPPER = new ApiExceptionMapper();
+    @SuppressWarnings("unused") // used by EverrestJetty
+    private static final TestService        TEST_SERVICE     = new TestService();
+    private static final User               TEST_USER        = new UserImpl("name", "id", "token", null, false);
+
+    private PooledHttpJsonRequestFactory factory;
+
+    @BeforeMethod
+    public void setUp() {
+        factory = new PooledHttpJsonRequestFactory(1, 2);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        factory.stop();
+        EnvironmentContext.reset();
+    }
+
+    @Test
+    public void shouldMakeRequestAndRecordLatency(ITestContext ctx) throws Exception {
+        final HttpJsonResponse response = factory.fromUrl(getUrl(ctx) + "/application-json").useGetMethod().request();
+
+        assertEquals(response.asString(), TestService.JSON_OBJECT);
+        assertEquals(factory.getLatencyHistogram(getHost(ctx)).getCount(), 1);
+    }
+
+    @Test
+    public void shouldReleaseConnectionSlotWhenRequestFails(ITestContext ctx) throws Exception {
+        try {
+            factory.fromUrl(getUrl(ctx) + "/404/response-code-test").useGetMethod().request();
+            fail("NotFoundException expected");
+        } catch (NotFoundException ignored) {
+        }
+
+        // only one connection per host is allowed, so this request hangs if slot wasn't released
+        final HttpJsonResponse response = factory.fromUrl(getUrl(ctx) + "/application-json").setTimeout(5000).useGetMethod().request();
+
+        assertEquals(response.asString(), TestService.JSON_OBJECT);
+        assertEquals(factory.getLatencyHistogram(getHost(ctx)).getCount(), 2);
+    }
+
+    @Test
+    public void shouldPerformRequestsAsynchronously(ITestContext ctx) throws Exception {
+        final List<Future<HttpJsonResponse>> futures = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            futures.add(factory.requestAsync(factory.fromUrl(getUrl(ctx) + "/application-json").useGetMethod()));
+        }
+
+        for (Future<HttpJsonResponse> future : futures) {
+            assertEquals(future.get().asString(), TestService.JSON_OBJECT);
+        }
+        assertEquals(factory.getLatencyHistogram(getHost(ctx)).getCount(), 5);
+    }
+
+    @Test
+    public void shouldPropagateEnvironmentContextToAsynchronousRequest(ITestContext ctx) throws Exception {
+        final EnvironmentContext context = new EnvironmentContext();
+        // differs from user which is set by EnvironmentFilter on server side
+        context.setUser(new UserImpl("async-name", "async-id", "async-token", null, false));
+        EnvironmentContext.setCurrent(context);
+        try {
+            final HttpJsonResponse response = factory.requestAsync(factory.fromUrl(getUrl(ctx) + "/authorization").useGetMethod()).get();
+
+            // token is sent by executor thread only if it sees user of caller thread
+            assertEquals(response.asProperties().get("token"), "async-token");
+        } finally {
+            EnvironmentContext.reset();
+        }
+    }
+
+    @Test
+    public void shouldThrowRequestExceptionAsCauseOfExecutionException(ITestContext ctx) throws Exception {
+        try {
+            factory.requestAsync(factory.fromUrl(getUrl(ctx) + "/404/response-code-test").useGetMethod()).get();
+            fail("ExecutionException expected");
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof NotFoundException);
+        }
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void shouldNotCreateFactoryWithZeroConnectionsPerHost() {
+        new PooledHttpJsonRequestFactory(0, 1);
+    }
+
+    @Filter
+    public static class EnvironmentFilter implements RequestFilter {
+
+        public void doFilter(GenericContainerRequest request) {
+            EnvironmentContext.getCurrent().setUser(TEST_USER);
+        }
+    }
+
+    private String getHost(ITestContext ctx) {
+        return "localhost:" + ctx.getAttribute(EverrestJetty.JETTY_PORT);
+    }
+
+    private String getUrl(ITestContext ctx) {
+        return "http://" + getHost(ctx) + "/rest/test";
+    }
+}
@@ -94,6 +94,15 @@ public class TestService {
         return map;
     }
 
+    @GET
+    @Path("/authorization")
+    @Produces(APPLICATION_JSON)
+    public Map<String, String> getAuthorization(@HeaderParam(HttpHeaders.AUTHORIZATION) String token) {
+        final Map<String, String> map = new HashMap<>();
+        map.put("token", token);
+        return map;
+    }
+
     @POST
     @Path("/token")
     public void checkAuthorization(@HeaderParam(HttpHeaders.AUTHORIZATION) String token) throws UnauthorizedException {
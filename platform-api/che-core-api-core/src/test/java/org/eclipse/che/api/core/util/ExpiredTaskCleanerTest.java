@@ -0,0 +1,215 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.core.util;
+
+import org.eclipse.che.api.core.NotFoundException;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+public class ExpiredTaskCleanerTest {
+    private static final long RECHECK_PERIOD = 100;
+
+    private ConcurrentMap<Long, TestTask> tasks;
+    private TestCleaner                   cleaner;
+
+    @BeforeMethod
+    public void setUp() {
+        tasks = new ConcurrentHashMap<>();
+        cleaner = new TestCleaner(tasks);
+    }
+
+    @Test
+    public void testCancelWaitingTaskAtWaitingDeadline() throws Exception {
+        final long now = System.currentTimeMillis();
+        final TestTask task = addTask(1L, new TestTask(true, now + 100, null));
+        cleaner.schedule(1L, now);
+
+        cleaner.cleanup();
+        Assert.assertTrue(tasks.containsKey(1L));
+        Assert.assertFalse(task.cancelled);
+        Assert.assertEquals(cleaner.getLastCleanupTasks(), 1);
+
+        // nothing to check until waiting deadline
+        cleaner.cleanup();
+        Assert.assertEquals(cleaner.getLastCleanupTasks(), 0);
+
+        Thread.sleep(150);
+        cleaner.cleanup();
+        Assert.assertFalse(tasks.containsKey(1L));
+        Assert.assertTrue(task.cancelled);
+        Assert.assertEquals(cleaner.getLastCleanupTasks(), 1);
+        Assert.assertEquals(cleaner.getExpiredTasks(), 1);
+    }
+
+    @Test
+    public void testCancelStoppedWaitingTask() throws Exception {
+        final long now = System.currentTimeMillis();
+        final TestTask task = addTask(1L, new TestTask(true, now + 60000, null));
+        task.stopped = true;
+        cleaner.schedule(1L, now);
+
+        cleaner.cleanup();
+        Assert.assertFalse(tasks.containsKey(1L));
+        Assert.assertTrue(task.cancelled);
+        Assert.assertEquals(cleaner.getExpiredTasks(), 1);
+    }
+
+    @Test
+    public void testRecheckTaskAtResultDeadline() throws Exception {
+        final long now = System.currentTimeMillis();
+        final TestRemoteTask remote = new TestRemoteTask(now + 100);
+        addTask(1L, new TestTask(false, now, remote));
+        cleaner.schedule(1L, now);
+
+        cleaner.cleanup();
+        Assert.assertTrue(tasks.containsKey(1L));
+        Assert.assertEquals(remote.checks, 0);
+
+        // result deadline is over but remote server still has result
+        Thread.sleep(150);
+        cleaner.cleanup();
+        Assert.assertTrue(tasks.containsKey(1L));
+        Assert.assertEquals(remote.checks, 1);
+        Assert.assertEquals(cleaner.getExpiredTasks(), 0);
+
+        // remote server removed result
+        remote.removed = true;
+        cleaner.cleanup();
+        Assert.assertTrue(tasks.containsKey(1L), "Task must not be checked before recheck period");
+        Thread.sleep(RECHECK_PERIOD + 50);
+        cleaner.cleanup();
+        Assert.assertFalse(tasks.containsKey(1L));
+        Assert.assertEquals(remote.checks, 2);
+        Assert.assertEquals(cleaner.getExpiredTasks(), 1);
+    }
+
+    @Test
+    public void testRemoveTaskWithoutRemoteTask() throws Exception {
+        final long now = System.currentTimeMillis();
+        final TestTask task = addTask(1L, new TestTask(false, now, null));
+        cleaner.schedule(1L, now);
+
+        cleaner.cleanup();
+        Assert.assertFalse(tasks.containsKey(1L));
+        Assert.assertTrue(task.missed);
+        Assert.assertEquals(cleaner.getExpiredTasks(), 1);
+    }
+
+    @Test
+    public void testCheckOnlyTasksWhichTimeIsOver() throws Exception {
+        final long now = System.currentTimeMillis();
+        addTask(1L, new TestTask(true, now + 60000, null));
+        addTask(2L, new TestTask(true, now - 1, null));
+        addTask(3L, new TestTask(true, now - 1, null));
+        cleaner.schedule(1L, now + 60000);
+        cleaner.schedule(2L, now);
+        cleaner.schedule(3L, now);
+        // removed tasks are skipped
+        cleaner.schedule(4L, now);
+
+        cleaner.cleanup();
+        Assert.assertEquals(cleaner.getLastCleanupTasks(), 3);
+        Assert.assertEquals(cleaner.getExpiredTasks(), 2);
+        Assert.assertTrue(tasks.containsKey(1L));
+        Assert.assertEquals(tasks.size(), 1);
+        Assert.assertTrue(cleaner.getLastCleanupTime() >= 0);
+    }
+
+    private TestTask addTask(Long id, TestTask task) {
+        tasks.put(id, task);
+        return task;
+    }
+
+    private static class TestTask {
+        final boolean        waiting;
+        final long           waitingDeadline;
+        final TestRemoteTask remote;
+
+        boolean stopped;
+        boolean cancelled;
+        boolean missed;
+
+        TestTask(boolean waiting, long waitingDeadline, TestRemoteTask remote) {
+            this.waiting = waiting;
+            this.waitingDeadline = waitingDeadline;
+            this.remote = remote;
+        }
+    }
+
+    private static class TestRemoteTask {
+        final long resultDeadline;
+
+        boolean removed;
+        int     checks;
+
+        TestRemoteTask(long resultDeadline) {
+            this.resultDeadline = resultDeadline;
+        }
+    }
+
+    private static class TestCleaner extends ExpiredTaskCleaner<TestTask, TestRemoteTask> {
+        TestCleaner(ConcurrentMap<Long, TestTask> tasks) {
+            super(tasks);
+        }
+
+        @Override
+        protected long getRecheckPeriod() {
+            return RECHECK_PERIOD;
+        }
+
+        @Override
+        protected boolean isWaiting(TestTask task) {
+            return task.waiting && !task.cancelled;
+        }
+
+        @Override
+        protected long getWaitingDeadline(TestTask task) {
+            return task.waitingDeadline;
+        }
+
+        @Override
+        protected boolean isStopped(TestTask task) {
+            return task.stopped;
+        }
+
+        @Override
+        protected void cancel(TestTask task) {
+            task.cancelled = true;
+        }
+
+        @Override
+        protected TestRemoteTask getRemoteTask(TestTask task) {
+            return task.remote;
+        }
+
+        @Override
+        protected long getResultDeadline(TestTask task, TestRemoteTask remote) {
+            return remote.resultDeadline;
+        }
+
+        @Override
+        protected void checkRemoteTask(TestRemoteTask remote) throws NotFoundException {
+            remote.checks++;
+            if (remote.removed) {
+                throw new NotFoundException("Result is removed");
+            }
+        }
+
+        @Override
+        protected void onRemoteTaskMissed(TestTask task) {
+            task.missed = true;
+        }
+    }
+}
@@ -10,6 +10,10 @@
  *******************************************************************************/
 package org.eclipse.che.everrest;
 
+import com.google.common.base.Charsets;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+
 import org.eclipse.che.api.core.rest.ApiExceptionMapper;
 import org.everrest.core.impl.ApplicationContextImpl;
 import org.everrest.core.impl.ApplicationProviderBinder;
@@ -91,6 +95,14 @@ public class ETagResponseFilterTest {
                            .build();
         }
 
+        @GET
+        @Path("/version")
+        @Produces(APPLICATION_JSON)
+        public Response getVersion() {
+            return Response.ok("versionContent")
+                           .tag(new EntityTag("version-1"))
+                           .build();
+        }
 
     }
 
@@ -105,13 +117,17 @@ public class ETagResponseFilterTest {
      */
     @BeforeMethod
     public void before() throws Exception {
+        resourceLauncher = createLauncher(ETagResponseFilter.class);
+    }
+
+    private ResourceLauncher createLauncher(Class<? extends ETagResponseFilter> filterClass) throws Exception {
         //set up launcher
         final ResourceBinderImpl resources = new ResourceBinderImpl();
         resources.addResource(MyJaxRSService.class, null);
         final DependencySupplierImpl dependencies = new DependencySupplierImpl();
         final ApplicationProviderBinder binder = new ApplicationProviderBinder();
         binder.addExceptionMapper(ApiExceptionMapper.class);
-        binder.addResponseFilter(ETagResponseFilter.class);
+        binder.addResponseFilter(filterClass);
         final URI uri = new URI(BASE_URI);
         final ContainerRequest req = new ContainerRequest(null, uri, uri, null, null, null);
         final ApplicationContextImpl contextImpl = new ApplicationContextImpl(req, null, binder);
@@ -122,7 +138,7 @@ public class ETagResponseFilterTest {
                                                                   dependencies,
                                                                   new EverrestConfiguration(),
                                                                   null);
-        resourceLauncher = new ResourceLauncher(processor);
+        return new ResourceLauncher(processor);
     }
 
 
@@ -221,4 +237,63 @@ public class ETagResponseFilterTest {
         Assert.assertNull(response.getEntity());
     }
 
+    /**
+     * Check if ETag provided by resource is used instead of hash of entity
+     */
+    @Test
+    public void useResourceEtag() throws Exception {
+
+        final ContainerResponse response = resourceLauncher.service(HttpMethod.GET, SERVICE_PATH + "/version", BASE_URI, null, null, null);
+        assertEquals(response.getStatus(), OK.getStatusCode());
+        // check entity
+        Assert.assertEquals(response.getEntity(), "versionContent");
+        // Check etag
+        List<Object> headerTags = response.getHttpHeaders().get("ETag");
+        Assert.assertNotNull(headerTags);
+        Assert.assertEquals(headerTags.size(), 1);
+        Assert.assertEquals(headerTags.get(0), new EntityTag("version-1"));
+    }
+
+    /**
+     * Check if ETag provided by resource and sent with header is redirecting to NOT_MODIFIED
+     */
+    @Test
+    public void useResourceEtagWithEtag() throws Exception {
+
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("If-None-Match", Collections.singletonList(new EntityTag("version-1").toString()));
+
+
+        final ContainerResponse response = resourceLauncher.service(HttpMethod.GET, SERVICE_PATH + "/version", BASE_URI, headers, null, null);
+        assertEquals(response.getStatus(), NOT_MODIFIED.getStatusCode());
+        // check null body
+        Assert.assertNull(response.getEntity());
+    }
+
+    /**
+     * Check if overridden addHash is used for hashing of entity
+     */
+    @Test
+    public void useCustomHash() throws Exception {
+
+        final ContainerResponse response = createLauncher(UpperCaseETagResponseFilter.class)
+                .service(HttpMethod.GET, SERVICE_PATH + "/single", BASE_URI, null, null, null);
+        assertEquals(response.getStatus(), OK.getStatusCode());
+        // check entity
+        Assert.assertEquals(response.getEntity(), "hello");
+        // Check etag
+        List<Object> headerTags = response.getHttpHeaders().get("ETag");
+        Assert.assertNotNull(headerTags);
+        Assert.assertEquals(headerTags.size(), 1);
+        Assert.assertEquals(headerTags.get(0), new EntityTag(Hashing.md5().hashString("HELLO", Charsets.UTF_8).toString()));
+    }
+
+    public static class UpperCaseETagResponseFilter extends ETagResponseFilter {
+        @Override
+        protected boolean addHash(Object entity, Hasher hasher) {
+            hasher.putString(entity.toString().toUpperCase(), Charsets.UTF_8);
+            return true;
+        }
+    }
+
 }
@@ -17,7 +17,6 @@ import org.eclipse.che.dto.shared.JsonFieldName;
 import org.eclipse.che.dto.shared.SerializationIndex;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.ImmutableList;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonParser;
 import com.google.gson.stream.JsonWriter;
@@ -28,6 +27,8 @@ import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
@@ -49,7 +50,8 @@ abstract class DtoImpl {
         this.dtoInterface = dtoInterface;
         this.implClassName = dtoInterface.getSimpleName() + "Impl";
         this.compactJson = DtoTemplate.implementsInterface(dtoInterface, CompactJsonDto.class);
-        this.dtoMethods = ImmutableList.copyOf(calcDtoMethods());
+        // ImmutableList doesn't accept nulls which fill gaps in serialization indexes of compact DTO
+        this.dtoMethods = Collections.unmodifiableList(Arrays.asList(calcDtoMethods()));
     }
 
     protected boolean isCompactJson() {
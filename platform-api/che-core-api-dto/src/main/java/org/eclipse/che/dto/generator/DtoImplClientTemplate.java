@@ -250,6 +250,10 @@ public class DtoImplClientTemplate extends DtoImpl {
 
     private void emitDelegateMethods(StringBuilder builder) {
         for (Method method : getDtoMethods()) {
+            if (method == null) {
+                // gap in serialization indexes of compact DTO
+                continue;
+            }
             DelegateTo delegateTo = method.getAnnotation(DelegateTo.class);
             if (delegateTo != null) {
                 DelegateRule serverRule = delegateTo.server();
@@ -267,7 +271,8 @@ public class DtoImplClientTemplate extends DtoImpl {
         builder.append("    public JSONObject toJsonObjectInt(boolean ").append(COPY_JSONS_PARAM).append(") {\n");
         if (isCompactJson()) {
             builder.append("      JSONArray result = new JSONArray();\n");
-            for (Method method : getters) {
+            // properties must be serialized in the order of their serialization indexes
+            for (Method method : getDtoMethods()) {
                 emitSerializeFieldForMethodCompact(method, builder);
             }
         } else {
@@ -308,7 +313,7 @@ public class DtoImplClientTemplate extends DtoImpl {
 
     private void emitSerializeFieldForMethodCompact(Method getter, StringBuilder builder) {
         if (getter == null) {
-            builder.append("      result.set(0, JSONNull.getInstance());\n");
+            builder.append("      result.set(result.size(), JSONNull.getInstance());\n");
             return;
         }
         final String jsonFieldName = getFieldNameFromGetterName(getter.getName());
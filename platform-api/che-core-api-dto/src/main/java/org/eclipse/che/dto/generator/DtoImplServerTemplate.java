@@ -11,6 +11,7 @@
 
 package org.eclipse.che.dto.generator;
 
+import org.eclipse.che.dto.server.DtoTypeAdapter;
 import org.eclipse.che.dto.server.JsonArrayImpl;
 import org.eclipse.che.dto.server.JsonSerializable;
 import org.eclipse.che.dto.server.JsonStringMapImpl;
@@ -39,6 +40,8 @@ import java.util.Set;
 public class DtoImplServerTemplate extends DtoImpl {
     private static final String JSON_ARRAY_IMPL   = JsonArrayImpl.class.getCanonicalName();
     private static final String JSON_MAP_IMPL     = JsonStringMapImpl.class.getCanonicalName();
+    private static final String TYPE_ADAPTER      = DtoTypeAdapter.class.getCanonicalName();
+    private static final String TYPE_ADAPTER_NAME = "JsonAdapter";
     private static final String SERVER_DTO_MARKER = "  @" + DTOImpl.class.getCanonicalName() + "(\"server\")\n";
 
     DtoImplServerTemplate(DtoTemplate template, Class<?> superInterface) {
@@ -75,6 +78,7 @@ public class DtoImplServerTemplate extends DtoImpl {
         emitDeserializer(methods, builder);
         emitDeserializerShortcut(builder);
         emitCopyConstructor(methods, builder);
+        emitTypeAdapter(methods, builder);
         // Delegation DTO methods.
         emitDelegateMethods(builder);
         // "builder" method, it is method that set field and return "this" instance
@@ -323,6 +327,287 @@ public class DtoImplServerTemplate extends DtoImpl {
         builder.append("    }\n\n");
     }
 
+    /**
+     * Generates a nested streaming Gson adapter for the DTO implementation. Adapter reads and writes fields directly without
+     * reflection, see {@link DtoTypeAdapter}.
+     */
+    private void emitTypeAdapter(List<Method> getters, StringBuilder builder) {
+        final String implClassName = getImplClassName();
+        builder.append("    public static class ").append(TYPE_ADAPTER_NAME).append(" extends ").append(TYPE_ADAPTER).append("<")
+               .append(implClassName).append("> {\n");
+        builder.append("      public ").append(TYPE_ADAPTER_NAME).append("(Gson gson) {\n");
+        builder.append("        super(gson);\n");
+        builder.append("      }\n\n");
+        // write
+        builder.append("      @Override\n");
+        builder.append("      public void write(com.google.gson.stream.JsonWriter out, ").append(implClassName)
+               .append(" dto) throws java.io.IOException {\n");
+        builder.append("        if (dto == null) {\n");
+        builder.append("          out.nullValue();\n");
+        builder.append("          return;\n");
+        builder.append("        }\n");
+        builder.append("        out.beginObject();\n");
+        for (Method getter : getters) {
+            final String fieldName = getJavaFieldName(getter.getName());
+            builder.append("        out.name(").append(quoteStringLiteral(getJsonFieldName(getter))).append(");\n");
+            emitWriteValue(getter.getGenericReturnType(), "dto." + fieldName, 0, "        ", builder);
+        }
+        builder.append("        out.endObject();\n");
+        builder.append("      }\n\n");
+        // read
+        builder.append("      @Override\n");
+        builder.append("      public ").append(implClassName)
+               .append(" read(com.google.gson.stream.JsonReader in) throws java.io.IOException {\n");
+        builder.append("        if (skipNull(in)) {\n");
+        builder.append("          return null;\n");
+        builder.append("        }\n");
+        builder.append("        final ").append(implClassName).append(" dto = new ").append(implClassName).append("();\n");
+        builder.append("        in.beginObject();\n");
+        builder.append("        while (in.hasNext()) {\n");
+        builder.append("          switch (in.nextName()) {\n");
+        final Set<String> jsonFieldNames = new HashSet<>();
+        for (Method getter : getters) {
+            final String jsonFieldName = getJsonFieldName(getter);
+            if (!jsonFieldNames.add(jsonFieldName)) {
+                continue;
+            }
+            builder.append("            case ").append(quoteStringLiteral(jsonFieldName)).append(":\n");
+            emitReadField(getter, "              ", builder);
+            builder.append("              break;\n");
+        }
+        builder.append("            default:\n");
+        builder.append("              in.skipValue();\n");
+        builder.append("          }\n");
+        builder.append("        }\n");
+        builder.append("        in.endObject();\n");
+        builder.append("        return dto;\n");
+        builder.append("      }\n");
+        if (isCompactJson()) {
+            emitCompactTypeAdapterMethods(builder);
+        }
+        builder.append("    }\n\n");
+    }
+
+    /**
+     * Generates methods which read and write DTO in compact form. Compact form is JSON array, value of property which getter is annotated
+     * with {@code @SerializationIndex(N)} has index {@code N - 1} in the array. Gaps in indexes are filled with nulls and empty list at
+     * the last position is omitted, the same as client DTO implementations do.
+     */
+    private void emitCompactTypeAdapterMethods(StringBuilder builder) {
+        final String implClassName = getImplClassName();
+        final List<Method> methods = getDtoMethods();
+        builder.append("\n");
+        builder.append("      @Override\n");
+        builder.append("      public boolean isCompact() {\n");
+        builder.append("        return true;\n");
+        builder.append("      }\n\n");
+        // write
+        builder.append("      @Override\n");
+        builder.append("      public void writeCompact(com.google.gson.stream.JsonWriter out, ").append(implClassName)
+               .append(" dto) throws java.io.IOException {\n");
+        builder.append("        if (dto == null) {\n");
+        builder.append("          out.nullValue();\n");
+        builder.append("          return;\n");
+        builder.append("        }\n");
+        builder.append("        out.beginArray();\n");
+        for (Method method : methods) {
+            if (method == null) {
+                builder.append("        out.nullValue();\n");
+                continue;
+            }
+            final String field = "dto." + getJavaFieldName(method.getName());
+            if (isLastMethod(method) && isList(method.getReturnType())) {
+                builder.append("        if (").append(field).append(" != null && !").append(field).append(".isEmpty()) {\n");
+                emitWriteValue(method.getGenericReturnType(), field, 0, "          ", builder);
+                builder.append("        }\n");
+            } else {
+                emitWriteValue(method.getGenericReturnType(), field, 0, "        ", builder);
+            }
+        }
+        builder.append("        out.endArray();\n");
+        builder.append("      }\n\n");
+        // read
+        builder.append("      @Override\n");
+        builder.append("      public ").append(implClassName)
+               .append(" readCompact(com.google.gson.stream.JsonReader in) throws java.io.IOException {\n");
+        builder.append("        if (skipNull(in)) {\n");
+        builder.append("          return null;\n");
+        builder.append("        }\n");
+        builder.append("        final ").append(implClassName).append(" dto = new ").append(implClassName).append("();\n");
+        builder.append("        in.beginArray();\n");
+        builder.append("        int index = 0;\n");
+        builder.append("        while (in.hasNext()) {\n");
+        builder.append("          switch (index++) {\n");
+        for (int index = 0; index < methods.size(); index++) {
+            final Method method = methods.get(index);
+            if (method == null) {
+                continue;
+            }
+            builder.append("            case ").append(index).append(":\n");
+            emitReadField(method, "              ", builder);
+            builder.append("              break;\n");
+        }
+        builder.append("            default:\n");
+        builder.append("              in.skipValue();\n");
+        builder.append("          }\n");
+        builder.append("        }\n");
+        builder.append("        in.endArray();\n");
+        builder.append("        return dto;\n");
+        builder.append("      }\n");
+    }
+
+    /** Emits statements which read value of property which corresponds to the getter and set it to field of 'dto'. */
+    private void emitReadField(Method getter, String i, StringBuilder builder) {
+        final String fieldName = getJavaFieldName(getter.getName());
+        final Type type = getter.getGenericReturnType();
+        if (type instanceof Class && ((Class<?>)type).isPrimitive()) {
+            // keep default value of primitive field if JSON contains null, the same as Gson does
+            builder.append(i).append("if (!skipNull(in)) {\n");
+            builder.append(i).append("  dto.").append(fieldName).append(" = ").append(getReadPrimitiveExpression((Class<?>)type))
+                   .append(";\n");
+            builder.append(i).append("}\n");
+        } else {
+            emitReadValue(type, "dto." + fieldName, 0, i, builder);
+        }
+    }
+
+    /**
+     * Emits statements which write value of the {@code expression} of specified type. Lists and maps are written element by element,
+     * null lists and maps are written as empty JSON arrays and objects.
+     */
+    private void emitWriteValue(Type type, String expression, int depth, String i, StringBuilder builder) {
+        final Class<?> rawClass = getRawClass(type);
+        if (isList(rawClass) || isMap(rawClass)) {
+            final Type elementType = ((ParameterizedType)type).getActualTypeArguments()[isMap(rawClass) ? 1 : 0];
+            final String elementTypeName = getImplName(elementType, false);
+            final String var = "v" + depth;
+            builder.append(i).append("if (").append(expression).append(" == null) {\n");
+            builder.append(i).append("  ").append(isList(rawClass) ? "writeEmptyArray(out);\n" : "writeEmptyObject(out);\n");
+            builder.append(i).append("} else {\n");
+            if (isList(rawClass)) {
+                builder.append(i).append("  out.beginArray();\n");
+                builder.append(i).append("  for (").append(elementTypeName).append(" ").append(var).append(" : ").append(expression)
+                       .append(") {\n");
+                emitWriteValue(elementType, var, depth + 1, i + "    ", builder);
+                builder.append(i).append("  }\n");
+                builder.append(i).append("  out.endArray();\n");
+            } else {
+                final String entry = "e" + depth;
+                builder.append(i).append("  out.beginObject();\n");
+                builder.append(i).append("  for (java.util.Map.Entry<String, ").append(elementTypeName).append("> ").append(entry)
+                       .append(" : ").append(expression).append(".entrySet()) {\n");
+                builder.append(i).append("    out.name(String.valueOf(").append(entry).append(".getKey()));\n");
+                emitWriteValue(elementType, entry + ".getValue()", depth + 1, i + "    ", builder);
+                builder.append(i).append("  }\n");
+                builder.append(i).append("  out.endObject();\n");
+            }
+            builder.append(i).append("}\n");
+        } else if (rawClass == char.class) {
+            builder.append(i).append("out.value(String.valueOf(").append(expression).append("));\n");
+        } else if (rawClass.isPrimitive() || rawClass == String.class || isNumber(rawClass)) {
+            builder.append(i).append("out.value(").append(expression).append(");\n");
+        } else if (rawClass == Boolean.class) {
+            builder.append(i).append("writeBoolean(out, ").append(expression).append(");\n");
+        } else if (rawClass == Character.class) {
+            builder.append(i).append("writeCharacter(out, ").append(expression).append(");\n");
+        } else {
+            // DTOs, enums, 'any' properties and other objects
+            builder.append(i).append("writeValue(out, ").append(expression).append(");\n");
+        }
+    }
+
+    /** Emits statements which read value of specified type and assign it to the {@code target}. */
+    private void emitReadValue(Type type, String target, int depth, String i, StringBuilder builder) {
+        final Class<?> rawClass = getRawClass(type);
+        if (isList(rawClass) || isMap(rawClass)) {
+            final Type elementType = ((ParameterizedType)type).getActualTypeArguments()[isMap(rawClass) ? 1 : 0];
+            final String elementTypeName = getImplName(elementType, false);
+            final String typeName = getImplName(type, false);
+            final String collection = "c" + depth;
+            final String element = "v" + depth;
+            builder.append(i).append("if (skipNull(in)) {\n");
+            builder.append(i).append("  ").append(target).append(" = null;\n");
+            builder.append(i).append("} else {\n");
+            if (isList(rawClass)) {
+                builder.append(i).append("  final ").append(typeName).append(" ").append(collection)
+                       .append(" = new java.util.ArrayList<>();\n");
+                builder.append(i).append("  in.beginArray();\n");
+                builder.append(i).append("  while (in.hasNext()) {\n");
+                builder.append(i).append("    ").append(elementTypeName).append(" ").append(element).append(";\n");
+                emitReadValue(elementType, element, depth + 1, i + "    ", builder);
+                builder.append(i).append("    ").append(collection).append(".add(").append(element).append(");\n");
+                builder.append(i).append("  }\n");
+                builder.append(i).append("  in.endArray();\n");
+            } else {
+                builder.append(i).append("  final ").append(typeName).append(" ").append(collection)
+                       .append(" = new java.util.LinkedHashMap<>();\n");
+                builder.append(i).append("  in.beginObject();\n");
+                builder.append(i).append("  while (in.hasNext()) {\n");
+                builder.append(i).append("    final String k").append(depth).append(" = in.nextName();\n");
+                builder.append(i).append("    ").append(elementTypeName).append(" ").append(element).append(";\n");
+                emitReadValue(elementType, element, depth + 1, i + "    ", builder);
+                builder.append(i).append("    ").append(collection).append(".put(k").append(depth).append(", ").append(element)
+                       .append(");\n");
+                builder.append(i).append("  }\n");
+                builder.append(i).append("  in.endObject();\n");
+            }
+            builder.append(i).append("  ").append(target).append(" = ").append(collection).append(";\n");
+            builder.append(i).append("}\n");
+        } else {
+            builder.append(i).append(target).append(" = ").append(getReadExpression(type)).append(";\n");
+        }
+    }
+
+    private String getReadPrimitiveExpression(Class<?> type) {
+        if (type == int.class) {
+            return "in.nextInt()";
+        } else if (type == long.class) {
+            return "in.nextLong()";
+        } else if (type == double.class) {
+            return "in.nextDouble()";
+        } else if (type == float.class) {
+            return "(float)in.nextDouble()";
+        } else if (type == short.class) {
+            return "(short)in.nextInt()";
+        } else if (type == byte.class) {
+            return "(byte)in.nextInt()";
+        } else if (type == boolean.class) {
+            return "readBoolean(in)";
+        } else if (type == char.class) {
+            return "readCharacter(in)";
+        }
+        throw new IllegalArgumentException("Unknown primitive type " + type);
+    }
+
+    /** Returns expression which reads not null value of specified type, the type must not be list or map. */
+    private String getReadExpression(Type type) {
+        final Class<?> rawClass = getRawClass(type);
+        if (rawClass == String.class) {
+            return "readString(in)";
+        } else if (rawClass.isPrimitive()) {
+            return getReadPrimitiveExpression(rawClass);
+        } else if (rawClass == Integer.class) {
+            return "readInteger(in)";
+        } else if (rawClass == Long.class) {
+            return "readLong(in)";
+        } else if (rawClass == Double.class) {
+            return "readDouble(in)";
+        } else if (rawClass == Float.class) {
+            return "readFloat(in)";
+        } else if (rawClass == Short.class) {
+            return "readShort(in)";
+        } else if (rawClass == Byte.class) {
+            return "readByte(in)";
+        } else if (rawClass == Boolean.class) {
+            return "readBoolean(in)";
+        } else if (rawClass == Character.class) {
+            return "readCharacter(in)";
+        } else if (type instanceof ParameterizedType) {
+            return "readValue(in, new com.google.gson.reflect.TypeToken<" + getFqParameterizedName(type) + ">() {})";
+        }
+        return "readValue(in, " + rawClass.getCanonicalName() + ".class)";
+    }
+
     private static StringBuilder appendNaiveCopyJsonExpression(String inValue, StringBuilder builder) {
         builder.append("((");
         builder.append(inValue);
@@ -250,6 +250,10 @@ public class DtoTemplate {
                 builder.append("        }\n\n");
                 builder.append("        public ").append(dtoInterface).append(" clone(").append(dtoInterface).append(" origin) {\n")
                        .append("            return new ").append(dto.getImplClassName()).append("(origin);\n");
+                builder.append("        }\n\n");
+                builder.append("        public com.google.gson.TypeAdapter<? extends ").append(dtoInterface)
+                       .append("> getTypeAdapter(Gson gson) {\n")
+                       .append("            return new ").append(dto.getImplClassName()).append(".JsonAdapter(gson);\n");
                 builder.append("        }\n");
                 builder.append("    });\n");
             }
@@ -11,9 +11,9 @@
 package org.eclipse.che.dto.server;
 
 import org.eclipse.che.commons.lang.cache.Cache;
-import org.eclipse.che.commons.lang.cache.LoadingValueSLRUCache;
-import org.eclipse.che.commons.lang.cache.SynchronizedCache;
+import org.eclipse.che.commons.lang.cache.ExpiringCache;
 import org.eclipse.che.commons.lang.reflect.ParameterizedTypeImpl;
+import org.eclipse.che.dto.shared.CompactJsonDto;
 import org.eclipse.che.dto.shared.DTO;
 import org.eclipse.che.dto.shared.JsonArray;
 import org.eclipse.che.dto.shared.JsonStringMap;
@@ -31,8 +31,10 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.io.StringReader;
+import java.io.Writer;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -49,20 +51,14 @@ import java.util.concurrent.ConcurrentHashMap;
  */
 public final class DtoFactory {
 
-    private static final Cache<Type, ParameterizedType> listTypeCache = new SynchronizedCache<>(
-            new LoadingValueSLRUCache<Type, ParameterizedType>(16, 16) {
-                @Override
-                protected ParameterizedType loadValue(Type type) {
-                    return new ParameterizedTypeImpl(List.class, type);
-                }
-            });
-    private static final Cache<Type, ParameterizedType> mapTypeCache  = new SynchronizedCache<>(
-            new LoadingValueSLRUCache<Type, ParameterizedType>(16, 16) {
-                @Override
-                protected ParameterizedType loadValue(Type type) {
-                    return new ParameterizedTypeImpl(Map.class, String.class, type);
-                }
-            });
+    private static final Cache<Type, ParameterizedType> listTypeCache =
+            ExpiringCache.<Type, ParameterizedType>newBuilder()
+                         .maximumSize(32)
+                         .build(type -> new ParameterizedTypeImpl(List.class, type));
+    private static final Cache<Type, ParameterizedType> mapTypeCache  =
+            ExpiringCache.<Type, ParameterizedType>newBuilder()
+                         .maximumSize(32)
+                         .build(type -> new ParameterizedTypeImpl(Map.class, String.class, type));
 
     private static final DtoFactory INSTANCE = new DtoFactory();
 
@@ -95,11 +91,16 @@ public final class DtoFactory {
     // Additional mapping for implementation of DTO interfaces.
     // It helps avoid reflection when need create copy of exited DTO instance.
     private final Map<Class<?>, DtoProvider<?>> dtoImpl2Providers      = new ConcurrentHashMap<>();
-    private final TypeAdapterFactory dtoAdapterFactory = new DtoInterfaceTAF();
+    private final TypeAdapterFactory dtoAdapterFactory = new DtoInterfaceTAF(false);
     private final Gson dtoGson = new GsonBuilder()
             .registerTypeAdapterFactory(new NullAsEmptyTAF<>(Collection.class, Collections.emptyList()))
             .registerTypeAdapterFactory(new NullAsEmptyTAF<>(Map.class, Collections.emptyMap()))
             .registerTypeAdapterFactory(dtoAdapterFactory).create();
+    // Serializes DTOs which implement CompactJsonDto to compact (array based) JSON, other DTOs are serialized in regular form.
+    private final Gson compactDtoGson = new GsonBuilder()
+            .registerTypeAdapterFactory(new NullAsEmptyTAF<>(Collection.class, Collections.emptyList()))
+            .registerTypeAdapterFactory(new NullAsEmptyTAF<>(Map.class, Collections.emptyMap()))
+            .registerTypeAdapterFactory(new DtoInterfaceTAF(true)).create();
 
     /**
      * Created deep copy of DTO object.
@@ -151,6 +152,51 @@ public final class DtoFactory {
         throw new IllegalArgumentException("JsonSerializable instance required. ");
     }
 
+    /**
+     * Serializes DTO to JSON and writes it directly to the specified writer without creating intermediate string.
+     *
+     * @param dto
+     *         DTO object
+     * @param w
+     *         writer
+     * @throws IllegalArgumentException
+     *         if specified object isn't instance of {@link JsonSerializable}
+     */
+    public <T> void toJson(T dto, Writer w) {
+        if (dto instanceof JsonSerializable) {
+            ((JsonSerializable)dto).toJson(w);
+            return;
+        }
+        throw new IllegalArgumentException("JsonSerializable instance required. ");
+    }
+
+    /**
+     * Serializes DTO to compact JSON. DTOs which implement {@link CompactJsonDto} are serialized as JSON arrays where each property
+     * has position specified with {@link org.eclipse.che.dto.shared.SerializationIndex &#064SerializationIndex}. Other DTOs are
+     * serialized in regular form.
+     *
+     * @param dto
+     *         DTO object, list or map of DTO objects
+     * @return compact JSON
+     */
+    public <T> String toCompactJson(T dto) {
+        return compactDtoGson.toJson(dto);
+    }
+
+    /**
+     * Serializes DTO to compact JSON and writes it to the specified writer.
+     *
+     * @see #toCompactJson(Object)
+     */
+    public <T> void toCompactJson(T dto, Writer w) {
+        compactDtoGson.toJson(dto, w);
+    }
+
+    /** Tests whether DTO interface or its implementation has compact JSON form. */
+    public static boolean isCompactJsonDto(Class<?> type) {
+        return CompactJsonDto.class.isAssignableFrom(type);
+    }
+
     public <T> JsonElement toJsonElement(T dto) {
         if (dto instanceof JsonSerializable) {
             return ((JsonSerializable)dto).toJsonElement();
@@ -241,6 +287,84 @@ public final class DtoFactory {
         return createDtoFromJson(new InputStreamReader(json), dtoInterface);
     }
 
+    /**
+     * Creates new instance of class which implements specified DTO interface, parses specified compact JSON data and uses parsed data
+     * for initializing fields of DTO object.
+     *
+     * @param json
+     *         compact JSON data
+     * @param dtoInterface
+     *         DTO interface
+     * @throws IllegalArgumentException
+     *         if can't provide any implementation for specified interface
+     * @see #toCompactJson(Object)
+     */
+    public <T> T createDtoFromCompactJson(String json, Class<T> dtoInterface) {
+        try {
+            return createDtoFromCompactJson(new StringReader(json), dtoInterface);
+        } catch (IOException e) {
+            throw new RuntimeException(e); // won't happen
+        }
+    }
+
+    /**
+     * Creates new instance of class which implements specified DTO interface, parses specified compact JSON data and uses parsed data
+     * for initializing fields of DTO object.
+     *
+     * @param json
+     *         compact JSON data
+     * @param dtoInterface
+     *         DTO interface
+     * @throws IllegalArgumentException
+     *         if can't provide any implementation for specified interface
+     * @throws IOException
+     *         if an i/o error occurs
+     * @see #toCompactJson(Object)
+     */
+    public <T> T createDtoFromCompactJson(Reader json, Class<T> dtoInterface) throws IOException {
+        getDtoProvider(dtoInterface);
+        return parseDto(compactDtoGson, json, dtoInterface);
+    }
+
+    /**
+     * Creates new instance of class which implements specified DTO interface, parses specified compact JSON data and uses parsed data
+     * for initializing fields of DTO object.
+     *
+     * @see #createDtoFromCompactJson(Reader, Class)
+     */
+    public <T> T createDtoFromCompactJson(InputStream json, Class<T> dtoInterface) throws IOException {
+        return createDtoFromCompactJson(new InputStreamReader(json, StandardCharsets.UTF_8), dtoInterface);
+    }
+
+    /**
+     * Parses the compact JSON data from the specified reader into list of objects of the specified type.
+     *
+     * @param json
+     *         compact JSON data
+     * @param dtoInterface
+     *         DTO interface
+     * @return list of DTO
+     * @throws IllegalArgumentException
+     *         if can't provide any implementation for specified interface
+     * @throws IOException
+     *         if an i/o error occurs
+     * @see #toCompactJson(Object)
+     */
+    public <T> JsonArray<T> createListDtoFromCompactJson(Reader json, Class<T> dtoInterface) throws IOException {
+        getDtoProvider(dtoInterface);
+        final List<T> list = parseDto(compactDtoGson, json, listTypeCache.get(dtoInterface));
+        return new JsonArrayImpl<>(list);
+    }
+
+    /**
+     * Parses the compact JSON data from the specified stream into list of objects of the specified type.
+     *
+     * @see #createListDtoFromCompactJson(Reader, Class)
+     */
+    public <T> JsonArray<T> createListDtoFromCompactJson(InputStream json, Class<T> dtoInterface) throws IOException {
+        return createListDtoFromCompactJson(new InputStreamReader(json, StandardCharsets.UTF_8), dtoInterface);
+    }
+
     //
 
     /**
@@ -275,7 +399,7 @@ public final class DtoFactory {
      */
     public <T> JsonArray<T> createListDtoFromJson(Reader json, Class<T> dtoInterface) throws IOException {
         getDtoProvider(dtoInterface);
-        final List<T> list = parseDto(json, listTypeCache.get(dtoInterface));
+        final List<T> list = parseDto(dtoGson, json, listTypeCache.get(dtoInterface));
         return new JsonArrayImpl<>(list);
     }
 
@@ -333,7 +457,7 @@ public final class DtoFactory {
      */
     public <T> JsonStringMap<T> createMapDtoFromJson(Reader json, Class<T> dtoInterface) throws IOException {
         getDtoProvider(dtoInterface);
-        final Map<String, T> map = parseDto(json, mapTypeCache.get(dtoInterface));
+        final Map<String, T> map = parseDto(dtoGson, json, mapTypeCache.get(dtoInterface));
         return new JsonStringMapImpl<>(map);
     }
 
@@ -376,9 +500,9 @@ public final class DtoFactory {
      * Parse a JSON string that contains DTOs, propagating JSON exceptions correctly if they are caused by failures in
      * the given Reader. Real JSON syntax exceptions are propagated as-is.
      */
-    private <T> T parseDto(Reader json, Type type) throws IOException {
+    private <T> T parseDto(Gson gson, Reader json, Type type) throws IOException {
         try {
-            return dtoGson.fromJson(json, type);
+            return gson.fromJson(json, type);
         } catch (JsonSyntaxException e) {
             final Throwable cause = e.getCause();
             if (cause instanceof IOException) {
@@ -423,10 +547,19 @@ public final class DtoFactory {
     /**
      * A specialization of Gson's {@link ReflectiveTypeAdapterFactory} delegates operation on DTO interfaces to the
      * corresponding implementation classes. The implementation classes generated correctly by the DTO Gson.
+     * <p/>
+     * Implementation classes are serialized with adapters provided by {@link DtoProvider#getTypeAdapter(Gson)}, if provider
+     * doesn't have own adapter Gson's reflective adapter is used.
      * 
      * @author tareq.sha@gmail.com
      */
     private class DtoInterfaceTAF implements TypeAdapterFactory {
+        private final boolean compact;
+
+        DtoInterfaceTAF(boolean compact) {
+            this.compact = compact;
+        }
+
         @Override
         @SuppressWarnings("unchecked")
         public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
@@ -434,6 +567,14 @@ public final class DtoFactory {
             if (prov != null) {
                 return (TypeAdapter<T>) gson.getAdapter(prov.getImplClass());
             }
+            prov = dtoImpl2Providers.get(type.getRawType());
+            if (prov != null) {
+                final TypeAdapter<?> adapter = prov.getTypeAdapter(gson);
+                if (compact && adapter instanceof DtoTypeAdapter) {
+                    return (TypeAdapter<T>) ((DtoTypeAdapter<?>) adapter).compact();
+                }
+                return (TypeAdapter<T>) adapter;
+            }
             return null;
         }
     }
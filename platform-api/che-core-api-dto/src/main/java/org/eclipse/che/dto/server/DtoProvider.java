@@ -10,7 +10,9 @@
  *******************************************************************************/
 package org.eclipse.che.dto.server;
 
+import com.google.gson.Gson;
 import com.google.gson.JsonElement;
+import com.google.gson.TypeAdapter;
 
 /**
  * Provides implementation of DTO interface.
@@ -27,4 +29,15 @@ public interface DtoProvider<DTO> {
     DTO newInstance();
 
     DTO clone(DTO origin);
+
+    /**
+     * Returns Gson adapter for implementation class of DTO interface or {@code null} if implementation class should be serialized with
+     * reflection. Providers generated by DTO generator return streaming adapters which don't use reflection.
+     *
+     * @param gson
+     *         Gson instance which requests the adapter, it should be used for getting adapters of nested values
+     */
+    default TypeAdapter<? extends DTO> getTypeAdapter(Gson gson) {
+        return null;
+    }
 }
@@ -0,0 +1,211 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.dto.server;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Base class for the streaming type adapters generated for server DTO implementations.
+ * <p/>
+ * Generated adapters read and write fields of DTO implementation directly with {@link JsonReader} and {@link JsonWriter}, so no
+ * reflection is involved in serialization of DTOs. Values which are not strings, numbers or booleans (nested DTOs, enums, 'any'
+ * properties) are delegated to the adapters provided by {@link Gson} instance this adapter is created for.
+ */
+public abstract class DtoTypeAdapter<T> extends TypeAdapter<T> {
+    protected final Gson gson;
+
+    protected DtoTypeAdapter(Gson gson) {
+        this.gson = gson;
+    }
+
+    /**
+     * Tests whether DTO has compact (array based) JSON form. Only DTOs which implement {@link org.eclipse.che.dto.shared.CompactJsonDto}
+     * have compact form.
+     */
+    public boolean isCompact() {
+        return false;
+    }
+
+    /** Writes DTO in compact form. By default writes regular JSON object. */
+    public void writeCompact(JsonWriter out, T value) throws IOException {
+        write(out, value);
+    }
+
+    /** Reads DTO from compact form. By default reads regular JSON object. */
+    public T readCompact(JsonReader in) throws IOException {
+        return read(in);
+    }
+
+    /** Returns adapter which reads and writes DTO in compact form or this adapter if DTO doesn't have compact form. */
+    public TypeAdapter<T> compact() {
+        if (!isCompact()) {
+            return this;
+        }
+        return new TypeAdapter<T>() {
+            @Override
+            public void write(JsonWriter out, T value) throws IOException {
+                writeCompact(out, value);
+            }
+
+            @Override
+            public T read(JsonReader in) throws IOException {
+                return readCompact(in);
+            }
+        };
+    }
+
+    /**
+     * Writes value with adapter of its runtime type. It is the same what Gson does for fields in reflective serialization, so
+     * instances of sub-types are serialized with all their properties.
+     */
+    @SuppressWarnings("unchecked")
+    protected void writeValue(JsonWriter out, Object value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+            return;
+        }
+        ((TypeAdapter<Object>)gson.getAdapter(value.getClass())).write(out, value);
+    }
+
+    protected <V> V readValue(JsonReader in, Class<V> type) throws IOException {
+        return gson.getAdapter(type).read(in);
+    }
+
+    protected <V> V readValue(JsonReader in, TypeToken<V> type) throws IOException {
+        return gson.getAdapter(type).read(in);
+    }
+
+    /** Writes empty JSON array. Null lists are serialized as empty, see {@link NullAsEmptyTAF}. */
+    protected static void writeEmptyArray(JsonWriter out) throws IOException {
+        out.beginArray();
+        out.endArray();
+    }
+
+    /** Writes empty JSON object. Null maps are serialized as empty, see {@link NullAsEmptyTAF}. */
+    protected static void writeEmptyObject(JsonWriter out) throws IOException {
+        out.beginObject();
+        out.endObject();
+    }
+
+    protected static void writeBoolean(JsonWriter out, Boolean value) throws IOException {
+        if (value == null) {
+            out.nullValue();
+        } else {
+            out.value(value.booleanValue());
+        }
+    }
+
+    protected static void writeCharacter(JsonWriter out, Character value) throws IOException {
+        out.value(value == null ? null : String.valueOf(value));
+    }
+
+    /**
+     * Consumes JSON null if it is the next token.
+     *
+     * @return {@code true} if null was consumed and {@code false} otherwise
+     */
+    protected static boolean skipNull(JsonReader in) throws IOException {
+        if (in.peek() == JsonToken.NULL) {
+            in.nextNull();
+            return true;
+        }
+        return false;
+    }
+
+    protected static String readString(JsonReader in) throws IOException {
+        final JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.BOOLEAN) {
+            return Boolean.toString(in.nextBoolean());
+        }
+        return in.nextString();
+    }
+
+    protected static Boolean readBoolean(JsonReader in) throws IOException {
+        final JsonToken token = in.peek();
+        if (token == JsonToken.NULL) {
+            in.nextNull();
+            return null;
+        }
+        if (token == JsonToken.STRING) {
+            return Boolean.parseBoolean(in.nextString());
+        }
+        return in.nextBoolean();
+    }
+
+    protected static Character readCharacter(JsonReader in) throws IOException {
+        if (skipNull(in)) {
+            return null;
+        }
+        final String str = in.nextString();
+        if (str.length() != 1) {
+            throw new JsonSyntaxException("Expecting character, got: " + str);
+        }
+        return str.charAt(0);
+    }
+
+    protected static Integer readInteger(JsonReader in) throws IOException {
+        if (skipNull(in)) {
+            return null;
+        }
+        try {
+            return in.nextInt();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    protected static Long readLong(JsonReader in) throws IOException {
+        if (skipNull(in)) {
+            return null;
+        }
+        try {
+            return in.nextLong();
+        } catch (NumberFormatException e) {
+            throw new JsonSyntaxException(e);
+        }
+    }
+
+    protected static Short readShort(JsonReader in) throws IOException {
+        final Integer value = readInteger(in);
+        return value == null ? null : value.shortValue();
+    }
+
+    protected static Byte readByte(JsonReader in) throws IOException {
+        final Integer value = readInteger(in);
+        return value == null ? null : value.byteValue();
+    }
+
+    protected static Double readDouble(JsonReader in) throws IOException {
+        if (skipNull(in)) {
+            return null;
+        }
+        return in.nextDouble();
+    }
+
+    protected static Float readFloat(JsonReader in) throws IOException {
+        if (skipNull(in)) {
+            return null;
+        }
+        return (float)in.nextDouble();
+    }
+}
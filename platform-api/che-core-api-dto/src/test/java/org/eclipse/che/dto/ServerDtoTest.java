@@ -17,6 +17,7 @@ import com.google.gson.JsonObject;
 import com.google.gson.JsonParser;
 import com.google.gson.JsonPrimitive;
 
+import org.eclipse.che.dto.definitions.CompactDto;
 import org.eclipse.che.dto.definitions.ComplicatedDto;
 import org.eclipse.che.dto.definitions.DTOHierarchy;
 import org.eclipse.che.dto.definitions.DTOHierarchy.GrandchildDto;
@@ -28,9 +29,12 @@ import org.eclipse.che.dto.definitions.model.Model;
 import org.eclipse.che.dto.definitions.model.ModelComponentDto;
 import org.eclipse.che.dto.definitions.model.ModelDto;
 import org.eclipse.che.dto.server.DtoFactory;
+import org.eclipse.che.dto.server.DtoTypeAdapter;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.io.StringReader;
+import java.io.StringWriter;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -347,6 +351,72 @@ public class ServerDtoTest {
         assertEquals(dto.getDefault(), expectedDefault);
     }
 
+    @Test
+    public void shouldUseGeneratedTypeAdapterForDto() throws Exception {
+        assertTrue(dtoFactory.getGson().getAdapter(SimpleDto.class) instanceof DtoTypeAdapter);
+        assertTrue(dtoFactory.getGson().getAdapter(dtoFactory.createDto(ComplicatedDto.class).getClass()) instanceof DtoTypeAdapter);
+    }
+
+    @Test
+    public void shouldKeepDefaultValueOfPrimitiveFieldAndSkipUnknownFieldsWhenDeserialize() throws Exception {
+        SimpleDto dto = dtoFactory.createDtoFromJson("{\"id\":null,\"name\":\"test\",\"unknown\":{\"a\":[1,2]}}", SimpleDto.class);
+
+        checkSimpleDto(dto, "test", 0, null);
+    }
+
+    @Test
+    public void shouldSerializeListOfDtosWithWriter() throws Exception {
+        SimpleDto dto = dtoFactory.createDto(SimpleDto.class).withName("test").withId(1);
+        StringWriter writer = new StringWriter();
+
+        dtoFactory.getGson().toJson(asList(dto, dto), writer);
+
+        org.eclipse.che.dto.shared.JsonArray<SimpleDto> list = dtoFactory.createListDtoFromJson(writer.toString(), SimpleDto.class);
+        assertEquals(list.size(), 2);
+        assertEquals(list.get(0), dto);
+        assertEquals(list.get(1), dto);
+    }
+
+    @Test
+    public void shouldSerializeCompactDtoToArray() throws Exception {
+        CompactDto dto = dtoFactory.createDtoFromJson("{\"name\":\"test\",\"id\":2,\"lines\":[\"a\",\"b\"]}", CompactDto.class);
+
+        assertEquals(dtoFactory.toCompactJson(dto), "[\"test\",2,null,[\"a\",\"b\"]]");
+    }
+
+    @Test
+    public void shouldOmitEmptyListAtLastPositionOfCompactDto() throws Exception {
+        CompactDto dto = dtoFactory.createDtoFromJson("{\"name\":\"test\",\"id\":2}", CompactDto.class);
+
+        assertEquals(dtoFactory.toCompactJson(dto), "[\"test\",2,null]");
+    }
+
+    @Test
+    public void shouldDeserializeCompactDto() throws Exception {
+        CompactDto dto = dtoFactory.createDtoFromCompactJson("[\"test\",2,\"unknown\",[\"a\",\"b\"]]", CompactDto.class);
+
+        assertEquals(dto.getName(), "test");
+        assertEquals(dto.getId(), 2);
+        assertEquals(dto.getLines(), asList("a", "b"));
+        assertEquals(dtoFactory.createDtoFromCompactJson("[\"test\"]", CompactDto.class).getId(), 0);
+    }
+
+    @Test
+    public void shouldSerializeListOfCompactDtos() throws Exception {
+        CompactDto dto = dtoFactory.createDtoFromCompactJson("[\"test\",2]", CompactDto.class);
+        String json = dtoFactory.toCompactJson(asList(dto, dto));
+
+        assertEquals(json, "[[\"test\",2,null],[\"test\",2,null]]");
+        assertEquals(dtoFactory.createListDtoFromCompactJson(new StringReader(json), CompactDto.class), asList(dto, dto));
+    }
+
+    @Test
+    public void shouldSerializeRegularDtoInRegularFormWhenCompactJsonRequested() throws Exception {
+        SimpleDto dto = dtoFactory.createDto(SimpleDto.class).withName("test").withId(1);
+
+        assertEquals(dtoFactory.toCompactJson(dto), dtoFactory.toJson(dto));
+    }
+
     @Test
     public void testDelegate() {
         assertEquals(DtoFactory.getInstance().createDto(DtoWithDelegate.class).withName("TEST").nameWithPrefix("### "), "### TEST");
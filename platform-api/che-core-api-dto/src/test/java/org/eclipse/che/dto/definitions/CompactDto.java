@@ -0,0 +1,32 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.dto.definitions;
+
+import org.eclipse.che.dto.shared.CompactJsonDto;
+import org.eclipse.che.dto.shared.DTO;
+import org.eclipse.che.dto.shared.SerializationIndex;
+
+import java.util.List;
+
+/**
+ * DTO which is serialized to compact JSON. There is intentional gap in serialization indexes.
+ */
+@DTO
+public interface CompactDto extends CompactJsonDto {
+    @SerializationIndex(1)
+    String getName();
+
+    @SerializationIndex(2)
+    int getId();
+
+    @SerializationIndex(4)
+    List<String> getLines();
+}
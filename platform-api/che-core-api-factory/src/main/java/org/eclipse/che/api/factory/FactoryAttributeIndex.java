@@ -0,0 +1,194 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.factory;
+
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+
+import org.eclipse.che.api.factory.dto.Factory;
+import org.eclipse.che.commons.lang.Pair;
+import org.eclipse.che.dto.server.DtoFactory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Inverted index of factory attributes which may be used by implementations of {@link FactoryStore} to answer {@link
+ * FactoryStore#findByAttribute(int, int, List)} without loading of all factories.
+ * <p/>
+ * Factory is flattened to pairs of attribute path and value, e.g. {@code source.project.location}, {@code creator.userId}, {@code v}.
+ * Elements of arrays get path of array itself. Every pair refers to the sorted list of identifiers of factories which contain it, so
+ * conjunctive query is answered by intersection of sorted lists and results are always sorted by factory identifier.
+ * <p/>
+ * Index isn't thread safe, callers should synchronize access to it.
+ */
+public class FactoryAttributeIndex {
+    private static final char SEPARATOR = '\u0000';
+
+    private final Map<String, NavigableSet<String>> postings;
+    private final Map<String, Set<String>>          factoryTerms;
+
+    public FactoryAttributeIndex() {
+        postings = new HashMap<>();
+        factoryTerms = new HashMap<>();
+    }
+
+    /**
+     * Adds factory to the index or replaces previously indexed attributes of factory with the same id.
+     *
+     * @param id
+     *         factory identifier
+     * @param factory
+     *         factory to index
+     */
+    public void put(String id, Factory factory) {
+        remove(id);
+        final Set<String> terms = getTerms(factory);
+        for (String term : terms) {
+            NavigableSet<String> ids = postings.get(term);
+            if (ids == null) {
+                postings.put(term, ids = new TreeSet<>());
+            }
+            ids.add(id);
+        }
+        factoryTerms.put(id, terms);
+    }
+
+    /**
+     * Removes factory from the index. Does nothing if factory isn't indexed.
+     *
+     * @param id
+     *         factory identifier
+     */
+    public void remove(String id) {
+        final Set<String> terms = factoryTerms.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            final NavigableSet<String> ids = postings.get(term);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    /** Removes all factories from the index. */
+    public void clear() {
+        postings.clear();
+        factoryTerms.clear();
+    }
+
+    /**
+     * Finds identifiers of factories which contain all given attributes.
+     *
+     * @param maxItems
+     *         max number of items in result, if {@code -1} all found identifiers are returned
+     * @param skipCount
+     *         number of found identifiers to skip
+     * @param attributes
+     *         pairs of attribute path and value, pairs with {@code null} path or value are ignored
+     * @return sorted identifiers of found factories, empty list if there is no valid attributes in query
+     */
+    public List<String> find(int maxItems, int skipCount, List<Pair<String, String>> attributes) {
+        final List<NavigableSet<String>> lists = new ArrayList<>(attributes.size());
+        for (Pair<String, String> attribute : attributes) {
+            if (attribute.first == null || attribute.second == null) {
+                continue;
+            }
+            final NavigableSet<String> ids = postings.get(term(attribute.first, attribute.second));
+            if (ids == null) {
+                return Collections.emptyList();
+            }
+            lists.add(ids);
+        }
+        if (lists.isEmpty() || maxItems == 0) {
+            return Collections.emptyList();
+        }
+        // start from the shortest list to make as less lookups in other lists as possible
+        Collections.sort(lists, new Comparator<NavigableSet<String>>() {
+            @Override
+            public int compare(NavigableSet<String> o1, NavigableSet<String> o2) {
+                return Integer.compare(o1.size(), o2.size());
+            }
+        });
+        final NavigableSet<String> shortest = lists.get(0);
+        final List<String> result = new ArrayList<>(maxItems < 0 ? Math.min(shortest.size(), 16) : Math.min(shortest.size(), maxItems));
+        int skipped = 0;
+        String candidate = shortest.first();
+        while (candidate != null) {
+            String next = null;
+            for (int i = 1, size = lists.size(); i < size && next == null; i++) {
+                final String ceiling = lists.get(i).ceiling(candidate);
+                if (ceiling == null) {
+                    return result;
+                }
+                if (!ceiling.equals(candidate)) {
+                    next = ceiling;
+                }
+            }
+            if (next == null) {
+                if (skipped < skipCount) {
+                    skipped++;
+                } else {
+                    result.add(candidate);
+                    if (result.size() == maxItems) {
+                        return result;
+                    }
+                }
+                candidate = shortest.higher(candidate);
+            } else {
+                // jump over identifiers which can't be in all lists
+                candidate = shortest.ceiling(next);
+            }
+        }
+        return result;
+    }
+
+    /** Returns all pairs of attribute path and value of given factory in form which is used as keys of index. */
+    private static Set<String> getTerms(Factory factory) {
+        final Set<String> terms = new HashSet<>();
+        final JsonElement json = DtoFactory.getInstance().toJsonElement(factory);
+        if (json.isJsonObject()) {
+            collectTerms(null, json, terms);
+        }
+        return terms;
+    }
+
+    private static void collectTerms(String path, JsonElement element, Set<String> terms) {
+        if (element.isJsonObject()) {
+            for (Map.Entry<String, JsonElement> entry : ((JsonObject)element).entrySet()) {
+                collectTerms(path == null ? entry.getKey() : path + '.' + entry.getKey(), entry.getValue(), terms);
+            }
+        } else if (element.isJsonArray()) {
+            for (JsonElement item : element.getAsJsonArray()) {
+                collectTerms(path, item, terms);
+            }
+        } else if (element.isJsonPrimitive() && path != null) {
+            terms.add(term(path, element.getAsString()));
+        }
+    }
+
+    private static String term(String path, String value) {
+        return path + SEPARATOR + value;
+    }
+}
@@ -31,7 +31,9 @@ import javax.inject.Singleton;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
@@ -39,6 +41,8 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import static org.eclipse.che.api.core.factory.FactoryParameter.Obligation;
 import static org.eclipse.che.api.core.factory.FactoryParameter.Version;
@@ -63,6 +67,10 @@ public class FactoryBuilder {
         LEGACY_CONVERTERS = Collections.unmodifiableList(l);
     }
 
+    /** Cached validation rules, methods provider -> allowed methods provider -> rules. */
+    private static final ConcurrentMap<Class<?>, ConcurrentMap<Class<?>, List<ParameterRule>>> VALIDATION_PLANS =
+            new ConcurrentHashMap<>();
+
     private final SourceProjectParametersValidator sourceProjectParametersValidator;
 
     @Inject
@@ -185,80 +193,144 @@ public class FactoryBuilder {
                                Class allowedMethodsProvider,
                                Version version,
                                String parentName) throws ApiException {
+        for (ParameterRule rule : getValidationPlan(methodsProvider, allowedMethodsProvider)) {
+            // check that field is set
+            Object parameterValue;
+            try {
+                parameterValue = rule.getter.invokeExact(object);
+            } catch (Throwable e) {
+                // should never happen
+                LOG.error(e.getLocalizedMessage(), e);
+                throw new ConflictException(FactoryConstants.INVALID_PARAMETER_MESSAGE);
+            }
+
+            final FactoryParameter factoryParameter = rule.factoryParameter;
+            // if value is null or empty collection or default value for primitives
+            if (ValueHelper.isEmpty(parameterValue)) {
+                // field must not be a mandatory, unless it's ignored or deprecated or doesn't suit to the version
+                if (Obligation.MANDATORY.equals(factoryParameter.obligation()) &&
+                    factoryParameter.deprecatedSince().compareTo(version) > 0 &&
+                    factoryParameter.ignoredSince().compareTo(version) > 0 &&
+                    rule.allowed) {
+                    throw new ConflictException(FactoryConstants.MISSING_MANDATORY_MESSAGE);
+                }
+            } else if (!rule.allowed
+                       // is parameter deprecated
+                       || factoryParameter.deprecatedSince().compareTo(version) <= 0
+                       || factoryParameter.setByServer()) {
+                throw new ConflictException(String.format(FactoryConstants.PARAMETRIZED_INVALID_PARAMETER_MESSAGE,
+                                                          rule.getFullName(parentName), version));
+            } else {
+                switch (rule.kind) {
+                    case DTO:
+                        // validate inner objects such Git ot ProjectAttributes
+                        validateCompatibility(parameterValue, rule.type, rule.type, version, rule.getFullName(parentName));
+                        break;
+                    case SOURCE_PARAMETERS:
+                        sourceProjectParametersValidator.validate((ImportSourceDescriptor)object, version);
+                        break;
+                    case DTO_MAP:
+                        final String fullName = rule.getFullName(parentName);
+                        for (Map.Entry<?, ?> entry : ((Map<?, ?>)parameterValue).entrySet()) {
+                            validateCompatibility(entry.getValue(), rule.type, rule.type, version, fullName + "." + entry.getKey());
+                        }
+                        break;
+                    case UNSUPPORTED_MAP:
+                        throw new RuntimeException("This type of fields is not supported by factory.");
+                    default:
+                        break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns rules to validate parameters of given class. Rules are collected with reflection once per pair of classes and reused
+     * for all subsequent validations.
+     */
+    private static List<ParameterRule> getValidationPlan(Class<?> methodsProvider, Class<?> allowedMethodsProvider) {
+        return VALIDATION_PLANS.computeIfAbsent(methodsProvider, k -> new ConcurrentHashMap<>())
+                               .computeIfAbsent(allowedMethodsProvider, k -> createValidationPlan(methodsProvider, k));
+    }
+
+    private static List<ParameterRule> createValidationPlan(Class<?> methodsProvider, Class<?> allowedMethodsProvider) {
+        final List<ParameterRule> rules = new ArrayList<>();
         // get all methods recursively
         for (Method method : methodsProvider.getMethods()) {
-            FactoryParameter factoryParameter = method.getAnnotation(FactoryParameter.class);
+            final FactoryParameter factoryParameter = method.getAnnotation(FactoryParameter.class);
             // is it factory parameter
-            if (factoryParameter != null) {
-                String fullName = (parentName.isEmpty() ? "" : (parentName + ".")) + CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_CAMEL,
-                                                                                                              method.getName().substring(3)
-                                                                                                                     .toLowerCase());
-                // check that field is set
-                Object parameterValue;
-                try {
-                    parameterValue = method.invoke(object);
-                } catch (IllegalAccessException | InvocationTargetException | IllegalArgumentException e) {
-                    // should never happen
-                    LOG.error(e.getLocalizedMessage(), e);
-                    throw new ConflictException(FactoryConstants.INVALID_PARAMETER_MESSAGE);
-                }
+            if (factoryParameter == null) {
+                continue;
+            }
+            final String name = CaseFormat.UPPER_CAMEL.to(CaseFormat.LOWER_CAMEL, method.getName().substring(3).toLowerCase());
+            final MethodHandle getter;
+            try {
+                getter = MethodHandles.publicLookup().unreflect(method).asType(MethodType.methodType(Object.class, Object.class));
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException(e.getMessage(), e);
+            }
 
-                // if value is null or empty collection or default value for primitives
-                if (ValueHelper.isEmpty(parameterValue)) {
-                    // field must not be a mandatory, unless it's ignored or deprecated or doesn't suit to the version
-                    if (Obligation.MANDATORY.equals(factoryParameter.obligation()) &&
-                        factoryParameter.deprecatedSince().compareTo(version) > 0 &&
-                        factoryParameter.ignoredSince().compareTo(version) > 0 &&
-                        method.getDeclaringClass().isAssignableFrom(allowedMethodsProvider)) {
-                        throw new ConflictException(FactoryConstants.MISSING_MANDATORY_MESSAGE);
-                    }
-                } else if (!method.getDeclaringClass().isAssignableFrom(allowedMethodsProvider)) {
-                    throw new ConflictException(String.format(FactoryConstants.PARAMETRIZED_INVALID_PARAMETER_MESSAGE, fullName, version));
+            ParameterKind kind = ParameterKind.SIMPLE;
+            Class<?> type = method.getReturnType();
+            if (type.isAnnotationPresent(DTO.class)) {
+                kind = ParameterKind.DTO;
+            } else if (Map.class.isAssignableFrom(type)) {
+                final Type tp = ((ParameterizedType)method.getGenericReturnType()).getActualTypeArguments()[1];
+                if (tp instanceof ParameterizedType) {
+                    type = (Class)((ParameterizedType)tp).getRawType();
                 } else {
-                    // is parameter deprecated
-                    if (factoryParameter.deprecatedSince().compareTo(version) <= 0) {
-                        throw new ConflictException(
-                                String.format(FactoryConstants.PARAMETRIZED_INVALID_PARAMETER_MESSAGE, fullName, version));
+                    type = (Class)tp;
+                }
+                if (String.class.equals(type)) {
+                    if (ImportSourceDescriptor.class.equals(methodsProvider)) {
+                        kind = ParameterKind.SOURCE_PARAMETERS;
                     }
+                } else if (!List.class.equals(type)) {
+                    kind = type.isAnnotationPresent(DTO.class) ? ParameterKind.DTO_MAP : ParameterKind.UNSUPPORTED_MAP;
+                }
+            }
+            rules.add(new ParameterRule(name,
+                                        getter,
+                                        factoryParameter,
+                                        method.getDeclaringClass().isAssignableFrom(allowedMethodsProvider),
+                                        kind,
+                                        type));
+        }
+        return Collections.unmodifiableList(rules);
+    }
 
-                    if (factoryParameter.setByServer()) {
-                        throw new ConflictException(
-                                String.format(FactoryConstants.PARAMETRIZED_INVALID_PARAMETER_MESSAGE, fullName, version));
-                    }
+    /** Describes how non-empty value of factory parameter should be validated. */
+    private enum ParameterKind {
+        SIMPLE,
+        DTO,
+        SOURCE_PARAMETERS,
+        DTO_MAP,
+        UNSUPPORTED_MAP
+    }
 
-                    // use recursion if parameter is DTO object
-                    if (method.getReturnType().isAnnotationPresent(DTO.class)) {
-                        // validate inner objects such Git ot ProjectAttributes
-                        validateCompatibility(parameterValue, method.getReturnType(), method.getReturnType(), version, fullName);
-                    } else if (Map.class.isAssignableFrom(method.getReturnType())) {
-                        Type tp = ((ParameterizedType)method.getGenericReturnType()).getActualTypeArguments()[1];
+    /** Precomputed data to validate one factory parameter. */
+    private static final class ParameterRule {
+        final String           name;
+        final MethodHandle     getter;
+        final FactoryParameter factoryParameter;
+        /** Whether parameter is allowed by methods provider of used factory version. */
+        final boolean          allowed;
+        final ParameterKind    kind;
+        /** Class of DTO or class of values of map. */
+        final Class<?>         type;
 
-                        Class secMapParamClass;
-                        if (tp instanceof ParameterizedType) {
-                            secMapParamClass = (Class)((ParameterizedType)tp).getRawType();
-                        } else {
-                            secMapParamClass = (Class)tp;
-                        }
-                        if (String.class.equals(secMapParamClass)) {
-                            if (ImportSourceDescriptor.class.equals(methodsProvider)) {
-                                sourceProjectParametersValidator.validate((ImportSourceDescriptor)object, version);
-                            }
-                        } else if (List.class.equals(secMapParamClass)) {
-                            // do nothing
-                        } else {
-                            if (secMapParamClass.isAnnotationPresent(DTO.class)) {
-                                Map<Object, Object> map = (Map)parameterValue;
-                                for (Map.Entry<Object, Object> entry : map.entrySet()) {
-                                    validateCompatibility(entry.getValue(), secMapParamClass, secMapParamClass, version,
-                                                          fullName + "." + entry.getKey());
-                                }
-                            } else {
-                                throw new RuntimeException("This type of fields is not supported by factory.");
-                            }
-                        }
-                    }
-                }
-            }
+        ParameterRule(String name, MethodHandle getter, FactoryParameter factoryParameter, boolean allowed, ParameterKind kind,
+                      Class<?> type) {
+            this.name = name;
+            this.getter = getter;
+            this.factoryParameter = factoryParameter;
+            this.allowed = allowed;
+            this.kind = kind;
+            this.type = type;
+        }
+
+        String getFullName(String parentName) {
+            return parentName.isEmpty() ? name : parentName + "." + name;
         }
     }
 }
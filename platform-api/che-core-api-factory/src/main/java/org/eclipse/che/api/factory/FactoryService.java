@@ -401,30 +401,43 @@ public class FactoryService extends Service {
     /**
      * Get list of factory links which conform specified attributes.
      *
+     * @param maxItems
+     *         - max number of items in response, if {@code -1} all found factories are returned
+     * @param skipCount
+     *         - number of found factories to skip
      * @param uriInfo
      *         - url context
      * @return - stored data, if id is correct.
      * @throws org.eclipse.che.api.core.ApiException
      *         - {@link org.eclipse.che.api.core.NotFoundException} when factory with given id doesn't exist
+     *         - {@link org.eclipse.che.api.core.ConflictException} when skipCount is negative
      */
     @RolesAllowed({"user", "system/manager"})
     @GET
     @Path("/find")
     @Produces({MediaType.APPLICATION_JSON})
-    @SuppressWarnings("unchecked")
-    public List<Link> getFactoryByAttribute(@Context UriInfo uriInfo) throws ApiException {
+    public List<Link> getFactoryByAttribute(@DefaultValue("-1") @QueryParam("maxItems") int maxItems,
+                                            @QueryParam("skipCount") int skipCount,
+                                            @Context UriInfo uriInfo) throws ApiException {
+        if (skipCount < 0) {
+            throw new ConflictException("'skipCount' parameter is negative. ");
+        }
         List<Link> result = new ArrayList<>();
-        URI uri = UriBuilder.fromUri(uriInfo.getRequestUri()).replaceQueryParam("token").build();
+        URI uri = UriBuilder.fromUri(uriInfo.getRequestUri())
+                            .replaceQueryParam("token")
+                            .replaceQueryParam("maxItems")
+                            .replaceQueryParam("skipCount")
+                            .build();
         Map<String, Set<String>> queryParams = URLEncodedUtils.parse(uri, "UTF-8");
         if (queryParams.isEmpty()) {
             throw new IllegalArgumentException("Query must contain at least one attribute.");
         }
-        ArrayList<Pair> pairs = new ArrayList<>();
+        List<Pair<String, String>> pairs = new ArrayList<>();
         for (Map.Entry<String, Set<String>> entry : queryParams.entrySet()) {
             if (!entry.getValue().isEmpty())
                 pairs.add(Pair.of(entry.getKey(), entry.getValue().iterator().next()));
         }
-        List<Factory> factories = factoryStore.findByAttribute(pairs.toArray(new Pair[pairs.size()]));
+        List<Factory> factories = factoryStore.findByAttribute(maxItems, skipCount, pairs);
         for (Factory factory : factories) {
             result.add(DtoFactory.getInstance().createDto(Link.class)
                                  .withMethod(HttpMethod.GET)
@@ -14,6 +14,8 @@ import org.eclipse.che.api.core.ApiException;
 import org.eclipse.che.api.factory.dto.Factory;
 import org.eclipse.che.commons.lang.Pair;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -61,6 +63,30 @@ public interface FactoryStore {
      */
     public List<Factory> findByAttribute(Pair<String, String>... attributes) throws ApiException;
 
+    /**
+     * Retrieve page of factories which contain all given attributes. Default implementation loads all found factories with {@link
+     * #findByAttribute(Pair[])} and returns requested page of them. Implementations should override this method to fetch only factories
+     * from requested page, e.g. with {@link FactoryAttributeIndex}.
+     *
+     * @param maxItems
+     *         - max number of items in result, if {@code -1} all found factories are returned
+     * @param skipCount
+     *         - number of found factories to skip
+     * @param attributes
+     *         - attribute pairs to search for
+     * @return - List {@code AdvancedFactoryUrl} if factory(s) exist and found, empty list otherwise
+     * @throws org.eclipse.che.api.core.ApiException
+     */
+    @SuppressWarnings("unchecked")
+    public default List<Factory> findByAttribute(int maxItems, int skipCount, List<Pair<String, String>> attributes) throws ApiException {
+        final List<Factory> factories = findByAttribute(attributes.toArray(new Pair[attributes.size()]));
+        if (skipCount >= factories.size()) {
+            return Collections.emptyList();
+        }
+        final int toIndex = maxItems < 0 ? factories.size() : (int)Math.min(factories.size(), (long)skipCount + maxItems);
+        return new ArrayList<>(factories.subList(skipCount, toIndex));
+    }
+
     /**
      * Retrieve factory images by factory id
      *
@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.factory;
+
+import org.eclipse.che.api.factory.dto.Author;
+import org.eclipse.che.api.factory.dto.Factory;
+import org.eclipse.che.api.project.shared.dto.ImportSourceDescriptor;
+import org.eclipse.che.api.project.shared.dto.Source;
+import org.eclipse.che.commons.lang.Pair;
+import org.eclipse.che.dto.server.DtoFactory;
+
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+public class FactoryAttributeIndexTest {
+    private FactoryAttributeIndex index;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        index = new FactoryAttributeIndex();
+        index.put("f1", createFactory("git", "http://host/a.git", "user1"));
+        index.put("f2", createFactory("git", "http://host/b.git", "user1"));
+        index.put("f3", createFactory("zip", "http://host/a.git", "user2"));
+        index.put("f4", createFactory("git", "http://host/a.git", "user1"));
+    }
+
+    @Test
+    public void shouldFindByNestedAttribute() throws Exception {
+        assertEquals(index.find(-1, 0, pairs(Pair.of("creator.userId", "user1"))), asList("f1", "f2", "f4"));
+        assertEquals(index.find(-1, 0, pairs(Pair.of("v", "2.0"))), asList("f1", "f2", "f3", "f4"));
+    }
+
+    @Test
+    public void shouldIntersectAttributes() throws Exception {
+        final List<String> ids = index.find(-1, 0, pairs(Pair.of("source.project.type", "git"),
+                                                         Pair.of("source.project.location", "http://host/a.git"),
+                                                         Pair.of("creator.userId", "user1")));
+
+        assertEquals(ids, asList("f1", "f4"));
+    }
+
+    @Test
+    public void shouldReturnEmptyListIfAnyAttributeDoesNotMatch() throws Exception {
+        assertTrue(index.find(-1, 0, pairs(Pair.of("creator.userId", "user1"), Pair.of("source.project.type", "svn"))).isEmpty());
+        assertTrue(index.find(-1, 0, pairs(Pair.of("creator.userId", "user2"), Pair.of("source.project.type", "git"))).isEmpty());
+    }
+
+    @Test
+    public void shouldReturnPageOfResult() throws Exception {
+        assertEquals(index.find(2, 0, pairs(Pair.of("v", "2.0"))), asList("f1", "f2"));
+        assertEquals(index.find(2, 2, pairs(Pair.of("v", "2.0"))), asList("f3", "f4"));
+        assertEquals(index.find(-1, 3, pairs(Pair.of("v", "2.0"))), asList("f4"));
+        assertTrue(index.find(2, 4, pairs(Pair.of("v", "2.0"))).isEmpty());
+    }
+
+    @Test
+    public void shouldUpdateIndexWhenFactoryIsReplacedOrRemoved() throws Exception {
+        index.put("f1", createFactory("git", "http://host/a.git", "user2"));
+        index.remove("f4");
+
+        assertEquals(index.find(-1, 0, pairs(Pair.of("creator.userId", "user1"))), asList("f2"));
+        assertEquals(index.find(-1, 0, pairs(Pair.of("creator.userId", "user2"))), asList("f1", "f3"));
+    }
+
+    @SafeVarargs
+    private static List<Pair<String, String>> pairs(Pair<String, String>... pairs) {
+        return asList(pairs);
+    }
+
+    private static Factory createFactory(String type, String location, String userId) {
+        final DtoFactory dto = DtoFactory.getInstance();
+        return dto.createDto(Factory.class)
+                  .withV("2.0")
+                  .withSource(dto.createDto(Source.class)
+                                 .withProject(dto.createDto(ImportSourceDescriptor.class)
+                                                 .withType(type)
+                                                 .withLocation(location)
+                                                 .withParameters(Collections.singletonMap("branch", "master"))))
+                  .withCreator(dto.createDto(Author.class).withUserId(userId));
+    }
+}
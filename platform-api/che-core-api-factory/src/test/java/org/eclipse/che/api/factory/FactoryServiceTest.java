@@ -1056,7 +1056,7 @@ public class FactoryServiceTest {
                                       .withCreator(dto.createDto(Author.class).withAccountId("testorg"));
 
 
-        when(factoryStore.findByAttribute(Pair.of("creator.accountid", "testorg"))).thenReturn(
+        when(factoryStore.findByAttribute(-1, 0, Collections.singletonList(Pair.of("creator.accountid", "testorg")))).thenReturn(
                 Arrays.asList(factory, factory));
 
         // when
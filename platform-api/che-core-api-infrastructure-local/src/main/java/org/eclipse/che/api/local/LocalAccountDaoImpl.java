@@ -30,6 +30,8 @@ import javax.inject.Named;
 import javax.inject.Singleton;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
@@ -113,6 +115,24 @@ public class LocalAccountDaoImpl implements AccountDao {
         throw new NotFoundException(String.format("Not found account %s", id));
     }
 
+    @Override
+    public List<Account> getByIds(Collection<String> ids) {
+        final Set<String> idSet = new HashSet<>(ids);
+        final List<Account> result = new ArrayList<>(idSet.size());
+        lock.readLock().lock();
+        try {
+            for (Account account : accounts) {
+                if (idSet.contains(account.getId())) {
+                    result.add(new Account().withId(account.getId()).withName(account.getName())
+                                            .withAttributes(new LinkedHashMap<>(account.getAttributes())));
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
     @Override
     public Account getByName(String name) throws NotFoundException {
         lock.readLock().lock();
@@ -15,6 +15,7 @@ import com.google.common.reflect.TypeToken;
 
 import org.eclipse.che.api.core.ApiException;
 import org.eclipse.che.api.core.ConflictException;
+import org.eclipse.che.api.factory.FactoryAttributeIndex;
 import org.eclipse.che.api.factory.FactoryImage;
 import org.eclipse.che.api.factory.FactoryStore;
 import org.eclipse.che.api.factory.dto.Factory;
@@ -29,11 +30,11 @@ import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -48,6 +49,7 @@ public class LocalFactoryDaoImpl implements FactoryStore {
 
     private final Map<String, Set<FactoryImage>> images;
     private final Map<String, Factory>           factories;
+    private final FactoryAttributeIndex          attributeIndex;
     private final ReentrantReadWriteLock         lock;
     private final LocalStorage                   imageStorage;
     private final LocalStorage                   factoryStorage;
@@ -56,6 +58,7 @@ public class LocalFactoryDaoImpl implements FactoryStore {
     public LocalFactoryDaoImpl(LocalStorageFactory localStorageFactory) throws IOException {
         images = new HashMap<>();
         factories = new HashMap<>();
+        attributeIndex = new FactoryAttributeIndex();
         lock = new ReentrantReadWriteLock();
         imageStorage = localStorageFactory.create("images.json");
         factoryStorage = localStorageFactory.create("factories.json");
@@ -65,6 +68,9 @@ public class LocalFactoryDaoImpl implements FactoryStore {
     public void start() {
         images.putAll(imageStorage.loadMap(new TypeToken<Map<String, Set<FactoryImage>>>() {}));
         factories.putAll(factoryStorage.loadMap(new TypeToken<Map<String, Factory>>() {}));
+        for (Map.Entry<String, Factory> entry : factories.entrySet()) {
+            attributeIndex.put(entry.getKey(), entry.getValue());
+        }
     }
 
     @PreDestroy
@@ -86,6 +92,7 @@ public class LocalFactoryDaoImpl implements FactoryStore {
             }
 
             factories.put(newFactoryUrl.getId(), newFactoryUrl);
+            attributeIndex.put(newFactoryUrl.getId(), newFactoryUrl);
             this.images.put(newFactoryUrl.getId(), newImages);
 
             return newFactoryUrl.getId();
@@ -101,6 +108,7 @@ public class LocalFactoryDaoImpl implements FactoryStore {
         lock.writeLock().lock();
         try {
             factories.remove(id);
+            attributeIndex.remove(id);
         } finally {
             lock.writeLock().unlock();
         }
@@ -118,20 +126,22 @@ public class LocalFactoryDaoImpl implements FactoryStore {
 
     @Override
     public List<Factory> findByAttribute(Pair<String, String>... attributes) throws ApiException {
-        final List<Factory> result = new LinkedList<>();
+        return findByAttribute(-1, 0, Arrays.asList(attributes));
+    }
+
+    @Override
+    public List<Factory> findByAttribute(int maxItems, int skipCount, List<Pair<String, String>> attributes) throws ApiException {
         lock.readLock().lock();
         try {
-            for (Pair<String, String> attribute : attributes) {
-                final String name = attribute.first;
-                final String value = attribute.second;
-                if (name == null || value == null) {
-                    continue;
-                }
+            final List<String> ids = attributeIndex.find(maxItems, skipCount, attributes);
+            final List<Factory> result = new ArrayList<>(ids.size());
+            for (String id : ids) {
+                result.add(factories.get(id));
             }
+            return result;
         } finally {
             lock.readLock().unlock();
         }
-        return result;
     }
 
     @Override
@@ -177,6 +187,7 @@ public class LocalFactoryDaoImpl implements FactoryStore {
         try {
             final Factory clonedFactory = DtoFactory.getInstance().clone(factory);
             factories.put(factoryId, clonedFactory);
+            attributeIndex.put(factoryId, clonedFactory);
             return clonedFactory.getId();
         } finally {
             lock.writeLock().unlock();
@@ -37,7 +37,7 @@ import org.eclipse.che.api.vfs.server.observation.VirtualFileEvent;
 import org.eclipse.che.commons.env.EnvironmentContext;
 import org.eclipse.che.commons.lang.Pair;
 import org.eclipse.che.commons.lang.cache.Cache;
-import org.eclipse.che.commons.lang.cache.SLRUCache;
+import org.eclipse.che.commons.lang.cache.ExpiringCache;
 import org.eclipse.che.dto.server.DtoFactory;
 
 import org.slf4j.Logger;
@@ -104,23 +104,25 @@ public class DefaultProjectManager implements ProjectManager {
         this.miscLocks = new Lock[CACHE_NUM];
         for (int i = 0; i < CACHE_NUM; i++) {
             miscLocks[i] = new ReentrantLock();
-            miscCaches[i] = new SLRUCache<Pair<String, String>, ProjectMisc>(SEG_SIZE, SEG_SIZE) {
-                @Override
-                protected void evict(Pair<String, String> key, ProjectMisc value) {
-                    if (value.isUpdated()) {
-                        final int index = key.hashCode() & CACHE_MASK;
-                        miscLocks[index].lock();
-                        try {
-                            writeProjectMisc(value.getProject(), value);
-                        } catch (Exception e) {
-                            LOG.error(e.getMessage(), e);
-                        } finally {
-                            miscLocks[index].unlock();
-                        }
-                        super.evict(key, value);
-                    }
-                }
-            };
+            // Caches are accessed under miscLocks, so they don't need own segments. Misc which is evicted from cache, also when cache
+            // is full, is saved if it was updated.
+            miscCaches[i] = ExpiringCache.<Pair<String, String>, ProjectMisc>newBuilder()
+                                         .maximumSize(SEG_SIZE * 2)
+                                         .concurrencyLevel(1)
+                                         .evictionListener((key, value, cause) -> {
+                                             if (value.isUpdated()) {
+                                                 final int index = key.hashCode() & CACHE_MASK;
+                                                 miscLocks[index].lock();
+                                                 try {
+                                                     writeProjectMisc(value.getProject(), value);
+                                                 } catch (Exception e) {
+                                                     LOG.error(e.getMessage(), e);
+                                                 } finally {
+                                                     miscLocks[index].unlock();
+                                                 }
+                                             }
+                                         })
+                                         .build();
         }
 
         vfsSubscriber = new EventSubscriber<VirtualFileEvent>() {
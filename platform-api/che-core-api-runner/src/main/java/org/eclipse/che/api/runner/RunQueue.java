@@ -23,6 +23,7 @@ import org.eclipse.che.api.core.ForbiddenException;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.core.UnauthorizedException;
+import org.eclipse.che.api.core.metrics.MetricRegistry;
 import org.eclipse.che.api.core.notification.EventService;
 import org.eclipse.che.api.core.notification.EventSubscriber;
 import org.eclipse.che.api.core.rest.HttpJsonHelper;
@@ -30,6 +31,7 @@ import org.eclipse.che.api.core.rest.HttpJsonRequestFactory;
 import org.eclipse.che.api.core.rest.RemoteServiceDescriptor;
 import org.eclipse.che.api.core.rest.ServiceContext;
 import org.eclipse.che.api.core.rest.shared.dto.Link;
+import org.eclipse.che.api.core.util.ExpiredTaskCleaner;
 import org.eclipse.che.api.core.util.ValueHolder;
 import org.eclipse.che.api.project.server.ProjectService;
 import org.eclipse.che.api.project.shared.EnvironmentId;
@@ -129,6 +131,7 @@ public class RunQueue {
     private final RunnerSelectionStrategy                         runnerSelector;
     private final ConcurrentMap<RunnerListKey, Set<RemoteRunner>> runnerListMapping;
     private final ConcurrentMap<Long, RunQueueTask>               tasks;
+    private final RunTaskCleaner                                  cleaner;
     private final int                                             defMemSize;
     private final EventService                                    eventService;
     private final int                                             defLifetime;
@@ -199,6 +202,7 @@ public class RunQueue {
 
         runnerServers = new ConcurrentHashMap<>();
         tasks = new ConcurrentHashMap<>();
+        cleaner = new RunTaskCleaner();
         runnerListMapping = new ConcurrentHashMap<>();
         started = new AtomicBoolean(false);
         final int partitions = 1 << 4;
@@ -278,60 +282,7 @@ public class RunQueue {
             cleanScheduler.scheduleAtFixedRate(ThreadLocalPropagateContext.wrap(new Runnable() {
                 @Override
                 public void run() {
-                    int num = 0;
-                    int waitingNum = 0;
-                    for (Iterator<RunQueueTask> i = tasks.values().iterator(); i.hasNext(); ) {
-                        if (Thread.currentThread().isInterrupted()) {
-                            return;
-                        }
-                        final RunQueueTask task = i.next();
-                        final boolean waiting = task.isWaiting();
-                        final RunRequest request = task.getRequest();
-                        if (waiting) {
-                            try {
-                                if ((task.getCreationTime() + maxWaitingTimeMillis) < System.currentTimeMillis() || task.isStopped()) {
-                                    try {
-                                        task.cancel();
-                                        eventService.publish(
-                                                RunnerEvent
-                                                        .queueTerminatedEvent(task.getId(), request.getWorkspace(), request.getProject()));
-                                    } catch (Exception e) {
-                                        LOG.warn(e.getMessage(), e);
-                                    }
-                                    i.remove();
-                                    waitingNum++;
-                                    num++;
-                                }
-                            } catch (RunnerException e) {
-                                LOG.warn(e.getMessage(), e);
-                            }
-                        } else {
-                            RemoteRunnerProcess remote = null;
-                            try {
-                                remote = task.getRemoteProcess();
-                            } catch (Exception e) {
-                                LOG.warn(e.getMessage(), e);
-                            }
-                            if (remote == null) {
-                                i.remove();
-                                num++;
-                            } else if ((remote.getCreationTime() + request.getLifetime() + appCleanupTime) < System.currentTimeMillis()) {
-                                try {
-                                    remote.getApplicationProcessDescriptor();
-                                } catch (NotFoundException e) {
-                                    i.remove();
-                                    num++;
-                                } catch (Exception e) {
-                                    LOG.warn(e.getMessage(), e);
-                                    i.remove();
-                                    num++;
-                                }
-                            }
-                        }
-                    }
-                    if (num > 0) {
-                        LOG.debug("Remove {} expired tasks, {} of them were waiting for processing", num, waitingNum);
-                    }
+                    cleaner.cleanup();
                 }
             }), cleanerPeriod, cleanerPeriod, TimeUnit.MILLISECONDS);
 
@@ -356,6 +307,37 @@ public class RunQueue {
         }
     }
 
+    /** Registers size of queue and statistic of cleanup of expired tasks in the given registry. */
+    @Inject
+    public void setMetricRegistry(MetricRegistry registry) {
+        registry.gauge("run_queue.tasks", tasks::size);
+        registry.gauge("run_queue.cleanup_time", cleaner::getLastCleanupTime);
+        registry.gauge("run_queue.cleanup_tasks", cleaner::getLastCleanupTasks);
+    }
+
+    /** Gets statistic of this queue. */
+    public List<RunnerMetric> getStats() {
+        final DtoFactory dtoFactory = DtoFactory.getInstance();
+        final List<RunnerMetric> stats = new ArrayList<>(4);
+        stats.add(dtoFactory.createDto(RunnerMetric.class)
+                            .withName(RunnerMetric.QUEUE_SIZE)
+                            .withValue(Integer.toString(tasks.size()))
+                            .withDescription("Number of tasks in queue"));
+        stats.add(dtoFactory.createDto(RunnerMetric.class)
+                            .withName(RunnerMetric.CLEANUP_TIME)
+                            .withValue(Long.toString(cleaner.getLastCleanupTime()))
+                            .withDescription("Duration of the last cleanup of expired tasks in milliseconds"));
+        stats.add(dtoFactory.createDto(RunnerMetric.class)
+                            .withName(RunnerMetric.CLEANUP_TASKS)
+                            .withValue(Integer.toString(cleaner.getLastCleanupTasks()))
+                            .withDescription("Number of tasks checked by the last cleanup of expired tasks"));
+        stats.add(dtoFactory.createDto(RunnerMetric.class)
+                            .withName(RunnerMetric.EXPIRED_TASKS)
+                            .withValue(Long.toString(cleaner.getExpiredTasks()))
+                            .withDescription("Number of expired tasks removed from queue"));
+        return stats;
+    }
+
     protected void checkStarted() {
         if (!started.get()) {
             throw new IllegalStateException("The runner has not started yet and there is a delay.");
@@ -387,6 +369,7 @@ public class RunQueue {
                 executor.shutdownNow();
             }
             tasks.clear();
+            cleaner.clear();
             runnerListMapping.clear();
             if (interrupted) {
                 Thread.currentThread().interrupt();
@@ -544,6 +527,7 @@ public class RunQueue {
                                                    notParsedEnvironmentId,
                                                    serviceContext.getServiceUriBuilder());
         tasks.put(id, task);
+        cleaner.schedule(id, task.getCreationTime() + maxWaitingTimeMillis);
         eventService.publish(RunnerEvent.queueStartedEvent(id, workspace, project));
         executor.execute(future);
         return task;
@@ -1125,7 +1109,7 @@ public class RunQueue {
     }
 
     // for store workspace, project and id of process with FutureTask
-    private static class InternalRunTask extends FutureTask<RemoteRunnerProcess> {
+    private class InternalRunTask extends FutureTask<RemoteRunnerProcess> {
         final Long   id;
         final String workspace;
         final String project;
@@ -1136,6 +1120,61 @@ public class RunQueue {
             this.workspace = workspace;
             this.project = project;
         }
+
+        @Override
+        protected void done() {
+            // Task isn't waiting any more, let cleaner check it at next run.
+            cleaner.schedule(id, System.currentTimeMillis());
+        }
+    }
+
+    /** Removes runs that wait for runner too long and runs which applications are removed by slave runner. */
+    private class RunTaskCleaner extends ExpiredTaskCleaner<RunQueueTask, RemoteRunnerProcess> {
+        RunTaskCleaner() {
+            super(tasks);
+        }
+
+        @Override
+        protected long getRecheckPeriod() {
+            return cleanerPeriod;
+        }
+
+        @Override
+        protected boolean isWaiting(RunQueueTask task) {
+            return task.isWaiting();
+        }
+
+        @Override
+        protected long getWaitingDeadline(RunQueueTask task) {
+            return task.getCreationTime() + maxWaitingTimeMillis;
+        }
+
+        @Override
+        protected boolean isStopped(RunQueueTask task) throws Exception {
+            return task.isStopped();
+        }
+
+        @Override
+        protected void cancel(RunQueueTask task) throws Exception {
+            task.cancel();
+            final RunRequest request = task.getRequest();
+            eventService.publish(RunnerEvent.queueTerminatedEvent(task.getId(), request.getWorkspace(), request.getProject()));
+        }
+
+        @Override
+        protected RemoteRunnerProcess getRemoteTask(RunQueueTask task) throws Exception {
+            return task.getRemoteProcess();
+        }
+
+        @Override
+        protected long getResultDeadline(RunQueueTask task, RemoteRunnerProcess remote) {
+            return remote.getCreationTime() + task.getRequest().getLifetime() + appCleanupTime;
+        }
+
+        @Override
+        protected void checkRemoteTask(RemoteRunnerProcess remote) throws Exception {
+            remote.getApplicationProcessDescriptor();
+        }
     }
 
     // >>>>>>>>>>>>>>>>>>>>> Groups runners by infra + workspace + project.
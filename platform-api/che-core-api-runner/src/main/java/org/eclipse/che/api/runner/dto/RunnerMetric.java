@@ -46,6 +46,14 @@ public interface RunnerMetric {
 
     String DISK_SPACE_USED = "diskSpaceUsed";
 
+    String QUEUE_SIZE = "queueSize";
+
+    String CLEANUP_TIME = "cleanupTime";
+
+    String CLEANUP_TASKS = "cleanupTasks";
+
+    String EXPIRED_TASKS = "expiredTasks";
+
     String getName();
 
     RunnerMetric withName(String name);
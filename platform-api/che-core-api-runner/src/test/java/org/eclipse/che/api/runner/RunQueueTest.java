@@ -34,6 +34,7 @@ import org.eclipse.che.api.project.shared.dto.ItemReference;
 import org.eclipse.che.api.project.shared.dto.ProjectDescriptor;
 import org.eclipse.che.api.project.shared.dto.RunnerEnvironment;
 import org.eclipse.che.api.project.shared.dto.RunnersDescriptor;
+import org.eclipse.che.api.runner.dto.ApplicationProcessDescriptor;
 import org.eclipse.che.api.runner.dto.RunOptions;
 import org.eclipse.che.api.runner.dto.RunRequest;
 import org.eclipse.che.api.runner.dto.RunnerDescriptor;
@@ -83,6 +84,7 @@ import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
@@ -467,6 +469,74 @@ public class RunQueueTest {
         checkEvents(RunnerEvent.EventType.RUN_TASK_ADDED_IN_QUEUE, RunnerEvent.EventType.RUN_TASK_QUEUE_TIME_EXCEEDED);
     }
 
+    @Test
+    public void testQueueStatsAfterWaitingTaskExpired() throws Exception {
+        RemoteRunnerServer runnerServer = registerDefaultRunnerServer();
+        RemoteRunner runner = runnerServer.getRemoteRunner("java/web");
+        // Free memory should be less (!!!) than 256.
+        doReturn(dto(RunnerState.class).withServerState(dto(ServerState.class).withFreeMemory(128))).when(runner).getRemoteRunnerState();
+
+        ServiceContext serviceContext = newServiceContext();
+        project.withRunners(dto(RunnersDescriptor.class).withDefault("system:/java/web/tomcat7"));
+
+        doReturn(project).when(runQueue).getProjectDescriptor(wsId, pPath, serviceContext);
+        doReturn(workspace).when(runQueue).getWorkspaceDescriptor(wsId, serviceContext);
+        doNothing().when(runQueue).checkResources(eq(workspace), any(RunRequest.class));
+
+        RunQueueTask task = runQueue.run(wsId, pPath, serviceContext, null);
+        assertEquals(getMetric(RunnerMetric.QUEUE_SIZE), "1");
+        assertEquals(getMetric(RunnerMetric.EXPIRED_TASKS), "0");
+
+        // sleep - max waiting time + 2 sec
+        TimeUnit.SECONDS.sleep(7);
+        assertTrue(task.isCancelled());
+        assertEquals(getMetric(RunnerMetric.QUEUE_SIZE), "0");
+        assertEquals(getMetric(RunnerMetric.EXPIRED_TASKS), "1");
+        assertNotNull(getMetric(RunnerMetric.CLEANUP_TIME));
+        assertNotNull(getMetric(RunnerMetric.CLEANUP_TASKS));
+        try {
+            runQueue.getTask(task.getId());
+            fail("Expired task must be removed from queue");
+        } catch (NotFoundException expected) {
+        }
+    }
+
+    @Test
+    public void testKeepTaskWhileApplicationIsAvailableAfterCleanupTime() throws Exception {
+        RemoteRunnerServer runnerServer = registerDefaultRunnerServer();
+        RemoteRunner runner = runnerServer.getRemoteRunner("java/web");
+        // Free memory should be more than 256.
+        doReturn(dto(RunnerState.class).withServerState(dto(ServerState.class).withFreeMemory(512))).when(runner).getRemoteRunnerState();
+        RemoteRunnerProcess process = spy(new RemoteRunnerProcess(runnerServer.getBaseUrl(), runner.getName(), 1L, requestFactory));
+        // Lifetime of application and cleanup time are over.
+        doReturn(System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(1)).when(process).getCreationTime();
+        doReturn(dto(ApplicationProcessDescriptor.class)).when(process).getApplicationProcessDescriptor();
+        doReturn(process).when(runner).run(any(RunRequest.class));
+
+        ServiceContext serviceContext = newServiceContext();
+        project.withRunners(dto(RunnersDescriptor.class).withDefault("system:/java/web/tomcat7"));
+
+        doReturn(project).when(runQueue).getProjectDescriptor(wsId, pPath, serviceContext);
+        doReturn(workspace).when(runQueue).getWorkspaceDescriptor(wsId, serviceContext);
+        doNothing().when(runQueue).checkResources(eq(workspace), any(RunRequest.class));
+
+        RunQueueTask task = runQueue.run(wsId, pPath, serviceContext, null);
+
+        // Slave runner still knows application, so task is checked again every cleaner period but isn't removed.
+        verify(process, timeout(4000).atLeast(2)).getApplicationProcessDescriptor();
+        assertEquals(runQueue.getTask(task.getId()), task);
+        assertEquals(getMetric(RunnerMetric.EXPIRED_TASKS), "0");
+
+        doThrow(new NotFoundException("Not found")).when(process).getApplicationProcessDescriptor();
+        TimeUnit.SECONDS.sleep(3);
+        try {
+            runQueue.getTask(task.getId());
+            fail("Task must be removed from queue when slave runner doesn't know application any more");
+        } catch (NotFoundException expected) {
+        }
+        assertEquals(getMetric(RunnerMetric.EXPIRED_TASKS), "1");
+    }
+
     @Test
     public void testRunWithBuildBefore() throws Exception {
         RemoteRunnerServer runnerServer = registerDefaultRunnerServer();
@@ -752,6 +822,15 @@ public class RunQueueTest {
         return downloadLink;
     }
 
+    private String getMetric(String name) {
+        for (RunnerMetric metric : runQueue.getStats()) {
+            if (name.equals(metric.getName())) {
+                return metric.getValue();
+            }
+        }
+        return null;
+    }
+
     private void checkEvents(RunnerEvent.EventType... expected) {
         List<RunnerEvent.EventType> list = new ArrayList<>(expected.length);
         java.util.Collections.addAll(list, expected);
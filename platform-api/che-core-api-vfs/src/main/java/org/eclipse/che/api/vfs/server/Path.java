@@ -10,13 +10,11 @@
  *******************************************************************************/
 package org.eclipse.che.api.vfs.server;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.List;
-import java.util.regex.Pattern;
-
 /**
  * Path of VirtualFile.
+ * <p/>
+ * Path is immutable node which refers to its parent, so all paths created from the same parent share it instead of copying
+ * elements. Hash code is calculated once when path is created.
  *
  * @author andrew00x
  */
@@ -26,121 +24,159 @@ public final class Path {
         return ROOT.newPath(path);
     }
 
-    private static final String[] EMPTY_PATH    = new String[0];
-    private static final Pattern  PATH_SPLITTER = Pattern.compile("/");
+    public static final Path ROOT = new Path();
 
-    private Path normalizeParts(String[] parsed, Object raw) {
-        if (parsed.length == 0) {
-            return this;
-        }
-        List<String> newTokens = new ArrayList<>(this.elements.length + parsed.length);
-        newTokens.addAll(Arrays.asList(this.elements));
-        for (String token : parsed) {
-            if ("..".equals(token)) {
-                int size = newTokens.size();
-                if (size == 0) {
-                    throw new IllegalArgumentException(String.format("Invalid path '%s', '..' on root. ", raw));
-                }
-                newTokens.remove(size - 1);
-            } else if (!".".equals(token)) {
-                newTokens.add(token);
+    private final    Path   parent;
+    private final    String name;
+    private final    int    length;
+    private final    int    hashCode;
+    private volatile String asString;
+
+    private Path() {
+        this.parent = null;
+        this.name = null;
+        this.length = 0;
+        this.hashCode = 1;
+    }
+
+    private Path(Path parent, String name) {
+        this.parent = parent;
+        this.name = name;
+        this.length = parent.length + 1;
+        // Same as java.util.Arrays.hashCode(elements())
+        this.hashCode = 31 * parent.hashCode + name.hashCode();
+    }
+
+    private Path append(String token, Object raw) {
+        if ("..".equals(token)) {
+            if (isRoot()) {
+                throw new IllegalArgumentException(String.format("Invalid path '%s', '..' on root. ", raw));
             }
+            return parent;
         }
-        if (newTokens.isEmpty()) {
-            return ROOT;
+        if (".".equals(token)) {
+            return this;
         }
-        String[] normalizedElements = newTokens.toArray(new String[newTokens.size()]);
-        return new Path(normalizedElements);
+        return new Path(this, token);
     }
 
-    public static final Path ROOT = new Path();
-
-    private final    String[] elements;
-    private volatile int      hashCode;
-    private volatile String   asString;
-
-    private Path(String... elements) {
-        this.elements = elements;
+    /** Gets ancestor of this path (or this path itself) which has specified length. */
+    private Path ancestor(int length) {
+        Path path = this;
+        while (path.length > length) {
+            path = path.parent;
+        }
+        return path;
     }
 
     public Path getParent() {
-        return isRoot() ? null : elements.length == 1 ? ROOT : subPath(0, elements.length - 1);
+        return parent;
     }
 
     public Path subPath(int beginIndex) {
-        return subPath(beginIndex, elements.length);
+        return subPath(beginIndex, length);
     }
 
     public Path subPath(int beginIndex, int endIndex) {
-        if (beginIndex < 0 || beginIndex >= elements.length || endIndex > elements.length || beginIndex >= endIndex) {
+        if (beginIndex < 0 || beginIndex >= length || endIndex > length || beginIndex >= endIndex) {
             throw new IllegalArgumentException("Invalid end or begin index. ");
         }
-        final String[] subPath = Arrays.copyOfRange(elements, beginIndex, endIndex);
-        return new Path(subPath);
+        final Path end = ancestor(endIndex);
+        if (beginIndex == 0) {
+            return end;
+        }
+        final String[] elements = end.elements();
+        Path subPath = ROOT;
+        for (int i = beginIndex; i < endIndex; i++) {
+            subPath = new Path(subPath, elements[i]);
+        }
+        return subPath;
     }
 
     public String getName() {
-        return isRoot() ? "" : element(elements.length - 1);
+        return isRoot() ? "" : name;
     }
 
     public String[] elements() {
-        return Arrays.copyOf(elements, elements.length);
+        final String[] elements = new String[length];
+        for (Path path = this; path.length > 0; path = path.parent) {
+            elements[path.length - 1] = path.name;
+        }
+        return elements;
     }
 
     public int length() {
-        return elements.length;
+        return length;
     }
 
     public String element(int index) {
-        if (index < 0 || index >= elements.length) {
+        if (index < 0 || index >= length) {
             throw new IllegalArgumentException("Invalid index. ");
         }
-        return elements[index];
+        return ancestor(index + 1).name;
     }
 
     public boolean isRoot() {
-        return elements.length == 0;
+        return length == 0;
     }
 
     public boolean isChild(Path parent) {
-        if (parent.elements.length >= this.elements.length) {
-            return false;
-        }
-        for (int i = 0, parentLength = parent.elements.length; i < parentLength; i++) {
-            if (!parent.elements[i].equals(this.elements[i])) {
-                return false;
-            }
-        }
-        return true;
+        return parent.length < this.length && ancestor(parent.length).equals(parent);
     }
 
     public Path newPath(String name) {
-        String[] parsed = ((name == null) || name.isEmpty() || ((name.length() == 1) && (name.charAt(0) == '/')))
-                ? EMPTY_PATH : PATH_SPLITTER.split(name.charAt(0) == '/' ? name.substring(1) : name);
-        return normalizeParts(parsed, name);
+        if ((name == null) || name.isEmpty() || ((name.length() == 1) && (name.charAt(0) == '/'))) {
+            return this;
+        }
+        final int begin = name.charAt(0) == '/' ? 1 : 0;
+        int end = name.length();
+        // Trailing separators are ignored as java.util.regex.Pattern.split(CharSequence) does it.
+        while (end > begin && name.charAt(end - 1) == '/') {
+            end--;
+        }
+        Path path = this;
+        for (int from = begin; from < end; ) {
+            int to = name.indexOf('/', from);
+            if (to < 0 || to > end) {
+                to = end;
+            }
+            path = path.append(name.substring(from, to), name);
+            from = to + 1;
+        }
+        return path;
     }
 
     public Path newPath(String... relative) {
-        if (relative.length == 0) {
-            return this; // It is safety to return this instance since it is immutable.
+        Path path = this; // It is safety to return this instance since it is immutable.
+        for (String token : relative) {
+            path = path.append(token, relative);
         }
-        return normalizeParts(relative, relative);
+        return path;
     }
 
     public Path newPath(Path relative) {
-        final String[] absolute = new String[elements.length + relative.elements.length];
-        System.arraycopy(elements, 0, absolute, 0, elements.length);
-        System.arraycopy(relative.elements, 0, absolute, elements.length, relative.elements.length);
-        return new Path(absolute);
+        if (relative.isRoot()) {
+            return this;
+        }
+        Path path = this;
+        for (String element : relative.elements()) {
+            path = new Path(path, element);
+        }
+        return path;
     }
 
     public String join(char separator) {
         StringBuilder builder = new StringBuilder();
-        for (String element : elements) {
+        appendTo(builder, separator);
+        return builder.toString();
+    }
+
+    private void appendTo(StringBuilder builder, char separator) {
+        if (parent != null) {
+            parent.appendTo(builder, separator);
             builder.append(separator);
-            builder.append(element);
+            builder.append(name);
         }
-        return builder.toString();
     }
 
    /* ==================================================== */
@@ -150,6 +186,10 @@ public final class Path {
         if (asString == null) {
             if (isRoot()) {
                 asString = "/";
+            } else if (parent.isRoot()) {
+                asString = '/' + name;
+            } else if (parent.asString != null) {
+                asString = parent.asString + '/' + name;
             } else {
                 asString = join('/');
             }
@@ -166,14 +206,20 @@ public final class Path {
             return false;
         }
         Path path = (Path)o;
-        return Arrays.equals(elements, path.elements);
+        if (length != path.length || hashCode != path.hashCode) {
+            return false;
+        }
+        // Paths usually share parents, stop comparing once common parent is reached.
+        for (Path a = this, b = path; a != b; a = a.parent, b = b.parent) {
+            if (!a.name.equals(b.name)) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public int hashCode() {
-        if (hashCode == 0) {
-            hashCode = Arrays.hashCode(elements);
-        }
         return hashCode;
     }
 }
@@ -16,6 +16,7 @@ import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
 import org.eclipse.che.api.vfs.server.search.QueryExpression;
 import org.eclipse.che.api.vfs.server.search.SearcherProvider;
+import org.eclipse.che.api.vfs.server.util.ContentStreamOutput;
 import org.eclipse.che.api.vfs.server.util.LinksHelper;
 import org.eclipse.che.api.vfs.shared.ItemType;
 import org.eclipse.che.api.vfs.shared.PropertyFilter;
@@ -40,6 +41,8 @@ import org.eclipse.che.commons.lang.Pair;
 import org.eclipse.che.commons.lang.ws.rs.ExtMediaType;
 import org.eclipse.che.dto.server.DtoFactory;
 import org.apache.commons.fileupload.FileItem;
+import org.everrest.core.ApplicationContext;
+import org.everrest.core.impl.ApplicationContextImpl;
 import org.everrest.core.impl.provider.multipart.OutputItem;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -50,6 +53,7 @@ import javax.ws.rs.HeaderParam;
 import javax.ws.rs.Path;
 import javax.ws.rs.PathParam;
 import javax.ws.rs.QueryParam;
+import javax.ws.rs.core.EntityTag;
 import javax.ws.rs.core.GenericEntity;
 import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
@@ -63,18 +67,23 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.TimeZone;
 import java.util.regex.Pattern;
 
 
@@ -86,6 +95,11 @@ import java.util.regex.Pattern;
 public abstract class VirtualFileSystemImpl implements VirtualFileSystem {
     private static final Logger LOG = LoggerFactory.getLogger(VirtualFileSystemImpl.class);
 
+    private static final String RANGE         = "Range";
+    private static final String IF_RANGE      = "If-Range";
+    private static final String CONTENT_RANGE = "Content-Range";
+    private static final String ACCEPT_RANGES = "Accept-Ranges";
+
     protected final String                       vfsId;
     protected final URI                          baseUri;
     protected final VirtualFileSystemUserContext userContext;
@@ -830,13 +844,126 @@ public abstract class VirtualFileSystemImpl implements VirtualFileSystem {
         return downloadFile(getContent(id));
     }
 
+    /**
+     * Creates response for download of content. Supports conditional requests with validators that are built from modification date and
+     * length of content and single byte range requests, e.g. to resume interrupted download.
+     */
     public static Response downloadFile(ContentStream content) {
-        return Response
-                .ok(content.getStream(), content.getMimeType())
-                .lastModified(content.getLastModificationDate())
-                .header(HttpHeaders.CONTENT_LENGTH, Long.toString(content.getLength()))
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + content.getFileName() + '"')
-                .build();
+        final long length = content.getLength();
+        final Date lastModified = content.getLastModificationDate();
+        final EntityTag entityTag = length >= 0 && lastModified != null
+                                    ? new EntityTag(Long.toHexString(lastModified.getTime()) + '-' + Long.toHexString(length))
+                                    : null;
+        final ApplicationContext context = ApplicationContextImpl.getCurrent();
+        if (context != null && entityTag != null) {
+            final Response.ResponseBuilder notModified = context.getRequest().evaluatePreconditions(lastModified, entityTag);
+            if (notModified != null) {
+                closeQuietly(content.getStream());
+                return notModified.tag(entityTag).build();
+            }
+        }
+        final long[] range = context != null && length >= 0 ? getRange(context.getHttpHeaders(), length, lastModified, entityTag) : null;
+        final Response.ResponseBuilder responseBuilder;
+        if (range == null) {
+            responseBuilder = Response.ok(new ContentStreamOutput(content.getStream(), 0, -1), content.getMimeType());
+            if (length >= 0) {
+                responseBuilder.header(HttpHeaders.CONTENT_LENGTH, Long.toString(length));
+            }
+        } else if (range.length == 0) {
+            closeQuietly(content.getStream());
+            return Response.status(Response.Status.REQUESTED_RANGE_NOT_SATISFIABLE)
+                           .header(CONTENT_RANGE, "bytes */" + length)
+                           .build();
+        } else {
+            final long count = range[1] - range[0] + 1;
+            responseBuilder = Response.status(Response.Status.PARTIAL_CONTENT)
+                                      .entity(new ContentStreamOutput(content.getStream(), range[0], count))
+                                      .type(content.getMimeType())
+                                      .header(HttpHeaders.CONTENT_LENGTH, Long.toString(count))
+                                      .header(CONTENT_RANGE, "bytes " + range[0] + '-' + range[1] + '/' + length);
+        }
+        return responseBuilder.lastModified(lastModified)
+                              .tag(entityTag)
+                              .header(ACCEPT_RANGES, "bytes")
+                              .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + content.getFileName() + '"')
+                              .build();
+    }
+
+    /**
+     * Gets byte range requested with header 'Range'. Only single range is supported, request for multiple ranges is served with whole
+     * content.
+     *
+     * @return {@code null} if whole content should be sent, empty array if range isn't satisfiable, otherwise array of two elements: first
+     * and last byte positions of range
+     */
+    private static long[] getRange(HttpHeaders headers, long length, Date lastModified, EntityTag entityTag) {
+        final List<String> rangeHeader = headers.getRequestHeader(RANGE);
+        if (rangeHeader == null || rangeHeader.size() != 1) {
+            return null;
+        }
+        final String range = rangeHeader.get(0).trim();
+        if (!range.startsWith("bytes=") || range.indexOf(',') >= 0) {
+            return null;
+        }
+        final List<String> ifRangeHeader = headers.getRequestHeader(IF_RANGE);
+        if (ifRangeHeader != null && !ifRangeHeader.isEmpty() && !isRangeValid(ifRangeHeader.get(0).trim(), lastModified, entityTag)) {
+            return null;
+        }
+        final String spec = range.substring("bytes=".length()).trim();
+        final int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return null;
+        }
+        try {
+            final String firstStr = spec.substring(0, dash).trim();
+            final String lastStr = spec.substring(dash + 1).trim();
+            if (firstStr.isEmpty()) {
+                // suffix range, e.g. 'bytes=-500' - last 500 bytes
+                final long suffix = Long.parseLong(lastStr);
+                if (suffix <= 0 || length == 0) {
+                    return new long[0];
+                }
+                return new long[]{Math.max(0, length - suffix), length - 1};
+            }
+            final long first = Long.parseLong(firstStr);
+            final long last = lastStr.isEmpty() ? length - 1 : Math.min(Long.parseLong(lastStr), length - 1);
+            if (first >= length) {
+                return new long[0];
+            }
+            if (first > last) {
+                return null;
+            }
+            return new long[]{first, last};
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /** Checks whether validator from header 'If-Range' matches current state of content. */
+    private static boolean isRangeValid(String ifRange, Date lastModified, EntityTag entityTag) {
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return entityTag != null && ifRange.equals(entityTag.toString());
+        }
+        if (lastModified == null) {
+            return false;
+        }
+        final SimpleDateFormat httpDateFormat = new SimpleDateFormat("EEE, dd MMM yyyy HH:mm:ss zzz", Locale.US);
+        httpDateFormat.setTimeZone(TimeZone.getTimeZone("GMT"));
+        try {
+            // HTTP date has precision of one second
+            return httpDateFormat.parse(ifRange).getTime() / 1000 == lastModified.getTime() / 1000;
+        } catch (ParseException e) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(InputStream in) {
+        if (in != null) {
+            try {
+                in.close();
+            } catch (IOException ignored) {
+            }
+        }
     }
 
     @Path("uploadfile/{parentId}")
@@ -0,0 +1,256 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.server.impl.memory;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.io.ByteStreams;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable content of file in memory virtual file system.
+ * <p/>
+ * Content is split to chunks of {@link #CHUNK_SIZE} bytes. Chunks with the same bytes are shared by all files of mount point and
+ * chunk is released by garbage collector as soon as it is not used by any file. Content is never changed after creation, so it is
+ * shared between file and its copies, update of file replaces its content.
+ */
+final class MemoryContent {
+    static final int CHUNK_SIZE = 64 * 1024;
+
+    static final MemoryContent EMPTY = new MemoryContent(new ByteBuffer[0], 0);
+
+    private final ByteBuffer[] chunks;
+    private final long         length;
+
+    private MemoryContent(ByteBuffer[] chunks, long length) {
+        this.chunks = chunks;
+        this.length = length;
+    }
+
+    long length() {
+        return length;
+    }
+
+    InputStream openStream() {
+        return new ChunksInputStream();
+    }
+
+    void writeTo(OutputStream out) throws IOException {
+        byte[] buffer = null;
+        for (ByteBuffer chunk : chunks) {
+            if (chunk.hasArray()) {
+                out.write(chunk.array(), chunk.arrayOffset(), chunk.limit());
+            } else {
+                if (buffer == null) {
+                    buffer = new byte[CHUNK_SIZE];
+                }
+                final ByteBuffer view = chunk.duplicate();
+                final int n = view.remaining();
+                view.get(buffer, 0, n);
+                out.write(buffer, 0, n);
+            }
+        }
+    }
+
+    HashCode hash(HashFunction hashFunction) {
+        final Hasher hasher = hashFunction.newHasher();
+        byte[] buffer = null;
+        for (ByteBuffer chunk : chunks) {
+            if (chunk.hasArray()) {
+                hasher.putBytes(chunk.array(), chunk.arrayOffset(), chunk.limit());
+            } else {
+                if (buffer == null) {
+                    buffer = new byte[CHUNK_SIZE];
+                }
+                final ByteBuffer view = chunk.duplicate();
+                final int n = view.remaining();
+                view.get(buffer, 0, n);
+                hasher.putBytes(buffer, 0, n);
+            }
+        }
+        return hasher.hash();
+    }
+
+    /**
+     * Storage of chunks of contents of files of one mount point.
+     */
+    static class Store {
+        private final Interner<ByteBuffer> chunks;
+        private final boolean              offHeap;
+
+        /**
+         * @param offHeap
+         *         if {@code true} chunks are kept in direct buffers out of java heap
+         */
+        Store(boolean offHeap) {
+            this.offHeap = offHeap;
+            chunks = Interners.newWeakInterner();
+        }
+
+        MemoryContent read(InputStream in) throws IOException {
+            if (in == null) {
+                return EMPTY;
+            }
+            final Writer writer = newWriter();
+            ByteStreams.copy(in, writer);
+            return writer.toContent();
+        }
+
+        Writer newWriter() {
+            return new Writer(this);
+        }
+
+        private ByteBuffer intern(byte[] bytes, int length) {
+            final ByteBuffer chunk;
+            if (offHeap) {
+                chunk = ByteBuffer.allocateDirect(length);
+                chunk.put(bytes, 0, length);
+                chunk.flip();
+            } else {
+                chunk = ByteBuffer.wrap(Arrays.copyOf(bytes, length));
+            }
+            return chunks.intern(chunk);
+        }
+    }
+
+    /**
+     * Collects written bytes into new content. Use {@link #toContent()} to get result when all bytes are written.
+     */
+    static class Writer extends OutputStream {
+        private static final int MIN_BUFFER_SIZE = 1024;
+
+        private final Store            store;
+        private final List<ByteBuffer> chunks;
+
+        private byte[] buffer;
+        private int    count;
+        private long   length;
+
+        private Writer(Store store) {
+            this.store = store;
+            chunks = new ArrayList<>();
+        }
+
+        @Override
+        public void write(int b) {
+            ensureCapacity(count + 1);
+            buffer[count++] = (byte)b;
+            length++;
+            if (count == CHUNK_SIZE) {
+                flushChunk();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            while (len > 0) {
+                final int n = Math.min(len, CHUNK_SIZE - count);
+                ensureCapacity(count + n);
+                System.arraycopy(b, off, buffer, count, n);
+                count += n;
+                length += n;
+                off += n;
+                len -= n;
+                if (count == CHUNK_SIZE) {
+                    flushChunk();
+                }
+            }
+        }
+
+        MemoryContent toContent() {
+            if (count > 0) {
+                flushChunk();
+            }
+            buffer = null;
+            return length == 0 ? EMPTY : new MemoryContent(chunks.toArray(new ByteBuffer[chunks.size()]), length);
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (buffer == null) {
+                buffer = new byte[Math.min(CHUNK_SIZE, Math.max(MIN_BUFFER_SIZE, capacity))];
+            } else if (buffer.length < capacity) {
+                buffer = Arrays.copyOf(buffer, Math.min(CHUNK_SIZE, Math.max(buffer.length << 1, capacity)));
+            }
+        }
+
+        private void flushChunk() {
+            chunks.add(store.intern(buffer, count));
+            count = 0;
+        }
+    }
+
+    private class ChunksInputStream extends InputStream {
+        private int        index;
+        private ByteBuffer current;
+        private long       position;
+
+        @Override
+        public int read() {
+            if (!nextChunk()) {
+                return -1;
+            }
+            position++;
+            return current.get() & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!nextChunk()) {
+                return -1;
+            }
+            final int n = Math.min(len, current.remaining());
+            current.get(b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = 0;
+            while (skipped < n && nextChunk()) {
+                final int s = (int)Math.min(n - skipped, current.remaining());
+                current.position(current.position() + s);
+                skipped += s;
+            }
+            position += skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return (int)Math.min(length - position, Integer.MAX_VALUE);
+        }
+
+        /** Moves to the next chunk if current one is read. Returns {@code false} if there is no more bytes. */
+        private boolean nextChunk() {
+            while (current == null || !current.hasRemaining()) {
+                if (index == chunks.length) {
+                    return false;
+                }
+                current = chunks[index++].duplicate();
+            }
+            return true;
+        }
+    }
+}
@@ -38,6 +38,9 @@ import java.util.Map;
  * @author andrew00x
  */
 public class MemoryMountPoint implements MountPoint {
+    /** Keep content of files in direct buffers out of java heap. */
+    private static final boolean OFF_HEAP_CONTENT = Boolean.getBoolean("org.eclipse.che.vfs.memory.off-heap");
+
     private final String                       workspaceId;
     private final EventService                 eventService;
     private final SearcherProvider             searcherProvider;
@@ -45,6 +48,7 @@ public class MemoryMountPoint implements MountPoint {
     private final Map<String, VirtualFile>     entries;
     private final VirtualFile                  root;
     private final SystemPathsFilter            systemFilter;
+    private final MemoryContent.Store          contentStore;
 
     public MemoryMountPoint(String workspaceId, EventService eventService, SearcherProvider searcherProvider,
                             VirtualFileSystemUserContext userContext, SystemPathsFilter systemFilter) {
@@ -52,6 +56,7 @@ public class MemoryMountPoint implements MountPoint {
         this.eventService = eventService;
         this.searcherProvider = searcherProvider;
         this.userContext = userContext;
+        contentStore = new MemoryContent.Store(OFF_HEAP_CONTENT);
         entries = new HashMap<>();
         root = new MemoryVirtualFile(this);
         this.systemFilter = systemFilter;
@@ -113,6 +118,10 @@ public class MemoryMountPoint implements MountPoint {
         return virtualFile;
     }
 
+    MemoryContent.Store getContentStore() {
+        return contentStore;
+    }
+
     @Override
     public void reset() {
         entries.clear();
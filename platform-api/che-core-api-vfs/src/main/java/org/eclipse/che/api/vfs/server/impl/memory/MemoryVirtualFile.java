@@ -47,14 +47,10 @@ import org.eclipse.che.dto.server.DtoFactory;
 
 import com.google.common.hash.HashFunction;
 import com.google.common.hash.Hashing;
-import com.google.common.io.ByteSource;
-import com.google.common.io.ByteStreams;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
@@ -92,7 +88,7 @@ public class MemoryVirtualFile implements VirtualFile {
         return new MemoryVirtualFile(parent, ObjectIdGenerator.generateId(), name, content, mediaType);
     }
 
-    private static MemoryVirtualFile newFile(MemoryVirtualFile parent, String name, byte[] content, String mediaType) {
+    private static MemoryVirtualFile newFile(MemoryVirtualFile parent, String name, MemoryContent content, String mediaType) {
         return new MemoryVirtualFile(parent, ObjectIdGenerator.generateId(), name, content, mediaType);
     }
 
@@ -112,7 +108,7 @@ public class MemoryVirtualFile implements VirtualFile {
     private String                      name;
     private MemoryVirtualFile           parent;
     private Path                        path;
-    private byte[]                      content;
+    private MemoryContent               content;
     private long                        lastModificationDate;
     private LockHolder                  lock;
     private Map<Principal, Set<String>> permissionsMap;
@@ -121,10 +117,10 @@ public class MemoryVirtualFile implements VirtualFile {
     // --- File ---
     private MemoryVirtualFile(MemoryVirtualFile parent, String id, String name, InputStream content, String mediaType)
             throws IOException {
-        this(parent, id, name, content == null ? null : ByteStreams.toByteArray(content), mediaType);
+        this(parent, id, name, ((MemoryMountPoint)parent.getMountPoint()).getContentStore().read(content), mediaType);
     }
 
-    private MemoryVirtualFile(MemoryVirtualFile parent, String id, String name, byte[] content, String mediaType) {
+    private MemoryVirtualFile(MemoryVirtualFile parent, String id, String name, MemoryContent content, String mediaType) {
         this.mountPoint = (MemoryMountPoint)parent.getMountPoint();
         this.parent = parent;
         this.type = FILE;
@@ -133,7 +129,7 @@ public class MemoryVirtualFile implements VirtualFile {
         this.permissionsMap = new HashMap<>();
         this.properties = new HashMap<>();
         this.creationDate = this.lastModificationDate = System.currentTimeMillis();
-        this.content = content == null ? new byte[0] : content;
+        this.content = content == null ? MemoryContent.EMPTY : content;
         if (mediaType != null) {
             setMediaType(mediaType);
         }
@@ -421,14 +417,9 @@ public class MemoryVirtualFile implements VirtualFile {
             public void visit(final VirtualFile virtualFile) {
                 try {
                     if (virtualFile.isFile()) {
-                        try (InputStream stream = virtualFile.getContent().getStream()) {
-                            final String hexHash = ByteSource.wrap(ByteStreams.toByteArray(stream)).hash(hashFunction).toString();
-                            hashes.add(Pair.of(hexHash, virtualFile.getPath().substring(trimPathLength)));
-                        } catch (ForbiddenException e) {
-                            throw new ServerException(e.getServiceError());
-                        } catch (IOException e) {
-                            throw new ServerException(e);
-                        }
+                        ((MemoryVirtualFile)virtualFile).checkExist();
+                        final String hexHash = ((MemoryVirtualFile)virtualFile).content.hash(hashFunction).toString();
+                        hashes.add(Pair.of(hexHash, virtualFile.getPath().substring(trimPathLength)));
                     } else {
                         final LazyIterator<VirtualFile> children = virtualFile.getChildren(VirtualFileFilter.ALL);
                         while (children.hasNext()) {
@@ -520,10 +511,7 @@ public class MemoryVirtualFile implements VirtualFile {
         if (!isFile()) {
             throw new ForbiddenException(String.format("We were unable to retrieve the content. Item '%s' is not a file. ", getPath()));
         }
-        if (content == null) {
-            content = new byte[0];
-        }
-        return new ContentStream(getName(), new ByteArrayInputStream(content), getMediaType(), content.length,
+        return new ContentStream(getName(), content.openStream(), getMediaType(), content.length(),
                                  new Date(lastModificationDate));
     }
 
@@ -559,7 +547,7 @@ public class MemoryVirtualFile implements VirtualFile {
         }
 
         try {
-            this.content = ByteStreams.toByteArray(content);
+            this.content = mountPoint.getContentStore().read(content);
         } catch (IOException e) {
             throw new ServerException(String.format("We were unable to set the content of '%s'. ", getPath()));
         }
@@ -587,7 +575,7 @@ public class MemoryVirtualFile implements VirtualFile {
         if (!isFile()) {
             return 0;
         }
-        return content.length;
+        return content.length();
     }
 
     @Override
@@ -669,7 +657,8 @@ public class MemoryVirtualFile implements VirtualFile {
 
         VirtualFile virtualFile;
         if (isFile()) {
-            virtualFile = newFile((MemoryVirtualFile) parent, nameToCopy, Arrays.copyOf(content, content.length), getMediaType());
+            // Content is immutable, share it with copy.
+            virtualFile = newFile((MemoryVirtualFile) parent, nameToCopy, content, getMediaType());
         } else {
             virtualFile = newFolder((MemoryVirtualFile) parent, nameToCopy);
             LazyIterator<VirtualFile> children = getChildren(VirtualFileFilter.ALL);
@@ -1001,7 +990,7 @@ public class MemoryVirtualFile implements VirtualFile {
         if (!isFolder()) {
             throw new ForbiddenException(String.format("Unable export to zip. Item '%s' is not a folder. ", getPath()));
         }
-        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final MemoryContent.Writer out = mountPoint.getContentStore().newWriter();
         try {
             final ZipOutputStream zipOut = new ZipOutputStream(out);
             final LinkedList<VirtualFile> q = new LinkedList<>();
@@ -1016,7 +1005,7 @@ public class MemoryVirtualFile implements VirtualFile {
                         final ZipEntry zipEntry = new ZipEntry(zipEntryName);
                         zipEntry.setTime(current.getLastModificationDate());
                         zipOut.putNextEntry(zipEntry);
-                        zipOut.write(((MemoryVirtualFile)current).content);
+                        ((MemoryVirtualFile)current).content.writeTo(zipOut);
                         zipOut.closeEntry();
                     } else if (current.isFolder()) {
                         final ZipEntry zipEntry = new ZipEntry(zipEntryName + '/');
@@ -1031,8 +1020,8 @@ public class MemoryVirtualFile implements VirtualFile {
         } catch (IOException e) {
             throw new ServerException(e.getMessage(), e);
         }
-        final byte[] zipContent = out.toByteArray();
-        return new ContentStream(getName() + ".zip", new ByteArrayInputStream(zipContent), ExtMediaType.APPLICATION_ZIP, zipContent.length,
+        final MemoryContent zipContent = out.toContent();
+        return new ContentStream(getName() + ".zip", zipContent.openStream(), ExtMediaType.APPLICATION_ZIP, zipContent.length(),
                                  new Date());
     }
 
@@ -0,0 +1,69 @@
+/*******************************************************************************
+ * Copyright (c) 2012-2016 Codenvy, S.A.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *
+ * Contributors:
+ *   Codenvy, S.A. - initial API and implementation
+ *******************************************************************************/
+package org.eclipse.che.api.vfs.server.util;
+
+import com.google.common.io.ByteStreams;
+
+import javax.ws.rs.core.StreamingOutput;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes whole content of stream or its part to HTTP response. Content of files is transferred with {@link FileChannel#transferTo(long,
+ * long, WritableByteChannel)} that lets JDK avoid copying through java heap when it is possible. Stream is closed when content is
+ * written.
+ */
+public final class ContentStreamOutput implements StreamingOutput {
+    private final InputStream content;
+    private final long        offset;
+    private final long        count;
+
+    /**
+     * @param content
+     *         content stream
+     * @param offset
+     *         number of bytes to skip from the start of content
+     * @param count
+     *         number of bytes to write, if {@code -1} all bytes after {@code offset} are written
+     */
+    public ContentStreamOutput(InputStream content, long offset, long count) {
+        this.content = content;
+        this.offset = offset;
+        this.count = count;
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        try (InputStream in = content) {
+            if (in instanceof FileInputStream) {
+                final FileChannel channel = ((FileInputStream)in).getChannel();
+                final long end = count < 0 ? channel.size() : Math.min(channel.size(), channel.position() + offset + count);
+                final WritableByteChannel target = Channels.newChannel(output);
+                for (long position = channel.position() + offset; position < end; ) {
+                    final long transferred = channel.transferTo(position, end - position, target);
+                    if (transferred <= 0) {
+                        break;
+                    }
+                    position += transferred;
+                }
+            } else {
+                ByteStreams.skipFully(in, offset);
+                ByteStreams.copy(count < 0 ? in : ByteStreams.limit(in, count), output);
+            }
+            output.flush();
+        }
+    }
+}
@@ -88,6 +88,17 @@ public class PathTest extends TestCase {
         assertEquals(expectedParent, path.getParent());
     }
 
+    public void testEquals() {
+        Path path = Path.fromString("/a/b/c/d");
+        Path samePath = Path.fromString("/a").newPath("b", "c").newPath(Path.fromString("/d"));
+        assertEquals(path, samePath);
+        assertEquals(path.hashCode(), samePath.hashCode());
+        assertEquals(Arrays.hashCode(path.elements()), path.hashCode());
+        assertFalse(path.equals(Path.fromString("/a/b/x/d")));
+        assertSame(path.getParent(), path.subPath(0, path.length() - 1));
+        assertEquals("c", path.element(2));
+    }
+
     public void testIllegalPath() {
         for (String s : illegal) {
             try {
@@ -17,6 +17,7 @@ import org.eclipse.che.api.vfs.shared.dto.Principal;
 import org.eclipse.che.api.vfs.shared.dto.VirtualFileSystemInfo.BasicPermissions;
 
 import com.google.common.collect.Sets;
+import com.google.common.io.ByteStreams;
 
 import org.everrest.core.impl.ContainerResponse;
 import org.everrest.core.tools.ByteArrayContainerResponseWriter;
@@ -71,6 +72,18 @@ public class CopyTest extends MemoryFileSystemTest {
         }
     }
 
+    public void testCopyFileUpdateOrigin() throws Exception {
+        String path = SERVICE_URI + "copy/" + fileForCopy.getId() + '?' + "parentId=" + copyTestDestinationFolder.getId();
+        ContainerResponse response = launcher.service(HttpMethod.POST, path, BASE_URI, null, null, null);
+        assertEquals(200, response.getStatus());
+        VirtualFile copy = mountPoint.getVirtualFileById(((Item)response.getEntity()).getId());
+        // Copy shares content with origin until one of them is updated.
+        fileForCopy.updateContent(new ByteArrayInputStream("updated content".getBytes()), null);
+        assertEquals(DEFAULT_CONTENT, new String(ByteStreams.toByteArray(copy.getContent().getStream())));
+        assertEquals(DEFAULT_CONTENT.length(), copy.getLength());
+        assertEquals("updated content", new String(ByteStreams.toByteArray(fileForCopy.getContent().getStream())));
+    }
+
     public void testCopyFileAlreadyExist() throws Exception {
         final String originPath = fileForCopy.getPath();
         copyTestDestinationFolder.createFile("CopyTest_FILE", MediaType.TEXT_PLAIN, new ByteArrayInputStream(DEFAULT_CONTENT.getBytes()));
@@ -24,7 +24,9 @@ import javax.ws.rs.core.HttpHeaders;
 import javax.ws.rs.core.MediaType;
 
 import java.io.ByteArrayInputStream;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -74,6 +76,54 @@ public class GetContentTest extends MemoryFileSystemTest {
         assertEquals("attachment; filename=\"" + fileName + "\"", writer.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION));
     }
 
+    public void testDownloadFileRange() throws Exception {
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        String path = SERVICE_URI + "downloadfile/" + fileId;
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("Range", Collections.singletonList("bytes=2-5"));
+        ContainerResponse response = launcher.service(HttpMethod.GET, path, BASE_URI, headers, null, writer, null);
+        assertEquals(206, response.getStatus());
+        assertEquals(content.substring(2, 6), new String(writer.getBody()));
+        assertEquals("bytes 2-5/" + content.length(), writer.getHeaders().getFirst("Content-Range"));
+
+        writer = new ByteArrayContainerResponseWriter();
+        headers.put("Range", Collections.singletonList("bytes=-4"));
+        response = launcher.service(HttpMethod.GET, path, BASE_URI, headers, null, writer, null);
+        assertEquals(206, response.getStatus());
+        assertEquals(content.substring(content.length() - 4), new String(writer.getBody()));
+
+        writer = new ByteArrayContainerResponseWriter();
+        headers.put("Range", Collections.singletonList("bytes=" + content.length() + "-"));
+        response = launcher.service(HttpMethod.GET, path, BASE_URI, headers, null, writer, null);
+        assertEquals(416, response.getStatus());
+    }
+
+    public void testDownloadFileRangeIfRangeNotMatched() throws Exception {
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        String path = SERVICE_URI + "downloadfile/" + fileId;
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put("Range", Collections.singletonList("bytes=2-5"));
+        headers.put("If-Range", Collections.singletonList("\"outdated\""));
+        ContainerResponse response = launcher.service(HttpMethod.GET, path, BASE_URI, headers, null, writer, null);
+        assertEquals(200, response.getStatus());
+        assertEquals(content, new String(writer.getBody()));
+    }
+
+    public void testDownloadFileNotModified() throws Exception {
+        ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
+        String path = SERVICE_URI + "downloadfile/" + fileId;
+        ContainerResponse response = launcher.service(HttpMethod.GET, path, BASE_URI, null, null, writer, null);
+        assertEquals(200, response.getStatus());
+        Object eTag = writer.getHeaders().getFirst(HttpHeaders.ETAG);
+        assertNotNull(eTag);
+
+        Map<String, List<String>> headers = new HashMap<>();
+        headers.put(HttpHeaders.IF_NONE_MATCH, Collections.singletonList(eTag.toString()));
+        writer = new ByteArrayContainerResponseWriter();
+        response = launcher.service(HttpMethod.GET, path, BASE_URI, headers, null, writer, null);
+        assertEquals(304, response.getStatus());
+    }
+
     public void testGetContentFolder() throws Exception {
         ByteArrayContainerResponseWriter writer = new ByteArrayContainerResponseWriter();
         String path = SERVICE_URI + "content/" + folderId;
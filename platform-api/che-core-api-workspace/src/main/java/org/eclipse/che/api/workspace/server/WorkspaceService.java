@@ -68,9 +68,11 @@ import javax.ws.rs.core.SecurityContext;
 import javax.ws.rs.core.UriBuilder;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import static java.lang.Boolean.parseBoolean;
 import static java.util.Arrays.asList;
@@ -502,17 +504,8 @@ public class WorkspaceService extends Service {
     @Produces(APPLICATION_JSON)
     public List<MemberDescriptor> getMembershipsOfCurrentUser(@Context SecurityContext context) throws NotFoundException,
                                                                                                        ServerException {
-        final List<Member> members = memberDao.getUserRelationships(currentUser().getId());
-        final List<MemberDescriptor> memberships = new ArrayList<>(members.size());
-        for (Member member : members) {
-            try {
-                final Workspace workspace = workspaceDao.getById(member.getWorkspaceId());
-                memberships.add(toDescriptor(member, workspace, context));
-            } catch (NotFoundException nfEx) {
-                LOG.error("Workspace {} doesn't exist but user {} refers to it. ", member.getWorkspaceId(), currentUser().getId());
-            }
-        }
-        return memberships;
+        final String userId = currentUser().getId();
+        return toMembershipDescriptors(userId, memberDao.getUserRelationships(userId), context);
     }
 
     /**
@@ -552,14 +545,30 @@ public class WorkspaceService extends Service {
                                                                                                         BadRequestException,
                                                                                                         ServerException {
         requiredNotNull(userId, "User ID");
-        final List<Member> members = memberDao.getUserRelationships(userId);
+        return toMembershipDescriptors(userId, memberDao.getUserRelationships(userId), context);
+    }
+
+    /**
+     * Converts memberships of user to descriptors, all referenced workspaces are fetched with single call to {@link WorkspaceDao}.
+     * Memberships which refer to not existing workspaces are skipped.
+     */
+    private List<MemberDescriptor> toMembershipDescriptors(String userId, List<Member> members, SecurityContext context)
+            throws ServerException {
+        final Set<String> workspaceIds = new LinkedHashSet<>();
+        for (Member member : members) {
+            workspaceIds.add(member.getWorkspaceId());
+        }
+        final Map<String, Workspace> workspaces = new HashMap<>();
+        for (Workspace workspace : workspaceDao.getByIds(workspaceIds)) {
+            workspaces.put(workspace.getId(), workspace);
+        }
         final List<MemberDescriptor> memberships = new ArrayList<>(members.size());
         for (Member member : members) {
-            try {
-                final Workspace workspace = workspaceDao.getById(member.getWorkspaceId());
-                memberships.add(toDescriptor(member, workspace, context));
-            } catch (NotFoundException nfEx) {
+            final Workspace workspace = workspaces.get(member.getWorkspaceId());
+            if (workspace == null) {
                 LOG.error("Workspace {} doesn't exist but user {} refers to it. ", member.getWorkspaceId(), userId);
+            } else {
+                memberships.add(toDescriptor(member, workspace, context));
             }
         }
         return memberships;
@@ -14,6 +14,8 @@ import org.eclipse.che.api.core.ConflictException;
 import org.eclipse.che.api.core.NotFoundException;
 import org.eclipse.che.api.core.ServerException;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
 
@@ -61,6 +63,24 @@ public interface WorkspaceDao {
      */
     Workspace getById(String id) throws NotFoundException, ServerException;
 
+    /**
+     * Gets workspaces from persistent layer by ids. Implementations should override this method to get all workspaces at once.
+     *
+     * @param ids
+     *         workspace identifiers
+     * @return List of workspaces, workspaces which don't exist are skipped
+     */
+    default List<Workspace> getByIds(Collection<String> ids) throws ServerException {
+        final List<Workspace> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            try {
+                result.add(getById(id));
+            } catch (NotFoundException ignored) {
+            }
+        }
+        return result;
+    }
+
     /**
      * Gets workspace from persistent layer by name.
      *
@@ -60,6 +60,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -75,6 +76,7 @@ import static javax.ws.rs.core.Response.Status.NO_CONTENT;
 import static javax.ws.rs.core.Response.Status.OK;
 import static org.eclipse.che.api.user.server.Constants.LINK_REL_GET_USER_BY_ID;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyCollectionOf;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -505,6 +507,27 @@ public class WorkspaceServiceTest {
         assertEquals(descriptor.getRoles(), testMember.getRoles());
     }
 
+    @Test
+    public void shouldFetchWorkspacesOfAllMembershipsAtOnce() throws Exception {
+        final Workspace testWorkspace = createWorkspace();
+        final List<Member> members = asList(new Member().withWorkspaceId(testWorkspace.getId())
+                                                        .withUserId(testUser.getId())
+                                                        .withRoles(singletonList("workspace/admin")),
+                                            new Member().withWorkspaceId("removed_workspace_id")
+                                                        .withUserId(testUser.getId())
+                                                        .withRoles(singletonList("workspace/developer")));
+        when(memberDao.getUserRelationships(testUser.getId())).thenReturn(members);
+        when(workspaceDao.getByIds(anyCollectionOf(String.class))).thenReturn(singletonList(testWorkspace));
+        prepareRole("workspace/admin");
+
+        final List<MemberDescriptor> descriptors = doGet(SERVICE_PATH + "/all");
+
+        assertEquals(descriptors.size(), 1);
+        assertEquals(descriptors.get(0).getWorkspaceReference().getId(), testWorkspace.getId());
+        verify(workspaceDao).getByIds(new LinkedHashSet<>(asList(testWorkspace.getId(), "removed_workspace_id")));
+        verify(workspaceDao, never()).getById(anyString());
+    }
+
     @Test
     public void shouldBeAbleToGetWorkspaceMember() throws Exception {
         final Workspace testWorkspace = createWorkspace();